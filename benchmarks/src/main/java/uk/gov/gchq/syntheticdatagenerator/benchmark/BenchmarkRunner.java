@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import uk.gov.gchq.syntheticdatagenerator.utils.Options;
+
+import java.io.File;
+import java.util.Arrays;
+
+/*****************************************************************************
+ * @class BenchmarkRunner
+ * @brief Ejecuta los benchmarks con cada numero de hilos y guarda un fichero JSON de resultados por ejecucion
+ * @details Uso: java -jar benchmarks.jar [--threads=1,2,4] [--formats=avro,json] [--types=alumno,pas]
+ * [--include=REGEX] [--result=DIR] [--forks=N] [--iterations=N] [--time=SEGUNDOS]. Siempre se activa el profiler de GC
+ * de JMH, que anade la tasa de asignacion (gc.alloc.rate.norm son los bytes asignados por registro) y el numero y
+ * tiempo de las recolecciones. Cada ejecucion escribe DIR/jmh-threadsN.json en el formato JSON de JMH
+ * @version 1.0
+ ****************************************************************************/
+public final class BenchmarkRunner {
+    private static final String DEFAULT_INCLUDE = BenchmarkRunner.class.getPackage().getName() + "\\..*Benchmark";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(final String... args) throws RunnerException {
+        Options options = Options.parse(Arrays.asList("result", "threads", "include", "formats", "types", "forks", "iterations",
+                "time"), args);
+        File resultDirectory = new File(options.getString("result", "benchmark-results"));
+        if (!resultDirectory.isDirectory() && !resultDirectory.mkdirs()) {
+            throw new IllegalArgumentException("Unable to create " + resultDirectory);
+        }
+        for (String threads : options.getString("threads", "1").split(",")) {
+            ChainedOptionsBuilder builder = new OptionsBuilder()
+                    .include(options.getString("include", DEFAULT_INCLUDE))
+                    .threads(Integer.parseInt(threads.trim()))
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(resultDirectory, "jmh-threads" + threads.trim() + ".json").getPath());
+            if (options.has("formats")) {
+                builder.param("format", options.getString("formats", "").split(","));
+            }
+            if (options.has("types")) {
+                builder.param("type", options.getString("types", "").split(","));
+            }
+            if (options.has("forks")) {
+                builder.forks(options.getInt("forks", 1));
+            }
+            if (options.has("iterations")) {
+                builder.measurementIterations(options.getInt("iterations", 5));
+            }
+            if (options.has("time")) {
+                builder.measurementTime(TimeValue.seconds(options.getLong("time", 2)));
+            }
+            new Runner(builder.build()).run();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/*****************************************************************************
+ * @class ByteCounter
+ * @brief Cuenta los bytes escritos por un benchmark, que JMH informa como megabytes por segundo
+ * @details Es un contador auxiliar de JMH: en los modos de throughput aparece como una metrica secundaria megabytes,
+ * junto a los registros por segundo de la metrica principal
+ * @version 1.0
+ ****************************************************************************/
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class ByteCounter {
+    private static final double MEGABYTE = 1024.0 * 1024.0;
+
+    public double megabytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        megabytes = 0.0;
+    }
+
+    /**
+     * @brief Suma los bytes de una operacion
+     * @param bytes Bytes escritos
+     */
+    public void add(final long bytes) {
+        megabytes += bytes / MEGABYTE;
+    }
+}
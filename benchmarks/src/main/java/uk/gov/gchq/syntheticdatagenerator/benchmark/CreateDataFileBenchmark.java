@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.benchmark;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.gchq.syntheticdatagenerator.CreateDataFile;
+import uk.gov.gchq.syntheticdatagenerator.output.DiscardingOutputSettings;
+import uk.gov.gchq.syntheticdatagenerator.output.OutputSettings;
+import uk.gov.gchq.syntheticdatagenerator.serialise.SerialiserFactory;
+import uk.gov.gchq.syntheticdatagenerator.serialise.Serialisers;
+import uk.gov.gchq.syntheticdatagenerator.types.PersonType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*****************************************************************************
+ * @class CreateDataFileBenchmark
+ * @brief Registros por segundo de CreateDataFile.call() de principio a fin, escribiendo en un sumidero nulo
+ * @details Mide la generacion, la serializacion, las etapas de salida y la contabilidad de cada fichero (checksum,
+ * nombre temporal y entrada del manifiesto) sin el coste del disco: los bytes llegan a un stream que los descarta y
+ * solo se crea un fichero vacio por cada uno que se escribiria. Con varios hilos de JMH cada hilo escribe sus propios
+ * ficheros a la vez, como el pool de CreateData
+ * @version 1.0
+ ****************************************************************************/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CreateDataFileBenchmark {
+    private static final int RECORDS = 10_000;
+
+    @Param({"avro", "json", "ndjson", "csv"})
+    public String format;
+
+    @Param({"alumno", "pas"})
+    public String type;
+
+    private final AtomicInteger threads = new AtomicInteger();
+    private File directory;
+    private SerialiserFactory factory;
+    private PersonType personType;
+    private OutputSettings settings;
+
+    /**
+     * @brief Nombre del fichero de cada hilo de JMH, que se sobrescribe en cada operacion
+     */
+    @State(Scope.Thread)
+    public static class ThreadFile {
+        private File file;
+
+        @Setup
+        public void setup(final CreateDataFileBenchmark benchmark) {
+            file = new File(benchmark.directory, "person_" + benchmark.type + "_file" + benchmark.threads.getAndIncrement()
+                    + benchmark.factory.getExtension());
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("benchmark").toFile();
+        factory = Serialisers.forName(format).orElseThrow(() -> new IllegalArgumentException("Unknown format " + format));
+        personType = PersonType.fromName(type).orElseThrow(() -> new IllegalArgumentException("Unknown type " + type));
+        settings = new DiscardingOutputSettings();
+    }
+
+    @TearDown
+    public void tearDown() {
+        FileUtils.deleteQuietly(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public Boolean call(final ThreadFile file) {
+        Boolean success = new CreateDataFile(RECORDS, 0L, 42L, file.file, factory, personType, settings).call();
+        if (!success) {
+            throw new IllegalStateException("Unable to write " + file.file);
+        }
+        return success;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.gchq.syntheticdatagenerator.types.Person;
+import uk.gov.gchq.syntheticdatagenerator.types.PersonType;
+
+import java.util.concurrent.TimeUnit;
+
+/*****************************************************************************
+ * @class PersonGenerationBenchmark
+ * @brief Tiempo de generacion de un registro completo de alumno o PAS
+ * @details Cada llamada genera el registro del indice siguiente con la misma semilla, como CreateDataFile, de modo que
+ * se recorren registros distintos y no uno que el JIT pueda dar por conocido
+ * @version 1.0
+ ****************************************************************************/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonGenerationBenchmark {
+    private static final long SEED = 42L;
+
+    @Param({"alumno", "pas"})
+    public String type;
+
+    private PersonType personType;
+    private long index;
+
+    @Setup
+    public void setup() {
+        personType = PersonType.fromName(type).orElseThrow(() -> new IllegalArgumentException("Unknown type " + type));
+    }
+
+    @Benchmark
+    public Person generate() {
+        return personType.generate(SEED, index++);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.benchmark;
+
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.gchq.syntheticdatagenerator.serialise.RecordWriter;
+import uk.gov.gchq.syntheticdatagenerator.serialise.Serialiser;
+import uk.gov.gchq.syntheticdatagenerator.serialise.SerialiserFactory;
+import uk.gov.gchq.syntheticdatagenerator.serialise.Serialisers;
+import uk.gov.gchq.syntheticdatagenerator.types.Person;
+import uk.gov.gchq.syntheticdatagenerator.types.PersonType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*****************************************************************************
+ * @class SerialiserBenchmark
+ * @brief Registros y megabytes por segundo de cada serialiser, sin contar la generacion ni el disco
+ * @details Los registros se generan una vez en el setup y cada operacion escribe un fichero completo de BATCH registros,
+ * con su cabecera y su cierre, en un stream que solo cuenta los bytes. La metrica principal son registros por segundo
+ * y la auxiliar megabytes son los MiB por segundo de salida
+ * @version 1.0
+ ****************************************************************************/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerialiserBenchmark {
+    private static final int BATCH = 1_000;
+
+    @Param({"avro", "json", "ndjson", "csv"})
+    public String format;
+
+    @Param({"alumno", "pas"})
+    public String type;
+
+    private Serialiser<Person> serialiser;
+    private List<Person> persons;
+
+    @Setup
+    public void setup() {
+        SerialiserFactory factory = Serialisers.forName(format).orElseThrow(() -> new IllegalArgumentException("Unknown format " + format));
+        PersonType personType = PersonType.fromName(type).orElseThrow(() -> new IllegalArgumentException("Unknown type " + type));
+        serialiser = factory.create(personType.getDomainClass());
+        persons = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            persons.add(personType.generate(42L, i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long serialise(final ByteCounter bytes) throws IOException {
+        CountingOutputStream output = new CountingOutputStream(new NullOutputStream());
+        try (RecordWriter<Person> writer = serialiser.open(output)) {
+            writer.write(persons);
+        }
+        bytes.add(output.getByteCount());
+        return output.getByteCount();
+    }
+}
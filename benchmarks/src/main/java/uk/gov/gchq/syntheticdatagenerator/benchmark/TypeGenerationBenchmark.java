@@ -0,0 +1,144 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.benchmark;
+
+import com.github.javafaker.Faker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.gchq.syntheticdatagenerator.types.Address;
+import uk.gov.gchq.syntheticdatagenerator.types.Alumno;
+import uk.gov.gchq.syntheticdatagenerator.types.BankDetails;
+import uk.gov.gchq.syntheticdatagenerator.types.BirthLocation;
+import uk.gov.gchq.syntheticdatagenerator.types.BirthLocationName;
+import uk.gov.gchq.syntheticdatagenerator.types.Campus;
+import uk.gov.gchq.syntheticdatagenerator.types.EmergencyContact;
+import uk.gov.gchq.syntheticdatagenerator.types.Grade;
+import uk.gov.gchq.syntheticdatagenerator.types.Mate;
+import uk.gov.gchq.syntheticdatagenerator.types.Nationality;
+import uk.gov.gchq.syntheticdatagenerator.types.PhoneNumber;
+import uk.gov.gchq.syntheticdatagenerator.types.Profesor;
+import uk.gov.gchq.syntheticdatagenerator.types.Relation;
+import uk.gov.gchq.syntheticdatagenerator.types.Sex;
+import uk.gov.gchq.syntheticdatagenerator.types.ThreadLocalFaker;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*****************************************************************************
+ * @class TypeGenerationBenchmark
+ * @brief Tiempo de cada metodo generate de los tipos que componen un registro
+ * @details Cada hilo tiene su propio Random y su Faker, como los hilos escritores. Los arboles de profesor y mate se
+ * miden con la profundidad maxima que usan Alumno y Pas, que es la que mas cuesta
+ * @version 1.0
+ ****************************************************************************/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeGenerationBenchmark {
+    private static final int TREE_DEPTH = 4;
+
+    private Random random;
+    private Faker faker;
+
+    @Setup
+    public void setup() {
+        random = new Random(42);
+        faker = ThreadLocalFaker.getFaker(random);
+    }
+
+    @Benchmark
+    public Address address() {
+        return Address.generate(faker);
+    }
+
+    @Benchmark
+    public BankDetails bankDetails() {
+        return BankDetails.generate(random);
+    }
+
+    @Benchmark
+    public BirthLocation birthLocation() {
+        return BirthLocation.generate(faker, random);
+    }
+
+    @Benchmark
+    public BirthLocationName birthLocationName() {
+        return BirthLocationName.generate(random);
+    }
+
+    @Benchmark
+    public Campus campus() {
+        return Campus.generate(random);
+    }
+
+    @Benchmark
+    public EmergencyContact[] emergencyContacts() {
+        return EmergencyContact.generateMany(faker, random);
+    }
+
+    @Benchmark
+    public Grade grade() {
+        return Grade.generate(random);
+    }
+
+    @Benchmark
+    public Nationality nationality() {
+        return Nationality.generate(random);
+    }
+
+    @Benchmark
+    public PhoneNumber[] phoneNumbers() {
+        return PhoneNumber.generateMany(random);
+    }
+
+    @Benchmark
+    public Profesor[] profesorTree() {
+        return Profesor.generateMany(random, TREE_DEPTH);
+    }
+
+    @Benchmark
+    public Mate[] mateTree() {
+        return Mate.generateMany(random, TREE_DEPTH);
+    }
+
+    @Benchmark
+    public Relation relation() {
+        return Relation.generate(random);
+    }
+
+    @Benchmark
+    public Sex sex() {
+        return Sex.generate(random);
+    }
+
+    @Benchmark
+    public String uid() {
+        return Alumno.generateUID(random);
+    }
+}
@@ -1,11 +0,0 @@
-package uk.gov.gchq.syntheticdatagenerator;
-
-public class CryptoException extends Exception {
- 
-  public CryptoException() {
-  }
-
-  public CryptoException(String message, Throwable throwable) {
-      super(message, throwable);
-  }
-}
\ No newline at end of file
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.syntheticdatagenerator.bench.BenchmarkReport;
+import uk.gov.gchq.syntheticdatagenerator.bench.Scenario;
+import uk.gov.gchq.syntheticdatagenerator.bench.ScenarioResult;
+import uk.gov.gchq.syntheticdatagenerator.bench.ScenarioRunner;
+import uk.gov.gchq.syntheticdatagenerator.utils.Options;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/*****************************************************************************
+ * @class BenchCompare
+ * @brief Ejecuta la matriz fija de rendimiento y la compara con una linea base guardada en el repositorio
+ * @details La matriz es tipo × formato × hilos × registros. Cada escenario se calienta y se mide varias veces, y el
+ * informe JSON guarda sus registros por segundo y sus bytes asignados por registro. Con
+ * --baseline se compara con la linea base y devuelve 1 si algun escenario empeora mas de la tolerancia, de modo que
+ * sirve de puerta en la integracion continua. Un escenario que empeora se vuelve a medir hasta --confirm veces antes de
+ * darlo por regresion, asi que el ruido de una medida no rompe la integracion pero una caida real se repite. Con --update-baseline el informe pasa a ser la nueva linea base.
+ * Una linea base medida con otro numero de procesadores u otra version de Java no se compara y devuelve 1, salvo con
+ * --allow-env-mismatch
+ * @version 1.0
+ ****************************************************************************/
+public final class BenchCompare {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BenchCompare.class);
+
+    private static final int MINIMUM_ARGS = 1;
+    private static final int RESULT_ARG = 0;
+    private static final String BASELINE_OPT = "baseline";
+    private static final String UPDATE_BASELINE_OPT = "update-baseline";
+    private static final String THROUGHPUT_TOLERANCE_OPT = "throughput-tolerance";
+    private static final String ALLOCATION_TOLERANCE_OPT = "allocation-tolerance";
+    private static final String WARMUP_OPT = "warmup";
+    private static final String MAX_WARMUP_OPT = "max-warmup";
+    private static final String ITERATIONS_OPT = "iterations";
+    private static final String SEED_OPT = "seed";
+    private static final String CONFIRM_OPT = "confirm";
+    private static final String TYPES_OPT = "types";
+    private static final String FORMATS_OPT = "formats";
+    private static final String THREADS_OPT = "threads";
+    private static final String RECORDS_OPT = "records";
+    private static final String ALLOW_ENV_MISMATCH_OPT = "allow-env-mismatch";
+    private static final List<String> OPTIONS = Arrays.asList(BASELINE_OPT, UPDATE_BASELINE_OPT,
+            THROUGHPUT_TOLERANCE_OPT, ALLOCATION_TOLERANCE_OPT, WARMUP_OPT, MAX_WARMUP_OPT, ITERATIONS_OPT, SEED_OPT,
+            CONFIRM_OPT, TYPES_OPT, FORMATS_OPT, THREADS_OPT, RECORDS_OPT, ALLOW_ENV_MISMATCH_OPT);
+
+    public static final String DEFAULT_TYPES = "alumno,pas";
+    public static final String DEFAULT_FORMATS = "avro,json,ndjson,csv";
+    public static final String DEFAULT_THREADS = "1,4";
+    public static final String DEFAULT_RECORDS = "1000,5000";
+    public static final double DEFAULT_THROUGHPUT_TOLERANCE = 0.20;
+    public static final double DEFAULT_ALLOCATION_TOLERANCE = 0.10;
+    private static final int DEFAULT_WARMUP = 10;
+    private static final int DEFAULT_MAX_WARMUP = 30;
+    private static final int DEFAULT_ITERATIONS = 5;
+    private static final long DEFAULT_SEED = 42L;
+    private static final int DEFAULT_CONFIRM = 2;
+
+    private BenchCompare() {
+    }
+
+    /**
+     * @brief main de la comparacion de rendimiento
+     * @param args Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
+     */
+    public static void main(final String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * @brief Compara los resultados sin terminar la JVM
+     * @param arguments Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
+     * @return 0 si ningun escenario empeora, 1 si hay alguna regresion o la ejecucion falla
+     */
+    public static int run(final String... arguments) {
+        try {
+            return run(Options.parse(OPTIONS, arguments));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Argumentos no validos: {}", e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int run(final Options options) {
+        String[] args = options.getPositional();
+        if (args.length < MINIMUM_ARGS) {
+            LOGGER.warn("Este metodo necesita 1 argumento. El fichero JSON donde se escriben los resultados. " +
+                    "Con --baseline=FICHERO se comparan con la linea base.");
+            return 1;
+        }
+        File resultFile = new File(args[RESULT_ARG]);
+        File baselineFile = options.has(BASELINE_OPT) ? new File(options.getString(BASELINE_OPT, "")) : null;
+        boolean updateBaseline = options.has(UPDATE_BASELINE_OPT);
+        if (updateBaseline && baselineFile == null) {
+            LOGGER.error("--{} needs --{}", UPDATE_BASELINE_OPT, BASELINE_OPT);
+            return 1;
+        }
+        double throughputTolerance = Double.parseDouble(options.getString(THROUGHPUT_TOLERANCE_OPT, String.valueOf(DEFAULT_THROUGHPUT_TOLERANCE)));
+        double allocationTolerance = Double.parseDouble(options.getString(ALLOCATION_TOLERANCE_OPT, String.valueOf(DEFAULT_ALLOCATION_TOLERANCE)));
+        List<Scenario> scenarios = Scenario.matrix(
+                split(options.getString(TYPES_OPT, DEFAULT_TYPES), Function.identity()),
+                split(options.getString(FORMATS_OPT, DEFAULT_FORMATS), Function.identity()),
+                split(options.getString(THREADS_OPT, DEFAULT_THREADS), Integer::valueOf),
+                split(options.getString(RECORDS_OPT, DEFAULT_RECORDS), Long::valueOf));
+        int confirm = options.getInt(CONFIRM_OPT, DEFAULT_CONFIRM);
+        int warmup = options.getInt(WARMUP_OPT, DEFAULT_WARMUP);
+        ScenarioRunner runner = new ScenarioRunner(warmup, options.getInt(MAX_WARMUP_OPT, Math.max(warmup, DEFAULT_MAX_WARMUP)),
+                options.getInt(ITERATIONS_OPT, DEFAULT_ITERATIONS), options.getLong(SEED_OPT, DEFAULT_SEED));
+
+        BenchmarkReport baseline = null;
+        if (baselineFile != null && !updateBaseline) {
+            try {
+                baseline = BenchmarkReport.read(baselineFile);
+            } catch (IOException e) {
+                LOGGER.error("Unable to read the baseline {}", baselineFile, e);
+                return 1;
+            }
+            // Records per second from another class of machine say nothing about this change, so the gate refuses them
+            // before spending minutes on the matrix
+            BenchmarkReport current = new BenchmarkReport();
+            if (baseline.getProcessors() != current.getProcessors() || !String.valueOf(baseline.getJavaVersion()).equals(current.getJavaVersion())) {
+                if (!options.has(ALLOW_ENV_MISMATCH_OPT)) {
+                    LOGGER.error("The baseline was measured with {} processors and Java {}, this run has {} processors and Java {}. " +
+                                    "Record the baseline on this machine with --{} or compare anyway with --{}", baseline.getProcessors(),
+                            baseline.getJavaVersion(), current.getProcessors(), current.getJavaVersion(), UPDATE_BASELINE_OPT,
+                            ALLOW_ENV_MISMATCH_OPT);
+                    return 1;
+                }
+                LOGGER.warn("The baseline was measured with {} processors and Java {}, this run with {} processors and Java {}",
+                        baseline.getProcessors(), baseline.getJavaVersion(), current.getProcessors(), current.getJavaVersion());
+            }
+        }
+        Map<String, ScenarioResult> expected = baseline == null ? Collections.emptyMap() : baseline.byKey();
+        BenchmarkReport report = new BenchmarkReport();
+        try {
+            for (Scenario scenario : scenarios) {
+                ScenarioResult result = runner.run(scenario);
+                ScenarioResult base = expected.get(scenario.getKey());
+                for (int attempt = 1; attempt <= confirm && base != null
+                        && !BenchmarkReport.compare(result, base, throughputTolerance, allocationTolerance).isEmpty(); attempt++) {
+                    LOGGER.info("{} is below the baseline, measuring it again ({} of {})", scenario.getKey(), attempt, confirm);
+                    result = result.best(runner.run(scenario));
+                }
+                LOGGER.info("{}: {} records/s, {} allocated bytes/record, {} output bytes/record", scenario.getKey(),
+                        String.format("%.0f", result.getRecordsPerSecond()), String.format("%.0f", result.getAllocatedBytesPerRecord()),
+                        String.format("%.0f", result.getOutputBytesPerRecord()));
+                report.addResult(result);
+            }
+            report.write(resultFile);
+            if (updateBaseline) {
+                report.write(baselineFile);
+                LOGGER.info("Updated the baseline {} with {} scenarios", baselineFile, scenarios.size());
+            }
+        } catch (IOException e) {
+            LOGGER.error("Unable to run the benchmark scenarios", e);
+            return 1;
+        }
+        if (baseline == null) {
+            return 0;
+        }
+        return compare(report, baseline, throughputTolerance, allocationTolerance);
+    }
+
+    private static int compare(final BenchmarkReport report, final BenchmarkReport baseline, final double throughputTolerance,
+                               final double allocationTolerance) {
+        int compared = 0;
+        for (String key : report.byKey().keySet()) {
+            if (baseline.byKey().containsKey(key)) {
+                compared++;
+            } else {
+                LOGGER.warn("{} has no baseline", key);
+            }
+        }
+        List<String> regressions = report.compare(baseline, throughputTolerance, allocationTolerance);
+        regressions.forEach(regression -> LOGGER.error(regression));
+        if (!regressions.isEmpty()) {
+            LOGGER.error("{} regressions in {} scenarios compared with the baseline", regressions.size(), compared);
+            return 1;
+        }
+        LOGGER.info("No regressions in {} scenarios compared with the baseline", compared);
+        return 0;
+    }
+
+    private static <T> List<T> split(final String values, final Function<String, T> parser) {
+        List<T> list = new ArrayList<>();
+        for (String value : values.split(",")) {
+            if (!value.trim().isEmpty()) {
+                list.add(parser.apply(value.trim()));
+            }
+        }
+        return list;
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.syntheticdatagenerator.uniqueness.FingerprintFilter;
+import uk.gov.gchq.syntheticdatagenerator.uniqueness.OffHeapBloomFilter;
+import uk.gov.gchq.syntheticdatagenerator.uniqueness.OffHeapHashSet;
+import uk.gov.gchq.syntheticdatagenerator.uniqueness.UidReader;
+import uk.gov.gchq.syntheticdatagenerator.utils.Options;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*****************************************************************************
+ * @class CheckUids
+ * @brief Comprueba que los UID de los ficheros generados son unicos, con memoria fija fuera del heap
+ * @details Lee los ficheros en paralelo en dos pasadas. En la primera añade la huella de 64 bits de cada UID a una
+ * tabla hash fuera del heap (o, con --bloom, a un filtro de Bloom) y guarda como candidatas las huellas que ya estaban.
+ * Solo si hay candidatas se hace una segunda pasada que cuenta los UID completos de esas huellas, de modo que los
+ * repetidos que se informan son exactos y el heap solo guarda las candidatas
+ * @version 1.0
+ ****************************************************************************/
+public final class CheckUids {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CheckUids.class);
+
+    private static final int MINIMUM_ARGS = 1;
+    private static final int PATH_ARG = 0;
+    private static final int NUM_THREADS_ARG = 1;
+    private static final String MEMORY_OPT = "memory";
+    private static final String BLOOM_OPT = "bloom";
+    private static final String BLOOM_HASHES_OPT = "bloom-hashes";
+    private static final String MAX_REPORT_OPT = "max-report";
+    private static final List<String> OPTIONS = Arrays.asList(MEMORY_OPT, BLOOM_OPT, BLOOM_HASHES_OPT, MAX_REPORT_OPT);
+    private static final long DEFAULT_MEMORY = 256L * 1024 * 1024;
+    private static final int DEFAULT_MAX_REPORT = 20;
+    private static final int MAX_LOCATIONS = 5;
+    private static final double MIB = 1024.0 * 1024.0;
+
+    private CheckUids() {
+    }
+
+    /**
+     * @brief main de la comprobacion de UID
+     * @param args Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
+     */
+    public static void main(final String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * @brief Comprueba los UID sin terminar la JVM
+     * @param arguments Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
+     * @return 0 si todos los UID son unicos, 1 si hay repetidos o un error
+     */
+    public static int run(final String... arguments) {
+        try {
+            return run(Options.parse(OPTIONS, arguments));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Argumentos no validos: {}", e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int run(final Options options) {
+        String[] args = options.getPositional();
+        if (args.length < MINIMUM_ARGS) {
+            LOGGER.warn("Este metodo necesita al menos 1 argumento. Un fichero o un directorio con ficheros avro, json o ndjson. " +
+                    "El segundo argumento es opcional y se trata del numero de hilos, por defecto el numero de procesadores.");
+            return 1;
+        }
+        List<File> files = listFiles(new File(args[PATH_ARG]));
+        if (files.isEmpty()) {
+            LOGGER.error("No avro, json or ndjson files found in {}", args[PATH_ARG]);
+            return 1;
+        }
+        int numberOfThreads = args.length > NUM_THREADS_ARG ? Integer.parseInt(args[NUM_THREADS_ARG]) : Runtime.getRuntime().availableProcessors();
+        long memory = options.getBytes(MEMORY_OPT, DEFAULT_MEMORY);
+        FingerprintFilter filter = options.has(BLOOM_OPT)
+                ? new OffHeapBloomFilter(memory, options.getInt(BLOOM_HASHES_OPT, OffHeapBloomFilter.DEFAULT_HASHES))
+                : new OffHeapHashSet(memory);
+        ExecutorService executors = Executors.newFixedThreadPool(numberOfThreads, CreateData.createDaemonThreadFactory());
+        try {
+            long startTime = System.nanoTime();
+            Set<Long> candidates = ConcurrentHashMap.newKeySet();
+            AtomicLong missing = new AtomicLong();
+            long records = scan(executors, files, (file, uid, record) -> {
+                if (uid == null) {
+                    missing.incrementAndGet();
+                    return;
+                }
+                long fingerprint = FingerprintFilter.fingerprint(uid);
+                if (filter.add(fingerprint)) {
+                    candidates.add(fingerprint);
+                }
+            });
+            long bytes = files.stream().mapToLong(File::length).sum();
+            double seconds = Math.max(System.nanoTime() - startTime, 1L) / 1e9;
+            LOGGER.info("Scanned {} records in {} files ({} MiB) in {} s: {} records/s, {} MiB/s",
+                    records, files.size(), String.format("%.1f", bytes / MIB), String.format("%.2f", seconds),
+                    String.format("%.0f", records / seconds), String.format("%.1f", bytes / MIB / seconds));
+            LOGGER.info("{} used {} MiB off heap and found {} candidate duplicates", filter.getClass().getSimpleName(),
+                    String.format("%.1f", filter.getMemoryBytes() / MIB), candidates.size());
+            if (missing.get() > 0) {
+                LOGGER.error("{} records have no uid", missing.get());
+            }
+            Map<String, List<String>> duplicates = candidates.isEmpty() ? Collections.emptyMap() : confirm(executors, files, candidates);
+            if (!duplicates.isEmpty()) {
+                long extra = duplicates.values().stream().mapToLong(locations -> locations.size() - 1).sum();
+                LOGGER.error("{} uids are repeated, {} records are duplicates", duplicates.size(), extra);
+                duplicates.entrySet().stream().limit(options.getInt(MAX_REPORT_OPT, DEFAULT_MAX_REPORT)).forEach(duplicate ->
+                        LOGGER.error("{} appears {} times: {}", duplicate.getKey(), duplicate.getValue().size(),
+                                duplicate.getValue().subList(0, Math.min(MAX_LOCATIONS, duplicate.getValue().size()))));
+                return 1;
+            }
+            LOGGER.info("All {} uids are unique", records - missing.get());
+            return missing.get() > 0 ? 1 : 0;
+        } catch (IllegalStateException | IOException e) {
+            LOGGER.error("Unable to check the uids", e);
+            return 1;
+        } finally {
+            executors.shutdownNow();
+        }
+    }
+
+    /**
+     * @brief Cuenta los UID completos de las huellas candidatas
+     * @return Los UID que aparecen mas de una vez, con la posicion fichero#registro de cada aparicion
+     */
+    private static Map<String, List<String>> confirm(final ExecutorService executors, final List<File> files, final Set<Long> candidates) throws IOException {
+        Map<String, List<String>> occurrences = new ConcurrentHashMap<>();
+        scan(executors, files, (file, uid, record) -> {
+            if (uid != null && candidates.contains(FingerprintFilter.fingerprint(uid))) {
+                occurrences.computeIfAbsent(uid, key -> Collections.synchronizedList(new ArrayList<>()))
+                        .add(file.getName() + "#" + record);
+            }
+        });
+        occurrences.values().removeIf(locations -> locations.size() < 2);
+        LOGGER.info("{} of {} candidates are false positives", candidates.size() - occurrences.size(), candidates.size());
+        return occurrences;
+    }
+
+    /**
+     * @brief Lee los UID de todos los ficheros en paralelo
+     * @return Numero total de registros
+     */
+    private static long scan(final ExecutorService executors, final List<File> files, final FileUidConsumer consumer) throws IOException {
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (File file : files) {
+            tasks.add(() -> UidReader.read(file, (uid, record) -> consumer.accept(file, uid, record)));
+        }
+        long records = 0;
+        try {
+            for (Future<Long> response : executors.invokeAll(tasks)) {
+                records += response.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading uids", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalStateException) {
+                throw (IllegalStateException) e.getCause();
+            }
+            throw new IOException("Unable to read uids", e.getCause());
+        }
+        return records;
+    }
+
+    private static List<File> listFiles(final File path) {
+        if (path.isFile()) {
+            return Collections.singletonList(path);
+        }
+        File[] files = path.listFiles((dir, name) -> UidReader.canRead(name) && !name.startsWith("manifest") && !name.endsWith(".tmp"));
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        Arrays.sort(files);
+        return Arrays.asList(files);
+    }
+
+    @FunctionalInterface
+    private interface FileUidConsumer {
+        void accept(File file, String uid, long record) throws IOException;
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.file.CodecFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.syntheticdatagenerator.output.OutputSettings;
+import uk.gov.gchq.syntheticdatagenerator.utils.Options;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*****************************************************************************
+ * @class CompactData
+ * @brief Une los ficheros avro pequeños de un directorio en ficheros mas grandes
+ * @details Agrupa los ficheros por esquema y, dentro de cada esquema, en grupos consecutivos segun el numero de ficheros
+ * o el tamaño pedidos. Cada grupo se une en un fichero con {@link CompactDataFile}, todos en paralelo
+ * @version 1.0
+ ****************************************************************************/
+public final class CompactData {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompactData.class);
+
+    private static final int MINIMUM_ARGS = 2;
+    private static final int INPUT_PATH_ARG = 0;
+    private static final int OUTPUT_PATH_ARG = 1;
+    private static final int NUM_THREADS_ARG = 2;
+
+    private static final String FILES_OPT = "files";
+    private static final String TARGET_SIZE_OPT = "target-size";
+    private static final String CODEC_OPT = "codec";
+    private static final String BUFFER_SIZE_OPT = "buffer-size";
+    private static final List<String> OPTIONS = Arrays.asList(FILES_OPT, TARGET_SIZE_OPT, CODEC_OPT, BUFFER_SIZE_OPT);
+    private static final String AVRO_EXTENSION = ".avro";
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+
+    private CompactData() {
+    }
+
+    /**
+     * @brief main de la herramienta de compactacion
+     * @param args Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
+     */
+    public static void main(final String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * @brief Ejecuta la compactacion sin terminar la JVM
+     * @param arguments Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
+     * @return 0 si se compactaron todos los ficheros, 1 en caso contrario
+     */
+    public static int run(final String... arguments) {
+        try {
+            return run(Options.parse(OPTIONS, arguments));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Argumentos no validos: {}", e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int run(final Options options) {
+        String[] args = options.getPositional();
+        if (args.length < MINIMUM_ARGS) {
+            LOGGER.warn("Este metodo necesita al menos 2 argumentos. El directorio con los ficheros avro a unir y el " +
+                    "directorio donde guardar los ficheros unidos. El tercer argumento es opcional y se trata del numero " +
+                    "de hilos, por defecto el numero de procesadores.");
+            return 1;
+        }
+        File inputDir = new File(args[INPUT_PATH_ARG]);
+        File outputDir = new File(args[OUTPUT_PATH_ARG]);
+        int numberOfThreads = args.length > NUM_THREADS_ARG ? Integer.parseInt(args[NUM_THREADS_ARG]) : Runtime.getRuntime().availableProcessors();
+        int filesPerSchema = options.getInt(FILES_OPT, 1);
+        long targetSize = options.getBytes(TARGET_SIZE_OPT, 0L);
+        CodecFactory codec = null;
+        if (options.has(CODEC_OPT)) {
+            try {
+                codec = CodecFactory.fromString(options.getString(CODEC_OPT, ""));
+            } catch (AvroRuntimeException e) {
+                LOGGER.warn("Codec desconocido {}", options.getString(CODEC_OPT, ""));
+                return 1;
+            }
+        }
+        File[] inputs = inputDir.listFiles((dir, name) -> name.endsWith(AVRO_EXTENSION));
+        if (inputs == null || inputs.length == 0) {
+            LOGGER.warn("No hay ficheros avro en {}", inputDir);
+            return 1;
+        }
+        if (!outputDir.exists() && !outputDir.mkdirs()) {
+            LOGGER.warn("Failed to create output directory {}", outputDir);
+            return 1;
+        }
+        Arrays.sort(inputs, naturalOrder());
+
+        long startTime = System.currentTimeMillis();
+        ExecutorService ioPool = Executors.newFixedThreadPool(numberOfThreads, CreateData.createDaemonThreadFactory());
+        ExecutorService executors = Executors.newFixedThreadPool(numberOfThreads, CreateData.createDaemonThreadFactory());
+        try {
+            OutputSettings settings = new OutputSettings();
+            settings.setIoExecutor(ioPool);
+            settings.setBufferSize(options.getIntBytes(BUFFER_SIZE_OPT, OutputSettings.DEFAULT_BUFFER_SIZE));
+            List<CompactDataFile> tasks = new ArrayList<>();
+            for (Map.Entry<Schema, List<File>> entry : groupBySchema(inputs).entrySet()) {
+                String prefix = "person_" + entry.getKey().getName().toLowerCase(Locale.ROOT) + "_compact";
+                List<List<File>> groups = group(entry.getValue(), filesPerSchema, targetSize);
+                for (int i = 0; i < groups.size(); i++) {
+                    tasks.add(new CompactDataFile(groups.get(i), new File(outputDir, prefix + i + AVRO_EXTENSION), codec, settings));
+                }
+            }
+            boolean success = true;
+            for (Future<Boolean> response : executors.invokeAll(tasks)) {
+                success &= response.get();
+            }
+            if (!success) {
+                return 1;
+            }
+            LOGGER.info("Took {}ms to compact {} files into {}", System.currentTimeMillis() - startTime, inputs.length, tasks.size());
+            return 0;
+        } catch (final Exception e) {
+            LOGGER.error(e.getLocalizedMessage());
+            Thread.currentThread().interrupt();
+            return 1;
+        } finally {
+            executors.shutdownNow();
+            ioPool.shutdownNow();
+        }
+    }
+
+    /**
+     * @brief Agrupa los ficheros por esquema manteniendo el orden
+     * @param inputs Ficheros avro ordenados
+     * @return Ficheros de cada esquema
+     * @throws IOException Fallo al leer la cabecera de un fichero
+     */
+    private static Map<Schema, List<File>> groupBySchema(final File[] inputs) throws IOException {
+        Map<Schema, List<File>> bySchema = new LinkedHashMap<>();
+        for (File input : inputs) {
+            bySchema.computeIfAbsent(CompactDataFile.readSchema(input), schema -> new ArrayList<>()).add(input);
+        }
+        return bySchema;
+    }
+
+    /**
+     * @brief Divide una lista de ficheros en grupos consecutivos de tamaño parecido
+     * @param files Ficheros ordenados
+     * @param maxGroups Numero maximo de grupos, se usa si targetSize es 0
+     * @param targetSize Tamaño objetivo de cada grupo en bytes, 0 para dividir en maxGroups grupos
+     * @return Grupos de ficheros, ninguno vacio
+     */
+    static List<List<File>> group(final List<File> files, final int maxGroups, final long targetSize) {
+        long limit = targetSize;
+        int groupLimit = Integer.MAX_VALUE;
+        if (limit <= 0) {
+            long total = files.stream().mapToLong(File::length).sum();
+            groupLimit = Math.max(1, maxGroups);
+            limit = Math.max(1L, (total + groupLimit - 1) / groupLimit);
+        }
+        List<List<File>> groups = new ArrayList<>();
+        List<File> current = new ArrayList<>();
+        long currentSize = 0L;
+        for (File file : files) {
+            if (!current.isEmpty() && currentSize + file.length() > limit && groups.size() + 1 < groupLimit) {
+                groups.add(current);
+                current = new ArrayList<>();
+                currentSize = 0L;
+            }
+            current.add(file);
+            currentSize += file.length();
+        }
+        groups.add(current);
+        return groups;
+    }
+
+    /**
+     * @brief Ordena los nombres comparando los numeros por su valor, de forma que file2 va antes que file10
+     * @return Comparador de ficheros
+     */
+    static Comparator<File> naturalOrder() {
+        return (a, b) -> {
+            Matcher ma = NUMBER.matcher(a.getName());
+            Matcher mb = NUMBER.matcher(b.getName());
+            String pa = NUMBER.matcher(a.getName()).replaceAll("#");
+            String pb = NUMBER.matcher(b.getName()).replaceAll("#");
+            int byText = pa.compareTo(pb);
+            if (byText != 0) {
+                return byText;
+            }
+            while (ma.find() && mb.find()) {
+                int byNumber = new BigInteger(ma.group()).compareTo(new BigInteger(mb.group()));
+                if (byNumber != 0) {
+                    return byNumber;
+                }
+            }
+            return a.getName().compareTo(b.getName());
+        };
+    }
+}
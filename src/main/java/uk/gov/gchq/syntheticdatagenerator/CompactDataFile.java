@@ -0,0 +1,149 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileConstants;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.syntheticdatagenerator.output.OutputSettings;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class CompactDataFile
+ * @brief Une varios ficheros avro con el mismo esquema en uno solo sin decodificar los registros
+ * @details Copia los bloques comprimidos de cada fichero de entrada tal cual con {@link DataFileWriter#appendAllFrom},
+ * por lo que la union va a la velocidad del disco. Si se pide otro codec los bloques se descomprimen y se vuelven a
+ * comprimir, pero los registros siguen sin decodificarse. Los ficheros de entrada con otro codec tambien se recomprimen.
+ * Como al generar, el fichero se escribe con un nombre temporal y solo toma su nombre final cuando esta completo
+ * @version 1.0
+ ****************************************************************************/
+public final class CompactDataFile implements Callable<Boolean> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompactDataFile.class);
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final List<File> inputFiles;
+    private final File outputFile;
+    private final CodecFactory codec;
+    private final OutputSettings settings;
+
+    /**
+     * @brief Constructor de la clase
+     * @param inputFiles Ficheros avro a unir, en el orden en que se copiaran
+     * @param outputFile Fichero de salida
+     * @param codec Codec de la salida, null para usar el del primer fichero de entrada
+     * @param settings Configuracion de salida, solo se usa para abrir el fichero
+     */
+    public CompactDataFile(final List<File> inputFiles, final File outputFile, final CodecFactory codec, final OutputSettings settings) {
+        requireNonNull(inputFiles, "inputFiles");
+        requireNonNull(outputFile, "outputFile");
+        requireNonNull(settings, "settings");
+        if (inputFiles.isEmpty()) {
+            throw new IllegalArgumentException("At least one input file is required");
+        }
+        this.inputFiles = Collections.unmodifiableList(new ArrayList<>(inputFiles));
+        this.outputFile = outputFile;
+        this.codec = codec;
+        this.settings = settings;
+    }
+
+    /**
+     * @brief Copia los bloques de todos los ficheros de entrada al fichero de salida
+     * @return True si la operacion fue exitosa, false en caso contrario
+     */
+    public Boolean call() {
+        File temp = new File(outputFile.getParentFile(), outputFile.getName() + TEMP_SUFFIX);
+        try {
+            copyBlocks(temp);
+            Files.move(temp.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.info("Compacted {} files into {}", inputFiles.size(), outputFile);
+            return true;
+        } catch (IOException ex) {
+            LOGGER.error("IOException when compacting into {}", outputFile, ex);
+            FileUtils.deleteQuietly(temp);
+            return false;
+        }
+    }
+
+    private void copyBlocks(final File file) throws IOException {
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>())) {
+            Schema schema = null;
+            for (File inputFile : inputFiles) {
+                try (DataFileStream<GenericRecord> input = open(inputFile)) {
+                    if (schema == null) {
+                        schema = input.getSchema();
+                        writer.setCodec(codec != null ? codec : inputCodec(input));
+                        writer.create(schema, settings.openFile(file));
+                    } else if (!schema.equals(input.getSchema())) {
+                        throw new IOException("Schema of " + inputFile + " differs from the schema of " + inputFiles.get(0));
+                    }
+                    // Blocks are copied as they are unless a codec was asked for or the input codec differs
+                    writer.appendAllFrom(input, codec != null);
+                }
+            }
+        }
+    }
+
+    public List<File> getInputFiles() {
+        return inputFiles;
+    }
+
+    public File getOutputFile() {
+        return outputFile;
+    }
+
+    /**
+     * @brief Lee el esquema de un fichero avro sin leer sus registros
+     * @param file Fichero avro
+     * @return Esquema del fichero
+     * @throws IOException Fallo al leer la cabecera
+     */
+    public static Schema readSchema(final File file) throws IOException {
+        try (DataFileStream<GenericRecord> input = open(file)) {
+            return input.getSchema();
+        }
+    }
+
+    private static DataFileStream<GenericRecord> open(final File file) throws IOException {
+        return new DataFileStream<>(new BufferedInputStream(new FileInputStream(file), READ_BUFFER_SIZE), new GenericDatumReader<GenericRecord>());
+    }
+
+    private static CodecFactory inputCodec(final DataFileStream<GenericRecord> input) {
+        String name = input.getMetaString(DataFileConstants.CODEC);
+        return CodecFactory.fromString(name == null ? DataFileConstants.NULL_CODEC : name);
+    }
+}
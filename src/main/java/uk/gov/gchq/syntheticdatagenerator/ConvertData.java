@@ -0,0 +1,312 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.syntheticdatagenerator.output.Manifest;
+import uk.gov.gchq.syntheticdatagenerator.output.ManifestEntry;
+import uk.gov.gchq.syntheticdatagenerator.serialise.RecordWriter;
+import uk.gov.gchq.syntheticdatagenerator.serialise.Serialiser;
+import uk.gov.gchq.syntheticdatagenerator.serialise.SerialiserFactory;
+import uk.gov.gchq.syntheticdatagenerator.serialise.SerialiserOptions;
+import uk.gov.gchq.syntheticdatagenerator.serialise.Serialisers;
+import uk.gov.gchq.syntheticdatagenerator.types.Person;
+import uk.gov.gchq.syntheticdatagenerator.types.PersonType;
+import uk.gov.gchq.syntheticdatagenerator.utils.Crc32c;
+import uk.gov.gchq.syntheticdatagenerator.utils.Options;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Checksum;
+import java.util.zip.GZIPInputStream;
+
+/*****************************************************************************
+ * @class ConvertData
+ * @brief Convierte los ficheros generados a otro formato sin volver a generarlos
+ * @details Cada fichero se lee con el deserialise de su formato y se escribe con el RecordWriter del formato de destino,
+ * en el mismo orden y con el mismo nombre base. Los ficheros se convierten en paralelo y, si se piden hilos de
+ * decodificacion, los bloques de los ficheros avro se decodifican en paralelo con como mucho --max-in-flight bloques en
+ * memoria por fichero. Si el directorio tiene manifiestos se escribe uno por cada uno con los nuevos ficheros, de modo
+ * que la salida se puede comprobar con VerifyData
+ * @version 1.0
+ ****************************************************************************/
+public final class ConvertData {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConvertData.class);
+
+    private static final int MINIMUM_ARGS = 3;
+    private static final int INPUT_ARG = 0;
+    private static final int OUT_PATH_ARG = 1;
+    private static final int FORMAT_ARG = 2;
+    private static final int NUM_THREADS_ARG = 3;
+    private static final String TYPE_OPT = "type";
+    private static final String DECODE_THREADS_OPT = "decode-threads";
+    private static final String MAX_IN_FLIGHT_OPT = "max-in-flight";
+    private static final List<String> OPTIONS = Arrays.asList(TYPE_OPT, DECODE_THREADS_OPT, MAX_IN_FLIGHT_OPT);
+    private static final String GZIP = ".gz";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private ConvertData() {
+    }
+
+    /**
+     * @brief main de la conversion
+     * @param args Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
+     */
+    public static void main(final String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * @brief Convierte los ficheros sin terminar la JVM
+     * @param arguments Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
+     * @return 0 si se convirtieron todos los ficheros, 1 en caso contrario
+     */
+    public static int run(final String... arguments) {
+        try {
+            return run(Options.parse(OPTIONS, arguments));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Argumentos no validos: {}", e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int run(final Options options) {
+        String[] args = options.getPositional();
+        if (args.length < MINIMUM_ARGS) {
+            LOGGER.warn("Este metodo necesita al menos 3 argumentos. Un fichero o un directorio con los ficheros generados, el directorio " +
+                    "de salida y el formato de destino. El cuarto argumento es opcional y se trata del numero de ficheros que se " +
+                    "convierten a la vez, por defecto el numero de procesadores.");
+            return 1;
+        }
+        File input = new File(args[INPUT_ARG]);
+        File outputDir = new File(args[OUT_PATH_ARG]);
+        Optional<SerialiserFactory> target = Serialisers.forName(args[FORMAT_ARG]);
+        if (!target.isPresent()) {
+            LOGGER.warn("Formato de salida desconocido {}. Los formatos disponibles son: {}", args[FORMAT_ARG], Serialisers.formatNames());
+            return 1;
+        }
+        if (!outputDir.exists() && !outputDir.mkdirs()) {
+            LOGGER.error("Failed to create output directory {}", outputDir);
+            return 1;
+        }
+        int numberOfThreads = args.length > NUM_THREADS_ARG ? Integer.parseInt(args[NUM_THREADS_ARG]) : Runtime.getRuntime().availableProcessors();
+        List<File> files = listFiles(input);
+        if (files.isEmpty()) {
+            LOGGER.error("No files of a known format found in {}", input);
+            return 1;
+        }
+        Map<String, Manifest> manifests;
+        try {
+            manifests = readManifests(input.isDirectory() ? input : input.getParentFile());
+        } catch (IOException e) {
+            LOGGER.error("Unable to read the manifests in {}", input, e);
+            return 1;
+        }
+        List<ExecutorService> pools = new ArrayList<>();
+        // The target options carry the avro encoding options, the source options the pool that decodes avro blocks
+        SerialiserOptions targetOptions = CreateData.createSerialiserOptions(options, pools);
+        SerialiserOptions sourceOptions = new SerialiserOptions();
+        int decodeThreads = options.getInt(DECODE_THREADS_OPT, 0);
+        if (decodeThreads > 0) {
+            ExecutorService decoders = Executors.newFixedThreadPool(decodeThreads, CreateData.createDaemonThreadFactory());
+            pools.add(decoders);
+            sourceOptions.setEncoderExecutor(decoders);
+            sourceOptions.setMaxInFlight(options.getInt(MAX_IN_FLIGHT_OPT, 2 * decodeThreads));
+        }
+        // Projected runs keep their selection of fields in the new format
+        manifests.values().stream().map(Manifest::getFields).filter(fields -> fields != null).findFirst().ifPresent(targetOptions::setFields);
+        ExecutorService executors = Executors.newFixedThreadPool(numberOfThreads, CreateData.createDaemonThreadFactory());
+        try {
+            long startTime = System.nanoTime();
+            List<Callable<ManifestEntry>> tasks = new ArrayList<>();
+            for (File file : files) {
+                PersonType type = findType(file.getName(), options.getString(TYPE_OPT, null), manifests.values());
+                if (type == null) {
+                    LOGGER.error("Unable to tell the type of {}, use --{}", file.getName(), TYPE_OPT);
+                    return 1;
+                }
+                tasks.add(() -> convert(file, outputDir, type, target.get(), sourceOptions, targetOptions));
+            }
+            Map<String, ManifestEntry> converted = new HashMap<>();
+            long records = 0;
+            for (Future<ManifestEntry> response : executors.invokeAll(tasks)) {
+                ManifestEntry entry = response.get();
+                converted.put(entry.getFile(), entry);
+                records += entry.getRecords();
+            }
+            writeManifests(outputDir, manifests, converted, target.get());
+            double seconds = Math.max(System.nanoTime() - startTime, 1L) / 1e9;
+            LOGGER.info("Converted {} records in {} files to {} in {} s: {} records/s", records, files.size(), target.get().getFormat(),
+                    String.format("%.2f", seconds), String.format("%.0f", records / seconds));
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.error("Interrupted while converting {}", input);
+            return 1;
+        } catch (ExecutionException | IOException e) {
+            LOGGER.error("Unable to convert {}", input, e instanceof ExecutionException ? e.getCause() : e);
+            return 1;
+        } finally {
+            executors.shutdownNow();
+            pools.forEach(ExecutorService::shutdownNow);
+        }
+    }
+
+    /**
+     * @brief Convierte un fichero, escribiendo bajo un nombre temporal que solo toma el definitivo al terminar
+     * @return Entrada del fichero convertido, con el nombre del fichero de origen y sus registros, bytes y checksum
+     */
+    private static ManifestEntry convert(final File file, final File outputDir, final PersonType type, final SerialiserFactory target,
+                                         final SerialiserOptions sourceOptions, final SerialiserOptions targetOptions) throws IOException {
+        String name = stripGzip(file.getName());
+        SerialiserFactory source = Serialisers.forFileName(name)
+                .orElseThrow(() -> new IOException("Unknown format of " + file));
+        File outputFile = new File(outputDir, name.substring(0, name.length() - source.getExtension().length()) + target.getExtension());
+        File temp = new File(outputDir, outputFile.getName() + TEMP_SUFFIX);
+        Serialiser<Person> reader = source.create(type.getDomainClass(), sourceOptions);
+        Serialiser<Person> writer = target.create(type.getDomainClass(), targetOptions);
+        Checksum checksum = Crc32c.create();
+        long[] records = {0L};
+        try (InputStream in = open(file);
+             Stream<Person> persons = reader.deserialise(in);
+             OutputStream out = new BufferedOutputStream(new CheckedOutputStream(new FileOutputStream(temp), checksum), BUFFER_SIZE);
+             RecordWriter<Person> output = writer.open(out)) {
+            output.write(persons.peek(person -> records[0]++).iterator());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp.toPath());
+            throw e;
+        }
+        Files.move(temp.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOGGER.info("Converted {} records of {} to {}", records[0], file.getName(), outputFile.getName());
+        ManifestEntry entry = new ManifestEntry(file.getName(), 0L, records[0], outputFile.length());
+        entry.setChecksum(Crc32c.toHex(checksum));
+        return entry;
+    }
+
+    /**
+     * @brief Escribe un manifiesto por cada manifiesto de origen, con los ficheros convertidos en lugar de los originales
+     */
+    private static void writeManifests(final File outputDir, final Map<String, Manifest> manifests, final Map<String, ManifestEntry> converted,
+                                       final SerialiserFactory target) throws IOException {
+        for (Map.Entry<String, Manifest> source : manifests.entrySet()) {
+            Manifest manifest = source.getValue();
+            List<ManifestEntry> files = new ArrayList<>();
+            for (ManifestEntry original : manifest.getFiles()) {
+                ManifestEntry entry = converted.get(original.getFile());
+                if (entry == null) {
+                    LOGGER.warn("{} is listed in {} but was not converted", original.getFile(), source.getKey());
+                    continue;
+                }
+                String name = stripGzip(original.getFile());
+                String extension = Serialisers.forFileName(name).map(SerialiserFactory::getExtension).orElse("");
+                ManifestEntry renamed = new ManifestEntry(name.substring(0, name.length() - extension.length()) + target.getExtension(),
+                        original.getFirstIndex(), original.getEndIndex(), entry.getBytes());
+                renamed.setChecksum(entry.getChecksum());
+                files.add(renamed);
+            }
+            manifest.setFormat(target.getFormat());
+            manifest.setChecksumAlgorithm(Crc32c.ALGORITHM);
+            manifest.setFiles(files);
+            manifest.write(new File(outputDir, source.getKey()));
+        }
+    }
+
+    /**
+     * @brief Tipo de persona de un fichero
+     * @param name Nombre del fichero, los de una poblacion se llaman person_<tipo>_file<i>
+     * @param option Tipo pasado con --type, null si no se paso
+     * @param manifests Manifiestos del directorio
+     * @return El tipo, o null si no se puede saber
+     */
+    private static PersonType findType(final String name, final String option, final Iterable<Manifest> manifests) {
+        if (option != null) {
+            return PersonType.fromName(option).orElse(null);
+        }
+        for (PersonType type : PersonType.values()) {
+            if (name.startsWith("person_" + type.getName() + "_")) {
+                return type;
+            }
+        }
+        for (Manifest manifest : manifests) {
+            Optional<PersonType> type = manifest.getType() == null ? Optional.empty() : PersonType.fromName(manifest.getType());
+            if (type.isPresent()) {
+                return type.get();
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, Manifest> readManifests(final File directory) throws IOException {
+        Map<String, Manifest> manifests = new LinkedHashMap<>();
+        String[] names = directory == null ? null : directory.list((dir, name) -> Manifest.isManifest(name));
+        if (names != null) {
+            Arrays.sort(names);
+            for (String name : names) {
+                manifests.put(name, Manifest.read(new File(directory, name)));
+            }
+        }
+        return manifests;
+    }
+
+    private static InputStream open(final File file) throws IOException {
+        return file.getName().endsWith(GZIP) ? new GZIPInputStream(new FileInputStream(file), BUFFER_SIZE)
+                : new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+    }
+
+    private static String stripGzip(final String name) {
+        return name.endsWith(GZIP) ? name.substring(0, name.length() - GZIP.length()) : name;
+    }
+
+    private static List<File> listFiles(final File path) {
+        if (path.isFile()) {
+            return Collections.singletonList(path);
+        }
+        File[] files = path.listFiles((dir, name) -> !Manifest.isManifest(name) && !name.endsWith(TEMP_SUFFIX)
+                && Serialisers.forFileName(stripGzip(name)).isPresent());
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        Arrays.sort(files);
+        return Arrays.asList(files);
+    }
+}
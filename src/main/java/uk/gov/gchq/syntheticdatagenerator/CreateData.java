@@ -16,17 +16,64 @@
 
 package uk.gov.gchq.syntheticdatagenerator;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.gov.gchq.syntheticdatagenerator.metrics.MetricsMBean;
+import uk.gov.gchq.syntheticdatagenerator.metrics.MetricsRegistry;
+import uk.gov.gchq.syntheticdatagenerator.metrics.MetricsReporter;
+import uk.gov.gchq.syntheticdatagenerator.output.Checkpoint;
+import uk.gov.gchq.syntheticdatagenerator.output.CompressionStage;
+import uk.gov.gchq.syntheticdatagenerator.output.EncryptionStage;
+import uk.gov.gchq.syntheticdatagenerator.output.Manifest;
+import uk.gov.gchq.syntheticdatagenerator.output.OutputSettings;
+import uk.gov.gchq.syntheticdatagenerator.output.OutputStage;
+import uk.gov.gchq.syntheticdatagenerator.output.Pacer;
+import uk.gov.gchq.syntheticdatagenerator.output.RollingPolicy;
+import uk.gov.gchq.syntheticdatagenerator.output.SyncPolicy;
+import uk.gov.gchq.syntheticdatagenerator.profile.Profile;
+import uk.gov.gchq.syntheticdatagenerator.serialise.SerialiserFactory;
+import uk.gov.gchq.syntheticdatagenerator.serialise.SerialiserOptions;
+import uk.gov.gchq.syntheticdatagenerator.serialise.Serialisers;
+import uk.gov.gchq.syntheticdatagenerator.types.GenerationSpec;
+import uk.gov.gchq.syntheticdatagenerator.types.PersonType;
+import uk.gov.gchq.syntheticdatagenerator.types.Population;
+import uk.gov.gchq.syntheticdatagenerator.utils.Crc32c;
+import uk.gov.gchq.syntheticdatagenerator.utils.Options;
+import uk.gov.gchq.syntheticdatagenerator.utils.Shard;
 
+import javax.management.JMException;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
 import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 /*****************************************************************************
  * @class CreateData
@@ -44,6 +91,53 @@ public final class CreateData {
     private static final int OPC_JSON = 2;
     private static final int NUM_THREADS_ARG = 5;
     private static final int PERSON_TYPE = 4;
+    // Options (--name=value)
+    private static final String COMPRESS_OPT = "compress";
+    private static final String COMPRESS_THREADS_OPT = "compress-threads";
+    private static final String COMPRESS_BLOCK_OPT = "compress-block";
+    private static final String COMPRESS_LEVEL_OPT = "compress-level";
+    private static final String ENCRYPT_KEY_OPT = "encrypt-key";
+    private static final String ENCRYPT_THREADS_OPT = "encrypt-threads";
+    private static final String ENCRYPT_CHUNK_OPT = "encrypt-chunk";
+    private static final String ROLL_SIZE_OPT = "roll-size";
+    private static final String ROLL_RECORDS_OPT = "roll-records";
+    private static final String BUFFER_SIZE_OPT = "buffer-size";
+    private static final String FSYNC_OPT = "fsync";
+    private static final String PREALLOCATE_OPT = "preallocate";
+    private static final String STREAM_OPT = "stream";
+    private static final String BATCH_SIZE_OPT = "batch-size";
+    private static final String ENCODE_THREADS_OPT = "encode-threads";
+    private static final String BLOCK_RECORDS_OPT = "block-records";
+    private static final String AVRO_CODEC_OPT = "avro-codec";
+    private static final String SEED_OPT = "seed";
+    private static final String RESUME_OPT = "resume";
+    private static final String SHARD_OPT = "shard";
+    private static final String CONTINUOUS_OPT = "continuous";
+    private static final String RATE_OPT = Pacer.RATE_KEY;
+    private static final String BYTE_RATE_OPT = Pacer.BYTE_RATE_KEY;
+    private static final String DURATION_OPT = "duration";
+    private static final String RATE_CONTROL_OPT = "rate-control";
+    private static final String REPORT_INTERVAL_OPT = "report-interval";
+    private static final String SPEC_OPT = "spec";
+    private static final String PROFILE_OPT = "profile";
+    private static final String METRICS_OPT = "metrics";
+    private static final String METRICS_INTERVAL_OPT = "metrics-interval";
+    private static final String JMX_OPT = "jmx";
+    private static final List<String> OPTIONS = Arrays.asList(COMPRESS_OPT, COMPRESS_THREADS_OPT, COMPRESS_BLOCK_OPT,
+            COMPRESS_LEVEL_OPT, ENCRYPT_KEY_OPT, ENCRYPT_THREADS_OPT, ENCRYPT_CHUNK_OPT, ROLL_SIZE_OPT,
+            ROLL_RECORDS_OPT, BUFFER_SIZE_OPT, FSYNC_OPT, PREALLOCATE_OPT, STREAM_OPT, BATCH_SIZE_OPT,
+            ENCODE_THREADS_OPT, BLOCK_RECORDS_OPT, AVRO_CODEC_OPT, SEED_OPT, RESUME_OPT, SHARD_OPT, CONTINUOUS_OPT,
+            RATE_OPT, BYTE_RATE_OPT, DURATION_OPT, RATE_CONTROL_OPT, REPORT_INTERVAL_OPT, SPEC_OPT, PROFILE_OPT,
+            METRICS_OPT, METRICS_INTERVAL_OPT, JMX_OPT);
+    private static final String STDOUT = "-";
+    private static final String TCP_SCHEME = "tcp://";
+    private static final int DEFAULT_BATCH_SIZE = 1_000;
+    private static final int PACED_BATCHES_PER_SECOND = 10;
+    private static final int PACED_BUFFER_SIZE = 64 * 1024;
+    private static final long DEFAULT_CONTINUOUS_ROLL_SIZE = 256L * 1024 * 1024;
+    private static final long DEFAULT_REPORT_INTERVAL = 10L;
+    private static final long RATE_CONTROL_POLL_MILLIS = 1_000L;
+    private static final long SHUTDOWN_GRACE_SECONDS = 30L;
 
     private CreateData() {
     }
@@ -52,7 +146,27 @@ public final class CreateData {
      * @brief main del programa, dependiendo de los valores pasados por la linea de comandos creara datos para el PAS o para Alumnos en formato avro o JSON
      * @param args Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
      */
-    public static int main(final String... args) {
+    public static void main(final String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * @brief Crea los datos sin terminar la JVM
+     * @param arguments Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
+     * @return 0 si se crearon todos los datos, 1 si los argumentos no son validos o la generacion falla
+     */
+    public static int run(final String... arguments) {
+        try {
+            return run(Options.parse(OPTIONS, arguments));
+        } catch (IllegalArgumentException e) {
+            // An unknown option or a value that is not a number is a usage error, not a failure with a stack trace
+            LOGGER.warn("Argumentos no validos: {}", e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int run(final Options options) {
+        String[] args = options.getPositional();
         if (args.length < MINIMUM_ARGS) {
             LOGGER.warn("Este metodo necesita al menos 5 argumentos. La direccion del directorio para guardar los archivos, " +
                     "el numero de alumnos para generar, -avro para formato avro o -json para json, el numero de archivos " +
@@ -64,43 +178,556 @@ public final class CreateData {
             // Required minimal arguments
             long numberOfPersons = Long.parseLong(args[NUM_ALUMNOS_ARG]);
             int numberOfFiles = Integer.parseInt(args[NUM_FILES_ARG]);
-            String personType = args[PERSON_TYPE];
+            // A single type, or a population such as alumno:4,pas:1 whose uids reference each other
+            boolean mixed = Population.isPopulation(args[PERSON_TYPE]);
+            Set<PersonType> types;
+            try {
+                types = mixed ? Population.parse(args[PERSON_TYPE], numberOfPersons, 0L).getTypes()
+                        : PersonType.fromName(args[PERSON_TYPE]).map(EnumSet::of).orElse(null);
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("Poblacion no valida {}: {}", args[PERSON_TYPE], e.getMessage());
+                return 1;
+            }
+            if (types == null) {
+                LOGGER.warn("Tipo de persona desconocido {}. Debe ser alumno, pas o una poblacion como alumno:4,pas:1", args[PERSON_TYPE]);
+                return 1;
+            }
+            PersonType personType = types.iterator().next();
+            if (mixed && (options.has(STREAM_OPT) || options.has(CONTINUOUS_OPT))) {
+                LOGGER.warn("Una poblacion se escribe en ficheros de un tipo cada uno y no admite --{} ni --{}", STREAM_OPT, CONTINUOUS_OPT);
+                return 1;
+            }
+            Shard shard = Shard.parse(options.getString(SHARD_OPT, Shard.ALL.toString()));
             // Default values
-            int numberOfThreads = numberOfFiles;
-            // avro o json
-            String opcion = args[OPC_JSON];
-            String extension;
-            if(Objects.equals(opcion, "-avro")) {
-                extension = ".avro";
-            } else {
-                extension = ".json";
+            int numberOfThreads = (int) Math.max(1, types.size() * (shard.end(numberOfFiles) - shard.first(numberOfFiles)));
+            // avro, json o cualquier otro formato registrado
+            Optional<SerialiserFactory> format = Serialisers.forName(args[OPC_JSON]);
+            if (!format.isPresent()) {
+                LOGGER.warn("Formato de salida desconocido {}. Los formatos disponibles son: {}", args[OPC_JSON], Serialisers.formatNames());
+                return 1;
             }
             // Optional additional arguments overriding default values
             if (args.length > MINIMUM_ARGS) {
                 numberOfThreads = Integer.parseInt(args[NUM_THREADS_ARG]);
             }
+            if ((options.has(RATE_OPT) || options.has(BYTE_RATE_OPT) || options.has(RATE_CONTROL_OPT))
+                    && (options.has(COMPRESS_OPT) || options.has(ENCRYPT_KEY_OPT))) {
+                // The stages keep their partial block on flush, so paced records would leave in block sized bursts
+                LOGGER.warn("Las opciones --{}, --{} y --{} no se pueden combinar con --{} ni con --{}", RATE_OPT, BYTE_RATE_OPT,
+                        RATE_CONTROL_OPT, COMPRESS_OPT, ENCRYPT_KEY_OPT);
+                return 1;
+            }
+            List<ExecutorService> outputPools = new ArrayList<>();
+            List<OutputStage> stages = createStages(options, outputPools);
+            if (stages == null) {
+                return 1;
+            }
+            OutputSettings settings = new OutputSettings();
+            settings.setStages(stages);
+            settings.setSerialiserOptions(createSerialiserOptions(options, outputPools));
+            if (options.has(SPEC_OPT)) {
+                GenerationSpec spec;
+                try {
+                    spec = GenerationSpec.read(new File(options.getString(SPEC_OPT, "")));
+                } catch (IOException | IllegalArgumentException e) {
+                    LOGGER.error("Unable to read the generation spec {}", options.getString(SPEC_OPT, ""), e);
+                    return 1;
+                }
+                if (types.size() != 1 || spec.getPersonType() != personType) {
+                    LOGGER.warn("La especificacion es de tipo {} y se pide generar {}", spec.getType(), args[PERSON_TYPE]);
+                    return 1;
+                }
+                // Excluded fields are neither generated nor written
+                settings.setGenerationSpec(spec);
+                settings.getSerialiserOptions().setFields(spec.isComplete() ? null : spec.getFieldNames());
+            }
+            File profileFile = null;
+            if (options.has(PROFILE_OPT)) {
+                if (options.getString(PROFILE_OPT, "").isEmpty() || options.has(STREAM_OPT)) {
+                    LOGGER.warn("La opcion --{} necesita un fichero de destino y no admite --{}", PROFILE_OPT, STREAM_OPT);
+                    return 1;
+                }
+                // Each file task profiles its own records and the profiles are merged once all of them finish
+                profileFile = new File(options.getString(PROFILE_OPT, ""));
+                settings.setProfiling(true);
+            }
+            settings.setRollingPolicy(new RollingPolicy(options.getBytes(ROLL_SIZE_OPT, 0L), options.getLong(ROLL_RECORDS_OPT, 0L)));
+            settings.setBufferSize(options.getIntBytes(BUFFER_SIZE_OPT, OutputSettings.DEFAULT_BUFFER_SIZE));
+            settings.setSyncPolicy(SyncPolicy.parse(options.getString(FSYNC_OPT, "none")));
+            if (options.has(PREALLOCATE_OPT)) {
+                // Without an explicit size the rolling size is the best estimate of each file's length
+                String preallocate = options.getString(PREALLOCATE_OPT, "");
+                settings.setPreallocateBytes(preallocate.isEmpty() ? settings.getRollingPolicy().getMaxBytes() : Options.parseBytes(preallocate));
+            }
+            // Without an explicit seed a random one is chosen and logged, so the run can still be repeated. A resumed
+            // run reuses the seed of the run it continues
+            long seed;
+            if (options.has(SEED_OPT)) {
+                seed = options.getLong(SEED_OPT, 0L);
+            } else if (options.has(RESUME_OPT)) {
+                File checkpointFile = new File(outputFilePath, Checkpoint.fileName(shard));
+                Long previous;
+                try {
+                    previous = checkpointSeed(checkpointFile);
+                } catch (IOException e) {
+                    LOGGER.error("Unable to read the checkpoint in {}", outputFilePath, e);
+                    return 1;
+                }
+                if (previous == null) {
+                    // A new random seed would overwrite the finished files with records of a different run
+                    LOGGER.error("No checkpoint with a seed at {}. Pass the seed of the interrupted run with --{} to resume it",
+                            checkpointFile, SEED_OPT);
+                    return 1;
+                }
+                seed = previous;
+            } else {
+                seed = new SecureRandom().nextLong();
+            }
+            if (!shard.isAll() && !options.has(SEED_OPT) && !options.has(RESUME_OPT)) {
+                // Every shard must use the same seed or their union would not be a single run
+                LOGGER.warn("La opcion --{} necesita --{}", SHARD_OPT, SEED_OPT);
+                return 1;
+            }
+            LOGGER.info("Using seed {}", seed);
+            // Avro markers are random unless derived from the seed, and separate runs must write the same bytes
+            settings.getSerialiserOptions().setSyncSeed(seed);
+            Pacer pacer = createPacer(options);
+            if (pacer != null) {
+                settings.setPacer(pacer);
+                if (options.has(CONTINUOUS_OPT)) {
+                    // The run ends when the duration is over or the process is told to stop
+                    numberOfPersons = Long.MAX_VALUE;
+                    if (!options.has(STREAM_OPT) && !settings.getRollingPolicy().isEnabled()) {
+                        settings.setRollingPolicy(new RollingPolicy(DEFAULT_CONTINUOUS_ROLL_SIZE, 0L));
+                    }
+                }
+            }
+            Map<PersonType, Long> counts = new EnumMap<>(PersonType.class);
+            if (mixed) {
+                Population population = Population.parse(args[PERSON_TYPE], numberOfPersons, seed);
+                settings.setPopulation(population);
+                for (PersonType type : types) {
+                    counts.put(type, population.getCount(type));
+                }
+                LOGGER.info("Population {}: {}", population, counts);
+            } else {
+                counts.put(personType, numberOfPersons);
+            }
+            List<Closeable> reporting = new ArrayList<>();
+            if (options.has(METRICS_OPT) || options.has(JMX_OPT)) {
+                try {
+                    settings.setMetrics(startMetrics(options, outputPools, reporting));
+                } catch (IOException | JMException e) {
+                    LOGGER.error("Unable to start the metrics", e);
+                    reporting.forEach(IOUtils::closeQuietly);
+                    outputPools.forEach(ExecutorService::shutdownNow);
+                    return 1;
+                }
+            }
             long startTime = System.currentTimeMillis();
-            ExecutorService executors = Executors.newFixedThreadPool(numberOfThreads, createDaemonThreadFactory());
-            CreateDataFile[] tasks = new CreateDataFile[numberOfFiles];
-            long personsPerFile = numberOfPersons / numberOfFiles;
-            for (int i = 0; i < numberOfFiles; i++) {
-                tasks[i] = new CreateDataFile(personsPerFile, i, new File(outputFilePath + "/person_" + personType + "_file" + i + extension), extension, personType);
+            boolean success;
+            ScheduledExecutorService pacing = pacer == null ? null : startPacing(pacer, options);
+            CountDownLatch finished = new CountDownLatch(1);
+            Thread shutdownHook = pacer == null ? null : new Thread(() -> {
+                // A terminated continuous run closes its current file or stream before the JVM exits
+                pacer.stop();
+                try {
+                    finished.await(SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            if (shutdownHook != null) {
+                Runtime.getRuntime().addShutdownHook(shutdownHook);
             }
             try {
-                List<Future<Boolean>> responses = executors.invokeAll(Arrays.asList(tasks));
-                for (Future<Boolean> response : responses) {
-                    response.get();
+                if (options.has(STREAM_OPT)) {
+                    String target = options.getString(STREAM_OPT, STDOUT);
+                    // A sharded stream carries the shard's slice of the record indexes
+                    success = createStream(target.isEmpty() ? STDOUT : target, shard.end(numberOfPersons) - shard.first(numberOfPersons),
+                            shard.first(numberOfPersons), seed, numberOfThreads,
+                            streamBatchSize(options, pacer), format.get(), personType, settings);
+                } else {
+                    success = createFiles(outputFilePath, counts, seed, numberOfFiles, shard, numberOfThreads, format.get(), settings,
+                            options.has(RESUME_OPT), profileFile);
+                }
+            } finally {
+                outputPools.forEach(ExecutorService::shutdownNow);
+                // The reporter writes a last line with the final values
+                reporting.forEach(IOUtils::closeQuietly);
+                if (pacing != null) {
+                    pacing.shutdownNow();
+                    LOGGER.info("Pacing summary: {}", pacer.summary());
                 }
-            } catch (final Exception e) {
-                LOGGER.error(e.getLocalizedMessage());
-                Thread.currentThread().interrupt();
+                finished.countDown();
+                removeShutdownHook(shutdownHook);
+            }
+            if (!success) {
+                return 1;
             }
             long endTime = System.currentTimeMillis();
-            LOGGER.info("Took {}ms to create {} persons" , (endTime - startTime), numberOfPersons);
+            LOGGER.info("Took {}ms to create {} persons" , (endTime - startTime), pacer == null ? numberOfPersons : pacer.getRecords());
         }
         return 0;
     }
 
+    /**
+     * @brief Reparte la generacion en ficheros, uno por tarea, que se ejecutan en un pool de hilos
+     * @details Los registros se reparten entre los ficheros de forma que sus tamaños difieran como mucho en uno, y de
+     * ellos solo se crean los del shard. Cada fichero terminado se registra en un {@link Checkpoint}. Si alguna tarea
+     * falla se devuelve false y el diario se conserva, de modo que con --resume solo se generan los ficheros que faltan.
+     * Cada tipo de una poblacion se reparte en sus propios ficheros
+     * @param counts Registros de cada tipo
+     * @param profileFile Fichero donde se escribe el perfil combinado de todas las tareas, null si no se perfila
+     * @return True si se crearon todos los ficheros y el manifiesto
+     */
+    private static boolean createFiles(final String outputFilePath, final Map<PersonType, Long> counts, final long seed, final int numberOfFiles, final Shard shard, final int numberOfThreads,
+                                       final SerialiserFactory format, final OutputSettings settings, final boolean resume, final File profileFile) {
+        File outputDir = new File(outputFilePath);
+        if (!outputDir.exists() && !outputDir.mkdirs()) {
+            LOGGER.warn("Failed to create output directory {}", outputDir);
+            return false;
+        }
+        String extension = format.getExtension() + settings.getStageExtension();
+        long numberOfPersons = counts.values().stream().mapToLong(Long::longValue).sum();
+        String typeName = settings.getPopulation() == null ? counts.keySet().iterator().next().getName() : settings.getPopulation().toString();
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put(SEED_OPT, Long.toString(seed));
+        parameters.put("persons", Long.toString(numberOfPersons));
+        parameters.put("files", Integer.toString(numberOfFiles));
+        parameters.put(SHARD_OPT, shard.toString());
+        parameters.put("type", typeName);
+        parameters.put("extension", extension);
+        parameters.put(ROLL_SIZE_OPT, Long.toString(settings.getRollingPolicy().getMaxBytes()));
+        parameters.put(ROLL_RECORDS_OPT, Long.toString(settings.getRollingPolicy().getMaxRecords()));
+        List<String> fields = settings.getSerialiserOptions().getFields();
+        parameters.put("fields", fields == null ? "all" : String.join(",", fields));
+        Checkpoint checkpoint;
+        try {
+            File checkpointFile = new File(outputDir, Checkpoint.fileName(shard));
+            checkpoint = resume ? Checkpoint.resume(checkpointFile, parameters) : Checkpoint.create(checkpointFile, parameters);
+        } catch (IOException e) {
+            LOGGER.error("Unable to open the checkpoint in {}", outputDir, e);
+            return false;
+        }
+        settings.setCheckpoint(checkpoint);
+        ExecutorService ioPool = Executors.newFixedThreadPool(numberOfThreads, createDaemonThreadFactory());
+        settings.setIoExecutor(ioPool);
+        ExecutorService executors = Executors.newFixedThreadPool(numberOfThreads, createDaemonThreadFactory());
+        if (settings.getMetrics() != null) {
+            settings.getMetrics().queueDepth("queue.io", ioPool);
+            settings.getMetrics().queueDepth("queue.files", executors);
+        }
+        // File numbers and record indexes are global, so the files of every shard together are those of a single run
+        int firstFile = (int) shard.first(numberOfFiles);
+        int endFile = (int) shard.end(numberOfFiles);
+        if (endFile == firstFile) {
+            LOGGER.warn("Shard {} has no files, use at least as many files as shards", shard);
+        }
+        List<CreateDataFile> taskList = new ArrayList<>();
+        for (Map.Entry<PersonType, Long> count : counts.entrySet()) {
+            PersonType personType = count.getKey();
+            for (int i = firstFile; i < endFile; i++) {
+                long firstIndex = Shard.split(count.getValue(), i, numberOfFiles);
+                long endIndex = Shard.split(count.getValue(), i + 1, numberOfFiles);
+                taskList.add(new CreateDataFile(endIndex - firstIndex, firstIndex, seed, new File(outputDir, "person_" + personType.getName() + "_file" + i + extension), format, personType, settings));
+            }
+        }
+        CreateDataFile[] tasks = taskList.toArray(new CreateDataFile[0]);
+        try {
+            boolean success = true;
+            List<Future<Boolean>> responses = executors.invokeAll(Arrays.asList(tasks));
+            for (Future<Boolean> response : responses) {
+                try {
+                    success &= response.get();
+                } catch (ExecutionException e) {
+                    LOGGER.error("File generation failed", e.getCause());
+                    success = false;
+                }
+            }
+            if (!success) {
+                LOGGER.error("Some files were not created. Run again with --{} to create only the missing files", RESUME_OPT);
+                return false;
+            }
+            Manifest manifest = new Manifest();
+            manifest.setSeed(seed);
+            manifest.setFormat(format.getFormat());
+            manifest.setType(typeName);
+            manifest.setShard(shard.isAll() ? null : shard.toString());
+            manifest.setFields(settings.getSerialiserOptions().getFields());
+            writeManifest(new File(outputDir, Manifest.fileName(shard)), manifest, tasks);
+            if (profileFile != null) {
+                writeProfile(profileFile, tasks);
+            }
+            checkpoint.delete();
+            return true;
+        } catch (InterruptedException e) {
+            LOGGER.error("Interrupted while creating files");
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (IOException e) {
+            LOGGER.error("Unable to write the manifest or the profile of {}", outputDir, e);
+            return false;
+        } finally {
+            executors.shutdownNow();
+            ioPool.shutdownNow();
+            IOUtils.closeQuietly(checkpoint);
+        }
+    }
+
+    /**
+     * @brief Escribe todos los registros en orden en la salida estandar, una FIFO o un socket TCP
+     * @param target "-" para la salida estandar, tcp://host:puerto para conectar a un socket o la ruta de una FIFO o fichero
+     * @return True si el stream se escribio completo
+     */
+    private static boolean createStream(final String target, final long numberOfPersons, final long firstIndex, final long seed, final int numberOfThreads, final int batchSize,
+                                        final SerialiserFactory format, final PersonType personType, final OutputSettings settings) {
+        ExecutorService generators = Executors.newFixedThreadPool(numberOfThreads, createDaemonThreadFactory());
+        if (settings.getMetrics() != null) {
+            settings.getMetrics().queueDepth("queue.generators", generators);
+        }
+        // Logging goes to stderr, so stdout only carries data. Standard output is never closed, a FIFO or socket is
+        try (OutputStream sink = openSink(target);
+             OutputStream paced = settings.getPacer() == null ? sink : settings.getPacer().wrap(sink);
+             // A paced stream keeps a small buffer so the sink sees the data close to its scheduled time
+             OutputStream buffered = new BufferedOutputStream(paced, settings.getPacer() == null ? settings.getBufferSize() : PACED_BUFFER_SIZE)) {
+            return new CreateDataStream(numberOfPersons, firstIndex, seed, buffered, format, personType, settings, generators, 2 * numberOfThreads, batchSize).call();
+        } catch (IOException e) {
+            LOGGER.error("Unable to write stream to {}", target, e);
+            return false;
+        } finally {
+            generators.shutdownNow();
+        }
+    }
+
+    /**
+     * @brief Abre el destino de un stream
+     * @param target "-" para la salida estandar, tcp://host:puerto o la ruta de una FIFO o fichero
+     * @return Stream del destino, al cerrarlo se cierra el socket
+     * @throws IOException Fallo al abrir el destino
+     */
+    private static OutputStream openSink(final String target) throws IOException {
+        if (STDOUT.equals(target)) {
+            return new CloseShieldOutputStream(new FileOutputStream(FileDescriptor.out));
+        }
+        if (target.startsWith(TCP_SCHEME)) {
+            URI uri = URI.create(target);
+            if (uri.getHost() == null || uri.getPort() < 0) {
+                throw new IOException("Expected " + TCP_SCHEME + "host:port but was " + target);
+            }
+            Socket socket = new Socket(uri.getHost(), uri.getPort());
+            socket.setTcpNoDelay(true);
+            return socket.getOutputStream();
+        }
+        return new FileOutputStream(target);
+    }
+
+    /**
+     * @brief Crea las metricas de la ejecucion y las publica por JMX o en un fichero JSON lines segun las opciones
+     * @param options Opciones de la linea de comandos
+     * @param outputPools Pools de las etapas de salida y de la codificacion, se mide la profundidad de sus colas
+     * @param reporting Recibe el informe periodico y el registro JMX, que se deben cerrar al terminar
+     * @return Las metricas
+     * @throws IOException Fallo al crear el fichero de metricas
+     * @throws JMException Fallo al registrar el MBean
+     */
+    private static MetricsRegistry startMetrics(final Options options, final List<ExecutorService> outputPools, final List<Closeable> reporting)
+            throws IOException, JMException {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.registerJvmGauges();
+        for (int i = 0; i < outputPools.size(); i++) {
+            metrics.queueDepth(MetricsRegistry.tagged("queue.output", Integer.toString(i)), outputPools.get(i));
+        }
+        if (options.has(JMX_OPT)) {
+            reporting.add(MetricsMBean.register(metrics, MetricsMBean.DEFAULT_NAME));
+        }
+        String file = options.getString(METRICS_OPT, "");
+        if (!file.isEmpty()) {
+            reporting.add(new MetricsReporter(metrics, new File(file), options.getLong(METRICS_INTERVAL_OPT, DEFAULT_REPORT_INTERVAL)));
+        }
+        return metrics;
+    }
+
+    /**
+     * @brief Crea el pacer si se pide un ritmo, una duracion o la generacion continua
+     * @param options Opciones de la linea de comandos
+     * @return El pacer, o null si se genera lo mas rapido posible
+     */
+    private static Pacer createPacer(final Options options) {
+        if (!options.has(CONTINUOUS_OPT) && !options.has(RATE_OPT) && !options.has(BYTE_RATE_OPT)
+                && !options.has(DURATION_OPT) && !options.has(RATE_CONTROL_OPT)) {
+            return null;
+        }
+        double rate = Double.parseDouble(options.getString(RATE_OPT, "0"));
+        long byteRate = options.getBytes(BYTE_RATE_OPT, 0L);
+        long duration = TimeUnit.SECONDS.toMillis(options.getLong(DURATION_OPT, 0L));
+        return new Pacer(rate, byteRate, duration);
+    }
+
+    /**
+     * @brief Registros por lote del modo stream
+     * @details Con un ritmo de registros y sin --batch-size cada lote cubre unos 100 ms del ritmo, para que los primeros
+     * registros no esperen a que se genere un lote entero
+     * @param options Opciones de la linea de comandos
+     * @param pacer Pacer de la ejecucion, o null si no se marca el ritmo
+     * @return Registros por lote
+     */
+    private static int streamBatchSize(final Options options, final Pacer pacer) {
+        if (options.has(BATCH_SIZE_OPT) || pacer == null || pacer.getRecordRate() <= 0) {
+            return options.getInt(BATCH_SIZE_OPT, DEFAULT_BATCH_SIZE);
+        }
+        return (int) Math.max(1, Math.min(DEFAULT_BATCH_SIZE, pacer.getRecordRate() / PACED_BATCHES_PER_SECOND));
+    }
+
+    /**
+     * @brief Programa los resumenes periodicos del ritmo real y, si se pide, la lectura del fichero de control
+     * @param pacer Pacer de la ejecucion
+     * @param options Opciones de la linea de comandos
+     * @return Hilo programado, se debe cerrar al terminar
+     */
+    private static ScheduledExecutorService startPacing(final Pacer pacer, final Options options) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(createDaemonThreadFactory());
+        long interval = options.getLong(REPORT_INTERVAL_OPT, DEFAULT_REPORT_INTERVAL);
+        if (interval > 0) {
+            scheduler.scheduleAtFixedRate(() -> LOGGER.info(pacer.report()), interval, interval, TimeUnit.SECONDS);
+        }
+        if (options.has(RATE_CONTROL_OPT)) {
+            File control = new File(options.getString(RATE_CONTROL_OPT, ""));
+            long[] lastModified = {0L};
+            scheduler.scheduleWithFixedDelay(() -> {
+                // The file is read whenever it changes, so the rate is adjusted by rewriting it
+                long modified = control.lastModified();
+                if (modified == 0L || modified == lastModified[0]) {
+                    return;
+                }
+                lastModified[0] = modified;
+                Properties properties = new Properties();
+                try (InputStream input = new FileInputStream(control)) {
+                    properties.load(input);
+                    if (pacer.update(properties)) {
+                        LOGGER.info("Rate changed to {} records/s and {} bytes/s", pacer.getRecordRate(), pacer.getByteRate());
+                    }
+                } catch (IOException | IllegalArgumentException e) {
+                    LOGGER.warn("Ignoring rate control file {}: {}", control, e.toString());
+                }
+            }, 0L, RATE_CONTROL_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return scheduler;
+    }
+
+    private static void removeShutdownHook(final Thread shutdownHook) {
+        if (shutdownHook == null) {
+            return;
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // The JVM is already shutting down and the hook is waiting for this run
+        }
+    }
+
+    /**
+     * @brief Lee la semilla del diario de la ejecucion que se reanuda
+     * @param checkpointFile Diario de la ejecucion anterior
+     * @return La semilla del diario, o null si no existe o no la tiene
+     * @throws IOException Fallo al leer el diario
+     */
+    private static Long checkpointSeed(final File checkpointFile) throws IOException {
+        String previous = Checkpoint.readParameters(checkpointFile).get(SEED_OPT);
+        return previous == null ? null : Long.valueOf(previous);
+    }
+
+    /**
+     * @brief Combina los perfiles de todas las tareas y los escribe como JSON
+     * @param profileFile Fichero de destino
+     * @param tasks Tareas terminadas
+     * @throws IOException Fallo al escribir el perfil
+     */
+    private static void writeProfile(final File profileFile, final CreateDataFile[] tasks) throws IOException {
+        Profile profile = new Profile();
+        for (CreateDataFile task : tasks) {
+            profile.merge(task.getProfile());
+        }
+        profile.write(profileFile);
+        LOGGER.info("Wrote the profile of {} records to {}", profile.getRecords(), profileFile);
+    }
+
+    /**
+     * @brief Escribe el manifiesto con los ficheros creados por todas las tareas
+     * @param manifestFile Fichero del manifiesto
+     * @param manifest Manifiesto con los datos de la ejecucion, se le añaden los ficheros
+     * @param tasks Tareas ya terminadas
+     * @throws IOException Fallo al escribir el manifiesto
+     */
+    private static void writeManifest(final File manifestFile, final Manifest manifest, final CreateDataFile[] tasks) throws IOException {
+        manifest.setChecksumAlgorithm(Crc32c.ALGORITHM);
+        for (CreateDataFile task : tasks) {
+            manifest.addFiles(task.getFiles());
+        }
+        manifest.write(manifestFile);
+        LOGGER.info("Wrote manifest of {} files to {}", manifest.getFiles().size(), manifestFile);
+    }
+
+    /**
+     * @brief Crea las etapas de salida pedidas con opciones en la linea de comandos
+     * @param options Opciones de la linea de comandos
+     * @param pools Lista donde se añaden los pools creados, para cerrarlos al terminar
+     * @return Etapas de salida en orden, o null si alguna opcion no es valida
+     */
+    private static List<OutputStage> createStages(final Options options, final List<ExecutorService> pools) {
+        List<OutputStage> stages = new ArrayList<>();
+        // Encryption is the stage closest to the file so that compression sees the plain data
+        if (options.has(ENCRYPT_KEY_OPT)) {
+            byte[] key;
+            try {
+                key = EncryptionStage.readKey(new File(options.getString(ENCRYPT_KEY_OPT, "")));
+            } catch (IOException e) {
+                LOGGER.warn("Clave de cifrado no valida: {}", e.getMessage());
+                return null;
+            }
+            int threads = options.getInt(ENCRYPT_THREADS_OPT, Runtime.getRuntime().availableProcessors());
+            ExecutorService encryptors = Executors.newFixedThreadPool(threads, createDaemonThreadFactory());
+            pools.add(encryptors);
+            stages.add(new EncryptionStage(key, encryptors,
+                    options.getIntBytes(ENCRYPT_CHUNK_OPT, EncryptionStage.DEFAULT_CHUNK_SIZE), 2 * threads));
+        }
+        if (options.has(COMPRESS_OPT)) {
+            String codec = options.getString(COMPRESS_OPT, "gzip");
+            if (!codec.isEmpty() && !"gzip".equals(codec)) {
+                LOGGER.warn("Compresion desconocida {}. Solo se admite gzip", codec);
+                return null;
+            }
+            int threads = options.getInt(COMPRESS_THREADS_OPT, Runtime.getRuntime().availableProcessors());
+            ExecutorService compressors = Executors.newFixedThreadPool(threads, createDaemonThreadFactory());
+            pools.add(compressors);
+            stages.add(new CompressionStage(compressors,
+                    options.getIntBytes(COMPRESS_BLOCK_OPT, CompressionStage.DEFAULT_BLOCK_SIZE),
+                    options.getInt(COMPRESS_LEVEL_OPT, CompressionStage.DEFAULT_LEVEL),
+                    2 * threads));
+        }
+        return stages;
+    }
+
+    /**
+     * @brief Crea las opciones de los serialisers, con un pool de codificadores si se piden hilos de codificacion
+     * @param options Opciones de la linea de comandos
+     * @param pools Lista donde se añaden los pools creados, para cerrarlos al terminar
+     * @return Opciones de los serialisers
+     */
+    static SerialiserOptions createSerialiserOptions(final Options options, final List<ExecutorService> pools) {
+        SerialiserOptions serialiserOptions = new SerialiserOptions();
+        serialiserOptions.setCodec(options.getString(AVRO_CODEC_OPT, "null"));
+        serialiserOptions.setBlockRecords(options.getInt(BLOCK_RECORDS_OPT, SerialiserOptions.DEFAULT_BLOCK_RECORDS));
+        int threads = options.getInt(ENCODE_THREADS_OPT, 0);
+        if (threads > 0) {
+            ExecutorService encoders = Executors.newFixedThreadPool(threads, createDaemonThreadFactory());
+            pools.add(encoders);
+            serialiserOptions.setEncoderExecutor(encoders);
+            serialiserOptions.setMaxInFlight(2 * threads);
+        }
+        return serialiserOptions;
+    }
+
     /**
      * @brief Crea un {@link ThreadFactory} que crea hilos daemon que previenen que JVM cierre
      * @return a daemon thread factory
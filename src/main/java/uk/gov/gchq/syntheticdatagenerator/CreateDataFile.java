@@ -16,22 +16,37 @@
 
 package uk.gov.gchq.syntheticdatagenerator;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.CountingOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import uk.gov.gchq.syntheticdatagenerator.serialise.AvroSerialiser;
-import uk.gov.gchq.syntheticdatagenerator.serialise.JSONSerialiser;
+import uk.gov.gchq.syntheticdatagenerator.jfr.JfrEvents;
+import uk.gov.gchq.syntheticdatagenerator.metrics.Counter;
+import uk.gov.gchq.syntheticdatagenerator.metrics.LatencyHistogram;
+import uk.gov.gchq.syntheticdatagenerator.metrics.MetricsRegistry;
+import uk.gov.gchq.syntheticdatagenerator.output.Checkpoint;
+import uk.gov.gchq.syntheticdatagenerator.output.ManifestEntry;
+import uk.gov.gchq.syntheticdatagenerator.output.OutputSettings;
+import uk.gov.gchq.syntheticdatagenerator.output.Pacer;
+import uk.gov.gchq.syntheticdatagenerator.output.RollingPolicy;
+import uk.gov.gchq.syntheticdatagenerator.profile.Profile;
+import uk.gov.gchq.syntheticdatagenerator.serialise.RecordWriter;
 import uk.gov.gchq.syntheticdatagenerator.serialise.Serialiser;
+import uk.gov.gchq.syntheticdatagenerator.serialise.SerialiserFactory;
 import uk.gov.gchq.syntheticdatagenerator.types.*;
+import uk.gov.gchq.syntheticdatagenerator.utils.Crc32c;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.ByteBuffer;
-import java.security.SecureRandom;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Stream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Checksum;
 
 /*****************************************************************************
  * @class CreateDataFile
@@ -43,27 +58,37 @@ public final class CreateDataFile implements Callable<Boolean> {
     private static final Logger LOGGER = LoggerFactory.getLogger(CreateDataFile.class);
     // When a large number of Alumnos are requested, print the progress as feedback that the process has not frozen
     private static final long PRINT_EVERY = 100_000L;
-    private static final String ALUMNO = "alumno";
+    private static final String TEMP_SUFFIX = ".tmp";
 
     private final long numberOfPersons;
-    private final SecureRandom random;
+    private final long firstIndex;
+    private final long seed;
     private final File outputFile;
-    private final String extension;
-    private final String type;
+    private final SerialiserFactory format;
+    private final PersonType type;
+    private final OutputSettings settings;
+    private final List<ManifestEntry> files = new ArrayList<>();
+    private final Profile profile;
 
     /**
      * @brief Constructor de la clase, asigna varios de los valores pasados por la linea de comandos y la semilla que generara los datos
      * @param numberOfPersons Numero de alumnos a generar
-     * @param seed Semilla que se utilizara para generar los datos aleatorios
-     * @param outputFile Fichero de salida
-     * @param extension Extension del fichero de salida
+     * @param firstIndex Indice global del primer registro de este fichero
+     * @param seed Semilla de la ejecucion, cada registro se genera a partir de ella y de su indice global
+     * @param outputFile Fichero de salida, o nombre base de las partes si se dividen por tamaño
+     * @param format Formato del fichero de salida
+     * @param type Tipo de persona a generar (alumno / pas)
+     * @param settings Configuracion de salida compartida por todos los ficheros
      */
-    public CreateDataFile(final long numberOfPersons, final long seed, final File outputFile, final String extension, final String type) {
+    public CreateDataFile(final long numberOfPersons, final long firstIndex, final long seed, final File outputFile, final SerialiserFactory format, final PersonType type, final OutputSettings settings) {
         this.numberOfPersons = numberOfPersons;
-        this.random = new SecureRandom(longToBytes(seed));
+        this.firstIndex = firstIndex;
+        this.seed = seed;
         this.outputFile = outputFile;
-        this.extension = extension;
+        this.format = format;
         this.type = type;
+        this.settings = settings;
+        this.profile = settings.isProfiling() ? new Profile() : null;
     }
 
     /**
@@ -78,77 +103,201 @@ public final class CreateDataFile implements Callable<Boolean> {
             }
         }
 
-        try (OutputStream out = new FileOutputStream(outputFile)) {
-            // Need at least one Alumno or one Pas
-            Stream<Person> personStream = null;
-
-            if (type.equals(ALUMNO)) {
-                Alumno firstPerson = Alumno.generate(random);
-                Profesor[] profesors = firstPerson.getProfesor();
-                profesors[0].setUid("Bob");
-                firstPerson.setProfesor(profesors);
-                personStream = Stream.of(firstPerson);
-            } else {
-                Pas firstPerson = Pas.generate(random);
-                Mate[] mates = firstPerson.getMate();
-                mates[0].setUid("Bob");
-                firstPerson.setMate(mates);
-                personStream = Stream.of(firstPerson);
+        // Serialise persons to output, rolling to a new part when the policy says so
+        Serialiser<Person> personSerialiser = format.create(type.getDomainClass(), settings.getSerialiserOptions());
+        RollingPolicy rollingPolicy = settings.getRollingPolicy();
+        Checkpoint checkpoint = settings.getCheckpoint();
+        Pacer pacer = settings.getPacer();
+        long endIndex = firstIndex + numberOfPersons;
+        long index = firstIndex;
+        int part = 0;
+        if (checkpoint != null) {
+            // Files committed by an earlier run are kept, generation restarts after the last of them
+            List<ManifestEntry> completed = checkpoint.getCompleted(firstIndex, endIndex);
+            for (ManifestEntry entry : completed) {
+                files.add(entry);
+                index = entry.getEndIndex();
             }
-
-            // Create more Alumnos/Pas if needed
-            if (numberOfPersons > 1) {
-                personStream = Stream.concat(personStream, generateStreamOfPersons());
+            part = completed.size();
+            if (index == endIndex) {
+                LOGGER.info("Skipping {}, already completed", outputFile.getName());
+                return true;
             }
-
-            // Serialise stream to output
-            Serialiser<Person> personSerialiser;
-            if (extension.equals(".avro")) {
-                if (type.equals(ALUMNO)) {
-                    Serialiser<Alumno> alumnoSerialiser = null;
-                    alumnoSerialiser = new AvroSerialiser<>(Alumno.class);
-                    alumnoSerialiser.serialise(personStream, out);
-                } else {
-                    Serialiser<Pas> pasSerialiser = null;
-                    pasSerialiser = new AvroSerialiser<>(Pas.class);
-                    pasSerialiser.serialise(personStream, out);
+        }
+        LOGGER.info("Generating {} Persons", endIndex - index);
+        FileMetrics metrics = settings.getMetrics() == null ? null : new FileMetrics(settings.getMetrics());
+        File temp = null;
+        try {
+            while (index < endIndex && !isStopped(pacer)) {
+                File file = rollingPolicy.isEnabled() ? partFile(part++) : outputFile;
+                // Files are written under a temporary name and only take their final name once complete
+                temp = new File(file.getParentFile(), file.getName() + TEMP_SUFFIX);
+                long partStart = index;
+                Object fileEvent = JfrEvents.beginFileWrite();
+                // The checksum covers the bytes as they reach the file, after every output stage
+                Checksum checksum = Crc32c.create();
+                CountingOutputStream counter = new CountingOutputStream(new CheckedOutputStream(settings.openFile(temp), checksum));
+                try (OutputStream out = settings.wrapStages(counter);
+                     RecordWriter<Person> writer = personSerialiser.open(out)) {
+                    do {
+                        long start = metrics == null ? 0L : System.nanoTime();
+                        Person person = generatePerson(index);
+                        if (metrics != null) {
+                            metrics.recordGenerated(start);
+                        }
+                        if (pacer != null) {
+                            pacer.paceRecord(writer);
+                        }
+                        Object serialiseEvent = JfrEvents.beginRecordSerialise();
+                        writer.write(person);
+                        JfrEvents.commitRecordSerialise(serialiseEvent, format.getFormat());
+                        if (metrics != null) {
+                            metrics.serialised.increment();
+                        }
+                        if (profile != null) {
+                            profile.observe(person);
+                        }
+                        index++;
+                        // A paced run is reported by its pacer
+                        if (pacer == null && (index - firstIndex) % PRINT_EVERY == 0) {
+                            LOGGER.info("Processing {} of {}", index - firstIndex, numberOfPersons);
+                        }
+                    } while (index < endIndex && !rollingPolicy.shouldRoll(index - partStart, counter.getByteCount()) && !isStopped(pacer));
+                }
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                temp = null;
+                ManifestEntry entry = new ManifestEntry(file.getName(), partStart, index, counter.getByteCount());
+                entry.setChecksum(Crc32c.toHex(checksum));
+                JfrEvents.commitFileWrite(fileEvent, entry.getFile(), format.getFormat(), entry.getRecords(), entry.getBytes());
+                if (checkpoint != null) {
+                    checkpoint.commit(entry);
+                }
+                files.add(entry);
+                if (metrics != null) {
+                    metrics.recordWritten(entry);
                 }
-            } else if (extension.equals(".json")) {
-                personSerialiser = new JSONSerialiser<>(Person.class);
-                personSerialiser.serialise(personStream, out);
             }
             return true;
         } catch (IOException ex) {
-            LOGGER.error("IOException when serialising Alumno to Avro", ex);
+            LOGGER.error("IOException when serialising persons to {}", format.getFormat(), ex);
+            if (temp != null) {
+                FileUtils.deleteQuietly(temp);
+            }
             return false;
         }
     }
 
     /**
-     * @brief Genera el numero de alumnos pedidos por la linea de comandos
-     * @return Devuelve todos los datos que se han generado en forma de Stream
+     * @brief Devuelve los ficheros escritos por esta tarea, incluidos los de una ejecucion anterior que se reanuda,
+     * disponible cuando termina {@link #call()}
+     * @return Ficheros escritos con su rango de registros y tamaño
      */
-    private Stream<Person> generateStreamOfPersons() {
-        LOGGER.info("Generating {} Persons", numberOfPersons);
-        final AtomicLong counter = new AtomicLong(0);
-        Stream<Person> personStream = Stream.generate(() -> {
-            if (counter.incrementAndGet() % PRINT_EVERY == 0) {
-                LOGGER.info("Processing {} of {}", counter.get(), numberOfPersons);
-            }
-            return type.equals(ALUMNO) ? Alumno.generate(random) : Pas.generate(random);
-        });
-        // Excluding the one Alumno we had to generate above
-        return personStream.limit(numberOfPersons - 1);
+    public List<ManifestEntry> getFiles() {
+        return Collections.unmodifiableList(files);
+    }
+
+    /**
+     * @brief Devuelve el perfil de los registros generados por esta tarea, sin los de una ejecucion anterior que se
+     * reanuda, disponible cuando termina {@link #call()}
+     * @return El perfil, o null si la configuracion no pide perfiles
+     */
+    public Profile getProfile() {
+        return profile;
+    }
+
+    /**
+     * @brief Metricas que actualiza una tarea, buscadas una sola vez en el registro
+     */
+    private final class FileMetrics {
+        private final Counter generated;
+        private final Counter threadGenerated;
+        private final Counter serialised;
+        private final Counter written;
+        private final Counter fileWritten;
+        private final Counter fileBytes;
+        private final LatencyHistogram latency;
+
+        private FileMetrics(final MetricsRegistry registry) {
+            // A task runs on a single thread of the pool, so its thread keeps the same counter for the whole file
+            String thread = Thread.currentThread().getName();
+            String file = outputFile.getName();
+            this.generated = registry.counter(MetricsRegistry.RECORDS_GENERATED);
+            this.threadGenerated = registry.counter(MetricsRegistry.tagged(MetricsRegistry.RECORDS_GENERATED, thread));
+            this.serialised = registry.counter(MetricsRegistry.RECORDS_SERIALISED);
+            this.written = registry.counter(MetricsRegistry.RECORDS_WRITTEN);
+            this.fileWritten = registry.counter(MetricsRegistry.tagged(MetricsRegistry.RECORDS_WRITTEN, file));
+            this.fileBytes = registry.counter(MetricsRegistry.tagged(MetricsRegistry.BYTES_WRITTEN, file));
+            this.latency = registry.histogram(MetricsRegistry.GENERATE_LATENCY);
+        }
+
+        private void recordGenerated(final long startNanos) {
+            latency.recordSince(startNanos);
+            generated.increment();
+            threadGenerated.increment();
+        }
+
+        /**
+         * @brief Cuenta los registros y bytes de un fichero terminado, los registros solo estan escritos cuando el
+         * fichero toma su nombre definitivo
+         */
+        private void recordWritten(final ManifestEntry entry) {
+            written.add(entry.getRecords());
+            fileWritten.add(entry.getRecords());
+            fileBytes.add(entry.getBytes());
+        }
+    }
+
+    private static boolean isStopped(final Pacer pacer) {
+        return pacer != null && pacer.isStopped();
     }
 
     /**
-     * @brief Cambia un valor en long a bytes
-     * @param x Numero long
-     * @return El valor del long en bytes
+     * @brief Calcula el nombre de una parte insertando _part<n> antes de la extension
+     * @param part Numero de parte
+     * @return Fichero de la parte
      */
-    private byte[] longToBytes(long x) {
-        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
-        buffer.putLong(x);
-        return buffer.array();
+    private File partFile(final int part) {
+        String extension = format.getExtension() + settings.getStageExtension();
+        String name = outputFile.getName();
+        String base = name.endsWith(extension) ? name.substring(0, name.length() - extension.length()) : name;
+        return new File(outputFile.getParentFile(), base + "_part" + part + extension);
+    }
+
+    /**
+     * @brief Genera la persona de un indice global. La primera persona de cada fichero tiene un profesor o compañero
+     * con uid "Bob", para que siempre exista al menos uno
+     * @param index Indice global del registro
+     * @return La persona generada
+     */
+    private Person generatePerson(final long index) {
+        Population population = settings.getPopulation();
+        if (population != null) {
+            // Every uid of a population record resolves to a generated record, so there is no Bob
+            return population.generate(type, index, settings.getGenerationSpec());
+        }
+        Person person = type.generate(seed, index, settings.getGenerationSpec());
+        if (index == firstIndex) {
+            addBob(person);
+        }
+        return person;
+    }
+
+    /**
+     * @brief Da el uid "Bob" al primer profesor o compañero de la primera persona de una salida, fichero o stream
+     * @param person Primera persona de la salida
+     */
+    static void addBob(final Person person) {
+        // The profesor or mate tree is missing when the generation spec leaves it out
+        if (person instanceof Alumno && ((Alumno) person).getProfesor() != null) {
+            Alumno firstPerson = (Alumno) person;
+            Profesor[] profesors = firstPerson.getProfesor();
+            profesors[0].setUid("Bob");
+            firstPerson.setProfesor(profesors);
+        } else if (person instanceof Pas && ((Pas) person).getMate() != null) {
+            Pas firstPerson = (Pas) person;
+            Mate[] mates = firstPerson.getMate();
+            mates[0].setUid("Bob");
+            firstPerson.setMate(mates);
+        }
     }
 }
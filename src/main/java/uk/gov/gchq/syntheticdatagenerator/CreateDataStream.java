@@ -0,0 +1,202 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import org.apache.commons.io.output.ProxyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.syntheticdatagenerator.jfr.JfrEvents;
+import uk.gov.gchq.syntheticdatagenerator.metrics.Counter;
+import uk.gov.gchq.syntheticdatagenerator.metrics.LatencyHistogram;
+import uk.gov.gchq.syntheticdatagenerator.metrics.MetricsRegistry;
+import uk.gov.gchq.syntheticdatagenerator.output.OutputSettings;
+import uk.gov.gchq.syntheticdatagenerator.output.Pacer;
+import uk.gov.gchq.syntheticdatagenerator.serialise.RecordWriter;
+import uk.gov.gchq.syntheticdatagenerator.serialise.Serialiser;
+import uk.gov.gchq.syntheticdatagenerator.serialise.SerialiserFactory;
+import uk.gov.gchq.syntheticdatagenerator.types.GenerationSpec;
+import uk.gov.gchq.syntheticdatagenerator.types.Person;
+import uk.gov.gchq.syntheticdatagenerator.types.PersonType;
+import uk.gov.gchq.syntheticdatagenerator.utils.OrderedTaskQueue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/*****************************************************************************
+ * @class CreateDataStream
+ * @brief Clase encargada de escribir todos los datos en un unico stream continuo
+ * @details Genera los registros por lotes en un pool de hilos y los escribe en orden en un solo stream (la salida
+ * estandar, una FIFO o un socket), de modo que se pueden pasar directamente a un cargador sin crear ficheros. Con un
+ * {@link Pacer} los registros se escriben a su ritmo y la generacion puede no tener fin
+ * @version 1.0
+ ****************************************************************************/
+public final class CreateDataStream implements Callable<Boolean> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CreateDataStream.class);
+    private static final long PRINT_EVERY = 100_000L;
+
+    private final long numberOfPersons;
+    private final long firstIndex;
+    private final long seed;
+    private final OutputStream output;
+    private final SerialiserFactory format;
+    private final PersonType type;
+    private final OutputSettings settings;
+    private final ExecutorService generators;
+    private final int maxInFlight;
+    private final int batchSize;
+
+    /**
+     * @brief Constructor de la clase
+     * @param numberOfPersons Numero de personas a generar, Long.MAX_VALUE para no parar hasta que lo diga el pacer
+     * @param firstIndex Indice global de la primera persona
+     * @param seed Semilla de la ejecucion, cada registro se genera a partir de ella y de su indice global
+     * @param output Stream de destino, no se cierra al terminar
+     * @param format Formato de salida
+     * @param type Tipo de persona a generar
+     * @param settings Configuracion de salida, solo se usan las etapas de salida y las opciones del serialiser
+     * @param generators Pool de hilos que genera los lotes
+     * @param maxInFlight Numero maximo de lotes generados o en generacion a la espera de escribirse
+     * @param batchSize Numero de registros por lote
+     */
+    public CreateDataStream(final long numberOfPersons, final long firstIndex, final long seed, final OutputStream output, final SerialiserFactory format, final PersonType type,
+                            final OutputSettings settings, final ExecutorService generators, final int maxInFlight, final int batchSize) {
+        this.numberOfPersons = numberOfPersons;
+        this.firstIndex = firstIndex;
+        this.seed = seed;
+        this.output = output;
+        this.format = format;
+        this.type = type;
+        this.settings = settings;
+        this.generators = generators;
+        this.maxInFlight = maxInFlight;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @brief Genera y escribe todos los registros en orden
+     * @return True si la operacion fue exitosa, false en caso contrario
+     */
+    @Override
+    public Boolean call() {
+        Serialiser<Person> personSerialiser = format.create(type.getDomainClass(), settings.getSerialiserOptions());
+        Pacer pacer = settings.getPacer();
+        LOGGER.info("Streaming {} Persons as {}", numberOfPersons == Long.MAX_VALUE ? "unlimited" : numberOfPersons, format.getFormat());
+        MetricsRegistry metrics = settings.getMetrics();
+        // A stream has no point where records are committed, they count as written once they reach the stream
+        Counter serialised = metrics == null ? new Counter() : metrics.counter(MetricsRegistry.RECORDS_SERIALISED);
+        Counter recordsWritten = metrics == null ? new Counter() : metrics.counter(MetricsRegistry.RECORDS_WRITTEN);
+        try (OutputStream out = settings.wrapStages(metrics == null ? output : countBytes(output, metrics.counter(MetricsRegistry.BYTES_WRITTEN)));
+             RecordWriter<Person> writer = personSerialiser.open(out)) {
+            final long[] written = {0L};
+            OrderedTaskQueue<List<Person>> queue = new OrderedTaskQueue<>(generators, maxInFlight, batch -> {
+                if (pacer != null) {
+                    // Batches still queued when the run stops are dropped, a paced run is reported by its pacer
+                    for (Person person : batch) {
+                        if (pacer.isStopped()) {
+                            return;
+                        }
+                        pacer.paceRecord(writer);
+                        writer.write(person);
+                        serialised.increment();
+                        recordsWritten.increment();
+                    }
+                    return;
+                }
+                writer.write(batch);
+                serialised.add(batch.size());
+                recordsWritten.add(batch.size());
+                long before = written[0];
+                written[0] += batch.size();
+                if (written[0] / PRINT_EVERY > before / PRINT_EVERY) {
+                    LOGGER.info("Processing {} of {}", written[0], numberOfPersons);
+                }
+            });
+            for (long start = 0; start < numberOfPersons && (pacer == null || !pacer.isStopped()); start += batchSize) {
+                final long first = firstIndex + start;
+                final int count = (int) Math.min(batchSize, numberOfPersons - start);
+                queue.submit(() -> generateBatch(first, count));
+            }
+            queue.drain();
+            return true;
+        } catch (IOException ex) {
+            LOGGER.error("IOException when streaming persons as {}", format.getFormat(), ex);
+            return false;
+        }
+    }
+
+    /**
+     * @brief Genera un lote de personas
+     * @param first Indice global de la primera persona del lote
+     * @param count Numero de personas del lote
+     * @return Las personas generadas
+     */
+    private List<Person> generateBatch(final long first, final int count) {
+        Object event = JfrEvents.beginBatchGeneration();
+        List<Person> persons = new ArrayList<>(count);
+        GenerationSpec spec = settings.getGenerationSpec();
+        MetricsRegistry metrics = settings.getMetrics();
+        if (metrics == null) {
+            for (int i = 0; i < count; i++) {
+                persons.add(type.generate(seed, first + i, spec));
+            }
+            addBob(persons, first);
+            JfrEvents.commitBatchGeneration(event, type.getName(), first, count);
+            return persons;
+        }
+        LatencyHistogram latency = metrics.histogram(MetricsRegistry.GENERATE_LATENCY);
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            persons.add(type.generate(seed, first + i, spec));
+            latency.recordSince(start);
+        }
+        addBob(persons, first);
+        metrics.counter(MetricsRegistry.RECORDS_GENERATED).add(count);
+        metrics.counter(MetricsRegistry.tagged(MetricsRegistry.RECORDS_GENERATED, Thread.currentThread().getName())).add(count);
+        JfrEvents.commitBatchGeneration(event, type.getName(), first, count);
+        return persons;
+    }
+
+    /**
+     * @brief Aplica al stream la misma regla que a cada fichero: su primera persona tiene un profesor o compañero "Bob"
+     * @param persons Personas de un lote
+     * @param first Indice global de la primera persona del lote
+     */
+    private void addBob(final List<Person> persons, final long first) {
+        if (first == firstIndex && !persons.isEmpty()) {
+            CreateDataFile.addBob(persons.get(0));
+        }
+    }
+
+    /**
+     * @brief Cuenta los bytes que llegan al destino del stream
+     * @param output Destino del stream
+     * @param bytes Contador de bytes escritos
+     * @return Stream que escribe en output
+     */
+    private static OutputStream countBytes(final OutputStream output, final Counter bytes) {
+        return new ProxyOutputStream(output) {
+            @Override
+            protected void afterWrite(final int n) {
+                bytes.add(n);
+            }
+        };
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.syntheticdatagenerator.output.DecryptInputStream;
+import uk.gov.gchq.syntheticdatagenerator.output.EncryptionStage;
+import uk.gov.gchq.syntheticdatagenerator.utils.Options;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+
+/*****************************************************************************
+ * @class DecryptData
+ * @brief Descifra un fichero creado con la opcion --encrypt-key
+ * @details Descifra trozo a trozo con {@link DecryptInputStream}, de forma que la memoria no depende del tamaño del
+ * fichero. Si algun trozo no se autentica termina con error, y lo ya escrito en la salida no debe usarse
+ * @version 1.0
+ ****************************************************************************/
+public final class DecryptData {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DecryptData.class);
+    private static final List<String> OPTIONS = Collections.emptyList();
+
+    private static final int MINIMUM_ARGS = 3;
+    private static final int KEY_FILE_ARG = 0;
+    private static final int INPUT_PATH_ARG = 1;
+    private static final int OUTPUT_PATH_ARG = 2;
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final String STDOUT = "-";
+
+    private DecryptData() {
+    }
+
+    /**
+     * @brief main de la herramienta de descifrado
+     * @param args Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
+     */
+    public static void main(final String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * @brief Ejecuta el descifrado sin terminar la JVM
+     * @param arguments Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
+     * @return 0 si se descifro el fichero, 1 en caso contrario
+     */
+    public static int run(final String... arguments) {
+        try {
+            return run(Options.parse(OPTIONS, arguments));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Argumentos no validos: {}", e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int run(final Options options) {
+        String[] args = options.getPositional();
+        if (args.length < MINIMUM_ARGS) {
+            LOGGER.warn("Este metodo necesita 3 argumentos. El fichero con la clave en base64, el fichero cifrado y " +
+                    "el fichero de salida, o - para la salida estandar.");
+            return 1;
+        }
+        String target = args[OUTPUT_PATH_ARG];
+        try (InputStream in = new DecryptInputStream(new BufferedInputStream(new FileInputStream(args[INPUT_PATH_ARG]), BUFFER_SIZE),
+                EncryptionStage.readKey(new File(args[KEY_FILE_ARG])));
+             OutputStream out = new BufferedOutputStream(STDOUT.equals(target)
+                     ? new CloseShieldOutputStream(new FileOutputStream(FileDescriptor.out))
+                     : new FileOutputStream(target), BUFFER_SIZE)) {
+            long bytes = IOUtils.copyLarge(in, out);
+            LOGGER.info("Decrypted {} bytes from {}", bytes, args[INPUT_PATH_ARG]);
+            return 0;
+        } catch (IOException e) {
+            LOGGER.error("Unable to decrypt {}", args[INPUT_PATH_ARG], e);
+            return 1;
+        }
+    }
+}
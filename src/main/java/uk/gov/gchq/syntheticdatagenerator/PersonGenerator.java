@@ -0,0 +1,325 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import uk.gov.gchq.syntheticdatagenerator.cache.SliceCache;
+import uk.gov.gchq.syntheticdatagenerator.serialise.RecordWriter;
+import uk.gov.gchq.syntheticdatagenerator.serialise.SerialiserFactory;
+import uk.gov.gchq.syntheticdatagenerator.serialise.SerialiserOptions;
+import uk.gov.gchq.syntheticdatagenerator.types.GenerationSpec;
+import uk.gov.gchq.syntheticdatagenerator.types.Person;
+import uk.gov.gchq.syntheticdatagenerator.types.PersonType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class PersonGenerator
+ * @brief Punto de entrada para generar personas desde codigo, sin escribir ficheros
+ * @details Genera las personas de un rango de indices [from, from + count). Cada persona depende solo de la semilla y
+ * de su indice, por lo que cualquier parte del rango se puede generar por separado y en cualquier orden. El
+ * {@link Spliterator} se divide por la mitad del rango, de modo que {@code stream().parallel()} reparte el trabajo en
+ * el pool ForkJoin comun y mantiene el orden. Se crea con {@link #builder()} y es inmutable y thread safe:
+ * <pre>
+ * PersonGenerator generator = PersonGenerator.builder().type(PersonType.ALUMNO).seed(42).count(1_000_000).build();
+ * List&lt;Person&gt; persons = generator.stream().parallel().collect(Collectors.toList());
+ * </pre>
+ * Con {@link Builder#cache(SliceCache)} los rangos codificados con {@link #encode(SerialiserFactory)} se guardan en la
+ * cache y los rangos repetidos se sirven sin volver a generarlos
+ * @version 1.0
+ ****************************************************************************/
+public final class PersonGenerator implements Iterable<Person> {
+    private final PersonType type;
+    private final long seed;
+    private final long from;
+    private final long count;
+    private final GenerationSpec spec;
+    private final SliceCache cache;
+
+    private PersonGenerator(final Builder builder) {
+        this.type = builder.type;
+        this.spec = builder.spec;
+        this.cache = builder.cache;
+        this.seed = builder.seed;
+        this.from = builder.from;
+        this.count = builder.count;
+    }
+
+    /**
+     * @brief Crea un constructor de generadores
+     * @return Builder con semilla 0 y rango desde el indice 0, el tipo y el numero de personas son obligatorios
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @brief Genera la persona de un indice, que no tiene por que estar en el rango del generador
+     * @param index Indice global de la persona
+     * @return La persona generada
+     */
+    public Person generate(final long index) {
+        return type.generate(seed, index, spec);
+    }
+
+    /**
+     * @brief Stream secuencial de las personas del rango, con {@link Stream#parallel()} se genera en paralelo
+     * @return Stream ordenado por indice
+     */
+    public Stream<Person> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    @Override
+    public Spliterator<Person> spliterator() {
+        return new IndexSpliterator(type, spec, seed, from, from + count);
+    }
+
+    @Override
+    public Iterator<Person> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * @brief Codifica las personas del rango en un formato, a traves de la cache si el generador tiene una
+     * @details La cache solo guarda rangos de todos los campos y de como mucho Integer.MAX_VALUE personas, el resto se
+     * codifican cada vez
+     * @param format Formato de los registros
+     * @return Vista de solo lectura de los registros codificados
+     * @throws IOException Fallo al codificar los registros
+     */
+    public ByteBuffer encode(final SerialiserFactory format) throws IOException {
+        requireNonNull(format, "format");
+        if (cache != null && spec == null && count <= Integer.MAX_VALUE) {
+            return cache.get(type, format, seed, from, (int) count);
+        }
+        SerialiserOptions options = new SerialiserOptions();
+        if (spec != null && !spec.isComplete()) {
+            options.setFields(spec.getFieldNames());
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (RecordWriter<Person> writer = format.<Person>create(type.getDomainClass(), options).open(out)) {
+            writer.write(iterator());
+        }
+        return ByteBuffer.wrap(out.toByteArray()).asReadOnlyBuffer();
+    }
+
+    public PersonType getType() {
+        return type;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @brief Devuelve los campos que se generan
+     * @return spec, null si se generan todos los campos
+     */
+    public GenerationSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * @brief Devuelve la cache de tramos codificados
+     * @return cache, null si cada llamada a {@link #encode(SerialiserFactory)} codifica el rango
+     */
+    public SliceCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @brief Constructor de {@link PersonGenerator}
+     */
+    public static final class Builder {
+        private PersonType type;
+        private long seed;
+        private long from;
+        private long count = -1L;
+        private GenerationSpec spec;
+        private SliceCache cache;
+
+        private Builder() {
+        }
+
+        /**
+         * @param type Tipo de persona a generar
+         * @return Este builder
+         */
+        public Builder type(final PersonType type) {
+            this.type = requireNonNull(type, "type");
+            return this;
+        }
+
+        /**
+         * @param seed Semilla, con la misma semilla se generan las mismas personas
+         * @return Este builder
+         */
+        public Builder seed(final long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * @param from Indice de la primera persona
+         * @return Este builder
+         */
+        public Builder from(final long from) {
+            this.from = from;
+            return this;
+        }
+
+        /**
+         * @param count Numero de personas a generar
+         * @return Este builder
+         */
+        public Builder count(final long count) {
+            this.count = count;
+            return this;
+        }
+
+        /**
+         * @param spec Campos a generar y sus opciones, no se debe modificar despues de crear el generador. Si no se
+         *             indica el tipo se usa el de la especificacion
+         * @return Este builder
+         */
+        public Builder spec(final GenerationSpec spec) {
+            this.spec = requireNonNull(spec, "spec");
+            return this;
+        }
+
+        /**
+         * @param cache Cache de tramos codificados que usa {@link PersonGenerator#encode(SerialiserFactory)}, se
+         *              puede compartir entre generadores
+         * @return Este builder
+         */
+        public Builder cache(final SliceCache cache) {
+            this.cache = requireNonNull(cache, "cache");
+            return this;
+        }
+
+        /**
+         * @brief Crea el generador
+         * @return El generador
+         * @throws IllegalStateException Si falta el tipo o el numero de personas, el rango no es valido o la
+         * especificacion es de otro tipo
+         */
+        public PersonGenerator build() {
+            if (spec != null) {
+                PersonType specType;
+                try {
+                    spec.validate();
+                    specType = spec.getPersonType();
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalStateException("Invalid generation spec: " + e.getMessage(), e);
+                }
+                if (type == null) {
+                    type = specType;
+                } else if (type != specType) {
+                    throw new IllegalStateException("The generation spec is for " + specType.getName() + " not " + type.getName());
+                }
+            }
+            if (type == null) {
+                throw new IllegalStateException("type is required");
+            }
+            if (count < 0) {
+                throw new IllegalStateException("count is required and cannot be negative");
+            }
+            if (from < 0 || from > Long.MAX_VALUE - count) {
+                throw new IllegalStateException("from must be at least 0 and from + count cannot overflow");
+            }
+            return new PersonGenerator(this);
+        }
+    }
+
+    /**
+     * @brief Recorre un rango de indices y se divide por su mitad
+     */
+    private static final class IndexSpliterator implements Spliterator<Person> {
+        private final PersonType type;
+        private final GenerationSpec spec;
+        private final long seed;
+        private long index;
+        private final long end;
+
+        IndexSpliterator(final PersonType type, final GenerationSpec spec, final long seed, final long index, final long end) {
+            this.type = type;
+            this.spec = spec;
+            this.seed = seed;
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super Person> action) {
+            requireNonNull(action, "action");
+            if (index >= end) {
+                return false;
+            }
+            action.accept(type.generate(seed, index++, spec));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super Person> action) {
+            requireNonNull(action, "action");
+            while (index < end) {
+                action.accept(type.generate(seed, index++, spec));
+            }
+        }
+
+        @Override
+        public Spliterator<Person> trySplit() {
+            long middle = index + (end - index) / 2;
+            if (middle <= index) {
+                return null;
+            }
+            // The prefix is returned so that an ordered parallel stream keeps the order of the indexes
+            Spliterator<Person> prefix = new IndexSpliterator(type, spec, seed, index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.syntheticdatagenerator.profile.Profile;
+import uk.gov.gchq.syntheticdatagenerator.profile.ProfileReader;
+import uk.gov.gchq.syntheticdatagenerator.utils.Options;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*****************************************************************************
+ * @class ProfileData
+ * @brief Perfila la distribucion de los campos de los ficheros generados
+ * @details Lee los ficheros en paralelo, cada uno con su propio {@link Profile}, y combina los perfiles al terminar. El
+ * informe JSON tiene por cada campo el numero de valores y de nulos, una estimacion de los valores distintos, el
+ * histograma de los enumerados, los cuantiles de los numeros y la distribucion de longitudes de los arrays. Se escribe
+ * en la salida estandar o en el fichero de --output
+ * @version 1.0
+ ****************************************************************************/
+public final class ProfileData {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProfileData.class);
+
+    private static final int MINIMUM_ARGS = 1;
+    private static final int PATH_ARG = 0;
+    private static final int NUM_THREADS_ARG = 1;
+    private static final String OUTPUT_OPT = "output";
+    private static final String MAX_DEPTH_OPT = "max-depth";
+    private static final String MAX_CATEGORIES_OPT = "max-categories";
+    private static final List<String> OPTIONS = Arrays.asList(OUTPUT_OPT, MAX_DEPTH_OPT, MAX_CATEGORIES_OPT);
+
+    private ProfileData() {
+    }
+
+    /**
+     * @brief main del perfilado
+     * @param args Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
+     */
+    public static void main(final String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * @brief Perfila los ficheros sin terminar la JVM
+     * @param arguments Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
+     * @return 0 si se perfilaron todos los ficheros, 1 en caso contrario
+     */
+    public static int run(final String... arguments) {
+        try {
+            return run(Options.parse(OPTIONS, arguments));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Argumentos no validos: {}", e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int run(final Options options) {
+        String[] args = options.getPositional();
+        if (args.length < MINIMUM_ARGS) {
+            LOGGER.warn("Este metodo necesita al menos 1 argumento. Un fichero o un directorio con ficheros avro, json o ndjson. " +
+                    "El segundo argumento es opcional y se trata del numero de hilos, por defecto el numero de procesadores.");
+            return 1;
+        }
+        List<File> files = listFiles(new File(args[PATH_ARG]));
+        if (files.isEmpty()) {
+            LOGGER.error("No avro, json or ndjson files found in {}", args[PATH_ARG]);
+            return 1;
+        }
+        int numberOfThreads = args.length > NUM_THREADS_ARG ? Integer.parseInt(args[NUM_THREADS_ARG]) : Runtime.getRuntime().availableProcessors();
+        int maxDepth = options.getInt(MAX_DEPTH_OPT, Profile.DEFAULT_MAX_DEPTH);
+        int maxCategories = options.getInt(MAX_CATEGORIES_OPT, Profile.DEFAULT_MAX_CATEGORIES);
+        ExecutorService executors = Executors.newFixedThreadPool(numberOfThreads, CreateData.createDaemonThreadFactory());
+        try {
+            long startTime = System.nanoTime();
+            List<Callable<Profile>> tasks = new ArrayList<>();
+            for (File file : files) {
+                tasks.add(() -> {
+                    Profile profile = new Profile(maxDepth, maxCategories);
+                    ProfileReader.read(file, profile);
+                    return profile;
+                });
+            }
+            Profile profile = new Profile(maxDepth, maxCategories);
+            for (Future<Profile> response : executors.invokeAll(tasks)) {
+                profile.merge(response.get());
+            }
+            double seconds = Math.max(System.nanoTime() - startTime, 1L) / 1e9;
+            LOGGER.info("Profiled {} records in {} files in {} s: {} records/s", profile.getRecords(), files.size(),
+                    String.format("%.2f", seconds), String.format("%.0f", profile.getRecords() / seconds));
+            if (options.has(OUTPUT_OPT)) {
+                profile.write(new File(options.getString(OUTPUT_OPT, "")));
+            } else {
+                System.out.println(profile.toJson());
+            }
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.error("Interrupted while profiling {}", args[PATH_ARG]);
+            return 1;
+        } catch (ExecutionException | IOException e) {
+            LOGGER.error("Unable to profile {}", args[PATH_ARG], e instanceof ExecutionException ? e.getCause() : e);
+            return 1;
+        } finally {
+            executors.shutdownNow();
+        }
+    }
+
+    private static List<File> listFiles(final File path) {
+        if (path.isFile()) {
+            return Collections.singletonList(path);
+        }
+        File[] files = path.listFiles((dir, name) -> ProfileReader.canRead(name) && !name.startsWith("manifest") && !name.endsWith(".tmp"));
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        Arrays.sort(files);
+        return Arrays.asList(files);
+    }
+}
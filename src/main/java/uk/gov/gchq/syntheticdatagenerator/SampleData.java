@@ -0,0 +1,164 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.syntheticdatagenerator.sample.Sample;
+import uk.gov.gchq.syntheticdatagenerator.sample.SampleReader;
+import uk.gov.gchq.syntheticdatagenerator.sample.SampleWriter;
+import uk.gov.gchq.syntheticdatagenerator.utils.Options;
+import uk.gov.gchq.syntheticdatagenerator.utils.Seeds;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*****************************************************************************
+ * @class SampleData
+ * @brief Saca una muestra de exactamente K registros de los ficheros generados, por ejemplo para crear datos de prueba
+ * @details Cada fichero se muestrea en paralelo con su propio reservorio y los reservorios se combinan en orden de
+ * fichero, de modo que con la misma semilla la muestra no depende del numero de hilos. La memoria es de K registros, o
+ * de K por estrato con --stratify, y no depende del tamaño de los ficheros
+ * @version 1.0
+ ****************************************************************************/
+public final class SampleData {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SampleData.class);
+
+    private static final int MINIMUM_ARGS = 3;
+    private static final int PATH_ARG = 0;
+    private static final int SAMPLE_SIZE_ARG = 1;
+    private static final int OUTPUT_ARG = 2;
+    private static final int NUM_THREADS_ARG = 3;
+    private static final String SEED_OPT = "seed";
+    private static final String STRATIFY_OPT = "stratify";
+    private static final List<String> OPTIONS = Arrays.asList(SEED_OPT, STRATIFY_OPT);
+
+    private SampleData() {
+    }
+
+    /**
+     * @brief main del muestreo
+     * @param args Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
+     */
+    public static void main(final String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * @brief Escribe la muestra sin terminar la JVM
+     * @param arguments Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
+     * @return 0 si se escribio la muestra, 1 en caso contrario
+     */
+    public static int run(final String... arguments) {
+        try {
+            return run(Options.parse(OPTIONS, arguments));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Argumentos no validos: {}", e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int run(final Options options) {
+        String[] args = options.getPositional();
+        if (args.length < MINIMUM_ARGS) {
+            LOGGER.warn("Este metodo necesita al menos 3 argumentos. Un fichero o un directorio con ficheros avro, json, ndjson o csv, " +
+                    "el numero de registros de la muestra y el fichero de salida. El cuarto argumento es opcional y se trata del numero " +
+                    "de hilos, por defecto el numero de procesadores.");
+            return 1;
+        }
+        List<File> files = listFiles(new File(args[PATH_ARG]));
+        if (files.isEmpty()) {
+            LOGGER.error("No avro, json, ndjson or csv files found in {}", args[PATH_ARG]);
+            return 1;
+        }
+        int sampleSize = Integer.parseInt(args[SAMPLE_SIZE_ARG]);
+        if (sampleSize < 0) {
+            LOGGER.warn("El numero de registros de la muestra no puede ser negativo");
+            return 1;
+        }
+        File output = new File(args[OUTPUT_ARG]);
+        int numberOfThreads = args.length > NUM_THREADS_ARG ? Integer.parseInt(args[NUM_THREADS_ARG]) : Runtime.getRuntime().availableProcessors();
+        String stratifyField = options.has(STRATIFY_OPT) ? options.getString(STRATIFY_OPT, "") : null;
+        if (stratifyField != null && stratifyField.isEmpty()) {
+            LOGGER.warn("La opcion --{} necesita el nombre de un campo, por ejemplo --{}=campus", STRATIFY_OPT, STRATIFY_OPT);
+            return 1;
+        }
+        // Without an explicit seed a random one is chosen and logged, so the sample can still be repeated
+        long seed = options.has(SEED_OPT) ? options.getLong(SEED_OPT, 0L) : new SecureRandom().nextLong();
+        LOGGER.info("Using seed {}", seed);
+        ExecutorService executors = Executors.newFixedThreadPool(numberOfThreads, CreateData.createDaemonThreadFactory());
+        try {
+            long startTime = System.nanoTime();
+            List<Callable<Sample>> tasks = new ArrayList<>();
+            for (int i = 0; i < files.size(); i++) {
+                File file = files.get(i);
+                Random random = new Random(Seeds.recordSeed(seed, i));
+                tasks.add(() -> SampleReader.read(file, sampleSize, stratifyField, random));
+            }
+            Random mergeRandom = new Random(seed);
+            Sample sample = null;
+            for (Future<Sample> response : executors.invokeAll(tasks)) {
+                sample = sample == null ? response.get() : sample.merge(response.get(), mergeRandom);
+            }
+            List<Object> records = sample.draw(mergeRandom);
+            SampleWriter.write(output, sample, records);
+            double seconds = Math.max(System.nanoTime() - startTime, 1L) / 1e9;
+            LOGGER.info("Sampled {} of {} records from {} files in {} s", records.size(), sample.getRecords(), files.size(),
+                    String.format("%.2f", seconds));
+            if (stratifyField != null) {
+                LOGGER.info("Strata of {}: {}", stratifyField, sample.getStrata());
+            }
+            if (records.size() < sampleSize) {
+                LOGGER.warn("Only {} records were found, the sample has all of them", records.size());
+            }
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.error("Interrupted while sampling {}", args[PATH_ARG]);
+            return 1;
+        } catch (ExecutionException | IOException | IllegalArgumentException e) {
+            LOGGER.error("Unable to sample {}", args[PATH_ARG], e instanceof ExecutionException ? e.getCause() : e);
+            return 1;
+        } finally {
+            executors.shutdownNow();
+        }
+    }
+
+    private static List<File> listFiles(final File path) {
+        if (path.isFile()) {
+            return Collections.singletonList(path);
+        }
+        File[] files = path.listFiles((dir, name) -> SampleReader.canRead(name) && !name.startsWith("manifest") && !name.endsWith(".tmp"));
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        Arrays.sort(files);
+        return Arrays.asList(files);
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.syntheticdatagenerator.cache.SliceCache;
+import uk.gov.gchq.syntheticdatagenerator.serialise.RecordWriter;
+import uk.gov.gchq.syntheticdatagenerator.serialise.Serialiser;
+import uk.gov.gchq.syntheticdatagenerator.serialise.SerialiserFactory;
+import uk.gov.gchq.syntheticdatagenerator.serialise.Serialisers;
+import uk.gov.gchq.syntheticdatagenerator.types.Person;
+import uk.gov.gchq.syntheticdatagenerator.types.PersonType;
+import uk.gov.gchq.syntheticdatagenerator.utils.Options;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*****************************************************************************
+ * @class ServeData
+ * @brief Servidor HTTP embebido que genera personas bajo demanda
+ * @details Atiende GET /alumno y GET /pas con los parametros seed, from, count y format. Cada registro depende solo de
+ * la semilla y de su indice, por lo que la misma peticion devuelve siempre los mismos datos y las paginas consecutivas
+ * se pueden pedir por separado. La respuesta se genera y se envia con transferencia chunked mientras se escribe, sin
+ * tener todos los registros en memoria. Las peticiones se atienden en un pool de hilos de tamaño fijo. Con una
+ * {@link SliceCache} los tramos pequeños se guardan ya codificados y las peticiones repetidas se sirven sin generarlos
+ * @version 1.0
+ ****************************************************************************/
+public final class ServeData {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServeData.class);
+
+    private static final int MINIMUM_ARGS = 1;
+    private static final int PORT_ARG = 0;
+    private static final int NUM_THREADS_ARG = 1;
+    private static final String BIND_OPT = "bind";
+    private static final String MAX_COUNT_OPT = "max-count";
+    private static final String CACHE_OPT = "cache";
+    private static final String CACHE_DIR_OPT = "cache-dir";
+    private static final String CACHE_DISK_OPT = "cache-disk";
+    private static final String CACHE_MAX_COUNT_OPT = "cache-max-count";
+    private static final List<String> OPTIONS = Arrays.asList(BIND_OPT, MAX_COUNT_OPT, CACHE_OPT, CACHE_DIR_OPT,
+            CACHE_DISK_OPT, CACHE_MAX_COUNT_OPT);
+    public static final String SEED_PARAM = "seed";
+    public static final String FROM_PARAM = "from";
+    public static final String COUNT_PARAM = "count";
+    public static final String FORMAT_PARAM = "format";
+    public static final String NEXT_FROM_HEADER = "X-Next-From";
+    public static final long DEFAULT_COUNT = 100L;
+    public static final long DEFAULT_MAX_COUNT = 1_000_000L;
+    public static final int DEFAULT_CACHE_MAX_COUNT = 10_000;
+    private static final long DEFAULT_CACHE_DISK = 1024L * 1024 * 1024;
+    private static final String DEFAULT_FORMAT = "ndjson";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int STOP_DELAY_SECONDS = 1;
+
+    private ServeData() {
+    }
+
+    /**
+     * @brief main del servidor, atiende peticiones hasta que se termina el proceso
+     * @param args Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
+     */
+    public static void main(final String[] args) {
+        int status = run(args);
+        // A clean stop comes from the shutdown hook, during which System.exit would block
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * @brief Arranca el servidor y atiende peticiones hasta que se termina el proceso
+     * @param arguments Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
+     * @return 0 si el servidor se paro de forma ordenada, 1 si no pudo arrancar
+     */
+    public static int run(final String... arguments) {
+        try {
+            return run(Options.parse(OPTIONS, arguments));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Argumentos no validos: {}", e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int run(final Options options) {
+        String[] args = options.getPositional();
+        if (args.length < MINIMUM_ARGS) {
+            LOGGER.warn("Este metodo necesita al menos 1 argumento. El puerto en el que escuchar. " +
+                    "El segundo argumento es opcional y se trata del numero de hilos, por defecto el numero de procesadores.");
+            return 1;
+        }
+        int port = Integer.parseInt(args[PORT_ARG]);
+        int numberOfThreads = args.length > NUM_THREADS_ARG ? Integer.parseInt(args[NUM_THREADS_ARG]) : Runtime.getRuntime().availableProcessors();
+        String bind = options.getString(BIND_OPT, "");
+        InetSocketAddress address = bind.isEmpty() ? new InetSocketAddress(port) : new InetSocketAddress(bind, port);
+        SliceCache cache = null;
+        if (options.has(CACHE_OPT)) {
+            String directory = options.getString(CACHE_DIR_OPT, "");
+            cache = new SliceCache(options.getBytes(CACHE_OPT, 0L), directory.isEmpty() ? null : new File(directory),
+                    options.getBytes(CACHE_DISK_OPT, DEFAULT_CACHE_DISK));
+        }
+        ExecutorService workers = Executors.newFixedThreadPool(numberOfThreads, CreateData.createDaemonThreadFactory());
+        HttpServer server;
+        try {
+            server = start(address, workers, options.getLong(MAX_COUNT_OPT, DEFAULT_MAX_COUNT), cache,
+                    options.getInt(CACHE_MAX_COUNT_OPT, DEFAULT_CACHE_MAX_COUNT));
+        } catch (IOException e) {
+            LOGGER.error("Unable to listen on {}", address, e);
+            workers.shutdownNow();
+            return 1;
+        }
+        SliceCache slices = cache;
+        LOGGER.info("Serving /alumno and /pas on {} with {} threads", server.getAddress(), numberOfThreads);
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(STOP_DELAY_SECONDS);
+            workers.shutdownNow();
+            if (slices != null) {
+                LOGGER.info("Cache: {}", slices);
+                slices.close();
+            }
+            stopped.countDown();
+        }));
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+
+    /**
+     * @brief Arranca el servidor
+     * @param address Direccion en la que escuchar, con puerto 0 se elige uno libre
+     * @param workers Pool de tamaño fijo que atiende las peticiones, las que no caben esperan. Se cierra tras parar el servidor
+     * @param maxCount Numero maximo de registros por peticion
+     * @param cache Cache de tramos codificados, null para generar siempre
+     * @param cacheMaxCount Numero maximo de registros de un tramo que se guarda en la cache, los mayores se generan siempre
+     * @return El servidor arrancado, se para con {@link HttpServer#stop(int)}
+     * @throws IOException Fallo al abrir el puerto
+     */
+    public static HttpServer start(final InetSocketAddress address, final ExecutorService workers, final long maxCount,
+                                   final SliceCache cache, final int cacheMaxCount) throws IOException {
+        HttpServer server = HttpServer.create(address, 0);
+        server.createContext("/", new PersonHandler(maxCount, cache, cacheMaxCount));
+        server.setExecutor(workers);
+        server.start();
+        return server;
+    }
+
+    /**
+     * @brief Atiende las peticiones de personas
+     */
+    private static final class PersonHandler implements HttpHandler {
+        private final long maxCount;
+        private final SliceCache cache;
+        private final int cacheMaxCount;
+        // Serialisers are thread safe and deriving an avro schema is costly, so one is kept per format and type
+        private final ConcurrentMap<String, Serialiser<Person>> serialisers = new ConcurrentHashMap<>();
+
+        PersonHandler(final long maxCount, final SliceCache cache, final int cacheMaxCount) {
+            this.maxCount = maxCount;
+            this.cache = cache;
+            this.cacheMaxCount = cacheMaxCount;
+        }
+
+        @Override
+        public void handle(final HttpExchange exchange) throws IOException {
+            try {
+                if (!"GET".equals(exchange.getRequestMethod())) {
+                    exchange.getResponseHeaders().set("Allow", "GET");
+                    sendError(exchange, 405, "Only GET is supported");
+                    return;
+                }
+                Optional<PersonType> type = PersonType.fromName(exchange.getRequestURI().getPath().substring(1));
+                if (!type.isPresent()) {
+                    sendError(exchange, 404, "Unknown path " + exchange.getRequestURI().getPath() + ", use /alumno or /pas");
+                    return;
+                }
+                Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+                long seed;
+                long from;
+                long count;
+                try {
+                    seed = Long.parseLong(query.getOrDefault(SEED_PARAM, "0"));
+                    from = Long.parseLong(query.getOrDefault(FROM_PARAM, "0"));
+                    count = Long.parseLong(query.getOrDefault(COUNT_PARAM, Long.toString(DEFAULT_COUNT)));
+                } catch (NumberFormatException e) {
+                    sendError(exchange, 400, "Invalid number: " + e.getMessage());
+                    return;
+                }
+                if (from < 0 || count < 0 || count > maxCount || from > Long.MAX_VALUE - count) {
+                    sendError(exchange, 400, "from must be at least 0 and count between 0 and " + maxCount);
+                    return;
+                }
+                Optional<SerialiserFactory> format = Serialisers.forName(query.getOrDefault(FORMAT_PARAM, DEFAULT_FORMAT));
+                if (!format.isPresent()) {
+                    sendError(exchange, 400, "Unknown format, use one of " + Serialisers.formatNames());
+                    return;
+                }
+                if (cache != null && count <= cacheMaxCount) {
+                    send(exchange, type.get(), format.get(), seed, from, (int) count);
+                } else {
+                    stream(exchange, type.get(), format.get(), seed, from, count);
+                }
+            } finally {
+                exchange.close();
+            }
+        }
+
+        /**
+         * @brief Envia un tramo desde la cache, con su longitud conocida
+         */
+        private void send(final HttpExchange exchange, final PersonType type, final SerialiserFactory format,
+                          final long seed, final long from, final int count) throws IOException {
+            ByteBuffer slice = cache.get(type, format, seed, from, count);
+            exchange.getResponseHeaders().set("Content-Type", format.getContentType());
+            exchange.getResponseHeaders().set(NEXT_FROM_HEADER, Long.toString(from + count));
+            try {
+                exchange.sendResponseHeaders(200, slice.hasRemaining() ? slice.remaining() : -1);
+                Channels.newChannel(exchange.getResponseBody()).write(slice);
+            } catch (IOException e) {
+                LOGGER.debug("Stopped sending {} to {}", exchange.getRequestURI(), exchange.getRemoteAddress(), e);
+            }
+        }
+
+        /**
+         * @brief Genera los registros y los escribe en la respuesta a medida que se generan
+         */
+        private void stream(final HttpExchange exchange, final PersonType type, final SerialiserFactory format,
+                            final long seed, final long from, final long count) {
+            Serialiser<Person> serialiser = serialisers.computeIfAbsent(format.getFormat() + "/" + type.getName(),
+                    key -> format.create(type.getDomainClass()));
+            exchange.getResponseHeaders().set("Content-Type", format.getContentType());
+            exchange.getResponseHeaders().set(NEXT_FROM_HEADER, Long.toString(from + count));
+            try {
+                // A length of 0 selects chunked transfer encoding
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream body = new BufferedOutputStream(exchange.getResponseBody(), BUFFER_SIZE);
+                     RecordWriter<Person> writer = serialiser.open(body)) {
+                    writer.write(PersonGenerator.builder().type(type).seed(seed).from(from).count(count).build().iterator());
+                }
+            } catch (IOException e) {
+                // Usually the client closed the connection, the remaining records are not generated
+                LOGGER.debug("Stopped streaming {} to {}", exchange.getRequestURI(), exchange.getRemoteAddress(), e);
+            }
+        }
+
+        private static void sendError(final HttpExchange exchange, final int status, final String message) throws IOException {
+            byte[] body = (message + "\n").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+
+        private static Map<String, String> parseQuery(final String rawQuery) throws UnsupportedEncodingException {
+            Map<String, String> query = new HashMap<>();
+            if (rawQuery == null || rawQuery.isEmpty()) {
+                return query;
+            }
+            for (String pair : rawQuery.split("&")) {
+                int equals = pair.indexOf('=');
+                String name = equals < 0 ? pair : pair.substring(0, equals);
+                String value = equals < 0 ? "" : pair.substring(equals + 1);
+                query.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+            }
+            return query;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.syntheticdatagenerator.output.Manifest;
+import uk.gov.gchq.syntheticdatagenerator.output.ManifestEntry;
+import uk.gov.gchq.syntheticdatagenerator.utils.Crc32c;
+import uk.gov.gchq.syntheticdatagenerator.utils.Options;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Checksum;
+
+/*****************************************************************************
+ * @class VerifyData
+ * @brief Comprueba en paralelo los ficheros de una ejecucion con su manifiesto
+ * @details Para cada fichero del manifest.json comprueba que existe, su tamaño y su checksum. Si la salida se genero
+ * por shards se comprueban los manifiestos de todos los shards presentes en el directorio
+ * @version 1.0
+ ****************************************************************************/
+public final class VerifyData {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VerifyData.class);
+    private static final List<String> OPTIONS = Collections.emptyList();
+
+    private static final int MINIMUM_ARGS = 1;
+    private static final int PATH_ARG = 0;
+    private static final int NUM_THREADS_ARG = 1;
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private VerifyData() {
+    }
+
+    /**
+     * @brief main de la herramienta de verificacion
+     * @param args Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
+     */
+    public static void main(final String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * @brief Ejecuta la verificacion sin terminar la JVM
+     * @param arguments Argumentos pasados por la linea de comandos, intrucciones de uso en README.md
+     * @return 0 si todos los ficheros coinciden con su manifiesto, 1 en caso contrario
+     */
+    public static int run(final String... arguments) {
+        try {
+            return run(Options.parse(OPTIONS, arguments));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Argumentos no validos: {}", e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int run(final Options options) {
+        String[] args = options.getPositional();
+        if (args.length < MINIMUM_ARGS) {
+            LOGGER.warn("Este metodo necesita al menos 1 argumento. El directorio con los ficheros y el manifest.json. " +
+                    "El segundo argumento es opcional y se trata del numero de hilos, por defecto el numero de procesadores.");
+            return 1;
+        }
+        File directory = new File(args[PATH_ARG]);
+        int numberOfThreads = args.length > NUM_THREADS_ARG ? Integer.parseInt(args[NUM_THREADS_ARG]) : Runtime.getRuntime().availableProcessors();
+        String[] names = directory.list((dir, name) -> Manifest.isManifest(name));
+        if (names == null || names.length == 0) {
+            LOGGER.error("No manifest found in {}", directory);
+            return 1;
+        }
+        Arrays.sort(names);
+        int failed = 0;
+        for (String name : names) {
+            Manifest manifest;
+            try {
+                manifest = Manifest.read(new File(directory, name));
+            } catch (IOException e) {
+                LOGGER.error("Unable to read the manifest {} in {}", name, directory, e);
+                return 1;
+            }
+            if (manifest.getChecksumAlgorithm() != null && !Crc32c.ALGORITHM.equals(manifest.getChecksumAlgorithm())) {
+                LOGGER.warn("Algoritmo de checksum desconocido {}", manifest.getChecksumAlgorithm());
+                return 1;
+            }
+            List<String> problems = verify(directory, manifest, numberOfThreads);
+            problems.forEach(problem -> LOGGER.error(problem));
+            if (problems.isEmpty()) {
+                LOGGER.info("Verified {} files with {} records from {}", manifest.getFiles().size(), manifest.getTotalRecords(), name);
+            } else {
+                LOGGER.error("{} of {} files failed verification from {}", problems.size(), manifest.getFiles().size(), name);
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * @brief Comprueba todos los ficheros de un manifiesto
+     * @param directory Directorio de los ficheros
+     * @param manifest Manifiesto de la ejecucion
+     * @param numberOfThreads Numero de ficheros que se comprueban a la vez
+     * @return Descripcion de cada fichero que no coincide, vacia si todos son correctos
+     */
+    public static List<String> verify(final File directory, final Manifest manifest, final int numberOfThreads) {
+        ExecutorService executors = Executors.newFixedThreadPool(numberOfThreads, CreateData.createDaemonThreadFactory());
+        List<String> problems = new ArrayList<>();
+        try {
+            List<Callable<String>> tasks = new ArrayList<>();
+            for (ManifestEntry entry : manifest.getFiles()) {
+                tasks.add(() -> verify(new File(directory, entry.getFile()), entry));
+            }
+            for (Future<String> response : executors.invokeAll(tasks)) {
+                String problem = response.get();
+                if (problem != null) {
+                    problems.add(problem);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            problems.add("Interrupted while verifying");
+        } catch (ExecutionException e) {
+            problems.add("Verification failed: " + e.getCause());
+        } finally {
+            executors.shutdownNow();
+        }
+        return problems;
+    }
+
+    /**
+     * @brief Comprueba un fichero
+     * @param file Fichero a comprobar
+     * @param entry Su entrada en el manifiesto
+     * @return Descripcion del problema, o null si el fichero es correcto
+     */
+    private static String verify(final File file, final ManifestEntry entry) {
+        if (!file.isFile()) {
+            return file + " is missing";
+        }
+        if (file.length() != entry.getBytes()) {
+            return file + " has " + file.length() + " bytes, expected " + entry.getBytes();
+        }
+        if (entry.getChecksum() == null) {
+            return null;
+        }
+        Checksum checksum = Crc32c.create();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = new FileInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) >= 0) {
+                checksum.update(buffer, 0, n);
+            }
+        } catch (IOException e) {
+            return file + " could not be read: " + e.getMessage();
+        }
+        String actual = Crc32c.toHex(checksum);
+        return actual.equals(entry.getChecksum()) ? null : file + " has checksum " + actual + ", expected " + entry.getChecksum();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.bench;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class BenchmarkReport
+ * @brief Informe JSON de una ejecucion de la matriz de rendimiento, que tambien sirve de linea base
+ * @details Junto a los resultados guarda la version de Java y el numero de procesadores, porque los registros por
+ * segundo solo son comparables entre ejecuciones en la misma clase de maquina
+ * @version 1.0
+ ****************************************************************************/
+public class BenchmarkReport {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private String javaVersion = System.getProperty("java.version");
+    private int processors = Runtime.getRuntime().availableProcessors();
+    private List<ScenarioResult> results = new ArrayList<>();
+
+    /**
+     * @brief Lee un informe
+     * @param file Fichero del informe
+     * @return El informe leido
+     * @throws IOException Fallo al leer o interpretar el fichero
+     */
+    public static BenchmarkReport read(final File file) throws IOException {
+        return MAPPER.readValue(file, BenchmarkReport.class);
+    }
+
+    /**
+     * @brief Escribe el informe
+     * @param file Fichero de destino
+     * @throws IOException Fallo al escribir
+     */
+    public void write(final File file) throws IOException {
+        requireNonNull(file, "file");
+        MAPPER.writeValue(file, this);
+    }
+
+    /**
+     * @brief Compara este informe con una linea base
+     * @details Un escenario empeora si sus registros por segundo bajan mas de throughputTolerance o sus bytes asignados
+     * por registro suben mas de allocationTolerance, ambas como fraccion del valor de la linea base. Los escenarios
+     * que solo estan en uno de los dos informes no se comparan
+     * @param baseline Informe de la linea base
+     * @param throughputTolerance Caida de los registros por segundo que se admite, por ejemplo 0.20
+     * @param allocationTolerance Subida de los bytes asignados por registro que se admite, por ejemplo 0.10
+     * @return Descripcion de cada regresion, vacia si no hay ninguna
+     */
+    public List<String> compare(final BenchmarkReport baseline, final double throughputTolerance, final double allocationTolerance) {
+        requireNonNull(baseline, "baseline");
+        if (throughputTolerance < 0 || allocationTolerance < 0) {
+            throw new IllegalArgumentException("Tolerances must not be negative");
+        }
+        Map<String, ScenarioResult> expected = baseline.byKey();
+        List<String> regressions = new ArrayList<>();
+        for (ScenarioResult result : results) {
+            ScenarioResult base = expected.get(result.getScenario().getKey());
+            if (base != null) {
+                regressions.addAll(compare(result, base, throughputTolerance, allocationTolerance));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * @brief Compara el resultado de un escenario con el de la linea base
+     * @param result Resultado medido
+     * @param base Resultado del mismo escenario en la linea base
+     * @param throughputTolerance Caida de los registros por segundo que se admite
+     * @param allocationTolerance Subida de los bytes asignados por registro que se admite
+     * @return Descripcion de cada regresion, vacia si no hay ninguna
+     */
+    public static List<String> compare(final ScenarioResult result, final ScenarioResult base, final double throughputTolerance,
+                                       final double allocationTolerance) {
+        String key = result.getScenario().getKey();
+        List<String> regressions = new ArrayList<>();
+        double minimum = base.getRecordsPerSecond() * (1 - throughputTolerance);
+        if (result.getRecordsPerSecond() < minimum) {
+            regressions.add(String.format("%s: %.0f records/s, baseline %.0f (%+.1f%%, tolerance -%.0f%%)", key,
+                    result.getRecordsPerSecond(), base.getRecordsPerSecond(),
+                    change(result.getRecordsPerSecond(), base.getRecordsPerSecond()), throughputTolerance * 100));
+        }
+        // NaN when either JVM could not measure allocation, and then the comparison is false
+        double maximum = base.getAllocatedBytesPerRecord() * (1 + allocationTolerance);
+        if (result.getAllocatedBytesPerRecord() > maximum) {
+            regressions.add(String.format("%s: %.0f allocated bytes/record, baseline %.0f (%+.1f%%, tolerance +%.0f%%)", key,
+                    result.getAllocatedBytesPerRecord(), base.getAllocatedBytesPerRecord(),
+                    change(result.getAllocatedBytesPerRecord(), base.getAllocatedBytesPerRecord()), allocationTolerance * 100));
+        }
+        return regressions;
+    }
+
+    /**
+     * @brief Resultados indexados por la clave de su escenario
+     * @return Mapa en el orden de los resultados
+     */
+    public Map<String, ScenarioResult> byKey() {
+        Map<String, ScenarioResult> byKey = new LinkedHashMap<>();
+        for (ScenarioResult result : results) {
+            byKey.put(result.getScenario().getKey(), result);
+        }
+        return byKey;
+    }
+
+    /**
+     * @brief Añade el resultado de un escenario
+     * @param result Resultado a añadir
+     */
+    public void addResult(final ScenarioResult result) {
+        results.add(requireNonNull(result, "result"));
+    }
+
+    public String getJavaVersion() {
+        return javaVersion;
+    }
+
+    public void setJavaVersion(final String javaVersion) {
+        this.javaVersion = javaVersion;
+    }
+
+    public int getProcessors() {
+        return processors;
+    }
+
+    public void setProcessors(final int processors) {
+        this.processors = processors;
+    }
+
+    public List<ScenarioResult> getResults() {
+        return results;
+    }
+
+    public void setResults(final List<ScenarioResult> results) {
+        this.results = results;
+    }
+
+    private static double change(final double value, final double baseline) {
+        return (value / baseline - 1) * 100;
+    }
+}
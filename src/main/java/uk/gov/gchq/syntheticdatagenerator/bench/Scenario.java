@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.bench;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/*****************************************************************************
+ * @class Scenario
+ * @brief Un escenario de la matriz de rendimiento: tipo de persona, formato, hilos y numero de registros
+ * @details Los registros son el total del escenario y se reparten en un fichero por hilo, como en CreateData con tantos
+ * ficheros como hilos
+ * @version 1.0
+ ****************************************************************************/
+public class Scenario {
+    private String type;
+    private String format;
+    private int threads;
+    private long records;
+
+    /**
+     * @brief Constructor por defecto, necesario para la deserializacion
+     */
+    public Scenario() {
+    }
+
+    /**
+     * @brief Constructor de la clase
+     * @param type Tipo de persona, alumno o pas
+     * @param format Nombre del formato, por ejemplo avro
+     * @param threads Numero de hilos escritores
+     * @param records Numero total de registros
+     */
+    public Scenario(final String type, final String format, final int threads, final long records) {
+        if (threads < 1 || records < threads) {
+            throw new IllegalArgumentException("A scenario needs at least one thread and one record per thread");
+        }
+        this.type = type;
+        this.format = format;
+        this.threads = threads;
+        this.records = records;
+    }
+
+    /**
+     * @brief Producto cartesiano de las dimensiones de la matriz
+     * @param types Tipos de persona
+     * @param formats Formatos
+     * @param threads Numeros de hilos
+     * @param records Numeros de registros
+     * @return Un escenario por combinacion, ordenados por tipo, formato, hilos y registros
+     */
+    public static List<Scenario> matrix(final List<String> types, final List<String> formats, final List<Integer> threads, final List<Long> records) {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String type : types) {
+            for (String format : formats) {
+                for (int numberOfThreads : threads) {
+                    for (long numberOfRecords : records) {
+                        scenarios.add(new Scenario(type, format, numberOfThreads, numberOfRecords));
+                    }
+                }
+            }
+        }
+        return scenarios;
+    }
+
+    /**
+     * @brief Clave con la que se empareja el escenario con el de la linea base
+     * @return Por ejemplo alumno/avro/threads=4/records=10000
+     */
+    @JsonIgnore
+    public String getKey() {
+        return type + "/" + format + "/threads=" + threads + "/records=" + records;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(final String type) {
+        this.type = type;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(final String format) {
+        this.format = format;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(final int threads) {
+        this.threads = threads;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public void setRecords(final long records) {
+        this.records = records;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", Scenario.class.getSimpleName() + "[", "]")
+                .add("type='" + type + "'")
+                .add("format='" + format + "'")
+                .add("threads=" + threads)
+                .add("records=" + records)
+                .toString();
+    }
+}
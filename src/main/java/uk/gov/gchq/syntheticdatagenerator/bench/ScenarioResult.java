@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/*****************************************************************************
+ * @class ScenarioResult
+ * @brief Resultado de un escenario: registros por segundo y bytes asignados y escritos por registro
+ * @details Los registros por segundo son los de la mejor iteracion medida y los bytes asignados la mediana. Tambien se
+ * guardan los registros por segundo de cada iteracion para ver su dispersion. Los bytes asignados son NaN si la JVM no
+ * permite medir la memoria asignada por hilo
+ * @version 1.0
+ ****************************************************************************/
+public class ScenarioResult {
+    private Scenario scenario;
+    private double recordsPerSecond;
+    private double allocatedBytesPerRecord;
+    private double outputBytesPerRecord;
+    private List<Double> iterations = new ArrayList<>();
+
+    /**
+     * @brief Constructor por defecto, necesario para la deserializacion
+     */
+    public ScenarioResult() {
+    }
+
+    /**
+     * @brief Constructor de la clase
+     * @param scenario Escenario medido
+     * @param recordsPerSecond Registros por segundo de la mejor iteracion
+     * @param allocatedBytesPerRecord Mediana de los bytes asignados en el heap por registro
+     * @param outputBytesPerRecord Bytes de salida por registro
+     * @param iterations Registros por segundo de cada iteracion medida
+     */
+    public ScenarioResult(final Scenario scenario, final double recordsPerSecond, final double allocatedBytesPerRecord,
+                          final double outputBytesPerRecord, final List<Double> iterations) {
+        this.scenario = scenario;
+        this.recordsPerSecond = recordsPerSecond;
+        this.allocatedBytesPerRecord = allocatedBytesPerRecord;
+        this.outputBytesPerRecord = outputBytesPerRecord;
+        this.iterations = new ArrayList<>(iterations);
+    }
+
+    /**
+     * @brief Combina dos medidas del mismo escenario quedandose con la mejor de cada valor
+     * @param other Otra medida del escenario
+     * @return Resultado con los mayores registros por segundo, los menores bytes asignados y todas las iteraciones
+     */
+    public ScenarioResult best(final ScenarioResult other) {
+        List<Double> all = new ArrayList<>(iterations);
+        all.addAll(other.iterations);
+        double allocated = Double.isNaN(allocatedBytesPerRecord) ? other.allocatedBytesPerRecord
+                : Math.min(allocatedBytesPerRecord, other.allocatedBytesPerRecord);
+        return new ScenarioResult(scenario, Math.max(recordsPerSecond, other.recordsPerSecond), allocated,
+                outputBytesPerRecord, all);
+    }
+
+    public Scenario getScenario() {
+        return scenario;
+    }
+
+    public void setScenario(final Scenario scenario) {
+        this.scenario = scenario;
+    }
+
+    public double getRecordsPerSecond() {
+        return recordsPerSecond;
+    }
+
+    public void setRecordsPerSecond(final double recordsPerSecond) {
+        this.recordsPerSecond = recordsPerSecond;
+    }
+
+    public double getAllocatedBytesPerRecord() {
+        return allocatedBytesPerRecord;
+    }
+
+    public void setAllocatedBytesPerRecord(final double allocatedBytesPerRecord) {
+        this.allocatedBytesPerRecord = allocatedBytesPerRecord;
+    }
+
+    public double getOutputBytesPerRecord() {
+        return outputBytesPerRecord;
+    }
+
+    public void setOutputBytesPerRecord(final double outputBytesPerRecord) {
+        this.outputBytesPerRecord = outputBytesPerRecord;
+    }
+
+    public List<Double> getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(final List<Double> iterations) {
+        this.iterations = iterations;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", ScenarioResult.class.getSimpleName() + "[", "]")
+                .add("scenario=" + scenario)
+                .add("recordsPerSecond=" + recordsPerSecond)
+                .add("allocatedBytesPerRecord=" + allocatedBytesPerRecord)
+                .add("outputBytesPerRecord=" + outputBytesPerRecord)
+                .toString();
+    }
+}
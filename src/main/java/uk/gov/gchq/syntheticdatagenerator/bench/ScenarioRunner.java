@@ -0,0 +1,200 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.bench;
+
+import org.apache.commons.io.FileUtils;
+import uk.gov.gchq.syntheticdatagenerator.CreateData;
+import uk.gov.gchq.syntheticdatagenerator.CreateDataFile;
+import uk.gov.gchq.syntheticdatagenerator.output.DiscardingOutputSettings;
+import uk.gov.gchq.syntheticdatagenerator.output.ManifestEntry;
+import uk.gov.gchq.syntheticdatagenerator.output.OutputSettings;
+import uk.gov.gchq.syntheticdatagenerator.serialise.SerialiserFactory;
+import uk.gov.gchq.syntheticdatagenerator.serialise.Serialisers;
+import uk.gov.gchq.syntheticdatagenerator.types.PersonType;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*****************************************************************************
+ * @class ScenarioRunner
+ * @brief Mide un escenario escribiendo sus ficheros con CreateDataFile en un destino que descarta los bytes
+ * @details Cada iteracion escribe un fichero por hilo con la misma semilla, de modo que todas generan los mismos
+ * registros. Las iteraciones de calentamiento se descartan para que el JIT haya compilado el camino de escritura antes
+ * de medir. Tras el minimo de calentamiento se sigue calentando hasta que dos iteraciones seguidas difieren menos de un
+ * 5% en registros por segundo, o hasta el maximo de calentamiento, para no medir mientras el JIT sigue compilando. Los registros por segundo son los de la mejor iteracion medida, porque el ruido de otros procesos y del GC
+ * solo hace las iteraciones mas lentas, y los bytes asignados la mediana, que apenas varian. La memoria asignada se
+ * mide en cada hilo escritor con el ThreadMXBean de HotSpot
+ * @version 1.0
+ ****************************************************************************/
+public final class ScenarioRunner {
+    private static final double STABLE_TOLERANCE = 0.05;
+
+    private final int warmupIterations;
+    private final int maxWarmupIterations;
+    private final int iterations;
+    private final long seed;
+
+    /**
+     * @brief Medida de una iteracion
+     */
+    private static final class Measurement {
+        private final double recordsPerSecond;
+        private final double allocatedBytes;
+        private final long outputBytes;
+
+        private Measurement(final double recordsPerSecond, final double allocatedBytes, final long outputBytes) {
+            this.recordsPerSecond = recordsPerSecond;
+            this.allocatedBytes = allocatedBytes;
+            this.outputBytes = outputBytes;
+        }
+    }
+
+    /**
+     * @brief Constructor de la clase, con un numero fijo de iteraciones de calentamiento
+     * @param warmupIterations Iteraciones que se ejecutan sin medir antes de cada escenario
+     * @param iterations Iteraciones medidas
+     * @param seed Semilla de los registros
+     */
+    public ScenarioRunner(final int warmupIterations, final int iterations, final long seed) {
+        this(warmupIterations, warmupIterations, iterations, seed);
+    }
+
+    /**
+     * @brief Constructor de la clase
+     * @param warmupIterations Iteraciones minimas que se ejecutan sin medir antes de cada escenario
+     * @param maxWarmupIterations Iteraciones maximas sin medir si los registros por segundo no se estabilizan
+     * @param iterations Iteraciones medidas
+     * @param seed Semilla de los registros
+     */
+    public ScenarioRunner(final int warmupIterations, final int maxWarmupIterations, final int iterations, final long seed) {
+        if (warmupIterations < 0 || maxWarmupIterations < warmupIterations || iterations < 1) {
+            throw new IllegalArgumentException("warmupIterations must not be negative or above maxWarmupIterations and iterations must be at least 1");
+        }
+        this.warmupIterations = warmupIterations;
+        this.maxWarmupIterations = maxWarmupIterations;
+        this.iterations = iterations;
+        this.seed = seed;
+    }
+
+    /**
+     * @brief Mide un escenario
+     * @param scenario Escenario a medir
+     * @return Los registros por segundo de la mejor iteracion y la mediana de los bytes asignados
+     * @throws IOException Si el formato o el tipo no existen o falla la escritura de un fichero
+     */
+    public ScenarioResult run(final Scenario scenario) throws IOException {
+        SerialiserFactory factory = Serialisers.forName(scenario.getFormat())
+                .orElseThrow(() -> new IOException("Unknown format " + scenario.getFormat()));
+        PersonType type = PersonType.fromName(scenario.getType())
+                .orElseThrow(() -> new IOException("Unknown type " + scenario.getType()));
+        File directory = Files.createTempDirectory("bench").toFile();
+        ExecutorService executors = Executors.newFixedThreadPool(scenario.getThreads(), CreateData.createDaemonThreadFactory());
+        try {
+            double previous = Double.NaN;
+            for (int i = 0; i < maxWarmupIterations; i++) {
+                double current = iteration(scenario, factory, type, directory, executors).recordsPerSecond;
+                if (i + 1 >= warmupIterations && Math.abs(current - previous) <= STABLE_TOLERANCE * previous) {
+                    break;
+                }
+                previous = current;
+            }
+            List<Double> recordsPerSecond = new ArrayList<>();
+            List<Double> allocatedBytes = new ArrayList<>();
+            long outputBytes = 0;
+            for (int i = 0; i < iterations; i++) {
+                Measurement measurement = iteration(scenario, factory, type, directory, executors);
+                recordsPerSecond.add(measurement.recordsPerSecond);
+                allocatedBytes.add(measurement.allocatedBytes);
+                outputBytes = measurement.outputBytes;
+            }
+            return new ScenarioResult(scenario, Collections.max(recordsPerSecond), median(allocatedBytes) / scenario.getRecords(),
+                    (double) outputBytes / scenario.getRecords(), recordsPerSecond);
+        } finally {
+            executors.shutdownNow();
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+
+    private Measurement iteration(final Scenario scenario, final SerialiserFactory factory, final PersonType type,
+                                  final File directory, final ExecutorService executors) throws IOException {
+        OutputSettings settings = new DiscardingOutputSettings();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        boolean measureAllocation = threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemoryEnabled();
+        long perThread = scenario.getRecords() / scenario.getThreads();
+        List<Callable<long[]>> tasks = new ArrayList<>();
+        for (int i = 0; i < scenario.getThreads(); i++) {
+            long firstIndex = i * perThread;
+            long records = i == scenario.getThreads() - 1 ? scenario.getRecords() - firstIndex : perThread;
+            File file = new File(directory, "bench_" + i + factory.getExtension());
+            tasks.add(() -> {
+                long before = measureAllocation ? allocatedBytes(threads) : 0;
+                CreateDataFile task = new CreateDataFile(records, firstIndex, seed, file, factory, type, settings);
+                if (!task.call()) {
+                    throw new IOException("Unable to write " + file);
+                }
+                long allocated = measureAllocation ? allocatedBytes(threads) - before : 0;
+                long bytes = 0;
+                for (ManifestEntry entry : task.getFiles()) {
+                    bytes += entry.getBytes();
+                }
+                return new long[]{allocated, bytes};
+            });
+        }
+        long startTime = System.nanoTime();
+        long allocated = 0;
+        long bytes = 0;
+        try {
+            for (Future<long[]> response : executors.invokeAll(tasks)) {
+                long[] measurement = response.get();
+                allocated += measurement[0];
+                bytes += measurement[1];
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running " + scenario.getKey(), e);
+        } catch (ExecutionException e) {
+            throw new IOException("Unable to run " + scenario.getKey(), e.getCause());
+        }
+        double seconds = Math.max(System.nanoTime() - startTime, 1L) / 1e9;
+        return new Measurement(scenario.getRecords() / seconds, measureAllocation ? allocated : Double.NaN, bytes);
+    }
+
+    private static long allocatedBytes(final ThreadMXBean threads) {
+        return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static double median(final List<Double> values) {
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    }
+}
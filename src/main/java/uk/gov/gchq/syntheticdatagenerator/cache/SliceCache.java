@@ -0,0 +1,326 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.cache;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.syntheticdatagenerator.PersonGenerator;
+import uk.gov.gchq.syntheticdatagenerator.serialise.RecordWriter;
+import uk.gov.gchq.syntheticdatagenerator.serialise.Serialiser;
+import uk.gov.gchq.syntheticdatagenerator.serialise.SerialiserFactory;
+import uk.gov.gchq.syntheticdatagenerator.types.Person;
+import uk.gov.gchq.syntheticdatagenerator.types.PersonType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class SliceCache
+ * @brief Cache acotada de tramos de registros ya codificados, por tipo, formato, semilla y rango
+ * @details Los tramos se guardan en memoria como bytes, de modo que un tramo repetido se sirve sin volver a generarlo,
+ * como una vista de solo lectura de los bytes de la cache, que nadie puede modificar. Cuando
+ * los tramos superan maxBytes se descartan los usados hace mas tiempo (LRU) y, si hay un directorio de desbordamiento,
+ * pasan a disco, que a su vez se limita a maxSpillBytes. Si varios hilos piden a la vez un tramo que no esta, solo uno lo
+ * genera y el resto esperan su resultado. Es thread safe
+ * @version 1.0
+ ****************************************************************************/
+public final class SliceCache implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SliceCache.class);
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final long maxBytes;
+    private final File spillDirectory;
+    private final long maxSpillBytes;
+    // Both maps are in access order, so the first entry is the least recently used
+    private final LinkedHashMap<SliceKey, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<SliceKey, Long> spilled = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentMap<SliceKey, FutureTask<byte[]>> loading = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Serialiser<Person>> serialisers = new ConcurrentHashMap<>();
+    private long memoryBytes;
+    private long spillBytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @brief Constructor de una cache solo en memoria
+     * @param maxBytes Tamaño maximo de los tramos en memoria
+     */
+    public SliceCache(final long maxBytes) {
+        this(maxBytes, null, 0L);
+    }
+
+    /**
+     * @brief Constructor de la clase
+     * @param maxBytes Tamaño maximo de los tramos en memoria
+     * @param spillDirectory Directorio donde se guardan los tramos descartados de memoria, null para no usar disco
+     * @param maxSpillBytes Tamaño maximo de los tramos en disco
+     */
+    public SliceCache(final long maxBytes, final File spillDirectory, final long maxSpillBytes) {
+        if (maxBytes < 0 || maxSpillBytes < 0) {
+            throw new IllegalArgumentException("Cache sizes cannot be negative");
+        }
+        this.maxBytes = maxBytes;
+        this.spillDirectory = spillDirectory;
+        this.maxSpillBytes = maxSpillBytes;
+    }
+
+    /**
+     * @brief Devuelve un tramo codificado, generandolo si no esta en la cache
+     * @param type Tipo de persona
+     * @param format Formato de salida
+     * @param seed Semilla de los registros
+     * @param from Indice del primer registro
+     * @param count Numero de registros
+     * @return Vista de solo lectura de los bytes del tramo, con su propia posicion
+     * @throws IOException Fallo al codificar el tramo
+     */
+    public ByteBuffer get(final PersonType type, final SerialiserFactory format, final long seed, final long from, final int count) throws IOException {
+        // The bytes are shared with the cache, so callers only get a view they cannot write through
+        return ByteBuffer.wrap(lookup(type, format, seed, from, count)).asReadOnlyBuffer();
+    }
+
+    private byte[] lookup(final PersonType type, final SerialiserFactory format, final long seed, final long from, final int count) throws IOException {
+        requireNonNull(type, "type");
+        requireNonNull(format, "format");
+        SliceKey key = new SliceKey(type.getName(), format.getFormat(), seed, from, count);
+        synchronized (memory) {
+            byte[] slice = memory.get(key);
+            if (slice != null) {
+                hits.increment();
+                return slice;
+            }
+        }
+        FutureTask<byte[]> task = new FutureTask<>(() -> load(key, type, format));
+        FutureTask<byte[]> running = loading.putIfAbsent(key, task);
+        if (running == null) {
+            running = task;
+            try {
+                task.run();
+            } finally {
+                loading.remove(key, task);
+            }
+        } else {
+            // Another thread is creating the same slice
+            hits.increment();
+        }
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for slice " + key);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Unable to create slice " + key, e.getCause());
+        }
+    }
+
+    /**
+     * @brief Busca el tramo en disco o lo genera, y lo guarda en memoria
+     */
+    private byte[] load(final SliceKey key, final PersonType type, final SerialiserFactory format) throws IOException {
+        synchronized (memory) {
+            // Loaded by another thread between the first lookup and this load
+            byte[] slice = memory.get(key);
+            if (slice != null) {
+                hits.increment();
+                return slice;
+            }
+        }
+        byte[] slice = readSpilled(key);
+        if (slice != null) {
+            diskHits.increment();
+        } else {
+            misses.increment();
+            slice = encode(type, format, key);
+        }
+        put(key, slice);
+        return slice;
+    }
+
+    private byte[] encode(final PersonType type, final SerialiserFactory format, final SliceKey key) throws IOException {
+        Serialiser<Person> serialiser = serialisers.computeIfAbsent(key.getFormat() + "/" + key.getType(),
+                name -> format.create(type.getDomainClass()));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (RecordWriter<Person> writer = serialiser.open(out)) {
+            writer.write(PersonGenerator.builder().type(type).seed(key.getSeed()).from(key.getFrom()).count(key.getCount()).build().iterator());
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @brief Guarda un tramo en memoria y pasa a disco los que no caben
+     */
+    private void put(final SliceKey key, final byte[] slice) {
+        List<Map.Entry<SliceKey, byte[]>> evicted = new ArrayList<>();
+        synchronized (memory) {
+            if (slice.length > maxBytes) {
+                evicted.add(new AbstractMap.SimpleEntry<>(key, slice));
+            } else if (memory.put(key, slice) == null) {
+                memoryBytes += slice.length;
+                Iterator<Map.Entry<SliceKey, byte[]>> eldest = memory.entrySet().iterator();
+                while (memoryBytes > maxBytes && eldest.hasNext()) {
+                    Map.Entry<SliceKey, byte[]> entry = eldest.next();
+                    eldest.remove();
+                    memoryBytes -= entry.getValue().length;
+                    evictions.increment();
+                    evicted.add(entry);
+                }
+            }
+        }
+        // Disk writes happen outside the lock so that memory hits are never blocked on them
+        for (Map.Entry<SliceKey, byte[]> entry : evicted) {
+            spill(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void spill(final SliceKey key, final byte[] slice) {
+        if (spillDirectory == null || slice.length > maxSpillBytes) {
+            return;
+        }
+        synchronized (spilled) {
+            if (spilled.containsKey(key)) {
+                return;
+            }
+        }
+        File file = new File(spillDirectory, key.fileName());
+        File temp = new File(spillDirectory, key.fileName() + TEMP_SUFFIX);
+        try {
+            Files.createDirectories(spillDirectory.toPath());
+            Files.write(temp.toPath(), slice);
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to spill slice {} to {}", key, spillDirectory, e);
+            FileUtils.deleteQuietly(temp);
+            return;
+        }
+        List<SliceKey> dropped = new ArrayList<>();
+        synchronized (spilled) {
+            if (spilled.put(key, (long) slice.length) == null) {
+                spillBytes += slice.length;
+            }
+            Iterator<Map.Entry<SliceKey, Long>> eldest = spilled.entrySet().iterator();
+            while (spillBytes > maxSpillBytes && eldest.hasNext()) {
+                Map.Entry<SliceKey, Long> entry = eldest.next();
+                eldest.remove();
+                spillBytes -= entry.getValue();
+                dropped.add(entry.getKey());
+            }
+        }
+        for (SliceKey droppedKey : dropped) {
+            FileUtils.deleteQuietly(new File(spillDirectory, droppedKey.fileName()));
+        }
+    }
+
+    private byte[] readSpilled(final SliceKey key) throws IOException {
+        synchronized (spilled) {
+            if (spilled.get(key) == null) {
+                return null;
+            }
+        }
+        try {
+            return Files.readAllBytes(new File(spillDirectory, key.fileName()).toPath());
+        } catch (IOException e) {
+            // Dropped from disk by another thread since the lookup
+            LOGGER.debug("Spilled slice {} is gone", key, e);
+            return null;
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getDiskHits() {
+        return diskHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @brief Tamaño de los tramos en memoria
+     * @return Bytes en memoria
+     */
+    public long getMemoryBytes() {
+        synchronized (memory) {
+            return memoryBytes;
+        }
+    }
+
+    /**
+     * @brief Tamaño de los tramos en disco
+     * @return Bytes en disco
+     */
+    public long getSpillBytes() {
+        synchronized (spilled) {
+            return spillBytes;
+        }
+    }
+
+    /**
+     * @brief Borra los tramos guardados en disco
+     */
+    @Override
+    public void close() {
+        List<SliceKey> keys;
+        synchronized (spilled) {
+            keys = new ArrayList<>(spilled.keySet());
+            spilled.clear();
+            spillBytes = 0L;
+        }
+        for (SliceKey key : keys) {
+            FileUtils.deleteQuietly(new File(spillDirectory, key.fileName()));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d hits, %d disk hits, %d misses, %d evictions, %d bytes in memory, %d bytes on disk",
+                getHits(), getDiskHits(), getMisses(), getEvictions(), getMemoryBytes(), getSpillBytes());
+    }
+}
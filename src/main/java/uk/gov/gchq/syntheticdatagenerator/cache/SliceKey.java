@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.cache;
+
+import java.util.Locale;
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class SliceKey
+ * @brief Identifica un tramo de registros codificado: tipo de persona, formato, semilla y rango de indices
+ * @version 1.0
+ ****************************************************************************/
+public final class SliceKey {
+    private final String type;
+    private final String format;
+    private final long seed;
+    private final long from;
+    private final int count;
+
+    /**
+     * @brief Constructor de la clase
+     * @param type Nombre del tipo de persona
+     * @param format Nombre del formato de salida
+     * @param seed Semilla de los registros
+     * @param from Indice del primer registro
+     * @param count Numero de registros
+     */
+    public SliceKey(final String type, final String format, final long seed, final long from, final int count) {
+        this.type = requireNonNull(type, "type");
+        this.format = requireNonNull(format, "format");
+        this.seed = seed;
+        this.from = from;
+        this.count = count;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @brief Nombre con el que el tramo se guarda en disco
+     * @return Nombre de fichero unico para la clave
+     */
+    public String fileName() {
+        return String.format(Locale.ROOT, "%s_%s_%d_%d_%d.slice", type, format, seed, from, count);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SliceKey)) {
+            return false;
+        }
+        SliceKey other = (SliceKey) o;
+        return seed == other.seed && from == other.from && count == other.count && type.equals(other.type) && format.equals(other.format);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, format, seed, from, count);
+    }
+
+    @Override
+    public String toString() {
+        return type + "/" + format + "?seed=" + seed + "&from=" + from + "&count=" + count;
+    }
+}
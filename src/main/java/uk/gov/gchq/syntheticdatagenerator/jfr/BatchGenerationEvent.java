@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/*****************************************************************************
+ * @class BatchGenerationEvent
+ * @brief Generacion de un lote de registros en el modo stream
+ * @details Un evento por lote de --batch-size registros, en el hilo generador que lo crea
+ * @version 1.0
+ ****************************************************************************/
+@Name("uk.gov.gchq.syntheticdatagenerator.BatchGeneration")
+@Label("Batch Generation")
+@Category({"Synthetic Data Generator", "Generation"})
+public final class BatchGenerationEvent extends Event {
+    @Label("Type")
+    @Description("Tipo de persona")
+    public String type;
+
+    @Label("First Index")
+    @Description("Indice global del primer registro")
+    public long firstIndex;
+
+    @Label("Records")
+    @Description("Registros del lote")
+    public int records;
+}
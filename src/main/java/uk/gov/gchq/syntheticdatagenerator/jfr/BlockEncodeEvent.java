@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/*****************************************************************************
+ * @class BlockEncodeEvent
+ * @brief Codificacion y compresion de un bloque avro en el pool de codificacion
+ * @details Un evento por bloque de --block-records registros cuando se usa --encode-threads
+ * @version 1.0
+ ****************************************************************************/
+@Name("uk.gov.gchq.syntheticdatagenerator.BlockEncode")
+@Label("Block Encode")
+@Category({"Synthetic Data Generator", "Serialisation"})
+public final class BlockEncodeEvent extends Event {
+    @Label("Records")
+    @Description("Registros del bloque")
+    public int records;
+
+    @Label("Bytes")
+    @Description("Bytes del bloque codificado")
+    @DataAmount(DataAmount.BYTES)
+    public long bytes;
+
+    @Label("Codec")
+    @Description("Codec de los bloques")
+    public String codec;
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/*****************************************************************************
+ * @class BufferWriteEvent
+ * @brief Escritura de un buffer en el canal de un fichero
+ * @details Un evento por buffer de --buffer-size, incluido el fsync que provoque
+ * @version 1.0
+ ****************************************************************************/
+@Name("uk.gov.gchq.syntheticdatagenerator.BufferWrite")
+@Label("Buffer Write")
+@Category({"Synthetic Data Generator", "Output"})
+public final class BufferWriteEvent extends Event {
+    @Label("Bytes")
+    @Description("Bytes escritos")
+    @DataAmount(DataAmount.BYTES)
+    public long bytes;
+
+    @Label("Synced")
+    @Description("Indica si se hizo fsync tras escribir")
+    public boolean synced;
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/*****************************************************************************
+ * @class EncryptionEvent
+ * @brief Cifrado de un trozo de la salida
+ * @details Un evento por trozo de --encrypt-chunk, en el hilo de cifrado
+ * @version 1.0
+ ****************************************************************************/
+@Name("uk.gov.gchq.syntheticdatagenerator.Encryption")
+@Label("Encryption")
+@Category({"Synthetic Data Generator", "Output"})
+public final class EncryptionEvent extends Event {
+    @Label("Chunk")
+    @Description("Numero del trozo en el fichero")
+    public long chunk;
+
+    @Label("Bytes")
+    @Description("Bytes cifrados")
+    @DataAmount(DataAmount.BYTES)
+    public long bytes;
+}
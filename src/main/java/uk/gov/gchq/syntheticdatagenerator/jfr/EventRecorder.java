@@ -0,0 +1,204 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.jfr;
+
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+
+/*****************************************************************************
+ * @class EventRecorder
+ * @brief Crea y termina los eventos de Flight Recorder
+ * @details Es la unica clase, junto a los eventos, que usa jdk.jfr. Solo se llama desde {@link JfrEvents} y
+ * {@link GenerationEvents} cuando {@link JfrEvents#AVAILABLE}, asi que sin Flight Recorder la JVM nunca la carga.
+ * El campo en curso se guarda por hilo, y solo se busca cuando hay una grabacion con {@link FieldGenerationEvent}
+ * activado, de modo que sin ella cada campo cuesta la lectura de un volatile
+ * @version 1.0
+ ****************************************************************************/
+final class EventRecorder {
+    private static final ThreadLocal<FieldState> CURRENT = ThreadLocal.withInitial(FieldState::new);
+    private static volatile boolean fieldsEnabled;
+
+    static {
+        try {
+            // The recordings decide which events are enabled, so the flag is refreshed whenever one starts or stops
+            FlightRecorder.addListener(new FlightRecorderListener() {
+                @Override
+                public void recorderInitialized(final FlightRecorder recorder) {
+                    refresh();
+                }
+
+                @Override
+                public void recordingStateChanged(final Recording recording) {
+                    refresh();
+                }
+            });
+        } catch (IllegalStateException | SecurityException e) {
+            // Flight Recorder is not available in this JVM, so there is nothing to record
+            fieldsEnabled = false;
+        }
+    }
+
+    private EventRecorder() {
+    }
+
+    /**
+     * @brief Campo en curso de un hilo
+     */
+    private static final class FieldState {
+        private String type;
+        private FieldGenerationEvent event;
+    }
+
+    static Object beginRecord(final String type) {
+        RecordGenerationEvent event = new RecordGenerationEvent();
+        event.type = type;
+        event.begin();
+        if (fieldsEnabled) {
+            FieldState state = CURRENT.get();
+            state.type = type;
+            state.event = null;
+        }
+        return event;
+    }
+
+    static void beginField(final String field) {
+        if (!fieldsEnabled) {
+            return;
+        }
+        FieldState state = CURRENT.get();
+        if (state.event != null) {
+            state.event.commit();
+        }
+        FieldGenerationEvent event = new FieldGenerationEvent();
+        event.type = state.type;
+        event.field = field;
+        event.begin();
+        state.event = event;
+    }
+
+    static void endRecord(final Object event) {
+        if (fieldsEnabled) {
+            FieldState state = CURRENT.get();
+            if (state.event != null) {
+                state.event.commit();
+                state.event = null;
+            }
+        }
+        ((RecordGenerationEvent) event).commit();
+    }
+
+    static Object beginFileWrite() {
+        FileWriteEvent event = new FileWriteEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitFileWrite(final Object event, final String file, final String format, final long records, final long bytes) {
+        FileWriteEvent fileEvent = (FileWriteEvent) event;
+        fileEvent.file = file;
+        fileEvent.format = format;
+        fileEvent.records = records;
+        fileEvent.bytes = bytes;
+        fileEvent.commit();
+    }
+
+    static Object beginRecordSerialise() {
+        RecordSerialiseEvent event = new RecordSerialiseEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitRecordSerialise(final Object event, final String format) {
+        RecordSerialiseEvent serialiseEvent = (RecordSerialiseEvent) event;
+        serialiseEvent.format = format;
+        serialiseEvent.commit();
+    }
+
+    static Object beginBatchGeneration() {
+        BatchGenerationEvent event = new BatchGenerationEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitBatchGeneration(final Object event, final String type, final long firstIndex, final int records) {
+        BatchGenerationEvent batchEvent = (BatchGenerationEvent) event;
+        batchEvent.type = type;
+        batchEvent.firstIndex = firstIndex;
+        batchEvent.records = records;
+        batchEvent.commit();
+    }
+
+    static Object beginBlockEncode() {
+        BlockEncodeEvent event = new BlockEncodeEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitBlockEncode(final Object event, final int records, final long bytes, final String codec) {
+        BlockEncodeEvent blockEvent = (BlockEncodeEvent) event;
+        blockEvent.records = records;
+        blockEvent.bytes = bytes;
+        blockEvent.codec = codec;
+        blockEvent.commit();
+    }
+
+    static Object beginBufferWrite() {
+        BufferWriteEvent event = new BufferWriteEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitBufferWrite(final Object event, final long bytes, final boolean synced) {
+        BufferWriteEvent bufferEvent = (BufferWriteEvent) event;
+        bufferEvent.bytes = bytes;
+        bufferEvent.synced = synced;
+        bufferEvent.commit();
+    }
+
+    static Object beginCompression() {
+        CompressionEvent event = new CompressionEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitCompression(final Object event, final long bytesIn, final long bytesOut) {
+        CompressionEvent compressionEvent = (CompressionEvent) event;
+        compressionEvent.bytesIn = bytesIn;
+        compressionEvent.bytesOut = bytesOut;
+        compressionEvent.commit();
+    }
+
+    static Object beginEncryption() {
+        EncryptionEvent event = new EncryptionEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitEncryption(final Object event, final long chunk, final long bytes) {
+        EncryptionEvent encryptionEvent = (EncryptionEvent) event;
+        encryptionEvent.chunk = chunk;
+        encryptionEvent.bytes = bytes;
+        encryptionEvent.commit();
+    }
+
+    private static void refresh() {
+        fieldsEnabled = EventType.getEventType(FieldGenerationEvent.class).isEnabled();
+    }
+}
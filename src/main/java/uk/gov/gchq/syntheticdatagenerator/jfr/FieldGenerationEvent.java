@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/*****************************************************************************
+ * @class FieldGenerationEvent
+ * @brief Generacion de un campo de primer nivel de un registro
+ * @details Desactivado por defecto. Cubre desde que se empieza a generar un campo hasta que se empieza el siguiente,
+ * de modo que con el umbral a 0 la suma por campo muestra si dominan las llamadas a Faker (name, address,
+ * emergencyContacts), el arbol de profesor o mate u otro campo
+ * @version 1.0
+ ****************************************************************************/
+@Name("uk.gov.gchq.syntheticdatagenerator.FieldGeneration")
+@Label("Field Generation")
+@Category({"Synthetic Data Generator", "Generation"})
+@Enabled(false)
+@Threshold("100 us")
+public final class FieldGenerationEvent extends Event {
+    @Label("Type")
+    @Description("Tipo de persona")
+    public String type;
+
+    @Label("Field")
+    @Description("Nombre del campo")
+    public String field;
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/*****************************************************************************
+ * @class FileWriteEvent
+ * @brief Escritura de un fichero de salida, desde que se abre hasta que toma su nombre definitivo
+ * @details Un evento por fichero o por parte, con los registros y los bytes que llegan al disco tras las etapas de
+ * salida
+ * @version 1.0
+ ****************************************************************************/
+@Name("uk.gov.gchq.syntheticdatagenerator.FileWrite")
+@Label("File Write")
+@Category({"Synthetic Data Generator", "Output"})
+public final class FileWriteEvent extends Event {
+    @Label("File")
+    @Description("Nombre del fichero")
+    public String file;
+
+    @Label("Format")
+    @Description("Formato de salida")
+    public String format;
+
+    @Label("Records")
+    @Description("Registros escritos")
+    public long records;
+
+    @Label("Bytes")
+    @Description("Bytes escritos en el fichero")
+    @DataAmount(DataAmount.BYTES)
+    public long bytes;
+}
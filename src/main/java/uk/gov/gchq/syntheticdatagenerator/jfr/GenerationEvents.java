@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.jfr;
+
+/*****************************************************************************
+ * @class GenerationEvents
+ * @brief Emite los eventos de generacion de registros y de sus campos
+ * @details Los campos no tienen un punto donde terminan: cada campo empieza al cambiar la semilla de random a la suya
+ * y termina al empezar el siguiente o al terminar el registro. Como {@link JfrEvents}, no nombra tipos de jdk.jfr y
+ * sin Flight Recorder no hace nada
+ * @version 1.0
+ ****************************************************************************/
+public final class GenerationEvents {
+    private GenerationEvents() {
+    }
+
+    /**
+     * @brief Empieza el evento de un registro
+     * @param type Nombre del tipo de persona
+     * @return Evento a pasar a {@link #endRecord}, null sin Flight Recorder
+     */
+    public static Object beginRecord(final String type) {
+        return JfrEvents.AVAILABLE ? EventRecorder.beginRecord(type) : null;
+    }
+
+    /**
+     * @brief Termina el campo en curso y empieza el siguiente
+     * @param field Nombre del campo que empieza
+     */
+    public static void beginField(final String field) {
+        if (JfrEvents.AVAILABLE) {
+            EventRecorder.beginField(field);
+        }
+    }
+
+    /**
+     * @brief Termina el evento de un registro y el de su ultimo campo
+     * @param event Evento devuelto por {@link #beginRecord}
+     */
+    public static void endRecord(final Object event) {
+        if (event != null) {
+            EventRecorder.endRecord(event);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.jfr;
+
+/*****************************************************************************
+ * @class JfrEvents
+ * @brief Emite los eventos de escritura, serializacion y etapas de salida
+ * @details Los runtimes de Java 8 anteriores a 8u262 no tienen jdk.jfr, asi que esta clase no nombra ningun tipo de
+ * ese paquete: los eventos viajan como Object y solo se crean en {@link EventRecorder}, que la JVM carga la primera vez
+ * que se llama y solo si {@link #AVAILABLE}. Sin Flight Recorder cada metodo devuelve null o no hace nada
+ * @version 1.0
+ ****************************************************************************/
+public final class JfrEvents {
+    /**
+     * True si el runtime tiene Flight Recorder
+     */
+    public static final boolean AVAILABLE = isAvailable();
+
+    private JfrEvents() {
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, JfrEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * @brief Empieza el evento de escritura de un fichero
+     * @return Evento a pasar a {@link #commitFileWrite}, null sin Flight Recorder
+     */
+    public static Object beginFileWrite() {
+        return AVAILABLE ? EventRecorder.beginFileWrite() : null;
+    }
+
+    /**
+     * @brief Termina el evento de escritura de un fichero
+     * @param event Evento devuelto por {@link #beginFileWrite}
+     * @param file Nombre del fichero
+     * @param format Formato de salida
+     * @param records Registros escritos
+     * @param bytes Bytes escritos en el fichero
+     */
+    public static void commitFileWrite(final Object event, final String file, final String format, final long records,
+                                       final long bytes) {
+        if (event != null) {
+            EventRecorder.commitFileWrite(event, file, format, records, bytes);
+        }
+    }
+
+    /**
+     * @brief Empieza el evento de serializacion de un registro
+     * @return Evento a pasar a {@link #commitRecordSerialise}, null sin Flight Recorder
+     */
+    public static Object beginRecordSerialise() {
+        return AVAILABLE ? EventRecorder.beginRecordSerialise() : null;
+    }
+
+    /**
+     * @brief Termina el evento de serializacion de un registro
+     * @param event Evento devuelto por {@link #beginRecordSerialise}
+     * @param format Formato de salida
+     */
+    public static void commitRecordSerialise(final Object event, final String format) {
+        if (event != null) {
+            EventRecorder.commitRecordSerialise(event, format);
+        }
+    }
+
+    /**
+     * @brief Empieza el evento de generacion de un lote del modo stream
+     * @return Evento a pasar a {@link #commitBatchGeneration}, null sin Flight Recorder
+     */
+    public static Object beginBatchGeneration() {
+        return AVAILABLE ? EventRecorder.beginBatchGeneration() : null;
+    }
+
+    /**
+     * @brief Termina el evento de generacion de un lote
+     * @param event Evento devuelto por {@link #beginBatchGeneration}
+     * @param type Nombre del tipo de persona
+     * @param firstIndex Indice global del primer registro del lote
+     * @param records Registros del lote
+     */
+    public static void commitBatchGeneration(final Object event, final String type, final long firstIndex, final int records) {
+        if (event != null) {
+            EventRecorder.commitBatchGeneration(event, type, firstIndex, records);
+        }
+    }
+
+    /**
+     * @brief Empieza el evento de codificacion de un bloque avro
+     * @return Evento a pasar a {@link #commitBlockEncode}, null sin Flight Recorder
+     */
+    public static Object beginBlockEncode() {
+        return AVAILABLE ? EventRecorder.beginBlockEncode() : null;
+    }
+
+    /**
+     * @brief Termina el evento de codificacion de un bloque avro
+     * @param event Evento devuelto por {@link #beginBlockEncode}
+     * @param records Registros del bloque
+     * @param bytes Bytes del bloque codificado
+     * @param codec Codec del bloque
+     */
+    public static void commitBlockEncode(final Object event, final int records, final long bytes, final String codec) {
+        if (event != null) {
+            EventRecorder.commitBlockEncode(event, records, bytes, codec);
+        }
+    }
+
+    /**
+     * @brief Empieza el evento de escritura de un buffer en el fichero
+     * @return Evento a pasar a {@link #commitBufferWrite}, null sin Flight Recorder
+     */
+    public static Object beginBufferWrite() {
+        return AVAILABLE ? EventRecorder.beginBufferWrite() : null;
+    }
+
+    /**
+     * @brief Termina el evento de escritura de un buffer
+     * @param event Evento devuelto por {@link #beginBufferWrite}
+     * @param bytes Bytes escritos
+     * @param synced Indica si se hizo fsync tras escribir
+     */
+    public static void commitBufferWrite(final Object event, final long bytes, final boolean synced) {
+        if (event != null) {
+            EventRecorder.commitBufferWrite(event, bytes, synced);
+        }
+    }
+
+    /**
+     * @brief Empieza el evento de compresion de un bloque gzip
+     * @return Evento a pasar a {@link #commitCompression}, null sin Flight Recorder
+     */
+    public static Object beginCompression() {
+        return AVAILABLE ? EventRecorder.beginCompression() : null;
+    }
+
+    /**
+     * @brief Termina el evento de compresion de un bloque gzip
+     * @param event Evento devuelto por {@link #beginCompression}
+     * @param bytesIn Bytes sin comprimir
+     * @param bytesOut Bytes comprimidos
+     */
+    public static void commitCompression(final Object event, final long bytesIn, final long bytesOut) {
+        if (event != null) {
+            EventRecorder.commitCompression(event, bytesIn, bytesOut);
+        }
+    }
+
+    /**
+     * @brief Empieza el evento de cifrado de un trozo
+     * @return Evento a pasar a {@link #commitEncryption}, null sin Flight Recorder
+     */
+    public static Object beginEncryption() {
+        return AVAILABLE ? EventRecorder.beginEncryption() : null;
+    }
+
+    /**
+     * @brief Termina el evento de cifrado de un trozo
+     * @param event Evento devuelto por {@link #beginEncryption}
+     * @param chunk Numero del trozo en el fichero
+     * @param bytes Bytes cifrados
+     */
+    public static void commitEncryption(final Object event, final long chunk, final long bytes) {
+        if (event != null) {
+            EventRecorder.commitEncryption(event, chunk, bytes);
+        }
+    }
+}
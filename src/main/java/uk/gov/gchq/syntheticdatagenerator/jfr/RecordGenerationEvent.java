@@ -0,0 +1,44 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/*****************************************************************************
+ * @class RecordGenerationEvent
+ * @brief Generacion de un registro completo
+ * @details Desactivado por defecto: con el umbral a 0 hay un evento por registro. Con el umbral por defecto solo
+ * aparecen los registros lentos
+ * @version 1.0
+ ****************************************************************************/
+@Name("uk.gov.gchq.syntheticdatagenerator.RecordGeneration")
+@Label("Record Generation")
+@Category({"Synthetic Data Generator", "Generation"})
+@Enabled(false)
+@Threshold("1 ms")
+public final class RecordGenerationEvent extends Event {
+    @Label("Type")
+    @Description("Tipo de persona")
+    public String type;
+}
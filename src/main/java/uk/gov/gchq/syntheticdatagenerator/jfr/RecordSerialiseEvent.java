@@ -0,0 +1,44 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/*****************************************************************************
+ * @class RecordSerialiseEvent
+ * @brief Serializacion de un registro en el escritor de un fichero
+ * @details Desactivado por defecto. Mide la llamada al RecordWriter, que con JSON, NDJSON, CSV y avro sin hilos de
+ * codificacion incluye Jackson o el DatumWriter de avro
+ * @version 1.0
+ ****************************************************************************/
+@Name("uk.gov.gchq.syntheticdatagenerator.RecordSerialise")
+@Label("Record Serialise")
+@Category({"Synthetic Data Generator", "Serialisation"})
+@Enabled(false)
+@Threshold("1 ms")
+public final class RecordSerialiseEvent extends Event {
+    @Label("Format")
+    @Description("Formato de salida")
+    public String format;
+}
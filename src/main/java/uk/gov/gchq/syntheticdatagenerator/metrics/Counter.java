@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/*****************************************************************************
+ * @class Counter
+ * @brief Contador que solo crece, thread safe
+ * @details Se apoya en un {@link LongAdder}, que reparte las sumas entre celdas cuando varios hilos incrementan a la
+ * vez, asi los hilos escritores no compiten por una misma linea de cache
+ * @version 1.0
+ ****************************************************************************/
+public final class Counter {
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * @brief Suma uno al contador
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * @brief Suma una cantidad al contador
+     * @param amount Cantidad a sumar
+     */
+    public void add(final long amount) {
+        count.add(amount);
+    }
+
+    /**
+     * @brief Devuelve el valor del contador
+     * @return Suma de todos los incrementos
+     */
+    public long get() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.metrics;
+
+/**
+ * A {@code Gauge} reads a value that goes up and down, such as the depth of a queue, when the metrics are reported.
+ * Implementations must be thread safe and cheap to call.
+ */
+@FunctionalInterface
+public interface Gauge {
+
+    /**
+     * @return the current value
+     */
+    long getValue();
+}
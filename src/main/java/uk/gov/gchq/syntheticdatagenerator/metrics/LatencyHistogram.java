@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/*****************************************************************************
+ * @class LatencyHistogram
+ * @brief Histograma de latencias en nanosegundos, thread safe y sin reservas de memoria al registrar
+ * @details Los valores menores que 16 tienen un cubo cada uno y el resto se reparten en 16 cubos por cada potencia de
+ * dos, de modo que un cuantil se devuelve con un error relativo de como mucho un 3%. Los 960 cubos cubren todo el rango
+ * de un long y cada registro es un incremento atomico, asi varios hilos registran a la vez sin bloquearse
+ * @version 1.0
+ ****************************************************************************/
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * @brief Registra una latencia
+     * @param nanos Latencia en nanosegundos, las negativas cuentan como 0
+     */
+    public void record(final long nanos) {
+        long value = Math.max(nanos, 0L);
+        buckets.incrementAndGet(bucket(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * @brief Registra el tiempo transcurrido desde un instante
+     * @param startNanos Instante inicial devuelto por System.nanoTime()
+     */
+    public void recordSince(final long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @brief Devuelve la latencia media
+     * @return Media en nanosegundos, 0 si no hay registros
+     */
+    public double getMean() {
+        long records = count.sum();
+        return records == 0 ? 0.0 : (double) sum.sum() / records;
+    }
+
+    /**
+     * @brief Devuelve un cuantil de las latencias
+     * @param quantile Cuantil entre 0 y 1
+     * @return Punto medio del cubo del cuantil en nanosegundos, el maximo para el cuantil 1 y 0 si no hay registros
+     */
+    public long quantile(final double quantile) {
+        if (quantile < 0.0 || quantile > 1.0) {
+            throw new IllegalArgumentException("quantile must be between 0 and 1");
+        }
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        // The rank is taken over the buckets read above, which may be a little ahead of count
+        long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        if (rank >= total) {
+            return getMax();
+        }
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long lower = lowerBound(i);
+                long width = lowerBound(i + 1) - lower;
+                return Math.min(lower + width / 2, getMax());
+            }
+        }
+        return getMax();
+    }
+
+    private static int bucket(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long lowerBound(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        if (bucket >= BUCKETS) {
+            return Long.MAX_VALUE;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+    }
+}
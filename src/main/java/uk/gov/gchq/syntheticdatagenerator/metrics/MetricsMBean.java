@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class MetricsMBean
+ * @brief Publica las metricas de un {@link MetricsRegistry} como atributos de solo lectura de un MBean
+ * @details Los atributos se calculan en cada consulta, asi las metricas que aparecen durante la ejecucion, como las de
+ * un fichero nuevo, se ven en JConsole o VisualVM sin volver a registrar el MBean
+ * @version 1.0
+ ****************************************************************************/
+public final class MetricsMBean implements DynamicMBean {
+    public static final String DEFAULT_NAME = "uk.gov.gchq.syntheticdatagenerator:type=Metrics";
+
+    private final MetricsRegistry registry;
+
+    /**
+     * @brief Constructor de la clase
+     * @param registry Metricas a publicar
+     */
+    public MetricsMBean(final MetricsRegistry registry) {
+        requireNonNull(registry, "registry");
+        this.registry = registry;
+    }
+
+    /**
+     * @brief Registra las metricas en el servidor de MBeans de la plataforma, sustituyendo a las de una ejecucion
+     * anterior en la misma JVM
+     * @param registry Metricas a publicar
+     * @param name Nombre del MBean
+     * @return Al cerrarlo se elimina el MBean
+     * @throws JMException Nombre no valido o fallo al registrar
+     */
+    public static Closeable register(final MetricsRegistry registry, final String name) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(name);
+        MetricsMBean bean = new MetricsMBean(registry);
+        try {
+            server.registerMBean(bean, objectName);
+        } catch (InstanceAlreadyExistsException e) {
+            server.unregisterMBean(objectName);
+            server.registerMBean(bean, objectName);
+        }
+        return () -> {
+            try {
+                server.unregisterMBean(objectName);
+            } catch (InstanceNotFoundException e) {
+                // Already replaced by a later run
+            } catch (JMException e) {
+                throw new IllegalStateException("Unable to unregister " + objectName, e);
+            }
+        };
+    }
+
+    @Override
+    public Object getAttribute(final String attribute) throws AttributeNotFoundException {
+        Number value = registry.snapshot().get(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return value;
+    }
+
+    @Override
+    public AttributeList getAttributes(final String[] attributes) {
+        Map<String, Number> values = registry.snapshot();
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            Number value = values.get(attribute);
+            if (value != null) {
+                list.add(new Attribute(attribute, value));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(final Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(final AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(final String actionName, final Object[] params, final String[] signature) {
+        throw new UnsupportedOperationException("Metrics have no operations");
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (Map.Entry<String, Number> value : registry.snapshot().entrySet()) {
+            attributes.add(new MBeanAttributeInfo(value.getKey(), value.getValue().getClass().getName(), value.getKey(), true, false, false));
+        }
+        return new MBeanInfo(getClass().getName(), "Metrics of the synthetic data generator",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, null, null);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class MetricsRegistry
+ * @brief Registro de las metricas de una ejecucion, compartido por todos los hilos
+ * @details Cada metrica tiene un nombre con puntos, como records.generated, y opcionalmente una etiqueta que la
+ * separa por fichero o por hilo, como records.written[person_alumno_file0.avro]. Pedir una metrica que ya existe
+ * devuelve la misma instancia, asi que cada hilo la busca una vez y la usa sin mas coste que el de la propia metrica.
+ * Las latencias se guardan en nanosegundos
+ * @version 1.0
+ ****************************************************************************/
+public final class MetricsRegistry {
+    public static final String RECORDS_GENERATED = "records.generated";
+    public static final String RECORDS_SERIALISED = "records.serialised";
+    public static final String RECORDS_WRITTEN = "records.written";
+    public static final String BYTES_WRITTEN = "bytes.written";
+    public static final String GENERATE_LATENCY = "latency.generate";
+    public static final String BLOCK_WRITE_LATENCY = "latency.block-write";
+
+    private static final String[] QUANTILE_NAMES = {"p50", "p90", "p99", "p999"};
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * @brief Nombre de una metrica con etiqueta
+     * @param name Nombre de la metrica
+     * @param tag Etiqueta, como el nombre de un fichero o de un hilo
+     * @return name[tag]
+     */
+    public static String tagged(final String name, final String tag) {
+        return name + "[" + tag + "]";
+    }
+
+    /**
+     * @brief Devuelve un contador, creandolo si no existe
+     * @param name Nombre de la metrica
+     * @return El contador
+     */
+    public Counter counter(final String name) {
+        requireNonNull(name, "name");
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * @brief Devuelve un histograma de latencias, creandolo si no existe
+     * @param name Nombre de la metrica
+     * @return El histograma
+     */
+    public LatencyHistogram histogram(final String name) {
+        requireNonNull(name, "name");
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * @brief Registra un gauge, sustituyendo al que tuviera el mismo nombre
+     * @param name Nombre de la metrica
+     * @param gauge Lectura del valor
+     */
+    public void gauge(final String name, final Gauge gauge) {
+        requireNonNull(name, "name");
+        requireNonNull(gauge, "gauge");
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * @brief Registra la profundidad de la cola de un pool de hilos
+     * @param name Nombre de la metrica
+     * @param executor Pool de hilos, se ignora si no es un {@link ThreadPoolExecutor}
+     */
+    public void queueDepth(final String name, final ExecutorService executor) {
+        if (executor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+            gauge(name, () -> pool.getQueue().size());
+        }
+    }
+
+    /**
+     * @brief Registra el tiempo y el numero de pausas del recolector de basura y la memoria usada del heap
+     */
+    public void registerJvmGauges() {
+        gauge("jvm.gc.time", () -> {
+            long total = 0;
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                total += Math.max(collector.getCollectionTime(), 0L);
+            }
+            return total;
+        });
+        gauge("jvm.gc.count", () -> {
+            long total = 0;
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                total += Math.max(collector.getCollectionCount(), 0L);
+            }
+            return total;
+        });
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        gauge("jvm.heap.used", () -> memory.getHeapMemoryUsage().getUsed());
+    }
+
+    /**
+     * @brief Devuelve el valor de todos los contadores
+     * @return Valores ordenados por nombre
+     */
+    public SortedMap<String, Long> counterValues() {
+        SortedMap<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, Counter> counter : counters.entrySet()) {
+            values.put(counter.getKey(), counter.getValue().get());
+        }
+        return values;
+    }
+
+    /**
+     * @brief Devuelve el valor de todas las metricas. Cada histograma se expande en name.count, name.mean, name.max
+     * y sus cuantiles name.p50, name.p90, name.p99 y name.p999
+     * @return Valores ordenados por nombre
+     */
+    public SortedMap<String, Number> snapshot() {
+        SortedMap<String, Number> values = new TreeMap<>(counterValues());
+        for (Map.Entry<String, Gauge> gauge : gauges.entrySet()) {
+            values.put(gauge.getKey(), gauge.getValue().getValue());
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            String name = entry.getKey();
+            LatencyHistogram histogram = entry.getValue();
+            values.put(name + ".count", histogram.getCount());
+            values.put(name + ".mean", histogram.getMean());
+            values.put(name + ".max", histogram.getMax());
+            for (int i = 0; i < QUANTILES.length; i++) {
+                values.put(name + "." + QUANTILE_NAMES[i], histogram.quantile(QUANTILES[i]));
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class MetricsReporter
+ * @brief Escribe periodicamente las metricas en un fichero JSON lines
+ * @details Cada linea es un objeto con la hora (time, en milisegundos desde epoch), los segundos desde el inicio
+ * (elapsed), el valor de todas las metricas (metrics) y, para cada contador, su incremento por segundo desde la linea
+ * anterior (rates), de modo que records.written y bytes.written dan el rendimiento del intervalo. Al cerrarlo se
+ * escribe una ultima linea con los valores finales
+ * @version 1.0
+ ****************************************************************************/
+public final class MetricsReporter implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsReporter.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final MetricsRegistry registry;
+    private final Writer writer;
+    private final ScheduledExecutorService scheduler;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Long> previous = new HashMap<>();
+    private long previousNanos = startNanos;
+    private boolean closed;
+
+    /**
+     * @brief Crea el fichero e inicia los informes periodicos
+     * @param registry Metricas a escribir
+     * @param file Fichero de salida, se trunca si existe
+     * @param intervalSeconds Segundos entre lineas, 0 para escribir solo la linea final
+     * @throws IOException Fallo al crear el fichero
+     */
+    public MetricsReporter(final MetricsRegistry registry, final File file, final long intervalSeconds) throws IOException {
+        requireNonNull(registry, "registry");
+        requireNonNull(file, "file");
+        this.registry = registry;
+        this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (intervalSeconds > 0) {
+            scheduler.scheduleAtFixedRate(() -> {
+                try {
+                    report();
+                } catch (IOException e) {
+                    LOGGER.warn("Unable to write metrics: {}", e.toString());
+                }
+            }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * @brief Escribe una linea con los valores actuales
+     * @throws IOException Fallo al escribir el fichero
+     */
+    public synchronized void report() throws IOException {
+        if (closed) {
+            return;
+        }
+        long now = System.nanoTime();
+        double seconds = Math.max(now - previousNanos, 1L) / 1e9;
+        ObjectNode line = MAPPER.createObjectNode();
+        line.put("time", System.currentTimeMillis());
+        line.put("elapsed", (now - startNanos) / 1e9);
+        ObjectNode metrics = line.putObject("metrics");
+        for (Map.Entry<String, Number> value : registry.snapshot().entrySet()) {
+            if (value.getValue() instanceof Double) {
+                metrics.put(value.getKey(), value.getValue().doubleValue());
+            } else {
+                metrics.put(value.getKey(), value.getValue().longValue());
+            }
+        }
+        ObjectNode rates = line.putObject("rates");
+        for (Map.Entry<String, Long> counter : registry.counterValues().entrySet()) {
+            long before = previous.getOrDefault(counter.getKey(), 0L);
+            rates.put(counter.getKey(), (counter.getValue() - before) / seconds);
+            previous.put(counter.getKey(), counter.getValue());
+        }
+        previousNanos = now;
+        writer.write(MAPPER.writeValueAsString(line));
+        writer.write('\n');
+        // Each line is complete on disk, so the file can be followed while the run goes on
+        writer.flush();
+    }
+
+    /**
+     * @brief Detiene los informes periodicos, escribe la linea final y cierra el fichero
+     */
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdownNow();
+        try {
+            report();
+        } finally {
+            synchronized (this) {
+                closed = true;
+                writer.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+import uk.gov.gchq.syntheticdatagenerator.jfr.JfrEvents;
+import uk.gov.gchq.syntheticdatagenerator.metrics.Counter;
+import uk.gov.gchq.syntheticdatagenerator.metrics.LatencyHistogram;
+import uk.gov.gchq.syntheticdatagenerator.metrics.MetricsRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class ChannelOutputStream
+ * @brief Escribe un fichero mediante un {@link FileChannel} con doble buffer directo
+ * @details El productor llena un {@link ByteBuffer} directo mientras un hilo de E/S vacia el otro en el canal, asi la
+ * generacion y la escritura se solapan y cada llamada al sistema escribe un buffer completo. Opcionalmente fija la
+ * longitud del fichero al abrirlo y la recorta al cerrarlo, y hace fsync segun una {@link SyncPolicy}. Fijar la
+ * longitud no asigna bloques en disco: en los sistemas de ficheros que lo admiten el fichero queda disperso (sparse)
+ * hasta que se escribe, asi que no adelanta un error de disco lleno ni evita la fragmentacion.
+ * <p>
+ * {@link #flush()} no escribe el buffer parcial: los serialisers hacen flush tras cada bloque y eso anularia el
+ * buffer. Los datos llegan al fichero al llenarse un buffer o al cerrar; la durabilidad la controla la SyncPolicy.
+ * No es thread safe, un unico hilo debe escribir y cerrar el stream
+ * @version 1.0
+ ****************************************************************************/
+public class ChannelOutputStream extends OutputStream {
+    // The producer thread keeps its pair of direct buffers between files, so rolling parts does not leave direct
+    // memory waiting for the garbage collector
+    private static final ThreadLocal<ByteBuffer[]> BUFFER_CACHE = new ThreadLocal<>();
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final ExecutorService executor;
+    private final SyncPolicy syncPolicy;
+    private final boolean preallocated;
+    private final int bufferSize;
+    private final LatencyHistogram writeLatency;
+    private final Counter bytesWritten;
+    private ByteBuffer current;
+    private ByteBuffer spare;
+    private Future<?> pending;
+    private long written;
+    private long sinceSync;
+    private boolean closed;
+
+    /**
+     * @brief Constructor de la clase, abre y trunca el fichero
+     * @param outputFile Fichero de salida
+     * @param executor Pool de hilos de E/S, o null para escribir en el hilo del productor
+     * @param bufferSize Tamaño de cada uno de los dos buffers
+     * @param syncPolicy Politica de fsync
+     * @param preallocateBytes Longitud que se fija al abrir el fichero, sin asignar bloques, 0 para no fijarla
+     * @throws IOException Fallo al abrir el fichero
+     */
+    public ChannelOutputStream(final File outputFile, final ExecutorService executor, final int bufferSize, final SyncPolicy syncPolicy, final long preallocateBytes) throws IOException {
+        this(outputFile, executor, bufferSize, syncPolicy, preallocateBytes, null);
+    }
+
+    /**
+     * @brief Constructor de la clase, abre y trunca el fichero
+     * @param outputFile Fichero de salida
+     * @param executor Pool de hilos de E/S, o null para escribir en el hilo del productor
+     * @param bufferSize Tamaño de cada uno de los dos buffers
+     * @param syncPolicy Politica de fsync
+     * @param preallocateBytes Longitud que se fija al abrir el fichero, sin asignar bloques, 0 para no fijarla
+     * @param metrics Metricas donde se cuentan los bytes escritos y la latencia de escritura de cada buffer, o null
+     * @throws IOException Fallo al abrir el fichero
+     */
+    public ChannelOutputStream(final File outputFile, final ExecutorService executor, final int bufferSize, final SyncPolicy syncPolicy, final long preallocateBytes,
+                               final MetricsRegistry metrics) throws IOException {
+        requireNonNull(outputFile, "outputFile");
+        requireNonNull(syncPolicy, "syncPolicy");
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be positive");
+        }
+        this.file = new RandomAccessFile(outputFile, "rw");
+        try {
+            file.setLength(preallocateBytes);
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+        this.channel = file.getChannel();
+        this.executor = executor;
+        this.syncPolicy = syncPolicy;
+        this.preallocated = preallocateBytes > 0;
+        this.bufferSize = bufferSize;
+        this.writeLatency = metrics == null ? null : metrics.histogram(MetricsRegistry.BLOCK_WRITE_LATENCY);
+        this.bytesWritten = metrics == null ? null : metrics.counter(MetricsRegistry.BYTES_WRITTEN);
+        ByteBuffer[] buffers = BUFFER_CACHE.get();
+        if (buffers != null && buffers[0].capacity() == bufferSize) {
+            BUFFER_CACHE.remove();
+            this.current = buffers[0];
+            this.spare = buffers[1];
+            current.clear();
+            spare.clear();
+        } else {
+            this.current = ByteBuffer.allocateDirect(bufferSize);
+            this.spare = ByteBuffer.allocateDirect(bufferSize);
+        }
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        ensureOpen();
+        if (!current.hasRemaining()) {
+            swap();
+        }
+        current.put((byte) b);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        ensureOpen();
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (!current.hasRemaining()) {
+                swap();
+            }
+            int chunk = Math.min(remaining, current.remaining());
+            current.put(b, offset, chunk);
+            offset += chunk;
+            remaining -= chunk;
+        }
+    }
+
+    /**
+     * @brief Espera a que termine la escritura en curso. El buffer parcial no se escribe, ver la descripcion de la clase
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        awaitPending();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            awaitPending();
+            current.flip();
+            drain(current);
+            if (preallocated) {
+                channel.truncate(written);
+            }
+            if (syncPolicy.isSyncOnClose()) {
+                channel.force(false);
+            }
+        } finally {
+            file.close();
+            // Only reuse the buffers if the I/O thread is no longer touching them
+            if (pending == null) {
+                current.clear();
+                spare.clear();
+                BUFFER_CACHE.set(new ByteBuffer[]{current, spare});
+            }
+        }
+    }
+
+    /**
+     * @brief Bytes escritos en el canal hasta ahora, sin contar los que siguen en los buffers
+     * @return Bytes escritos
+     */
+    public long getBytesWritten() {
+        return written;
+    }
+
+    private void swap() throws IOException {
+        awaitPending();
+        final ByteBuffer full = current;
+        current = spare;
+        spare = full;
+        current.clear();
+        full.flip();
+        if (executor == null) {
+            drain(full);
+        } else {
+            pending = executor.submit(() -> {
+                drain(full);
+                return null;
+            });
+        }
+    }
+
+    private void drain(final ByteBuffer buffer) throws IOException {
+        long start = writeLatency == null ? 0L : System.nanoTime();
+        Object event = JfrEvents.beginBufferWrite();
+        int bytes = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            int count = channel.write(buffer);
+            written += count;
+            sinceSync += count;
+        }
+        boolean synced = syncPolicy.shouldSync(sinceSync);
+        if (synced) {
+            channel.force(false);
+            sinceSync = 0;
+        }
+        JfrEvents.commitBufferWrite(event, bytes, synced);
+        if (writeLatency != null) {
+            // The latency of a block includes the fsync it triggers
+            writeLatency.recordSince(start);
+            bytesWritten.add(bytes);
+        }
+    }
+
+    private void awaitPending() throws IOException {
+        if (pending == null) {
+            return;
+        }
+        try {
+            pending.get();
+            pending = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a buffer to be written");
+        } catch (ExecutionException e) {
+            pending = null;
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to write buffer", e.getCause());
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.gchq.syntheticdatagenerator.utils.Shard;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class Checkpoint
+ * @brief Diario de los ficheros terminados de una ejecucion, para poder reanudarla
+ * @details Es un fichero JSON lines en el directorio de salida. La primera linea guarda los parametros de la
+ * ejecucion y cada linea siguiente un fichero ya renombrado a su nombre final, con su rango de registros. Cada linea se
+ * escribe con fsync, de modo que tras una caida el diario solo contiene ficheros completos. Una ultima linea cortada
+ * por la caida se ignora al leerlo
+ * @version 1.0
+ ****************************************************************************/
+public final class Checkpoint implements Closeable {
+    public static final String FILE_NAME = "checkpoint.jsonl";
+    private static final Logger LOGGER = LoggerFactory.getLogger(Checkpoint.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private static final TypeReference<TreeMap<String, String>> PARAMETERS_TYPE = new TypeReference<TreeMap<String, String>>() {
+    };
+
+    private final File file;
+    private final FileOutputStream out;
+    private final List<ManifestEntry> completed;
+
+    private Checkpoint(final File file, final FileOutputStream out, final List<ManifestEntry> completed) {
+        this.file = file;
+        this.out = out;
+        this.completed = completed;
+    }
+
+    /**
+     * @brief Nombre del diario de un shard, de modo que varios shards pueden escribir en el mismo directorio
+     * @param shard Shard de la ejecucion
+     * @return checkpoint.jsonl, o checkpoint_shard<k>_of<N>.jsonl si la ejecucion esta repartida
+     */
+    public static String fileName(final Shard shard) {
+        return shard.isAll() ? FILE_NAME : "checkpoint_shard" + shard.getIndex() + "_of" + shard.getCount() + ".jsonl";
+    }
+
+    /**
+     * @brief Empieza un diario nuevo, borrando el anterior
+     * @param file Fichero del diario, ver {@link #fileName(Shard)}
+     * @param parameters Parametros de la ejecucion
+     * @return El diario vacio
+     * @throws IOException Fallo al escribir el diario
+     */
+    public static Checkpoint create(final File file, final Map<String, String> parameters) throws IOException {
+        return write(file, parameters, new ArrayList<>());
+    }
+
+    /**
+     * @brief Lee los parametros con los que se empezo el diario de un directorio
+     * @param file Fichero del diario
+     * @return Parametros de la ejecucion, vacios si no hay diario
+     * @throws IOException Fallo al leer el diario
+     */
+    public static Map<String, String> readParameters(final File file) throws IOException {
+        if (!file.isFile()) {
+            return Collections.emptyMap();
+        }
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        return lines.isEmpty() ? Collections.emptyMap() : MAPPER.readValue(lines.get(0), PARAMETERS_TYPE);
+    }
+
+    /**
+     * @brief Abre el diario de una ejecucion anterior para reanudarla. Si no existe empieza uno nuevo
+     * @param file Fichero del diario
+     * @param parameters Parametros de la ejecucion, deben coincidir con los del diario
+     * @return El diario con los ficheros ya terminados
+     * @throws IOException Si los parametros no coinciden o falla la lectura
+     */
+    public static Checkpoint resume(final File file, final Map<String, String> parameters) throws IOException {
+        if (!file.isFile()) {
+            LOGGER.warn("No checkpoint found at {}, starting from the beginning", file);
+            return create(file, parameters);
+        }
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        if (lines.isEmpty()) {
+            return create(file, parameters);
+        }
+        Map<String, String> previous = MAPPER.readValue(lines.get(0), PARAMETERS_TYPE);
+        if (!previous.equals(new TreeMap<>(parameters))) {
+            throw new IOException("Checkpoint " + file + " was written with different parameters " + previous);
+        }
+        List<ManifestEntry> completed = new ArrayList<>();
+        for (int i = 1; i < lines.size(); i++) {
+            try {
+                completed.add(MAPPER.readValue(lines.get(i), ManifestEntry.class));
+            } catch (IOException e) {
+                if (i < lines.size() - 1) {
+                    throw e;
+                }
+                LOGGER.warn("Ignoring a torn last line in {}", file);
+            }
+        }
+        LOGGER.info("Resuming with {} completed files", completed.size());
+        // Rewrite the journal so a torn line does not end up in the middle of it
+        return write(file, parameters, completed);
+    }
+
+    /**
+     * @brief Registra un fichero terminado
+     * @param entry Fichero ya renombrado a su nombre final
+     * @throws IOException Fallo al escribir el diario
+     */
+    public synchronized void commit(final ManifestEntry entry) throws IOException {
+        requireNonNull(entry, "entry");
+        append(MAPPER.writeValueAsString(entry));
+        completed.add(entry);
+    }
+
+    /**
+     * @brief Devuelve los ficheros terminados cuyo rango de registros esta dentro de [firstIndex, endIndex)
+     * @param firstIndex Primer indice del rango
+     * @param endIndex Indice siguiente al ultimo del rango
+     * @return Ficheros ordenados por su primer indice
+     */
+    public synchronized List<ManifestEntry> getCompleted(final long firstIndex, final long endIndex) {
+        List<ManifestEntry> entries = new ArrayList<>();
+        for (ManifestEntry entry : completed) {
+            if (entry.getFirstIndex() >= firstIndex && entry.getEndIndex() <= endIndex) {
+                entries.add(entry);
+            }
+        }
+        entries.sort((a, b) -> Long.compare(a.getFirstIndex(), b.getFirstIndex()));
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * @brief Cierra y borra el diario, se llama cuando la ejecucion termina y ya se ha escrito el manifiesto
+     * @throws IOException Fallo al borrar el diario
+     */
+    public synchronized void delete() throws IOException {
+        close();
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * @brief Escribe el diario completo en un fichero temporal y lo renombra, despues lo abre para añadir lineas
+     */
+    private static Checkpoint write(final File file, final Map<String, String> parameters, final List<ManifestEntry> completed) throws IOException {
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp, false)) {
+            StringBuilder lines = new StringBuilder(MAPPER.writeValueAsString(new TreeMap<>(parameters))).append('\n');
+            for (ManifestEntry entry : completed) {
+                lines.append(MAPPER.writeValueAsString(entry)).append('\n');
+            }
+            out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new Checkpoint(file, new FileOutputStream(file, true), completed);
+    }
+
+    private void append(final String line) throws IOException {
+        out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        out.getFD().sync();
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/*****************************************************************************
+ * @class ChunkedGcm
+ * @brief Formato de los ficheros cifrados con AES-GCM por trozos que se autentican de forma independiente
+ * @details Un fichero es una cabecera de {@value #HEADER_SIZE} bytes (magic, version, tamaño de trozo, sal y prefijo
+ * del nonce, ambos aleatorios por fichero) seguida de los trozos cifrados, cada uno con su etiqueta de
+ * {@value #TAG_SIZE} bytes. Todos los trozos salvo el ultimo tienen el tamaño indicado en la cabecera, como maximo
+ * {@value #MAX_CHUNK_SIZE} bytes.
+ * La clave de cada fichero se deriva de la clave maestra y la sal con HMAC-SHA256. El nonce de cada trozo es el
+ * prefijo, el numero de trozo y un byte que marca el ultimo, y la cabecera se autentica en todos los trozos, de modo que
+ * reordenar, truncar o alterar la cabecera hace fallar el descifrado
+ * @version 1.0
+ ****************************************************************************/
+final class ChunkedGcm {
+    static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+    static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+    static final int TAG_SIZE = 16;
+    static final int HEADER_SIZE = 32;
+
+    private static final byte[] MAGIC = {'S', 'D', 'G', 'E'};
+    private static final byte VERSION = 1;
+    private static final int SALT_SIZE = 16;
+    private static final int PREFIX_SIZE = 7;
+    private static final int NONCE_SIZE = 12;
+    private static final long MAX_CHUNKS = 1L << 32;
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final byte[] KDF_LABEL = "synthetic-data-generator chunked gcm".getBytes(StandardCharsets.UTF_8);
+
+    private final byte[] header;
+    private final SecretKey fileKey;
+    private final byte[] noncePrefix;
+    private final int chunkSize;
+
+    private ChunkedGcm(final byte[] header, final SecretKey fileKey, final byte[] noncePrefix, final int chunkSize) {
+        this.header = header;
+        this.fileKey = fileKey;
+        this.noncePrefix = noncePrefix;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @brief Prepara el cifrado de un fichero nuevo con sal y prefijo de nonce aleatorios
+     * @param masterKey Clave AES de 16, 24 o 32 bytes
+     * @param chunkSize Tamaño en bytes de cada trozo sin cifrar
+     * @param random Fuente de la sal y del prefijo
+     * @return Formato del fichero
+     * @throws IOException Si la clave no es valida
+     */
+    static ChunkedGcm create(final byte[] masterKey, final int chunkSize, final SecureRandom random) throws IOException {
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunkSize must be between 1 and " + MAX_CHUNK_SIZE);
+        }
+        byte[] salt = new byte[SALT_SIZE];
+        byte[] prefix = new byte[PREFIX_SIZE];
+        random.nextBytes(salt);
+        random.nextBytes(prefix);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.put(MAGIC).put(VERSION).putInt(chunkSize).put(salt).put(prefix);
+        return new ChunkedGcm(header.array(), deriveKey(masterKey, salt), prefix, chunkSize);
+    }
+
+    /**
+     * @brief Lee la cabecera de un fichero cifrado
+     * @param masterKey Clave AES con la que se cifro el fichero
+     * @param header Los {@value #HEADER_SIZE} primeros bytes del fichero
+     * @return Formato del fichero
+     * @throws IOException Si la cabecera o la clave no son validas
+     */
+    static ChunkedGcm read(final byte[] masterKey, final byte[] header) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(header);
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(MAGIC, magic)) {
+            throw new IOException("Not an encrypted synthetic data file");
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported encrypted file version " + version);
+        }
+        // The header is only authenticated with the first chunk, so the size is bounded before it is allocated
+        int chunkSize = buffer.getInt();
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IOException("Invalid chunk size " + chunkSize);
+        }
+        byte[] salt = new byte[SALT_SIZE];
+        byte[] prefix = new byte[PREFIX_SIZE];
+        buffer.get(salt).get(prefix);
+        return new ChunkedGcm(header.clone(), deriveKey(masterKey, salt), prefix, chunkSize);
+    }
+
+    /**
+     * @brief Lee una clave maestra codificada en base64 de un fichero, por ejemplo creado con openssl rand -base64 32
+     * @param keyFile Fichero con la clave
+     * @return Clave de 16, 24 o 32 bytes
+     * @throws IOException Si no se puede leer o no tiene un tamaño valido
+     */
+    static byte[] readKey(final File keyFile) throws IOException {
+        String encoded = new String(Files.readAllBytes(keyFile.toPath()), StandardCharsets.US_ASCII).trim();
+        byte[] key;
+        try {
+            key = Base64.getDecoder().decode(encoded);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Key file " + keyFile + " is not base64", e);
+        }
+        checkKey(key);
+        return key;
+    }
+
+    /**
+     * @brief Cifra o descifra un trozo
+     * @param mode Cipher.ENCRYPT_MODE o Cipher.DECRYPT_MODE
+     * @param index Numero de trozo empezando en 0
+     * @param last True si es el ultimo trozo del fichero
+     * @param input Datos de entrada
+     * @param length Numero de bytes de entrada
+     * @return Datos de salida, con la etiqueta al final si se cifra
+     * @throws IOException Si la autenticacion falla o se superan los trozos posibles
+     */
+    byte[] crypt(final int mode, final long index, final boolean last, final byte[] input, final int length) throws IOException {
+        if (index >= MAX_CHUNKS) {
+            throw new IOException("Too many chunks for one encrypted file");
+        }
+        ByteBuffer nonce = ByteBuffer.allocate(NONCE_SIZE);
+        nonce.put(noncePrefix).putInt((int) index).put((byte) (last ? 1 : 0));
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(mode, fileKey, new GCMParameterSpec(TAG_SIZE * Byte.SIZE, nonce.array()));
+            cipher.updateAAD(header);
+            return cipher.doFinal(input, 0, length);
+        } catch (AEADBadTagException e) {
+            throw new IOException("Chunk " + index + " failed authentication", e);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Unable to " + (mode == Cipher.ENCRYPT_MODE ? "encrypt" : "decrypt") + " chunk " + index, e);
+        }
+    }
+
+    byte[] getHeader() {
+        return header.clone();
+    }
+
+    int getChunkSize() {
+        return chunkSize;
+    }
+
+    private static SecretKey deriveKey(final byte[] masterKey, final byte[] salt) throws IOException {
+        checkKey(masterKey);
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(masterKey, "HmacSHA256"));
+            mac.update(KDF_LABEL);
+            byte[] derived = mac.doFinal(salt);
+            return new SecretKeySpec(derived, 0, masterKey.length, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Unable to derive the file key", e);
+        }
+    }
+
+    private static void checkKey(final byte[] key) throws IOException {
+        if (key.length != 16 && key.length != 24 && key.length != 32) {
+            throw new IOException("AES keys must be 16, 24 or 32 bytes, not " + key.length);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class CompressionStage
+ * @brief Etapa de salida que comprime en gzip por bloques en paralelo
+ * @details Todos los ficheros comparten el mismo pool de compresion, cada fichero tiene su propio {@link ParallelGzipOutputStream}
+ * @version 1.0
+ ****************************************************************************/
+public class CompressionStage implements OutputStage {
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+    public static final int DEFAULT_LEVEL = 6;
+
+    private final ExecutorService executor;
+    private final int blockSize;
+    private final int level;
+    private final int maxInFlight;
+
+    /**
+     * @brief Constructor de la clase
+     * @param executor Pool de hilos compartido para comprimir
+     * @param blockSize Tamaño en bytes de cada bloque sin comprimir
+     * @param level Nivel de compresion, de 0 a 9
+     * @param maxInFlight Numero maximo de bloques pendientes por fichero
+     */
+    public CompressionStage(final ExecutorService executor, final int blockSize, final int level, final int maxInFlight) {
+        requireNonNull(executor, "executor");
+        this.executor = executor;
+        this.blockSize = blockSize;
+        this.level = level;
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public OutputStream wrap(final OutputStream output) {
+        return new ParallelGzipOutputStream(output, executor, blockSize, level, maxInFlight);
+    }
+
+    @Override
+    public String getExtension() {
+        return ".gz";
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+import javax.crypto.Cipher;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class DecryptInputStream
+ * @brief Descifra un fichero escrito por {@link ParallelEncryptOutputStream} trozo a trozo
+ * @details Solo mantiene un trozo en memoria. Cada trozo se autentica antes de entregar sus bytes, y si el fichero se
+ * ha truncado, reordenado o alterado la lectura falla con IOException
+ * @version 1.0
+ ****************************************************************************/
+public class DecryptInputStream extends InputStream {
+    private final PushbackInputStream in;
+    private final ChunkedGcm format;
+    private final byte[] encrypted;
+    private byte[] chunk = new byte[0];
+    private int position;
+    private long chunks;
+    private boolean lastRead;
+
+    /**
+     * @brief Constructor de la clase, lee la cabecera
+     * @param in Stream con el fichero cifrado
+     * @param masterKey Clave AES con la que se cifro
+     * @throws IOException Si la cabecera o la clave no son validas
+     */
+    public DecryptInputStream(final InputStream in, final byte[] masterKey) throws IOException {
+        requireNonNull(in, "in");
+        requireNonNull(masterKey, "masterKey");
+        this.in = new PushbackInputStream(in, 1);
+        byte[] header = new byte[ChunkedGcm.HEADER_SIZE];
+        if (readFully(header) < header.length) {
+            throw new EOFException("Encrypted file is shorter than its header");
+        }
+        this.format = ChunkedGcm.read(masterKey, header);
+        this.encrypted = new byte[format.getChunkSize() + ChunkedGcm.TAG_SIZE];
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return chunk[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int n = Math.min(len, chunk.length - position);
+        System.arraycopy(chunk, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return chunk.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * @brief Descifra el siguiente trozo si ya se ha consumido el actual
+     * @return False al final del fichero
+     * @throws IOException Si un trozo no se autentica o el fichero esta truncado
+     */
+    private boolean fill() throws IOException {
+        while (position == chunk.length) {
+            if (lastRead) {
+                return false;
+            }
+            int length = readFully(encrypted);
+            if (length < ChunkedGcm.TAG_SIZE) {
+                throw new EOFException("Encrypted file is truncated");
+            }
+            int next = length < encrypted.length ? -1 : in.read();
+            if (next >= 0) {
+                in.unread(next);
+            }
+            lastRead = next < 0;
+            chunk = format.crypt(Cipher.DECRYPT_MODE, chunks++, lastRead, encrypted, length);
+            position = 0;
+        }
+        return true;
+    }
+
+    private int readFully(final byte[] buffer) throws IOException {
+        int total = 0;
+        while (total < buffer.length) {
+            int n = in.read(buffer, total, buffer.length - total);
+            if (n < 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+import org.apache.commons.io.output.NullOutputStream;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/*****************************************************************************
+ * @class DiscardingOutputSettings
+ * @brief Configuracion de salida que descarta los bytes en lugar de escribirlos en el fichero
+ * @details Sirve para medir la generacion, la serializacion y las etapas de salida sin el coste del disco. Solo se crea
+ * el fichero vacio, porque CreateDataFile escribe en un nombre temporal y lo renombra al terminar
+ * @version 1.0
+ ****************************************************************************/
+public class DiscardingOutputSettings extends OutputSettings {
+
+    /**
+     * @brief Crea el fichero vacio y devuelve un stream que descarta lo que se escribe
+     * @param file Fichero a crear
+     * @return Stream que descarta los bytes
+     * @throws IOException Fallo al crear el fichero
+     */
+    @Override
+    public OutputStream openFile(final File file) throws IOException {
+        if (!file.exists() && !file.createNewFile()) {
+            throw new IOException("Unable to create " + file);
+        }
+        return new NullOutputStream();
+    }
+}
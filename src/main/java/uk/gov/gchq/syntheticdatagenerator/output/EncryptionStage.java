@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class EncryptionStage
+ * @brief Etapa de salida que cifra con AES-GCM por trozos en paralelo
+ * @details Todos los ficheros comparten la clave maestra y el pool de cifrado, cada fichero tiene su propia sal y prefijo
+ * de nonce aleatorios y su propio {@link ParallelEncryptOutputStream}. Debe ser la primera etapa, la mas cercana al
+ * fichero, para que la compresion se aplique antes de cifrar
+ * @version 1.0
+ ****************************************************************************/
+public class EncryptionStage implements OutputStage {
+    public static final int DEFAULT_CHUNK_SIZE = ChunkedGcm.DEFAULT_CHUNK_SIZE;
+
+    private final byte[] masterKey;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final int maxInFlight;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * @brief Constructor de la clase
+     * @param masterKey Clave AES de 16, 24 o 32 bytes
+     * @param executor Pool de hilos compartido para cifrar
+     * @param chunkSize Tamaño en bytes de cada trozo sin cifrar, como maximo 64 MiB
+     * @param maxInFlight Numero maximo de trozos pendientes por fichero
+     */
+    public EncryptionStage(final byte[] masterKey, final ExecutorService executor, final int chunkSize, final int maxInFlight) {
+        requireNonNull(masterKey, "masterKey");
+        requireNonNull(executor, "executor");
+        if (chunkSize < 1 || chunkSize > ChunkedGcm.MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunkSize must be between 1 and " + ChunkedGcm.MAX_CHUNK_SIZE);
+        }
+        this.masterKey = masterKey.clone();
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * @brief Lee la clave maestra de un fichero con la clave en base64
+     * @param keyFile Fichero con la clave
+     * @return Clave de 16, 24 o 32 bytes
+     * @throws IOException Si no se puede leer o no es una clave AES valida
+     */
+    public static byte[] readKey(final File keyFile) throws IOException {
+        return ChunkedGcm.readKey(keyFile);
+    }
+
+    @Override
+    public OutputStream wrap(final OutputStream output) throws IOException {
+        return new ParallelEncryptOutputStream(output, ChunkedGcm.create(masterKey, chunkSize, random), executor, maxInFlight);
+    }
+
+    @Override
+    public String getExtension() {
+        return ".enc";
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import uk.gov.gchq.syntheticdatagenerator.utils.Shard;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class Manifest
+ * @brief Manifiesto JSON de una ejecucion con los ficheros generados
+ * @details Se escribe en el directorio de salida como manifest.json al terminar la ejecucion. Junto a los ficheros
+ * guarda la semilla, el formato y el tipo de persona, con los que se puede repetir la ejecucion, y el algoritmo de los
+ * checksums de los ficheros
+ * @version 1.0
+ ****************************************************************************/
+public class Manifest {
+    public static final String FILE_NAME = "manifest.json";
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private long seed;
+    private String format;
+    private String type;
+    private String checksumAlgorithm;
+    private String shard;
+    private List<String> fields;
+    private List<ManifestEntry> files = new ArrayList<>();
+
+    /**
+     * @brief Nombre del manifiesto de un shard, de modo que varios shards pueden escribir en el mismo directorio
+     * @param shard Shard de la ejecucion
+     * @return manifest.json, o manifest_shard<k>_of<N>.json si la ejecucion esta repartida
+     */
+    public static String fileName(final Shard shard) {
+        return shard.isAll() ? FILE_NAME : "manifest_shard" + shard.getIndex() + "_of" + shard.getCount() + ".json";
+    }
+
+    /**
+     * @brief Indica si un fichero es un manifiesto, de una ejecucion completa o de un shard
+     * @param name Nombre del fichero
+     * @return True si el nombre es el de un manifiesto
+     */
+    public static boolean isManifest(final String name) {
+        return FILE_NAME.equals(name) || name.startsWith("manifest_shard") && name.endsWith(".json");
+    }
+
+    /**
+     * @brief Lee un manifiesto
+     * @param file Fichero del manifiesto
+     * @return El manifiesto leido
+     * @throws IOException Fallo al leer o interpretar el fichero
+     */
+    public static Manifest read(final File file) throws IOException {
+        return MAPPER.readValue(file, Manifest.class);
+    }
+
+    /**
+     * @brief Escribe el manifiesto con los ficheros ordenados por su primer indice
+     * @param file Fichero de destino
+     * @throws IOException Fallo al escribir
+     */
+    public void write(final File file) throws IOException {
+        requireNonNull(file, "file");
+        files.sort(Comparator.comparingLong(ManifestEntry::getFirstIndex).thenComparing(ManifestEntry::getFile));
+        MAPPER.writeValue(file, this);
+    }
+
+    /**
+     * @brief Añade ficheros al manifiesto
+     * @param entries Ficheros a añadir
+     */
+    public void addFiles(final List<ManifestEntry> entries) {
+        files.addAll(entries);
+    }
+
+    /**
+     * @brief Devuelve el numero total de registros de los ficheros del manifiesto
+     * @return Suma de los registros de todos los ficheros
+     */
+    @JsonIgnore
+    public long getTotalRecords() {
+        return files.stream().mapToLong(ManifestEntry::getRecords).sum();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(final long seed) {
+        this.seed = seed;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(final String format) {
+        this.format = format;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(final String type) {
+        this.type = type;
+    }
+
+    public String getChecksumAlgorithm() {
+        return checksumAlgorithm;
+    }
+
+    public void setChecksumAlgorithm(final String checksumAlgorithm) {
+        this.checksumAlgorithm = checksumAlgorithm;
+    }
+
+    /**
+     * @brief Devuelve el shard que escribio este manifiesto
+     * @return Shard con la forma k/N, o null si la ejecucion no estaba repartida
+     */
+    public String getShard() {
+        return shard;
+    }
+
+    public void setShard(final String shard) {
+        this.shard = shard;
+    }
+
+    /**
+     * @brief Devuelve los campos que se generaron
+     * @return Campos de primer nivel de cada registro, o null si se generaron todos
+     */
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public void setFields(final List<String> fields) {
+        this.fields = fields;
+    }
+
+    public List<ManifestEntry> getFiles() {
+        return files;
+    }
+
+    public void setFiles(final List<ManifestEntry> files) {
+        this.files = files;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+import java.util.StringJoiner;
+
+/*****************************************************************************
+ * @class ManifestEntry
+ * @brief Describe un fichero de salida dentro del manifiesto de una ejecucion
+ * @details El rango de registros es el de sus indices globales, desde firstIndex incluido hasta endIndex excluido
+ * @version 1.0
+ ****************************************************************************/
+public class ManifestEntry {
+    private String file;
+    private long firstIndex;
+    private long endIndex;
+    private long records;
+    private long bytes;
+    private String checksum;
+
+    /**
+     * @brief Constructor por defecto, necesario para la deserializacion
+     */
+    public ManifestEntry() {
+    }
+
+    /**
+     * @brief Constructor de la clase
+     * @param file Nombre del fichero relativo al directorio de salida
+     * @param firstIndex Indice global del primer registro
+     * @param endIndex Indice global siguiente al ultimo registro
+     * @param bytes Tamaño del fichero en bytes
+     */
+    public ManifestEntry(final String file, final long firstIndex, final long endIndex, final long bytes) {
+        this.file = file;
+        this.firstIndex = firstIndex;
+        this.endIndex = endIndex;
+        this.records = endIndex - firstIndex;
+        this.bytes = bytes;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(final String file) {
+        this.file = file;
+    }
+
+    public long getFirstIndex() {
+        return firstIndex;
+    }
+
+    public void setFirstIndex(final long firstIndex) {
+        this.firstIndex = firstIndex;
+    }
+
+    public long getEndIndex() {
+        return endIndex;
+    }
+
+    public void setEndIndex(final long endIndex) {
+        this.endIndex = endIndex;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public void setRecords(final long records) {
+        this.records = records;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(final long bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * @brief Devuelve el checksum de los bytes del fichero, con el algoritmo indicado en el manifiesto
+     * @return Checksum en hexadecimal, o null si no se calculo
+     */
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(final String checksum) {
+        this.checksum = checksum;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", ManifestEntry.class.getSimpleName() + "[", "]")
+                .add("file='" + file + "'")
+                .add("firstIndex=" + firstIndex)
+                .add("endIndex=" + endIndex)
+                .add("records=" + records)
+                .add("bytes=" + bytes)
+                .add("checksum='" + checksum + "'")
+                .toString();
+    }
+}
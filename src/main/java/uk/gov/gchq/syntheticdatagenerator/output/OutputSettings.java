@@ -0,0 +1,259 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+import uk.gov.gchq.syntheticdatagenerator.metrics.MetricsRegistry;
+import uk.gov.gchq.syntheticdatagenerator.serialise.SerialiserOptions;
+import uk.gov.gchq.syntheticdatagenerator.types.GenerationSpec;
+import uk.gov.gchq.syntheticdatagenerator.types.Population;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class OutputSettings
+ * @brief Agrupa la configuracion de salida que comparten todos los hilos escritores
+ * @details Contiene las etapas de salida, la politica de division en ficheros y la configuracion del escritor de
+ * ficheros ({@link ChannelOutputStream})
+ * @version 1.0
+ ****************************************************************************/
+public class OutputSettings {
+    public static final int DEFAULT_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    private List<OutputStage> stages = new ArrayList<>();
+    private RollingPolicy rollingPolicy = RollingPolicy.NONE;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private SyncPolicy syncPolicy = SyncPolicy.NONE;
+    private long preallocateBytes;
+    private ExecutorService ioExecutor;
+    private SerialiserOptions serialiserOptions = new SerialiserOptions();
+    private Checkpoint checkpoint;
+    private Pacer pacer;
+    private GenerationSpec generationSpec;
+    private Population population;
+    private boolean profiling;
+    private MetricsRegistry metrics;
+
+    /**
+     * @brief Abre un fichero de salida con el escritor configurado, sin etapas de salida
+     * @param file Fichero a crear o truncar
+     * @return Stream del fichero
+     * @throws IOException Fallo al abrir el fichero
+     */
+    public OutputStream openFile(final File file) throws IOException {
+        OutputStream output = new ChannelOutputStream(file, ioExecutor, bufferSize, syncPolicy, preallocateBytes, metrics);
+        return pacer == null ? output : pacer.wrap(output);
+    }
+
+    /**
+     * @brief Aplica las etapas de salida sobre un stream, la primera etapa es la mas cercana a el
+     * @param output Stream del fichero o del destino de la salida
+     * @return Stream donde escribira el serialiser
+     * @throws IOException Fallo al iniciar una etapa, en cuyo caso se cierra output
+     */
+    public OutputStream wrapStages(final OutputStream output) throws IOException {
+        OutputStream out = output;
+        try {
+            for (OutputStage stage : stages) {
+                out = stage.wrap(out);
+            }
+            return out;
+        } catch (IOException | RuntimeException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @brief Devuelve las etapas de salida, la primera es la mas cercana al fichero
+     * @return stages
+     */
+    public List<OutputStage> getStages() {
+        return Collections.unmodifiableList(stages);
+    }
+
+    /**
+     * @brief Asigna las etapas de salida
+     * @param stages Etapas en orden, la primera es la mas cercana al fichero
+     */
+    public void setStages(final List<OutputStage> stages) {
+        requireNonNull(stages, "stages");
+        this.stages = new ArrayList<>(stages);
+    }
+
+    /**
+     * @brief Devuelve la extension que añaden las etapas de salida
+     * @return Extensiones desde la etapa mas lejana al fichero hasta la mas cercana, por ejemplo ".gz.enc"
+     */
+    public String getStageExtension() {
+        StringBuilder extension = new StringBuilder();
+        for (int i = stages.size() - 1; i >= 0; i--) {
+            extension.append(stages.get(i).getExtension());
+        }
+        return extension.toString();
+    }
+
+    public RollingPolicy getRollingPolicy() {
+        return rollingPolicy;
+    }
+
+    public void setRollingPolicy(final RollingPolicy rollingPolicy) {
+        requireNonNull(rollingPolicy, "rollingPolicy");
+        this.rollingPolicy = rollingPolicy;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(final int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be positive");
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    public SyncPolicy getSyncPolicy() {
+        return syncPolicy;
+    }
+
+    public void setSyncPolicy(final SyncPolicy syncPolicy) {
+        requireNonNull(syncPolicy, "syncPolicy");
+        this.syncPolicy = syncPolicy;
+    }
+
+    /**
+     * @brief Devuelve la longitud que se fija al abrir cada fichero
+     * @return preallocateBytes, 0 si no se fija
+     */
+    public long getPreallocateBytes() {
+        return preallocateBytes;
+    }
+
+    /**
+     * @brief Asigna la longitud que se fija al abrir cada fichero, se recorta al tamaño real al cerrarlo. Es una
+     * longitud dispersa (sparse), no se asignan bloques en disco
+     * @param preallocateBytes Longitud en bytes, 0 para no fijarla
+     */
+    public void setPreallocateBytes(final long preallocateBytes) {
+        this.preallocateBytes = preallocateBytes;
+    }
+
+    /**
+     * @brief Devuelve el pool de hilos que vacia los buffers en los ficheros
+     * @return ioExecutor, null si se escribe en el hilo productor
+     */
+    public ExecutorService getIoExecutor() {
+        return ioExecutor;
+    }
+
+    public void setIoExecutor(final ExecutorService ioExecutor) {
+        this.ioExecutor = ioExecutor;
+    }
+
+    /**
+     * @brief Devuelve las opciones con las que se crean los serialisers, como la codificacion en paralelo de avro
+     * @return serialiserOptions
+     */
+    public SerialiserOptions getSerialiserOptions() {
+        return serialiserOptions;
+    }
+
+    public void setSerialiserOptions(final SerialiserOptions serialiserOptions) {
+        requireNonNull(serialiserOptions, "serialiserOptions");
+        this.serialiserOptions = serialiserOptions;
+    }
+
+    /**
+     * @brief Devuelve el diario donde se registran los ficheros terminados
+     * @return checkpoint, null si no se registran
+     */
+    public Checkpoint getCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setCheckpoint(final Checkpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    /**
+     * @brief Devuelve el ritmo de la generacion continua
+     * @return pacer, null si se genera lo mas rapido posible
+     */
+    public Pacer getPacer() {
+        return pacer;
+    }
+
+    public void setPacer(final Pacer pacer) {
+        this.pacer = pacer;
+    }
+
+    /**
+     * @brief Devuelve los campos que se generan
+     * @return generationSpec, null para generar todos los campos
+     */
+    public GenerationSpec getGenerationSpec() {
+        return generationSpec;
+    }
+
+    public void setGenerationSpec(final GenerationSpec generationSpec) {
+        this.generationSpec = generationSpec;
+    }
+
+    /**
+     * @brief Devuelve la poblacion cuyos UID se enlazan entre si
+     * @return population, null si los UID son aleatorios
+     */
+    public Population getPopulation() {
+        return population;
+    }
+
+    public void setPopulation(final Population population) {
+        this.population = population;
+    }
+
+    /**
+     * @brief Indica si cada tarea lleva un perfil de los registros que genera
+     * @return profiling, false por defecto
+     */
+    public boolean isProfiling() {
+        return profiling;
+    }
+
+    public void setProfiling(final boolean profiling) {
+        this.profiling = profiling;
+    }
+
+    /**
+     * @brief Devuelve las metricas de la ejecucion
+     * @return metrics, null si no se miden
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(final MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An {@code OutputStage} transforms the bytes written by a serialiser before they reach the file, for example by
+ * compressing them. Stages are applied in order, each one wrapping the stream produced by the previous one, so the
+ * first stage is the closest to the file.
+ * <p>
+ * Instances are shared by every writer thread and must be thread safe; state belongs in the returned stream. Closing
+ * the returned stream must close {@code output}.
+ */
+public interface OutputStage {
+
+    /**
+     * Wraps an output stream.
+     *
+     * @param output the stream closer to the file
+     * @return the stream the previous stage or the serialiser should write to
+     * @throws IOException if the stage could not write any header it needs
+     */
+    OutputStream wrap(final OutputStream output) throws IOException;
+
+    /**
+     * @return the suffix this stage adds to the file name (e.g. {@code .gz}), or an empty string
+     */
+    default String getExtension() {
+        return "";
+    }
+}
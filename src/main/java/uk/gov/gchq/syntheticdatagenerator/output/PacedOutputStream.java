@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+import uk.gov.gchq.syntheticdatagenerator.utils.RateLimiter;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/*****************************************************************************
+ * @class PacedOutputStream
+ * @brief Stream que limita los bytes por segundo que llegan al destino
+ * @details Las escrituras grandes se dividen en trozos, cada uno espera a su instante planificado, para que un buffer
+ * grande no se envie de golpe
+ * @version 1.0
+ ****************************************************************************/
+final class PacedOutputStream extends FilterOutputStream {
+    private static final int SLICE = 16 * 1024;
+
+    private final RateLimiter limiter;
+    private final LongAdder written;
+
+    /**
+     * @brief Constructor de la clase
+     * @param output Stream del destino
+     * @param limiter Ritmo en bytes por segundo, compartido con otros streams
+     * @param written Contador de los bytes escritos
+     */
+    PacedOutputStream(final OutputStream output, final RateLimiter limiter, final LongAdder written) {
+        super(output);
+        this.limiter = limiter;
+        this.written = written;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        limiter.acquire(1);
+        out.write(b);
+        written.increment();
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            int slice = limiter.isLimited() ? Math.min(SLICE, remaining) : remaining;
+            limiter.acquire(slice);
+            out.write(b, offset, slice);
+            written.add(slice);
+            offset += slice;
+            remaining -= slice;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+import uk.gov.gchq.syntheticdatagenerator.utils.Options;
+import uk.gov.gchq.syntheticdatagenerator.utils.RateLimiter;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/*****************************************************************************
+ * @class Pacer
+ * @brief Marca el ritmo de la generacion continua en registros y en bytes por segundo
+ * @details Los registros se espacian de forma uniforme segun una planificacion absoluta, y antes de cada espera se
+ * vacia el escritor para que los registros lleguen al destino en su instante y no cuando se llena un buffer. Las etapas
+ * de compresion y cifrado no vacian su bloque parcial, por lo que CreateData no permite combinarlas con un ritmo. Los bytes
+ * se limitan en el stream mas cercano al destino, despues de comprimir y cifrar. Ambos ritmos se pueden cambiar mientras
+ * se genera. Tambien lleva la cuenta de lo enviado y del retraso de cada registro respecto a su instante planificado,
+ * y decide cuando parar por duracion o por una peticion externa. Es thread safe y lo comparten todos los hilos
+ * @version 1.0
+ ****************************************************************************/
+public final class Pacer {
+    public static final String RATE_KEY = "rate";
+    public static final String BYTE_RATE_KEY = "byte-rate";
+    // A producer that fell behind catches up with at most this much delay at once
+    private static final long MAX_BURST_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final double MIB = 1024 * 1024;
+
+    private final RateLimiter records;
+    private final RateLimiter bytes;
+    private final long startNanos = System.nanoTime();
+    private final long deadlineNanos;
+    private volatile boolean stopped;
+    private final LongAdder recordCount = new LongAdder();
+    private final LongAdder byteCount = new LongAdder();
+    private final LongAdder latenessSum = new LongAdder();
+    private final LongAdder latenessSamples = new LongAdder();
+    private final LongAccumulator latenessMax = new LongAccumulator(Long::max, 0L);
+    private long lastReportNanos = startNanos;
+    private long lastReportRecords;
+    private long lastReportBytes;
+
+    /**
+     * @brief Constructor de la clase
+     * @param recordsPerSecond Registros por segundo, 0 para no limitar
+     * @param bytesPerSecond Bytes por segundo, 0 para no limitar
+     * @param durationMillis Milisegundos tras los que se para la generacion, 0 para no pararla
+     */
+    public Pacer(final double recordsPerSecond, final double bytesPerSecond, final long durationMillis) {
+        if (durationMillis < 0) {
+            throw new IllegalArgumentException("Duration cannot be negative");
+        }
+        this.records = new RateLimiter(recordsPerSecond, MAX_BURST_NANOS);
+        this.bytes = new RateLimiter(bytesPerSecond, MAX_BURST_NANOS);
+        this.deadlineNanos = durationMillis > 0 ? startNanos + TimeUnit.MILLISECONDS.toNanos(durationMillis) : 0L;
+    }
+
+    /**
+     * @brief Espera al instante planificado de un registro
+     * @param pending Escritor que se vacia antes de esperar, para que lo ya escrito llegue a tiempo al destino
+     * @throws IOException Fallo al vaciar el escritor o espera interrumpida
+     */
+    public void paceRecord(final Flushable pending) throws IOException {
+        recordCount.increment();
+        if (!records.isLimited()) {
+            return;
+        }
+        long scheduled = records.reserve(1);
+        if (scheduled - System.nanoTime() > 0) {
+            pending.flush();
+            RateLimiter.sleepUntil(scheduled);
+        }
+        long lateness = System.nanoTime() - scheduled;
+        latenessSum.add(lateness);
+        latenessSamples.increment();
+        latenessMax.accumulate(lateness);
+    }
+
+    /**
+     * @brief Limita los bytes escritos en un stream y los cuenta
+     * @param output Stream del destino
+     * @return Stream que espera lo necesario antes de cada escritura
+     */
+    public OutputStream wrap(final OutputStream output) {
+        return new PacedOutputStream(output, bytes, byteCount);
+    }
+
+    /**
+     * @brief Indica si la generacion debe terminar
+     * @return True si se ha pedido parar o se ha cumplido la duracion
+     */
+    public boolean isStopped() {
+        if (!stopped && deadlineNanos != 0L && System.nanoTime() - deadlineNanos >= 0) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * @brief Pide que la generacion termine, los ficheros y streams abiertos se cierran de forma ordenada
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    public double getRecordRate() {
+        return records.getRate();
+    }
+
+    public void setRecordRate(final double recordsPerSecond) {
+        records.setRate(recordsPerSecond);
+    }
+
+    public double getByteRate() {
+        return bytes.getRate();
+    }
+
+    public void setByteRate(final double bytesPerSecond) {
+        bytes.setRate(bytesPerSecond);
+    }
+
+    /**
+     * @brief Registros enviados desde el inicio
+     * @return Numero de registros
+     */
+    public long getRecords() {
+        return recordCount.sum();
+    }
+
+    /**
+     * @brief Bytes enviados al destino desde el inicio
+     * @return Numero de bytes
+     */
+    public long getBytes() {
+        return byteCount.sum();
+    }
+
+    /**
+     * @brief Aplica los ritmos de un fichero de control, con las claves rate y byte-rate. Las claves ausentes no cambian
+     * @param control Propiedades leidas del fichero
+     * @return True si ha cambiado algun ritmo
+     */
+    public boolean update(final Properties control) {
+        boolean changed = false;
+        String rate = control.getProperty(RATE_KEY);
+        if (rate != null && Double.parseDouble(rate.trim()) != getRecordRate()) {
+            setRecordRate(Double.parseDouble(rate.trim()));
+            changed = true;
+        }
+        String byteRate = control.getProperty(BYTE_RATE_KEY);
+        if (byteRate != null && Options.parseBytes(byteRate) != getByteRate()) {
+            setByteRate(Options.parseBytes(byteRate));
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * @brief Resume lo enviado desde el resumen anterior y reinicia las estadisticas de retraso
+     * @return Ritmo real frente al objetivo y retraso medio y maximo de los registros
+     */
+    public synchronized String report() {
+        long now = System.nanoTime();
+        long totalRecords = getRecords();
+        long totalBytes = getBytes();
+        double seconds = Math.max(1L, now - lastReportNanos) / (NANOS_PER_MILLI * 1000);
+        double recordRate = (totalRecords - lastReportRecords) / seconds;
+        double byteRate = (totalBytes - lastReportBytes) / seconds / MIB;
+        long samples = latenessSamples.sumThenReset();
+        double meanLateness = samples > 0 ? latenessSum.sumThenReset() / NANOS_PER_MILLI / samples : 0;
+        double maxLateness = latenessMax.getThenReset() / NANOS_PER_MILLI;
+        lastReportNanos = now;
+        lastReportRecords = totalRecords;
+        lastReportBytes = totalBytes;
+        return String.format(Locale.ROOT, "%d records, %.1f records/s (target %s), %.2f MiB/s (target %s), lateness mean %.3f ms max %.3f ms",
+                totalRecords, recordRate, target(getRecordRate(), 1), byteRate, target(getByteRate(), MIB), meanLateness, maxLateness);
+    }
+
+    /**
+     * @brief Resume toda la ejecucion
+     * @return Registros y bytes enviados y su ritmo medio desde el inicio
+     */
+    public String summary() {
+        double seconds = Math.max(1L, System.nanoTime() - startNanos) / (NANOS_PER_MILLI * 1000);
+        return String.format(Locale.ROOT, "%d records and %d bytes in %.1f s, %.1f records/s, %.2f MiB/s",
+                getRecords(), getBytes(), seconds, getRecords() / seconds, getBytes() / seconds / MIB);
+    }
+
+    private static String target(final double rate, final double unit) {
+        return rate > 0 ? String.format(Locale.ROOT, "%.2f", rate / unit) : "unlimited";
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+import uk.gov.gchq.syntheticdatagenerator.jfr.JfrEvents;
+import uk.gov.gchq.syntheticdatagenerator.utils.OrderedTaskQueue;
+
+import javax.crypto.Cipher;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class ParallelEncryptOutputStream
+ * @brief Cifra con AES-GCM por trozos usando varios hilos
+ * @details Divide los bytes escritos en trozos de tamaño fijo, cifra cada trozo de forma independiente en un pool de
+ * hilos y los escribe en orden tras la cabecera. El formato se describe en {@link ChunkedGcm} y se descifra con
+ * {@link DecryptInputStream} sin cargar el fichero en memoria
+ * @version 1.0
+ ****************************************************************************/
+public class ParallelEncryptOutputStream extends OutputStream {
+    private final OutputStream out;
+    private final ChunkedGcm format;
+    private final OrderedTaskQueue<byte[]> queue;
+    private final int chunkSize;
+    private byte[] buffer;
+    private int count;
+    private long chunks;
+    private boolean closed;
+
+    /**
+     * @brief Constructor de la clase, escribe la cabecera
+     * @param out Stream de salida donde se escriben los trozos cifrados
+     * @param format Formato del fichero con su clave y nonce
+     * @param executor Pool de hilos que cifra los trozos
+     * @param maxInFlight Numero maximo de trozos pendientes de escribir
+     * @throws IOException Fallo al escribir la cabecera
+     */
+    ParallelEncryptOutputStream(final OutputStream out, final ChunkedGcm format, final ExecutorService executor, final int maxInFlight) throws IOException {
+        requireNonNull(out, "out");
+        requireNonNull(format, "format");
+        this.out = out;
+        this.format = format;
+        this.queue = new OrderedTaskQueue<>(executor, maxInFlight, out::write);
+        this.chunkSize = format.getChunkSize();
+        this.buffer = new byte[chunkSize];
+        out.write(format.getHeader());
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        if (count == chunkSize) {
+            submitChunk(false);
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (count == chunkSize) {
+                submitChunk(false);
+            }
+            int chunk = Math.min(remaining, chunkSize - count);
+            System.arraycopy(b, offset, buffer, count, chunk);
+            count += chunk;
+            offset += chunk;
+            remaining -= chunk;
+        }
+    }
+
+    /**
+     * @brief Escribe los trozos ya cifrados. El trozo parcial no se cifra hasta que se llena o se cierra el stream,
+     * porque todos los trozos salvo el ultimo deben tener el mismo tamaño
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            // The last chunk is always written, even if empty, so truncation at a chunk boundary is detected
+            submitChunk(true);
+            queue.drain();
+        } finally {
+            queue.cancel();
+            out.close();
+        }
+    }
+
+    private void submitChunk(final boolean last) throws IOException {
+        final byte[] chunk = buffer;
+        final int length = count;
+        final long index = chunks++;
+        queue.submit(() -> {
+            Object event = JfrEvents.beginEncryption();
+            byte[] encrypted = format.crypt(Cipher.ENCRYPT_MODE, index, last, chunk, length);
+            JfrEvents.commitEncryption(event, index, length);
+            return encrypted;
+        });
+        buffer = last ? null : new byte[chunkSize];
+        count = 0;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+import uk.gov.gchq.syntheticdatagenerator.jfr.JfrEvents;
+import uk.gov.gchq.syntheticdatagenerator.utils.OrderedTaskQueue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.GZIPOutputStream;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class ParallelGzipOutputStream
+ * @brief Comprime en gzip usando varios hilos, al estilo de pigz
+ * @details Divide los bytes escritos en bloques de tamaño fijo, comprime cada bloque como un miembro gzip independiente
+ * en un pool de hilos y los escribe en orden. Un fichero gzip con varios miembros es valido segun RFC 1952 y lo leen
+ * gunzip, zcat y GZIPInputStream
+ * @version 1.0
+ ****************************************************************************/
+public class ParallelGzipOutputStream extends OutputStream {
+    private final OutputStream out;
+    private final OrderedTaskQueue<byte[]> queue;
+    private final int blockSize;
+    private final int level;
+    private byte[] buffer;
+    private int count;
+    private boolean anyMemberWritten;
+    private boolean closed;
+
+    /**
+     * @brief Constructor de la clase
+     * @param out Stream de salida donde se escriben los miembros comprimidos
+     * @param executor Pool de hilos que comprime los bloques
+     * @param blockSize Tamaño en bytes de cada bloque sin comprimir
+     * @param level Nivel de compresion de Deflater, de 0 a 9 o -1 para el nivel por defecto
+     * @param maxInFlight Numero maximo de bloques pendientes de escribir
+     */
+    public ParallelGzipOutputStream(final OutputStream out, final ExecutorService executor, final int blockSize, final int level, final int maxInFlight) {
+        requireNonNull(out, "out");
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be positive");
+        }
+        this.out = out;
+        this.queue = new OrderedTaskQueue<>(executor, maxInFlight, this::writeMember);
+        this.blockSize = blockSize;
+        this.level = level;
+        this.buffer = new byte[blockSize];
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        if (count == blockSize) {
+            submitBlock();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (count == blockSize) {
+                submitBlock();
+            }
+            int chunk = Math.min(remaining, blockSize - count);
+            System.arraycopy(b, offset, buffer, count, chunk);
+            count += chunk;
+            offset += chunk;
+            remaining -= chunk;
+        }
+    }
+
+    /**
+     * @brief Escribe los miembros ya comprimidos. El bloque parcial no se comprime hasta que se llena o se cierra el
+     * stream, para no generar miembros pequeños en cada flush del serialiser
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (count > 0 || !anyMemberWritten && queue.size() == 0) {
+                // An empty input still needs one member to be a valid gzip file
+                submitBlock();
+            }
+            queue.drain();
+        } finally {
+            queue.cancel();
+            out.close();
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        final byte[] block = buffer;
+        final int length = count;
+        queue.submit(() -> compress(block, length, level));
+        buffer = new byte[blockSize];
+        count = 0;
+    }
+
+    private void writeMember(final byte[] member) throws IOException {
+        out.write(member);
+        anyMemberWritten = true;
+    }
+
+    private static byte[] compress(final byte[] block, final int length, final int level) throws IOException {
+        Object event = JfrEvents.beginCompression();
+        ByteArrayOutputStream member = new ByteArrayOutputStream(Math.max(64, length / 2));
+        try (GZIPOutputStream gzip = new LevelGzipOutputStream(member, level)) {
+            gzip.write(block, 0, length);
+        }
+        JfrEvents.commitCompression(event, length, member.size());
+        return member.toByteArray();
+    }
+
+    /**
+     * {@link GZIPOutputStream} does not expose the compression level, but its {@link java.util.zip.Deflater} is visible
+     * to subclasses.
+     */
+    private static final class LevelGzipOutputStream extends GZIPOutputStream {
+        private LevelGzipOutputStream(final OutputStream out, final int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+}
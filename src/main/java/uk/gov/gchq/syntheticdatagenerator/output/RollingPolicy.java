@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+/*****************************************************************************
+ * @class RollingPolicy
+ * @brief Decide cuando un hilo escritor debe pasar a un nuevo fichero
+ * @details Un fichero se cierra en el primer registro tras alcanzar el tamaño o el numero de registros objetivo. El
+ * tamaño se mide en los bytes que ya han llegado al fichero, por lo que puede superarse en lo que tengan en buffer el
+ * serialiser y las etapas de salida (un bloque avro o de compresion)
+ * @version 1.0
+ ****************************************************************************/
+public final class RollingPolicy {
+    public static final RollingPolicy NONE = new RollingPolicy(0L, 0L);
+
+    private final long maxBytes;
+    private final long maxRecords;
+
+    /**
+     * @brief Constructor de la clase
+     * @param maxBytes Tamaño objetivo de cada fichero en bytes, 0 para no limitarlo
+     * @param maxRecords Numero maximo de registros por fichero, 0 para no limitarlo
+     */
+    public RollingPolicy(final long maxBytes, final long maxRecords) {
+        if (maxBytes < 0 || maxRecords < 0) {
+            throw new IllegalArgumentException("Rolling limits cannot be negative");
+        }
+        this.maxBytes = maxBytes;
+        this.maxRecords = maxRecords;
+    }
+
+    /**
+     * @brief Indica si hay algun limite configurado
+     * @return True si los ficheros se dividen en partes
+     */
+    public boolean isEnabled() {
+        return maxBytes > 0 || maxRecords > 0;
+    }
+
+    /**
+     * @brief Indica si el fichero actual debe cerrarse
+     * @param records Registros escritos en el fichero actual
+     * @param bytes Bytes que han llegado al fichero actual
+     * @return True si se ha alcanzado algun limite
+     */
+    public boolean shouldRoll(final long records, final long bytes) {
+        return (maxRecords > 0 && records >= maxRecords) || (maxBytes > 0 && bytes >= maxBytes);
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getMaxRecords() {
+        return maxRecords;
+    }
+}
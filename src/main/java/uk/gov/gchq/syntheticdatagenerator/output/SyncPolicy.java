@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+import uk.gov.gchq.syntheticdatagenerator.utils.Options;
+
+import java.util.Locale;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class SyncPolicy
+ * @brief Politica de fsync de los ficheros de salida
+ * @details none no fuerza nunca la escritura a disco, close la fuerza al cerrar cada fichero y un tamaño (por ejemplo
+ * 64m) la fuerza cada vez que se escriben esos bytes y al cerrar
+ * @version 1.0
+ ****************************************************************************/
+public final class SyncPolicy {
+    public static final SyncPolicy NONE = new SyncPolicy(false, 0L);
+    public static final SyncPolicy ON_CLOSE = new SyncPolicy(true, 0L);
+
+    private final boolean syncOnClose;
+    private final long interval;
+
+    private SyncPolicy(final boolean syncOnClose, final long interval) {
+        this.syncOnClose = syncOnClose;
+        this.interval = interval;
+    }
+
+    /**
+     * @brief Crea una politica que fuerza la escritura cada cierto numero de bytes y al cerrar
+     * @param bytes Bytes escritos entre cada fsync
+     * @return La politica
+     */
+    public static SyncPolicy every(final long bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("fsync interval must be positive");
+        }
+        return new SyncPolicy(true, bytes);
+    }
+
+    /**
+     * @brief Interpreta la opcion --fsync
+     * @param value none, close o un tamaño como 64m
+     * @return La politica
+     */
+    public static SyncPolicy parse(final String value) {
+        requireNonNull(value, "value");
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "none":
+                return NONE;
+            case "close":
+                return ON_CLOSE;
+            default:
+                return every(Options.parseBytes(value));
+        }
+    }
+
+    /**
+     * @brief Indica si hay que forzar la escritura al cerrar el fichero
+     * @return True si se hace fsync al cerrar
+     */
+    public boolean isSyncOnClose() {
+        return syncOnClose;
+    }
+
+    /**
+     * @brief Indica si hay que forzar la escritura tras escribir unos bytes
+     * @param bytesSinceSync Bytes escritos desde el ultimo fsync
+     * @return True si toca hacer fsync
+     */
+    public boolean shouldSync(final long bytesSinceSync) {
+        return interval > 0 && bytesSinceSync >= interval;
+    }
+
+    @Override
+    public String toString() {
+        if (interval > 0) {
+            return "every " + interval + " bytes";
+        }
+        return syncOnClose ? "close" : "none";
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.profile;
+
+import uk.gov.gchq.syntheticdatagenerator.uniqueness.FingerprintFilter;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*****************************************************************************
+ * @class FieldProfile
+ * @brief Distribucion de los valores de un campo
+ * @details Todos los valores escalares se cuentan en un HyperLogLog para estimar los distintos. Los textos ademas
+ * llevan un histograma exacto mientras no superen maxCategories valores distintos, lo que da la distribucion de los
+ * enumerados y se descarta para campos como nombres o UID. Los numeros van a un QuantileSketch y de los arrays se
+ * cuenta la distribucion de longitudes. Se combina con merge, por lo que cada hilo puede llevar su propio perfil
+ * @version 1.0
+ ****************************************************************************/
+public final class FieldProfile {
+    private static final double[] QUANTILES = {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99};
+
+    private final int maxCategories;
+    private final HyperLogLog distinct = new HyperLogLog();
+    private Map<String, Long> frequencies = new HashMap<>();
+    private QuantileSketch numbers;
+    private Map<Integer, Long> lengths;
+    private long count;
+    private long nulls;
+
+    /**
+     * @brief Constructor de la clase
+     * @param maxCategories Valores de texto distintos a partir de los que se descarta el histograma
+     */
+    public FieldProfile(final int maxCategories) {
+        this.maxCategories = maxCategories;
+    }
+
+    /**
+     * @brief Añade un valor nulo
+     */
+    public void addNull() {
+        count++;
+        nulls++;
+    }
+
+    /**
+     * @brief Añade un texto o el nombre de un enumerado
+     * @param value Valor del campo
+     */
+    public void addText(final String value) {
+        count++;
+        distinct.add(FingerprintFilter.fingerprint(value));
+        if (frequencies != null) {
+            frequencies.merge(value, 1L, Long::sum);
+            if (frequencies.size() > maxCategories) {
+                frequencies = null;
+            }
+        }
+    }
+
+    /**
+     * @brief Añade un numero
+     * @param value Valor del campo
+     */
+    public void addNumber(final double value) {
+        count++;
+        distinct.add(FingerprintFilter.fingerprint(Double.toString(value)));
+        if (numbers == null) {
+            numbers = new QuantileSketch();
+        }
+        numbers.add(value);
+    }
+
+    /**
+     * @brief Añade la longitud de un array
+     * @param length Numero de elementos
+     */
+    public void addLength(final int length) {
+        count++;
+        if (lengths == null) {
+            lengths = new HashMap<>();
+        }
+        lengths.merge(length, 1L, Long::sum);
+    }
+
+    /**
+     * @brief Combina otro perfil del mismo campo en este
+     * @param other Perfil con el mismo maxCategories
+     */
+    public void merge(final FieldProfile other) {
+        count += other.count;
+        nulls += other.nulls;
+        distinct.merge(other.distinct);
+        if (frequencies != null && other.frequencies != null) {
+            other.frequencies.forEach((value, n) -> frequencies.merge(value, n, Long::sum));
+            if (frequencies.size() > maxCategories) {
+                frequencies = null;
+            }
+        } else {
+            frequencies = null;
+        }
+        if (other.numbers != null) {
+            if (numbers == null) {
+                numbers = new QuantileSketch();
+            }
+            numbers.merge(other.numbers);
+        }
+        if (other.lengths != null) {
+            if (lengths == null) {
+                lengths = new HashMap<>();
+            }
+            other.lengths.forEach((length, n) -> lengths.merge(length, n, Long::sum));
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getNulls() {
+        return nulls;
+    }
+
+    /**
+     * @brief Estimacion del numero de valores escalares distintos
+     * @return Valores distintos, 0 si el campo solo tiene arrays o nulos
+     */
+    public long getDistinct() {
+        return distinct.estimate();
+    }
+
+    /**
+     * @brief Histograma de los textos
+     * @return Frecuencia de cada valor ordenada por valor, o null si hay mas de maxCategories distintos o ningun texto
+     */
+    public Map<String, Long> getFrequencies() {
+        return frequencies == null || frequencies.isEmpty() ? null : new TreeMap<>(frequencies);
+    }
+
+    /**
+     * @brief Sketch de los valores numericos
+     * @return El sketch, o null si el campo no tiene numeros
+     */
+    public QuantileSketch getNumbers() {
+        return numbers;
+    }
+
+    /**
+     * @brief Histograma de longitudes de los arrays
+     * @return Frecuencia de cada longitud ordenada, o null si el campo no tiene arrays
+     */
+    public Map<Integer, Long> getLengths() {
+        return lengths == null ? null : new TreeMap<>(lengths);
+    }
+
+    /**
+     * @brief Resumen del perfil para el informe
+     * @return Mapa con las claves count, nulls, distinct, frequencies, quantiles y lengths, sin las que no aplican
+     */
+    public Map<String, Object> toReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("count", count);
+        if (nulls > 0) {
+            report.put("nulls", nulls);
+        }
+        if (lengths == null || count - nulls > lengths.values().stream().mapToLong(Long::longValue).sum()) {
+            report.put("distinct", getDistinct());
+        }
+        if (getFrequencies() != null) {
+            report.put("frequencies", getFrequencies());
+        }
+        if (numbers != null) {
+            Map<String, Object> quantiles = new LinkedHashMap<>();
+            quantiles.put("min", numbers.getMin());
+            for (double quantile : QUANTILES) {
+                quantiles.put("p" + Math.round(quantile * 100), numbers.quantile(quantile));
+            }
+            quantiles.put("max", numbers.getMax());
+            quantiles.put("mean", numbers.getMean());
+            report.put("quantiles", quantiles);
+        }
+        if (lengths != null) {
+            report.put("lengths", getLengths());
+        }
+        return report;
+    }
+}
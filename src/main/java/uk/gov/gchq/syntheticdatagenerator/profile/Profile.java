@@ -0,0 +1,208 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.profile;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericEnumSymbol;
+import org.apache.avro.generic.GenericRecord;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*****************************************************************************
+ * @class Profile
+ * @brief Perfil de la distribucion de todos los campos de un conjunto de registros
+ * @details Recorre cada registro, ya sea un objeto generado, un nodo JSON o un registro avro, y lleva un FieldProfile
+ * por ruta de campo. Los objetos anidados usan rutas como address.city y los elementos de los arrays rutas como
+ * contactNumbers[].type, hasta maxDepth niveles de anidamiento para no recorrer entero el arbol de profesores. No es
+ * thread safe: cada hilo lleva su propio perfil y se combinan con merge
+ * @version 1.0
+ ****************************************************************************/
+public final class Profile {
+    public static final int DEFAULT_MAX_DEPTH = 2;
+    public static final int DEFAULT_MAX_CATEGORIES = 64;
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final int maxDepth;
+    private final int maxCategories;
+    private final Map<String, FieldProfile> fields = new TreeMap<>();
+    private long records;
+
+    /**
+     * @brief Crea un perfil vacio con la profundidad y las categorias por defecto
+     */
+    public Profile() {
+        this(DEFAULT_MAX_DEPTH, DEFAULT_MAX_CATEGORIES);
+    }
+
+    /**
+     * @brief Crea un perfil vacio
+     * @param maxDepth Niveles de objetos y arrays anidados que se recorren bajo cada registro
+     * @param maxCategories Valores de texto distintos a partir de los que un campo deja de llevar histograma
+     */
+    public Profile(final int maxDepth, final int maxCategories) {
+        if (maxDepth < 0 || maxCategories < 0) {
+            throw new IllegalArgumentException("maxDepth and maxCategories must not be negative");
+        }
+        this.maxDepth = maxDepth;
+        this.maxCategories = maxCategories;
+    }
+
+    /**
+     * @brief Añade un objeto generado, como un Alumno o un Pas
+     * @param record Objeto con propiedades Java bean
+     */
+    public void observe(final Object record) {
+        observe(MAPPER.<JsonNode>valueToTree(record));
+    }
+
+    /**
+     * @brief Añade un registro leido de un fichero JSON o NDJSON
+     * @param record Objeto JSON
+     */
+    public void observe(final JsonNode record) {
+        records++;
+        Iterator<Map.Entry<String, JsonNode>> entries = record.fields();
+        while (entries.hasNext()) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            observeJson(entry.getKey(), entry.getValue(), 0);
+        }
+    }
+
+    /**
+     * @brief Añade un registro leido de un fichero avro
+     * @param record Registro avro
+     */
+    public void observe(final GenericRecord record) {
+        records++;
+        observeAvroFields("", record, 0);
+    }
+
+    /**
+     * @brief Combina otro perfil en este
+     * @param other Perfil con la misma profundidad y categorias
+     */
+    public void merge(final Profile other) {
+        records += other.records;
+        other.fields.forEach((path, profile) -> field(path).merge(profile));
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * @brief Perfil de un campo
+     * @param path Ruta del campo, por ejemplo campus o contactNumbers[].type
+     * @return El perfil, o null si el campo no aparece en ningun registro
+     */
+    public FieldProfile getField(final String path) {
+        return fields.get(path);
+    }
+
+    /**
+     * @brief Resumen del perfil para el informe
+     * @return Mapa con el numero de registros y el resumen de cada campo ordenado por ruta
+     */
+    public Map<String, Object> toReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("records", records);
+        Map<String, Object> summaries = new LinkedHashMap<>();
+        fields.forEach((path, profile) -> summaries.put(path, profile.toReport()));
+        report.put("fields", summaries);
+        return report;
+    }
+
+    /**
+     * @brief Escribe el informe como JSON
+     * @param file Fichero de destino
+     * @throws IOException Fallo al escribir el fichero
+     */
+    public void write(final File file) throws IOException {
+        MAPPER.writeValue(file, toReport());
+    }
+
+    /**
+     * @brief Devuelve el informe como JSON
+     * @return El informe con sangria
+     * @throws IOException Fallo al convertir el informe
+     */
+    public String toJson() throws IOException {
+        return MAPPER.writeValueAsString(toReport());
+    }
+
+    private FieldProfile field(final String path) {
+        return fields.computeIfAbsent(path, key -> new FieldProfile(maxCategories));
+    }
+
+    private void observeJson(final String path, final JsonNode value, final int depth) {
+        if (value == null || value.isNull() || value.isMissingNode()) {
+            field(path).addNull();
+        } else if (value.isNumber()) {
+            field(path).addNumber(value.doubleValue());
+        } else if (value.isValueNode()) {
+            field(path).addText(value.asText());
+        } else if (value.isArray()) {
+            field(path).addLength(value.size());
+            if (depth < maxDepth) {
+                for (JsonNode element : value) {
+                    observeJson(path + "[]", element, depth + 1);
+                }
+            }
+        } else if (depth < maxDepth) {
+            Iterator<Map.Entry<String, JsonNode>> entries = value.fields();
+            while (entries.hasNext()) {
+                Map.Entry<String, JsonNode> entry = entries.next();
+                observeJson(path + "." + entry.getKey(), entry.getValue(), depth + 1);
+            }
+        }
+    }
+
+    private void observeAvro(final String path, final Object value, final int depth) {
+        if (value == null) {
+            field(path).addNull();
+        } else if (value instanceof Number) {
+            field(path).addNumber(((Number) value).doubleValue());
+        } else if (value instanceof CharSequence || value instanceof GenericEnumSymbol || value instanceof Boolean) {
+            field(path).addText(value.toString());
+        } else if (value instanceof Collection) {
+            Collection<?> elements = (Collection<?>) value;
+            field(path).addLength(elements.size());
+            if (depth < maxDepth) {
+                for (Object element : elements) {
+                    observeAvro(path + "[]", element, depth + 1);
+                }
+            }
+        } else if (value instanceof GenericRecord && depth < maxDepth) {
+            observeAvroFields(path + ".", (GenericRecord) value, depth + 1);
+        }
+    }
+
+    private void observeAvroFields(final String prefix, final GenericRecord record, final int depth) {
+        for (Schema.Field field : record.getSchema().getFields()) {
+            observeAvro(prefix + field.name(), record.get(field.pos()), depth);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.profile;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import uk.gov.gchq.syntheticdatagenerator.uniqueness.UidReader;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/*****************************************************************************
+ * @class ProfileReader
+ * @brief Añade a un perfil los registros de un fichero avro, JSON o NDJSON generado, comprimido o no con gzip
+ * @details Los registros se leen de uno en uno en streaming, por lo que la memoria no depende del tamaño del fichero
+ * @version 1.0
+ ****************************************************************************/
+public final class ProfileReader {
+    private static final String GZIP = ".gz";
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ProfileReader() {
+    }
+
+    /**
+     * @brief Indica si se puede perfilar un fichero por su extension
+     * @param name Nombre del fichero
+     * @return True para .avro, .json y .ndjson, con o sin .gz
+     */
+    public static boolean canRead(final String name) {
+        return UidReader.canRead(name);
+    }
+
+    /**
+     * @brief Añade todos los registros de un fichero a un perfil
+     * @param file Fichero avro, JSON o NDJSON, opcionalmente comprimido con gzip
+     * @param profile Perfil que recibe los registros
+     * @return Numero de registros leidos
+     * @throws IOException Fallo al leer el fichero
+     */
+    public static long read(final File file, final Profile profile) throws IOException {
+        String name = file.getName();
+        if (!canRead(name)) {
+            throw new IOException("Unable to profile " + file + ", expected .avro, .json or .ndjson");
+        }
+        boolean gzip = name.endsWith(GZIP);
+        try (InputStream in = gzip ? new GZIPInputStream(new FileInputStream(file), BUFFER_SIZE)
+                : new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE)) {
+            if ((gzip ? name.substring(0, name.length() - GZIP.length()) : name).endsWith(".avro")) {
+                return readAvro(in, profile);
+            }
+            return readJson(in, profile);
+        }
+    }
+
+    private static long readAvro(final InputStream in, final Profile profile) throws IOException {
+        long count = 0;
+        try (DataFileStream<GenericRecord> records = new DataFileStream<>(in, new GenericDatumReader<>())) {
+            GenericRecord record = null;
+            while (records.hasNext()) {
+                record = records.next(record);
+                profile.observe(record);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long readJson(final InputStream in, final Profile profile) throws IOException {
+        long count = 0;
+        try (JsonParser parser = MAPPER.getFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            // A JSON file is one array of records, an NDJSON file a sequence of records
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+            while (token == JsonToken.START_OBJECT) {
+                profile.observe(MAPPER.<JsonNode>readTree(parser));
+                count++;
+                token = parser.nextToken();
+            }
+            if (token != null && token != JsonToken.END_ARRAY) {
+                throw new IOException("Expected a JSON object at record " + count + " but found " + token);
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.profile;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*****************************************************************************
+ * @class QuantileSketch
+ * @brief Cuantiles aproximados con error relativo acotado (DDSketch)
+ * @details Cada valor se cuenta en el cubo ceil(log_gamma(|x|)), con gamma = (1 + error) / (1 - error), de modo que
+ * cualquier cuantil se devuelve con un error relativo de como mucho error. Los ceros y los negativos tienen su propio
+ * contador y sus propios cubos. El numero de cubos crece con el logaritmo del rango de valores, no con el numero de
+ * valores, y dos sketches con el mismo error se combinan sumando sus cubos. No es thread safe
+ * @version 1.0
+ ****************************************************************************/
+public final class QuantileSketch {
+    public static final double DEFAULT_RELATIVE_ERROR = 0.01;
+    private static final double MIN_INDEXABLE = 1e-9;
+
+    private final double relativeError;
+    private final double gamma;
+    private final double logGamma;
+    private final Map<Integer, Long> positive = new HashMap<>();
+    private final Map<Integer, Long> negative = new HashMap<>();
+    private long zeros;
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * @brief Crea un sketch vacio con un error relativo del 1%
+     */
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ERROR);
+    }
+
+    /**
+     * @brief Crea un sketch vacio
+     * @param relativeError Error relativo maximo de los cuantiles, entre 0 y 1
+     */
+    public QuantileSketch(final double relativeError) {
+        if (relativeError <= 0 || relativeError >= 1) {
+            throw new IllegalArgumentException("relativeError must be between 0 and 1");
+        }
+        this.relativeError = relativeError;
+        this.gamma = (1 + relativeError) / (1 - relativeError);
+        this.logGamma = Math.log(gamma);
+    }
+
+    /**
+     * @brief Añade un valor
+     * @param value Valor finito
+     */
+    public void add(final double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        if (value > MIN_INDEXABLE) {
+            positive.merge(index(value), 1L, Long::sum);
+        } else if (value < -MIN_INDEXABLE) {
+            negative.merge(index(-value), 1L, Long::sum);
+        } else {
+            zeros++;
+        }
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * @brief Combina otro sketch en este
+     * @param other Sketch con el mismo error relativo
+     */
+    public void merge(final QuantileSketch other) {
+        if (other.relativeError != relativeError) {
+            throw new IllegalArgumentException("Cannot merge sketches with relative errors " + relativeError + " and " + other.relativeError);
+        }
+        other.positive.forEach((index, n) -> positive.merge(index, n, Long::sum));
+        other.negative.forEach((index, n) -> negative.merge(index, n, Long::sum));
+        zeros += other.zeros;
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @brief Devuelve un cuantil
+     * @param quantile Cuantil entre 0 y 1, por ejemplo 0.99
+     * @return El valor del cuantil, o NaN si el sketch esta vacio
+     */
+    public double quantile(final double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("quantile must be between 0 and 1");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (quantile * (count - 1));
+        long seen = 0;
+        // Negative buckets go from the largest magnitude, the smallest value, up to zero
+        for (Map.Entry<Integer, Long> bucket : new TreeMap<>(negative).descendingMap().entrySet()) {
+            seen += bucket.getValue();
+            if (seen > rank) {
+                return clamp(-value(bucket.getKey()));
+            }
+        }
+        seen += zeros;
+        if (seen > rank) {
+            return 0;
+        }
+        for (Map.Entry<Integer, Long> bucket : new TreeMap<>(positive).entrySet()) {
+            seen += bucket.getValue();
+            if (seen > rank) {
+                return clamp(value(bucket.getKey()));
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @brief Media exacta de los valores
+     * @return La media, o NaN si el sketch esta vacio
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    private int index(final double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / logGamma);
+    }
+
+    private double value(final int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    // The bucket midpoint can fall just outside the exact range that was seen
+    private double clamp(final double value) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.sample;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/*****************************************************************************
+ * @class Reservoir
+ * @brief Muestra uniforme de como mucho capacity elementos de una secuencia de longitud desconocida
+ * @details Usa el algoritmo L de Li: una vez lleno, calcula cuantos elementos se pueden saltar antes del siguiente que
+ * entra en la muestra, de modo que quien lee puede pasar por alto esos registros sin decodificarlos (por ejemplo
+ * bloques avro enteros). Dos reservorios de partes disjuntas se combinan en una muestra uniforme de la union, que ya no
+ * admite mas elementos. No es thread safe
+ * @version 1.0
+ ****************************************************************************/
+public final class Reservoir<T> {
+    private final int capacity;
+    private final Random random;
+    private final List<T> items;
+    private final boolean merged;
+    private long seen;
+    private long skip;
+    private double weight;
+
+    /**
+     * @brief Crea un reservorio vacio
+     * @param capacity Numero maximo de elementos de la muestra
+     * @param random Generador de numeros aleatorios, determina la muestra
+     */
+    public Reservoir(final int capacity, final Random random) {
+        this(capacity, random, new ArrayList<>(), false);
+    }
+
+    private Reservoir(final int capacity, final Random random, final List<T> items, final boolean merged) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative");
+        }
+        this.capacity = capacity;
+        this.random = random;
+        this.items = items;
+        this.merged = merged;
+    }
+
+    /**
+     * @brief Numero de elementos siguientes que se pueden saltar porque no entrarian en la muestra
+     * @return Elementos que se pueden pasar a {@link #skip(long)} en lugar de a {@link #offer(Object)}
+     */
+    public long toSkip() {
+        if (capacity == 0) {
+            return Long.MAX_VALUE;
+        }
+        return items.size() < capacity ? 0 : skip;
+    }
+
+    /**
+     * @brief Cuenta elementos que no se ofrecen
+     * @param count Numero de elementos, como mucho {@link #toSkip()}
+     */
+    public void skip(final long count) {
+        checkOpen();
+        if (count < 0 || count > toSkip()) {
+            throw new IllegalArgumentException("Cannot skip " + count + " items, only " + toSkip() + " can be skipped");
+        }
+        seen += count;
+        if (capacity > 0) {
+            skip -= count;
+        }
+    }
+
+    /**
+     * @brief Ofrece el siguiente elemento de la secuencia
+     * @param item Elemento, entra en la muestra si le toca
+     */
+    public void offer(final T item) {
+        checkOpen();
+        seen++;
+        if (items.size() < capacity) {
+            items.add(item);
+            if (items.size() == capacity) {
+                weight = Math.exp(Math.log(uniform()) / capacity);
+                nextSkip();
+            }
+        } else if (capacity > 0) {
+            if (skip > 0) {
+                skip--;
+                return;
+            }
+            items.set(random.nextInt(capacity), item);
+            weight *= Math.exp(Math.log(uniform()) / capacity);
+            nextSkip();
+        }
+    }
+
+    /**
+     * @brief Combina este reservorio con el de otra parte disjunta de los datos
+     * @param other Reservorio con la misma capacidad
+     * @param random Generador que decide de que parte sale cada elemento
+     * @return Muestra uniforme de la union, que no admite mas elementos
+     */
+    public Reservoir<T> merge(final Reservoir<T> other, final Random random) {
+        if (other.capacity != capacity) {
+            throw new IllegalArgumentException("Cannot merge reservoirs of capacity " + capacity + " and " + other.capacity);
+        }
+        List<T> left = new ArrayList<>(items);
+        List<T> right = new ArrayList<>(other.items);
+        long leftRemaining = seen;
+        long rightRemaining = other.seen;
+        int size = (int) Math.min(capacity, seen + other.seen);
+        List<T> union = new ArrayList<>(size);
+        // Draws without replacement from the union: each side is chosen by how many of its items are still undrawn
+        for (int i = 0; i < size; i++) {
+            if (random.nextDouble() * (leftRemaining + rightRemaining) < leftRemaining) {
+                union.add(removeRandom(left, random));
+                leftRemaining--;
+            } else {
+                union.add(removeRandom(right, random));
+                rightRemaining--;
+            }
+        }
+        Reservoir<T> result = new Reservoir<>(capacity, random, union, true);
+        result.seen = seen + other.seen;
+        return result;
+    }
+
+    /**
+     * @brief Saca una submuestra uniforme de la muestra
+     * @param count Numero de elementos, como mucho el tamaño de la muestra
+     * @param random Generador que elige los elementos
+     * @return Los elementos elegidos
+     */
+    public List<T> draw(final int count, final Random random) {
+        if (count > items.size()) {
+            throw new IllegalArgumentException("Cannot draw " + count + " items from a sample of " + items.size());
+        }
+        List<T> remaining = new ArrayList<>(items);
+        List<T> drawn = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            drawn.add(removeRandom(remaining, random));
+        }
+        return drawn;
+    }
+
+    /**
+     * @brief Elementos de la muestra
+     * @return Como mucho capacity elementos, sin orden definido
+     */
+    public List<T> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    /**
+     * @brief Numero de elementos de la secuencia, ofrecidos o saltados
+     * @return Elementos vistos
+     */
+    public long getSeen() {
+        return seen;
+    }
+
+    private void checkOpen() {
+        if (merged) {
+            throw new IllegalStateException("A merged reservoir does not accept more items");
+        }
+    }
+
+    private void nextSkip() {
+        double skipped = Math.floor(Math.log(uniform()) / Math.log1p(-weight));
+        skip = skipped >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) skipped;
+    }
+
+    // In (0, 1], so its logarithm is finite
+    private double uniform() {
+        return 1.0 - random.nextDouble();
+    }
+
+    private static <T> T removeRandom(final List<T> items, final Random random) {
+        int index = random.nextInt(items.size());
+        T item = items.get(index);
+        items.set(index, items.get(items.size() - 1));
+        items.remove(items.size() - 1);
+        return item;
+    }
+}
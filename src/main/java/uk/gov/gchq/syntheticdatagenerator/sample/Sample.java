@@ -0,0 +1,166 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.sample;
+
+import org.apache.avro.Schema;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class Sample
+ * @brief Muestra de los registros de uno o varios ficheros del mismo formato y tipo
+ * @details Sin estratificar lleva un unico reservorio. Estratificada lleva un reservorio por valor del campo, cada uno
+ * de la capacidad total, para poder repartir despues la muestra en proporcion al tamaño de cada estrato. Los registros
+ * son GenericRecord en avro, JsonNode en JSON y NDJSON y la linea completa en CSV. No es thread safe: cada fichero se
+ * muestrea por separado y las muestras se combinan con merge
+ * @version 1.0
+ ****************************************************************************/
+public final class Sample {
+    private final SampleFormat format;
+    private final int capacity;
+    private final String stratifyField;
+    private final Random random;
+    private final Map<String, Reservoir<Object>> strata = new TreeMap<>();
+    private Schema schema;
+    private String header;
+
+    /**
+     * @brief Crea una muestra vacia
+     * @param format Formato de los registros
+     * @param capacity Numero de registros de la muestra final
+     * @param stratifyField Campo por el que se estratifica, null para una muestra uniforme
+     * @param random Generador de numeros aleatorios de la muestra
+     */
+    public Sample(final SampleFormat format, final int capacity, final String stratifyField, final Random random) {
+        requireNonNull(format, "format");
+        requireNonNull(random, "random");
+        this.format = format;
+        this.capacity = capacity;
+        this.stratifyField = stratifyField;
+        this.random = random;
+    }
+
+    /**
+     * @brief Devuelve el reservorio de un estrato, creandolo si no existe
+     * @param key Valor del campo de estratificacion, "" sin estratificar
+     * @return El reservorio del estrato
+     */
+    public Reservoir<Object> stratum(final String key) {
+        return strata.computeIfAbsent(key, value -> new Reservoir<>(capacity, random));
+    }
+
+    /**
+     * @brief Combina la muestra de otros ficheros en esta
+     * @param other Muestra del mismo formato, tipo, capacidad y campo de estratificacion
+     * @param mergeRandom Generador que decide de que muestra sale cada registro
+     * @return Esta muestra
+     */
+    public Sample merge(final Sample other, final Random mergeRandom) {
+        if (other.format != format || !Objects.equals(other.schema, schema) || !Objects.equals(other.header, header)) {
+            throw new IllegalArgumentException("Cannot sample files of different formats or types together");
+        }
+        other.strata.forEach((key, reservoir) -> strata.put(key, stratum(key).merge(reservoir, mergeRandom)));
+        return this;
+    }
+
+    /**
+     * @brief Saca la muestra final
+     * @param mergeRandom Generador que elige los registros de cada estrato
+     * @return capacity registros, o todos si hay menos. Estratificada, cada estrato aporta en proporcion a su tamaño
+     */
+    public List<Object> draw(final Random mergeRandom) {
+        long records = getRecords();
+        int size = (int) Math.min(capacity, records);
+        Map<String, Integer> allocation = new LinkedHashMap<>();
+        List<Map.Entry<String, Double>> remainders = new ArrayList<>();
+        int allocated = 0;
+        for (Map.Entry<String, Reservoir<Object>> stratum : strata.entrySet()) {
+            double share = (double) size * stratum.getValue().getSeen() / records;
+            allocation.put(stratum.getKey(), (int) share);
+            allocated += (int) share;
+            remainders.add(new AbstractMap.SimpleEntry<>(stratum.getKey(), share - (int) share));
+        }
+        // Largest remainders first, ties by stratum order, so the sizes add up to exactly size
+        remainders.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        for (int i = 0; allocated < size; i++, allocated++) {
+            allocation.merge(remainders.get(i).getKey(), 1, Integer::sum);
+        }
+        List<Object> drawn = new ArrayList<>(size);
+        allocation.forEach((key, count) -> drawn.addAll(strata.get(key).draw(count, mergeRandom)));
+        return drawn;
+    }
+
+    /**
+     * @brief Numero de registros leidos
+     * @return Registros de todos los estratos
+     */
+    public long getRecords() {
+        return strata.values().stream().mapToLong(Reservoir::getSeen).sum();
+    }
+
+    /**
+     * @brief Numero de registros leidos de cada estrato
+     * @return Registros por valor del campo de estratificacion, ordenado por valor
+     */
+    public Map<String, Long> getStrata() {
+        Map<String, Long> sizes = new TreeMap<>();
+        strata.forEach((key, reservoir) -> sizes.put(key, reservoir.getSeen()));
+        return Collections.unmodifiableMap(sizes);
+    }
+
+    public SampleFormat getFormat() {
+        return format;
+    }
+
+    public String getStratifyField() {
+        return stratifyField;
+    }
+
+    /**
+     * @brief Esquema de los registros avro
+     * @return El esquema del fichero, null en otros formatos
+     */
+    public Schema getSchema() {
+        return schema;
+    }
+
+    public void setSchema(final Schema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * @brief Cabecera de los ficheros CSV
+     * @return La primera linea del fichero, null en otros formatos
+     */
+    public String getHeader() {
+        return header;
+    }
+
+    public void setHeader(final String header) {
+        this.header = header;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.sample;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/*****************************************************************************
+ * @class SampleFormat
+ * @brief Formatos de fichero que se pueden muestrear
+ * @version 1.0
+ ****************************************************************************/
+public enum SampleFormat {
+    AVRO, JSON, NDJSON, CSV;
+
+    private static final String GZIP = ".gz";
+
+    /**
+     * @brief Extension de los ficheros del formato
+     * @return La extension con el punto, por ejemplo .avro
+     */
+    public String getExtension() {
+        return "." + name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @brief Busca el formato de un fichero por su extension
+     * @param name Nombre del fichero, opcionalmente terminado en .gz
+     * @return El formato, vacio si no se puede muestrear
+     */
+    public static Optional<SampleFormat> fromFileName(final String name) {
+        String base = isGzip(name) ? name.substring(0, name.length() - GZIP.length()) : name;
+        for (SampleFormat format : values()) {
+            if (base.endsWith(format.getExtension())) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @brief Indica si un fichero esta comprimido con gzip
+     * @param name Nombre del fichero
+     * @return True si termina en .gz
+     */
+    public static boolean isGzip(final String name) {
+        return name.endsWith(GZIP);
+    }
+}
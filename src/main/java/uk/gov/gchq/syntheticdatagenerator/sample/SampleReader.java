@@ -0,0 +1,210 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.sample;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import uk.gov.gchq.syntheticdatagenerator.serialise.CSVSerialiser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+/*****************************************************************************
+ * @class SampleReader
+ * @brief Muestrea los registros de un fichero avro, JSON, NDJSON o CSV, comprimido o no con gzip
+ * @details Sin estratificar, los registros que el reservorio permite saltar no se decodifican: en avro se saltan
+ * bloques enteros sin decodificar sus registros, en JSON se salta el objeto sin construir el arbol y en CSV la linea sin
+ * separar sus celdas, por lo que el muestreo queda limitado por la lectura del fichero. Estratificada hay que leer el
+ * campo de cada registro, asi que se decodifican todos
+ * @version 1.0
+ ****************************************************************************/
+public final class SampleReader {
+    private static final String ALL = "";
+    private static final String MISSING = "null";
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private SampleReader() {
+    }
+
+    /**
+     * @brief Indica si se puede muestrear un fichero por su extension
+     * @param name Nombre del fichero
+     * @return True para .avro, .json, .ndjson y .csv, con o sin .gz
+     */
+    public static boolean canRead(final String name) {
+        return SampleFormat.fromFileName(name).isPresent();
+    }
+
+    /**
+     * @brief Muestrea un fichero
+     * @param file Fichero a muestrear
+     * @param capacity Numero de registros de la muestra
+     * @param stratifyField Campo por el que se estratifica, con puntos para campos anidados, null para una muestra uniforme
+     * @param random Generador de numeros aleatorios del fichero
+     * @return La muestra del fichero
+     * @throws IOException Fallo al leer el fichero
+     */
+    public static Sample read(final File file, final int capacity, final String stratifyField, final Random random) throws IOException {
+        String name = file.getName();
+        SampleFormat format = SampleFormat.fromFileName(name)
+                .orElseThrow(() -> new IOException("Unable to sample " + file + ", expected .avro, .json, .ndjson or .csv"));
+        Sample sample = new Sample(format, capacity, stratifyField, random);
+        try (InputStream in = SampleFormat.isGzip(name) ? new GZIPInputStream(new FileInputStream(file), BUFFER_SIZE)
+                : new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE)) {
+            switch (format) {
+                case AVRO:
+                    readAvro(in, sample);
+                    break;
+                case CSV:
+                    readCsv(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE), sample);
+                    break;
+                default:
+                    readJson(in, sample);
+                    break;
+            }
+        }
+        return sample;
+    }
+
+    private static void readAvro(final InputStream in, final Sample sample) throws IOException {
+        String field = sample.getStratifyField();
+        try (DataFileStream<GenericRecord> records = new DataFileStream<>(in, new GenericDatumReader<>())) {
+            sample.setSchema(records.getSchema());
+            if (field != null && records.getSchema().getField(path(field)[0]) == null) {
+                throw new IOException("The records have no " + field + " field");
+            }
+            GenericRecord scratch = null;
+            long remainingInBlock = 0;
+            while (records.hasNext()) {
+                if (remainingInBlock == 0) {
+                    remainingInBlock = records.getBlockCount();
+                }
+                if (field != null) {
+                    GenericRecord record = records.next();
+                    sample.stratum(key(record, field)).offer(record);
+                } else {
+                    Reservoir<Object> reservoir = sample.stratum(ALL);
+                    if (remainingInBlock == records.getBlockCount() && reservoir.toSkip() >= remainingInBlock) {
+                        // None of the block's records would be kept, so it is passed over without decoding them
+                        records.nextBlock();
+                        reservoir.skip(remainingInBlock);
+                        remainingInBlock = 0;
+                        continue;
+                    }
+                    if (reservoir.toSkip() > 0) {
+                        scratch = records.next(scratch);
+                        reservoir.skip(1);
+                    } else {
+                        reservoir.offer(records.next());
+                    }
+                }
+                remainingInBlock--;
+            }
+        }
+    }
+
+    private static void readJson(final InputStream in, final Sample sample) throws IOException {
+        String field = sample.getStratifyField();
+        try (JsonParser parser = MAPPER.getFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            // A JSON file is one array of records, an NDJSON file a sequence of records
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+            while (token == JsonToken.START_OBJECT) {
+                if (field != null) {
+                    JsonNode record = MAPPER.readTree(parser);
+                    sample.stratum(key(record, field)).offer(record);
+                } else if (sample.stratum(ALL).toSkip() > 0) {
+                    parser.skipChildren();
+                    sample.stratum(ALL).skip(1);
+                } else {
+                    sample.stratum(ALL).offer(MAPPER.readTree(parser));
+                }
+                token = parser.nextToken();
+            }
+            if (token != null && token != JsonToken.END_ARRAY) {
+                throw new IOException("Expected a JSON object after record " + sample.getRecords() + " but found " + token);
+            }
+        }
+    }
+
+    private static void readCsv(final Reader in, final Sample sample) throws IOException {
+        String header = CSVSerialiser.readRecord(in);
+        if (header == null) {
+            return;
+        }
+        sample.setHeader(header);
+        int column = -1;
+        if (sample.getStratifyField() != null) {
+            column = CSVSerialiser.splitRecord(header).indexOf(sample.getStratifyField());
+            if (column < 0) {
+                throw new IOException("The CSV header has no " + sample.getStratifyField() + " column");
+            }
+        }
+        String line;
+        while ((line = CSVSerialiser.readRecord(in)) != null) {
+            if (column >= 0) {
+                List<String> cells = CSVSerialiser.splitRecord(line);
+                sample.stratum(column < cells.size() ? cells.get(column) : MISSING).offer(line);
+            } else if (sample.stratum(ALL).toSkip() > 0) {
+                sample.stratum(ALL).skip(1);
+            } else {
+                sample.stratum(ALL).offer(line);
+            }
+        }
+    }
+
+    private static String key(final GenericRecord record, final String field) {
+        Object value = record;
+        for (String name : path(field)) {
+            if (!(value instanceof GenericRecord) || ((GenericRecord) value).getSchema().getField(name) == null) {
+                return MISSING;
+            }
+            value = ((GenericRecord) value).get(name);
+        }
+        return String.valueOf(value);
+    }
+
+    private static String key(final JsonNode record, final String field) {
+        JsonNode value = record;
+        for (String name : path(field)) {
+            value = value.path(name);
+        }
+        return value.isMissingNode() || value.isNull() ? MISSING : value.asText();
+    }
+
+    private static String[] path(final String field) {
+        return field.split("\\.");
+    }
+}
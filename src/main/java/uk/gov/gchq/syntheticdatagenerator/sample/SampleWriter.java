@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.sample;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/*****************************************************************************
+ * @class SampleWriter
+ * @brief Escribe una muestra en el mismo formato que los ficheros de los que se saco
+ * @details Avro conserva el esquema de los ficheros, JSON se escribe como un array con sangria igual que al generar,
+ * NDJSON un registro por linea y CSV la cabecera seguida de las filas tal como se leyeron. Una muestra JSON se puede
+ * escribir como NDJSON y al reves segun la extension del destino. Si el nombre del fichero termina en .gz se comprime
+ * con gzip
+ * @version 1.0
+ ****************************************************************************/
+public final class SampleWriter {
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final String LINE_END = "\r\n";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private SampleWriter() {
+    }
+
+    /**
+     * @brief Escribe los registros de una muestra
+     * @param file Fichero de destino
+     * @param sample Muestra de la que salen los registros, da el formato, el esquema o la cabecera
+     * @param records Registros sacados con {@link Sample#draw(java.util.Random)}
+     * @throws IOException Fallo al escribir el fichero
+     */
+    public static void write(final File file, final Sample sample, final List<Object> records) throws IOException {
+        SampleFormat format = sample.getFormat();
+        SampleFormat target = SampleFormat.fromFileName(file.getName()).orElse(format);
+        if (target != format && !(isJson(target) && isJson(format))) {
+            throw new IOException("Unable to write a " + format.getExtension() + " sample to " + file);
+        }
+        try (OutputStream out = SampleFormat.isGzip(file.getName()) ? new GZIPOutputStream(new FileOutputStream(file), BUFFER_SIZE)
+                : new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE)) {
+            switch (target) {
+                case AVRO:
+                    writeAvro(out, sample, records);
+                    break;
+                case CSV:
+                    writeCsv(out, sample, records);
+                    break;
+                case JSON:
+                    writeJson(out, records);
+                    break;
+                default:
+                    writeNdjson(out, records);
+                    break;
+            }
+        }
+    }
+
+    private static boolean isJson(final SampleFormat format) {
+        return format == SampleFormat.JSON || format == SampleFormat.NDJSON;
+    }
+
+    private static void writeAvro(final OutputStream out, final Sample sample, final List<Object> records) throws IOException {
+        if (sample.getSchema() == null) {
+            throw new IOException("An empty avro sample has no schema to write");
+        }
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(sample.getSchema()))) {
+            writer.create(sample.getSchema(), out);
+            for (Object record : records) {
+                writer.append((GenericRecord) record);
+            }
+        }
+    }
+
+    private static void writeJson(final OutputStream out, final List<Object> records) throws IOException {
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(out)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartArray();
+            for (Object record : records) {
+                MAPPER.writeTree(generator, (JsonNode) record);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private static void writeNdjson(final OutputStream out, final List<Object> records) throws IOException {
+        for (Object record : records) {
+            out.write(MAPPER.writeValueAsBytes(record));
+            out.write('\n');
+        }
+    }
+
+    private static void writeCsv(final OutputStream out, final Sample sample, final List<Object> records) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        if (sample.getHeader() != null) {
+            writer.write(sample.getHeader());
+            writer.write(LINE_END);
+        }
+        for (Object record : records) {
+            writer.write((String) record);
+            writer.write(LINE_END);
+        }
+        writer.flush();
+    }
+}
@@ -19,128 +19,170 @@ package uk.gov.gchq.syntheticdatagenerator.serialise;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.apache.avro.Schema;
+import org.apache.avro.file.CodecFactory;
 import org.apache.avro.file.DataFileStream;
 import org.apache.avro.file.DataFileWriter;
 import org.apache.avro.reflect.ReflectData;
 import org.apache.avro.reflect.ReflectDatumReader;
 import org.apache.avro.reflect.ReflectDatumWriter;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import uk.gov.gchq.syntheticdatagenerator.types.Person;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
-import static java.util.Objects.nonNull;
 import static java.util.Objects.requireNonNull;
 
-/**
- * An {@code AvroInputStreamSerialiser} is used to serialise and deserialise Avro files.
- * Converts an avro {@link InputStream} to/from a {@link Stream} of domain objects ({@link O}s).
- *
- * @param <O> the domain object type
- */
-
-class MyReflectDatumWriter<O> extends ReflectDatumWriter<O> implements Serialiser<O>{
-    public MyReflectDatumWriter(Schema schema) {
-        super(schema);
-    }
-
-    @Override
-    public void serialise(Stream<Person> objects, OutputStream output) throws IOException {
-        // Empty Function
-    }
-
-    @Override
-    public Stream<O> deserialise(InputStream stream) throws IOException {
-        return null;
-    }
-}
-
 /*****************************************************************************
  * @class AvroSerialiser
  * @brief Clase encargada de pasar los datos en Stream a formato avro
- * @details Haciendo uso de el serialiser de apache se transformara un stream de objetos a formato avro. Implementa a la interfaz Serialiser
+ * @details Haciendo uso de el serialiser de apache se transformara un stream de objetos a formato avro. Implementa a la interfaz Serialiser.
+ * Si se le da un pool de codificadores los bloques del contenedor se codifican y comprimen en paralelo, ver {@link ParallelAvroRecordWriter}
  * @version 1.0
  ****************************************************************************/
 public class AvroSerialiser<O> implements Serialiser<O> {
     private static final long serialVersionUID = 1L;
     private static final Logger LOGGER = LoggerFactory.getLogger(AvroSerialiser.class);
-    private final MyReflectDatumWriter<O> datumWriter;
 
-    private final Class<O> domainClass;
+    private final Class<? extends O> domainClass;
     private final Schema schema;
+    private final String codec;
+    private final transient ExecutorService encoderExecutor;
+    private final int blockRecords;
+    private final int maxInFlight;
+    private final Long syncSeed;
 
     /**
      * @brief Constructor de la clase, almacena valores necesarios para la serializacion en formato avro
      * @param domainClass Dominio de la clase
      */
     @JsonCreator
-    public AvroSerialiser(@JsonProperty("domainClass") final Class<O> domainClass) {
+    public AvroSerialiser(@JsonProperty("domainClass") final Class<? extends O> domainClass) {
+        this(domainClass, "null", null, SerialiserOptions.DEFAULT_BLOCK_RECORDS, 1, null, null);
+    }
+
+    /**
+     * @brief Constructor de la clase con codec de bloques y codificacion en paralelo
+     * @param domainClass Dominio de la clase
+     * @param codec Codec de los bloques en el formato de {@link CodecFactory#fromString(String)}
+     * @param encoderExecutor Pool donde se codifican los bloques, null para codificar en el hilo que escribe
+     * @param blockRecords Registros por bloque cuando se codifica en paralelo
+     * @param maxInFlight Bloques pendientes de escribir como maximo
+     * @param fields Campos de primer nivel del esquema, null para usar todos
+     * @param syncSeed Semilla del marcador de sincronizacion, para que la misma semilla escriba los mismos bytes, o null
+     * para un marcador aleatorio
+     */
+    public AvroSerialiser(final Class<? extends O> domainClass, final String codec, final ExecutorService encoderExecutor,
+                          final int blockRecords, final int maxInFlight, final List<String> fields, final Long syncSeed) {
         requireNonNull(domainClass, "domainClass is required");
+        requireNonNull(codec, "codec is required");
+        if (blockRecords < 1) {
+            throw new IllegalArgumentException("blockRecords must be positive");
+        }
         this.domainClass = domainClass;
-        this.schema = ReflectData.AllowNull.get().getSchema(domainClass);
-        this.datumWriter = new MyReflectDatumWriter<>(schema);
+        this.schema = FieldProjection.project(ReflectData.AllowNull.get().getSchema(domainClass), fields);
+        //fail now rather than when the first file is opened
+        CodecFactory.fromString(codec);
+        this.codec = codec;
+        this.encoderExecutor = encoderExecutor;
+        this.blockRecords = blockRecords;
+        this.maxInFlight = maxInFlight;
+        this.syncSeed = syncSeed;
     }
 
     /**
      * @brief Cambia un stream de entrada en formato avro a un stream entendible
+     * @details Los registros se leen con el esquema del fichero, por lo que tambien se leen ficheros con una seleccion
+     * de campos. Si el serialiser tiene un pool de codificadores, los bloques se decodifican en paralelo en el
+     * mismo pool, ver {@link ParallelAvroRecordReader}
      * @param input Stream de entrada
-     * @return Stream de salida
+     * @return Stream de salida, al cerrarlo se cierra la entrada
      * @throws IOException Fallo en la deserializacion
      */
     @Override
     public Stream<O> deserialise(final InputStream input) throws IOException {
-        DataFileStream<O> in;
-        in = new DataFileStream<>(input, new ReflectDatumReader<>(schema));
+        requireNonNull(input, "input");
+        DomainReflectData data = new DomainReflectData(schema);
+        //a null schema reads the records with the schema of the file
+        DataFileStream<O> in = new DataFileStream<>(input, new ReflectDatumReader<>(null, null, data));
+        Iterator<O> records = encoderExecutor == null ? in : new ParallelAvroRecordReader<>(in, data, encoderExecutor, maxInFlight);
 
         //Don't use try-with-resources here! This input stream needs to stay open until it is closed manually by the
         //stream it is feeding below
-        return StreamSupport.stream(in.spliterator(), false);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(records, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> IOUtils.closeQuietly((Closeable) records));
     }
 
     /**
-     * @brief Metodo que sera usado para serializar en formato avro
-     * @param objects El stream de objetos que van a a ser serializados
-     * @param output  El stream de salida que se usara para escribir en formato json
-     * @throws IOException Fallo en la serializacion
+     * @brief Abre un contenedor avro sobre el stream de salida y escribe la cabecera
+     * @param output El stream de salida que se usara para escribir en formato avro
+     * @return Escritor de registros del contenedor
+     * @throws IOException Fallo al escribir la cabecera
      */
     @Override
-    public void serialise(final Stream<Person> objects, final OutputStream output) throws IOException {
+    public RecordWriter<O> open(final OutputStream output) throws IOException {
         requireNonNull(output, "output");
-        if (nonNull(objects)) {
-            //create a data file writer around the output stream
-            //since we didn't create the output stream, we shouldn't close it either, someone else might want it afterwards!
-            final DataFileWriter<O> dataFileWriter = new DataFileWriter<>(datumWriter);
-            LOGGER.debug("Creating data file writer");
-            try {
-                dataFileWriter.create(schema, output);
-                //iterate and append items -- we can't use forEach on the stream as the lambda can't throw an IOException
-                Iterator<O> objectIt = (Iterator<O>) objects.iterator();
-
-                while (objectIt.hasNext()) {
-                    O next = objectIt.next();
-                    dataFileWriter.append(next);
-                }
-
-            } catch (Exception ex) {
-                throw new RuntimeException(ex);
-            } finally {
-                try {
-                    dataFileWriter.flush();
-                } catch (IOException e) {
-                    LOGGER.warn("Unable to flush Avro DataFileWriter", e);
-                }
-                dataFileWriter.close();
-            }
+        byte[] sync = syncSeed == null ? ParallelAvroRecordWriter.generateSync() : ParallelAvroRecordWriter.sync(syncSeed);
+        if (encoderExecutor != null) {
+            return new ParallelAvroRecordWriter<>(schema, CodecFactory.fromString(codec), sync, output, encoderExecutor, blockRecords,
+                    maxInFlight);
         }
+        //since we didn't create the output stream, we shouldn't close it either, someone else might want it afterwards!
+        final DataFileWriter<O> dataFileWriter = new DataFileWriter<>(new ReflectDatumWriter<O>(schema));
+        dataFileWriter.setCodec(CodecFactory.fromString(codec));
+        LOGGER.debug("Creating data file writer");
+        dataFileWriter.create(schema, new CloseShieldOutputStream(output), sync);
+        return new AvroRecordWriter<>(dataFileWriter);
     }
 
-    public Class<O> getDomainClass() {
+    public Class<? extends O> getDomainClass() {
         return domainClass;
     }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Appends objects to an open {@link DataFileWriter}. Avro already buffers records into blocks, so batches are
+     * appended one by one and only flushed when asked.
+     */
+    private static final class AvroRecordWriter<O> implements RecordWriter<O> {
+        private final DataFileWriter<O> dataFileWriter;
+
+        private AvroRecordWriter(final DataFileWriter<O> dataFileWriter) {
+            this.dataFileWriter = dataFileWriter;
+        }
+
+        @Override
+        public void write(final O object) throws IOException {
+            dataFileWriter.append(object);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            dataFileWriter.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                dataFileWriter.flush();
+            } catch (IOException e) {
+                LOGGER.warn("Unable to flush Avro DataFileWriter", e);
+            }
+            dataFileWriter.close();
+        }
+    }
 }
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.serialise;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.commons.io.IOUtils;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.node.ObjectNode;
+import org.codehaus.jackson.node.TextNode;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class CSVSerialiser
+ * @brief Clase encargada de pasar los datos en Stream a formato CSV
+ * @details Escribe una cabecera con las propiedades de primer nivel del primer objeto y una fila por objeto segun
+ * RFC 4180. Los valores simples se escriben tal cual y los objetos y arrays anidados como JSON compacto dentro de la
+ * celda. Implementa a la interfaz Serialiser
+ * @version 1.0
+ ****************************************************************************/
+public class CSVSerialiser<O> implements Serialiser<O> {
+    private static final long serialVersionUID = 1L;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final String LINE_END = "\r\n";
+
+    private final Class<? extends O> domainClass;
+    private final List<String> fields;
+
+    /**
+     * @brief Constructor de la clase, almacena el dominio de la clase
+     * @param domainClass Dominio de la clase
+     */
+    public CSVSerialiser(@JsonProperty("domainClass") final Class<? extends O> domainClass) {
+        this(domainClass, null);
+    }
+
+    /**
+     * @brief Constructor de la clase que solo escribe una seleccion de campos
+     * @param domainClass Dominio de la clase
+     * @param fields Columnas a escribir en este orden, null para usar todas las propiedades del primer objeto
+     */
+    public CSVSerialiser(final Class<? extends O> domainClass, final List<String> fields) {
+        requireNonNull(domainClass, "domainClass is required");
+        this.domainClass = domainClass;
+        this.fields = FieldProjection.copy(fields);
+    }
+
+    /**
+     * @brief Abre el stream de salida, la cabecera se escribe con el primer objeto
+     * @param output El stream de salida que se usara para escribir
+     * @return Escritor de registros
+     */
+    @Override
+    public RecordWriter<O> open(final OutputStream output) {
+        requireNonNull(output, "output");
+        return new CSVRecordWriter<>(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)), fields);
+    }
+
+    /**
+     * @brief Lee en streaming las filas de un CSV con cabecera
+     * @details Las celdas vacias son nulos y las que empiezan por [ o { se leen como el JSON que se escribio para los
+     * objetos y arrays anidados. El resto se convierten al tipo de la propiedad de la columna
+     * @param stream Stream de entrada, se cierra al cerrar el stream devuelto
+     * @return Stream ordenado de objetos
+     * @throws IOException Fallo al leer la cabecera
+     */
+    @Override
+    public Stream<O> deserialise(final InputStream stream) throws IOException {
+        requireNonNull(stream, "stream");
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        String header = readRecord(reader);
+        List<String> columns = header == null ? Collections.emptyList() : splitRecord(header);
+        Iterator<O> rows = new Iterator<O>() {
+            private String next = header == null ? null : readNext();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public O next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    O row = toObject(columns, splitRecord(next));
+                    next = readNext();
+                    return row;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            private String readNext() {
+                try {
+                    return readRecord(reader);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> IOUtils.closeQuietly(reader));
+    }
+
+    private O toObject(final List<String> columns, final List<String> cells) throws IOException {
+        ObjectNode row = MAPPER.createObjectNode();
+        for (int i = 0; i < columns.size() && i < cells.size(); i++) {
+            String cell = cells.get(i);
+            if (cell.isEmpty()) {
+                continue;
+            }
+            char first = cell.charAt(0);
+            row.put(columns.get(i), first == '[' || first == '{' ? MAPPER.readTree(cell) : TextNode.valueOf(cell));
+        }
+        return MAPPER.treeToValue(row, domainClass);
+    }
+
+    public Class<? extends O> getDomainClass() {
+        return domainClass;
+    }
+
+    /**
+     * @brief Lee un registro CSV completo, que puede ocupar varias lineas si una celda entre comillas tiene saltos
+     * @param reader Entrada posicionada al inicio de un registro
+     * @return El registro sin el fin de linea, \r\n o \n, o null al final de la entrada
+     * @throws IOException Fallo al leer
+     */
+    public static String readRecord(final Reader reader) throws IOException {
+        StringBuilder record = new StringBuilder();
+        boolean quoted = false;
+        int c;
+        while ((c = reader.read()) >= 0) {
+            if (c == QUOTE) {
+                quoted = !quoted;
+            } else if (c == '\n' && !quoted) {
+                if (record.length() > 0 && record.charAt(record.length() - 1) == '\r') {
+                    record.setLength(record.length() - 1);
+                }
+                return record.toString();
+            }
+            record.append((char) c);
+        }
+        return record.length() == 0 ? null : record.toString();
+    }
+
+    /**
+     * @brief Separa las celdas de un registro CSV, quitando las comillas
+     * @param record Registro leido con {@link #readRecord(Reader)}
+     * @return Las celdas en orden
+     */
+    public static List<String> splitRecord(final String record) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (c == QUOTE) {
+                // A doubled quote inside a quoted cell is a literal quote
+                if (quoted && i + 1 < record.length() && record.charAt(i + 1) == QUOTE) {
+                    cell.append(QUOTE);
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == SEPARATOR && !quoted) {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    /**
+     * @brief Escribe un valor en una celda, entre comillas si contiene separadores, comillas o saltos de linea
+     * @param writer Destino
+     * @param value Valor de la celda
+     * @throws IOException Fallo al escribir
+     */
+    static void writeCell(final Writer writer, final String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == SEPARATOR || c == QUOTE || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write(QUOTE);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == QUOTE) {
+                writer.write(QUOTE);
+            }
+            writer.write(c);
+        }
+        writer.write(QUOTE);
+    }
+
+    /**
+     * Writes a header with the first object and one row per object.
+     */
+    private static final class CSVRecordWriter<O> implements RecordWriter<O> {
+        private final Writer writer;
+        private List<String> columns;
+        private boolean headerWritten;
+
+        private CSVRecordWriter(final Writer writer, final List<String> columns) {
+            this.writer = writer;
+            this.columns = columns;
+        }
+
+        @Override
+        public void write(final O object) throws IOException {
+            JsonNode row = MAPPER.valueToTree(object);
+            if (!headerWritten) {
+                if (columns == null) {
+                    columns = new ArrayList<>();
+                    Iterator<String> names = row.getFieldNames();
+                    while (names.hasNext()) {
+                        columns.add(names.next());
+                    }
+                }
+                writeRow(columns);
+                headerWritten = true;
+            }
+            List<String> cells = new ArrayList<>(columns.size());
+            for (String column : columns) {
+                JsonNode value = row.get(column);
+                if (value == null || value.isNull()) {
+                    cells.add("");
+                } else if (value.isValueNode()) {
+                    cells.add(value.asText());
+                } else {
+                    cells.add(value.toString());
+                }
+            }
+            writeRow(cells);
+        }
+
+        @Override
+        public void write(final List<? extends O> objects) throws IOException {
+            RecordWriter.super.write(objects);
+            writer.flush();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        private void writeRow(final List<String> cells) throws IOException {
+            for (int i = 0; i < cells.size(); i++) {
+                if (i > 0) {
+                    writer.write(SEPARATOR);
+                }
+                writeCell(writer, cells.get(i));
+            }
+            writer.write(LINE_END);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.serialise;
+
+import org.apache.avro.Schema;
+import org.apache.avro.reflect.ReflectData;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/*****************************************************************************
+ * @class DomainReflectData
+ * @brief Modelo de datos reflect de avro que puede leer campos declarados con el tipo de una interfaz
+ * @details ReflectData crea los registros con la clase del nombre del esquema, que para un array de una interfaz como
+ * Compa[] es la propia interfaz y no se puede instanciar. Cada interfaz se resuelve a la clase del esquema que la
+ * implementa y contiene el campo, por ejemplo Profesor para los Compa de un Profesor
+ * @version 1.0
+ ****************************************************************************/
+final class DomainReflectData extends ReflectData.AllowNull {
+    private final Map<Class<?>, Class<?>> implementations = new HashMap<>();
+
+    /**
+     * @brief Constructor de la clase
+     * @param schema Esquema del dominio de la clase, se recorre para encontrar las implementaciones
+     */
+    DomainReflectData(final Schema schema) {
+        collect(schema, null, new HashSet<>());
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Class getClass(final Schema schema) {
+        Class type = super.getClass(schema);
+        if (type != null && type.isInterface() && implementations.containsKey(type)) {
+            return implementations.get(type);
+        }
+        return type;
+    }
+
+    private void collect(final Schema schema, final Class<?> owner, final Set<String> visited) {
+        switch (schema.getType()) {
+            case RECORD:
+                Class<?> type = super.getClass(schema);
+                if (type != null && type.isInterface() && owner != null && type.isAssignableFrom(owner)) {
+                    implementations.putIfAbsent(type, owner);
+                }
+                if (visited.add(schema.getFullName())) {
+                    for (Schema.Field field : schema.getFields()) {
+                        collect(field.schema(), type, visited);
+                    }
+                }
+                break;
+            case ARRAY:
+                collect(schema.getElementType(), owner, visited);
+                break;
+            case MAP:
+                collect(schema.getValueType(), owner, visited);
+                break;
+            case UNION:
+                for (Schema branch : schema.getTypes()) {
+                    collect(branch, owner, visited);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.serialise;
+
+import org.apache.avro.Schema;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectWriter;
+import org.codehaus.jackson.map.SerializationConfig;
+import org.codehaus.jackson.map.annotate.JsonFilter;
+import org.codehaus.jackson.map.ser.impl.SimpleBeanPropertyFilter;
+import org.codehaus.jackson.map.ser.impl.SimpleFilterProvider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/*****************************************************************************
+ * @class FieldProjection
+ * @brief Restringe la salida de un formato a una seleccion de campos de primer nivel
+ * @details Los formatos JSON usan un ObjectWriter de jackson con un filtro de propiedades y avro un esquema con solo los
+ * campos seleccionados. Una lista de campos null deja la salida completa
+ * @version 1.0
+ ****************************************************************************/
+final class FieldProjection {
+    private static final String FILTER_ID = "fieldProjection";
+
+    private FieldProjection() {
+    }
+
+    /**
+     * @brief Crea el escritor JSON de un dominio de clase
+     * @param mapper Mapper configurado que se usa cuando no hay seleccion de campos
+     * @param domainClass Dominio de la clase
+     * @param fields Campos a escribir, null para escribirlos todos
+     * @return Escritor que solo escribe los campos seleccionados
+     */
+    static ObjectWriter writer(final ObjectMapper mapper, final Class<?> domainClass, final List<String> fields) {
+        if (fields == null) {
+            return mapper.writer();
+        }
+        // The filter is attached with a mix-in on a private mapper so the shared mappers keep working without filters
+        ObjectMapper projected = new ObjectMapper()
+                .configure(SerializationConfig.Feature.FLUSH_AFTER_WRITE_VALUE, false);
+        projected.getSerializationConfig().addMixInAnnotations(domainClass, Filtered.class);
+        return projected.writer(new SimpleFilterProvider()
+                .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(new HashSet<>(fields))));
+    }
+
+    /**
+     * @brief Crea un esquema de registro con solo los campos seleccionados
+     * @param schema Esquema completo del registro
+     * @param fields Campos a mantener, null para mantenerlos todos
+     * @return El esquema proyectado, con el mismo nombre y los campos en el orden original
+     */
+    static Schema project(final Schema schema, final List<String> fields) {
+        if (fields == null) {
+            return schema;
+        }
+        List<Schema.Field> projected = new ArrayList<>();
+        for (Schema.Field field : schema.getFields()) {
+            if (fields.contains(field.name())) {
+                // Fields belong to one record schema, so they are copied rather than reused
+                projected.add(new Schema.Field(field.name(), field.schema(), field.doc(), field.defaultVal()));
+            }
+        }
+        if (projected.size() != new HashSet<>(fields).size()) {
+            throw new IllegalArgumentException("Fields " + fields + " are not all in the schema " + schema.getFullName());
+        }
+        return Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), schema.isError(), projected);
+    }
+
+    /**
+     * @brief Copia inmutable de una lista de campos que puede ser null
+     * @param fields Campos, null para todos
+     * @return La copia o null
+     */
+    static List<String> copy(final List<String> fields) {
+        return fields == null ? null : Collections.unmodifiableList(new ArrayList<>(fields));
+    }
+
+    @JsonFilter(FILTER_ID)
+    private static final class Filtered {
+    }
+}
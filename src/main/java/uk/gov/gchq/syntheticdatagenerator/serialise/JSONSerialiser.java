@@ -5,17 +5,17 @@ import org.codehaus.jackson.JsonEncoding;
 import org.codehaus.jackson.JsonFactory;
 import org.codehaus.jackson.JsonGenerator;
 import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectWriter;
+import org.codehaus.jackson.map.SerializationConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import uk.gov.gchq.syntheticdatagenerator.types.Person;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.Iterator;
+import java.util.List;
 import java.util.stream.Stream;
 
-import static java.util.Objects.nonNull;
 import static java.util.Objects.requireNonNull;
 
 /*****************************************************************************
@@ -28,57 +28,104 @@ public class JSONSerialiser<O> implements Serialiser<O>{
 
     private static final long serialVersionUID = 1L;
     private static final Logger LOGGER = LoggerFactory.getLogger(JSONSerialiser.class);
+    // ObjectMapper and JsonFactory are thread safe once configured. Flushing after every value would cost one write
+    // syscall per record on an unbuffered stream, so flushing is left to the RecordWriter
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(SerializationConfig.Feature.FLUSH_AFTER_WRITE_VALUE, false);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory(MAPPER)
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+    private final Class<? extends O> domainClass;
+    private final transient ObjectWriter writer;
 
     /**
      * @brief Constructor de la clase, almacena el dominio de la clase
      * @param domainClass Dominio de la clase
      */
-    public JSONSerialiser(@JsonProperty("domainClass") final Class<O> domainClass) {
+    public JSONSerialiser(@JsonProperty("domainClass") final Class<? extends O> domainClass) {
+        this(domainClass, null);
+    }
+
+    /**
+     * @brief Constructor de la clase que solo escribe una seleccion de campos
+     * @param domainClass Dominio de la clase
+     * @param fields Campos de primer nivel a escribir, null para escribirlos todos
+     */
+    public JSONSerialiser(final Class<? extends O> domainClass, final List<String> fields) {
         requireNonNull(domainClass, "domainClass is required");
+        this.domainClass = domainClass;
+        this.writer = FieldProjection.writer(MAPPER, domainClass, fields);
     }
 
     /**
-     * @brief Metodo que sera usado para serializar en formato json
-     * @param objects El stream de objetos que van a a ser serializados
+     * @brief Abre un array JSON sobre el stream de salida
      * @param output  El stream de salida que se usara para escribir en formato json
-     * @throws IOException Fallo en la serializacion
+     * @return Escritor de registros del array
+     * @throws IOException Fallo al escribir el inicio del array
      */
     @Override
-    public void serialise(Stream<Person> objects, OutputStream output) throws IOException {
+    public RecordWriter<O> open(final OutputStream output) throws IOException {
         requireNonNull(output, "output");
-        if (nonNull(objects)) {
-            //create a data file writer around the output stream
-            //since we didn't create the output stream, we shouldn't close it either, someone else might want it afterwards!
-            ObjectMapper mapper = new ObjectMapper();
-            JsonFactory jfactory = new JsonFactory();
-            JsonGenerator jGenerator = jfactory.createJsonGenerator(output, JsonEncoding.UTF8);
-            LOGGER.debug("Creating data file writer");
-            try {
-                jGenerator.useDefaultPrettyPrinter();
-                jGenerator.writeStartArray();
-                //iterate and append items -- we can't use forEach on the stream as the lambda can't throw an IOException
-                Iterator<O> objectIt = (Iterator<O>) objects.iterator();
-
-                while (objectIt.hasNext()) {
-                    O next = objectIt.next();
-                    mapper.writeValue(jGenerator, next);
-                }
-
-            } catch (Exception ex) {
-                throw new RuntimeException(ex);
-            } finally {
-                try {
-                    jGenerator.writeEndArray();
-                } catch (IOException e) {
-                    LOGGER.warn("Unable to write JSON generator", e);
-                }
-                jGenerator.close();
-            }
-        }
+        //since we didn't create the output stream, we shouldn't close it either, someone else might want it afterwards!
+        JsonGenerator jGenerator = JSON_FACTORY.createJsonGenerator(output, JsonEncoding.UTF8);
+        LOGGER.debug("Creating data file writer");
+        jGenerator.useDefaultPrettyPrinter();
+        jGenerator.writeStartArray();
+        return new JSONRecordWriter<>(jGenerator, writer);
     }
 
+    /**
+     * @brief Lee en streaming los objetos de un array JSON
+     * @param stream Stream de entrada, se cierra al cerrar el stream devuelto
+     * @return Stream ordenado de objetos
+     * @throws IOException Fallo al leer el inicio del array
+     */
     @Override
-    public Stream<O> deserialise(InputStream stream) throws IOException {
-        return null;
+    public Stream<O> deserialise(final InputStream stream) throws IOException {
+        requireNonNull(stream, "stream");
+        return JsonRecordReader.stream(MAPPER, stream, domainClass);
+    }
+
+    public Class<? extends O> getDomainClass() {
+        return domainClass;
+    }
+
+    /**
+     * Writes each object as an element of a single JSON array.
+     */
+    private static final class JSONRecordWriter<O> implements RecordWriter<O> {
+        private final JsonGenerator jGenerator;
+        private final ObjectWriter writer;
+
+        private JSONRecordWriter(final JsonGenerator jGenerator, final ObjectWriter writer) {
+            this.jGenerator = jGenerator;
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(final O object) throws IOException {
+            writer.writeValue(jGenerator, object);
+        }
+
+        @Override
+        public void write(final List<? extends O> objects) throws IOException {
+            RecordWriter.super.write(objects);
+            jGenerator.flush();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            jGenerator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                jGenerator.writeEndArray();
+            } catch (IOException e) {
+                LOGGER.warn("Unable to write JSON generator", e);
+            }
+            jGenerator.close();
+        }
     }
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.syntheticdatagenerator.serialise;
+
+/**
+ * Registers the JSON array format ({@code -json}).
+ */
+public class JSONSerialiserFactory implements SerialiserFactory {
+
+    @Override
+    public String getFormat() {
+        return "json";
+    }
+
+    @Override
+    public String getExtension() {
+        return ".json";
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/json";
+    }
+
+    @Override
+    public <I> Serialiser<I> create(final Class<? extends I> domainClass) {
+        return new JSONSerialiser<>(domainClass);
+    }
+
+    @Override
+    public <I> Serialiser<I> create(final Class<? extends I> domainClass, final SerialiserOptions options) {
+        return new JSONSerialiser<>(domainClass, options.getFields());
+    }
+}
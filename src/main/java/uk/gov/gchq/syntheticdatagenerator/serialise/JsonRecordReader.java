@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.serialise;
+
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*****************************************************************************
+ * @class JsonRecordReader
+ * @brief Lee en streaming los objetos de un array JSON o de una secuencia de objetos NDJSON
+ * @details Cada objeto se convierte al dominio de la clase al pedirlo, por lo que la memoria no depende del tamaño del
+ * fichero. El stream devuelto cierra el parser, y con el la entrada, al cerrarse
+ * @version 1.0
+ ****************************************************************************/
+final class JsonRecordReader<O> implements Iterator<O> {
+    private final JsonParser parser;
+    private final ObjectReader reader;
+    private JsonToken token;
+
+    private JsonRecordReader(final JsonParser parser, final ObjectReader reader) throws IOException {
+        this.parser = parser;
+        this.reader = reader;
+        this.token = parser.nextToken();
+        // A JSON file is one array of records, an NDJSON file a sequence of records
+        if (token == JsonToken.START_ARRAY) {
+            token = parser.nextToken();
+        }
+    }
+
+    /**
+     * @brief Crea el stream de objetos de una entrada JSON o NDJSON
+     * @param mapper Mapper que convierte los objetos
+     * @param input Entrada, se cierra al cerrar el stream
+     * @param domainClass Dominio de la clase
+     * @return Stream ordenado de objetos
+     * @throws IOException Fallo al leer el inicio de la entrada
+     */
+    static <O> Stream<O> stream(final ObjectMapper mapper, final InputStream input, final Class<? extends O> domainClass) throws IOException {
+        JsonParser parser = mapper.getJsonFactory().createJsonParser(input);
+        JsonRecordReader<O> records = new JsonRecordReader<>(parser, mapper.reader(domainClass));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(records, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(records::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (token == JsonToken.START_OBJECT) {
+            return true;
+        }
+        if (token != null && token != JsonToken.END_ARRAY) {
+            throw new UncheckedIOException(new IOException("Expected a JSON object but found " + token));
+        }
+        return false;
+    }
+
+    @Override
+    public O next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            O record = reader.readValue(parser);
+            token = parser.nextToken();
+            return record;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void close() {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
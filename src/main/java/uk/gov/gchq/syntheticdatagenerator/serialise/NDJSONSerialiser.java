@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.serialise;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectWriter;
+import org.codehaus.jackson.map.SerializationConfig;
+import org.codehaus.jackson.util.MinimalPrettyPrinter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class NDJSONSerialiser
+ * @brief Clase encargada de pasar los datos en Stream a formato JSON delimitado por saltos de linea
+ * @details Escribe un objeto JSON compacto por linea, sin array que lo envuelva, por lo que la salida se puede
+ * concatenar y procesar linea a linea mientras se genera. Implementa a la interfaz Serialiser
+ * @version 1.0
+ ****************************************************************************/
+public class NDJSONSerialiser<O> implements Serialiser<O> {
+    private static final long serialVersionUID = 1L;
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(SerializationConfig.Feature.FLUSH_AFTER_WRITE_VALUE, false);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory(MAPPER)
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+    private final Class<? extends O> domainClass;
+    private final transient ObjectWriter writer;
+
+    /**
+     * @brief Constructor de la clase, almacena el dominio de la clase
+     * @param domainClass Dominio de la clase
+     */
+    public NDJSONSerialiser(@JsonProperty("domainClass") final Class<? extends O> domainClass) {
+        this(domainClass, null);
+    }
+
+    /**
+     * @brief Constructor de la clase que solo escribe una seleccion de campos
+     * @param domainClass Dominio de la clase
+     * @param fields Campos de primer nivel a escribir, null para escribirlos todos
+     */
+    public NDJSONSerialiser(final Class<? extends O> domainClass, final List<String> fields) {
+        requireNonNull(domainClass, "domainClass is required");
+        this.domainClass = domainClass;
+        this.writer = FieldProjection.writer(MAPPER, domainClass, fields);
+    }
+
+    /**
+     * @brief Abre el stream de salida, no hay cabecera
+     * @param output El stream de salida que se usara para escribir
+     * @return Escritor de registros
+     * @throws IOException Fallo al crear el generador JSON
+     */
+    @Override
+    public RecordWriter<O> open(final OutputStream output) throws IOException {
+        requireNonNull(output, "output");
+        JsonGenerator jGenerator = JSON_FACTORY.createJsonGenerator(output, JsonEncoding.UTF8);
+        // The root value separator goes between records, the last newline is written on close
+        jGenerator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        return new NDJSONRecordWriter<>(jGenerator, writer);
+    }
+
+    /**
+     * @brief Lee en streaming un objeto por linea
+     * @param stream Stream de entrada, se cierra al cerrar el stream devuelto
+     * @return Stream ordenado de objetos
+     * @throws IOException Fallo al leer el primer objeto
+     */
+    @Override
+    public Stream<O> deserialise(final InputStream stream) throws IOException {
+        requireNonNull(stream, "stream");
+        return JsonRecordReader.stream(MAPPER, stream, domainClass);
+    }
+
+    public Class<? extends O> getDomainClass() {
+        return domainClass;
+    }
+
+    /**
+     * Writes each object as one line.
+     */
+    private static final class NDJSONRecordWriter<O> implements RecordWriter<O> {
+        private final JsonGenerator jGenerator;
+        private final ObjectWriter writer;
+        private boolean empty = true;
+
+        private NDJSONRecordWriter(final JsonGenerator jGenerator, final ObjectWriter writer) {
+            this.jGenerator = jGenerator;
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(final O object) throws IOException {
+            writer.writeValue(jGenerator, object);
+            empty = false;
+        }
+
+        @Override
+        public void write(final List<? extends O> objects) throws IOException {
+            RecordWriter.super.write(objects);
+            jGenerator.flush();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            jGenerator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!empty) {
+                jGenerator.writeRaw('\n');
+            }
+            jGenerator.close();
+        }
+    }
+}
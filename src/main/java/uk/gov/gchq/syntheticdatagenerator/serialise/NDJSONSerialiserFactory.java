@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.syntheticdatagenerator.serialise;
+
+/**
+ * Registers the newline delimited JSON format ({@code -ndjson}), one compact object per line.
+ */
+public class NDJSONSerialiserFactory implements SerialiserFactory {
+
+    @Override
+    public String getFormat() {
+        return "ndjson";
+    }
+
+    @Override
+    public String getExtension() {
+        return ".ndjson";
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/x-ndjson";
+    }
+
+    @Override
+    public <I> Serialiser<I> create(final Class<? extends I> domainClass) {
+        return new NDJSONSerialiser<>(domainClass);
+    }
+
+    @Override
+    public <I> Serialiser<I> create(final Class<? extends I> domainClass, final SerialiserOptions options) {
+        return new NDJSONSerialiser<>(domainClass, options.getFields());
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.serialise;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.reflect.ReflectData;
+import org.apache.avro.reflect.ReflectDatumReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class ParallelAvroRecordReader
+ * @brief Lee un contenedor avro decodificando los bloques en un pool de hilos
+ * @details Es la lectura simetrica de {@link ParallelAvroRecordWriter}: el hilo que lee solo copia los bloques ya
+ * descomprimidos del contenedor y cada bloque se decodifica en el pool con su propio lector. Los registros se
+ * entregan en el orden del fichero y como mucho hay maxInFlight bloques decodificados o en decodificacion a la vez, por
+ * lo que la memoria queda acotada. No es thread safe: un unico hilo debe consumir los registros
+ * @version 1.0
+ ****************************************************************************/
+final class ParallelAvroRecordReader<O> implements Iterator<O>, Closeable {
+    private final DataFileStream<O> blocks;
+    private final ReflectData data;
+    private final ExecutorService decoderExecutor;
+    private final int maxInFlight;
+    private final Deque<Future<List<O>>> inFlight = new ArrayDeque<>();
+    private Iterator<O> current = Collections.emptyIterator();
+
+    /**
+     * @brief Constructor de la clase
+     * @param blocks Contenedor del que se leen los bloques en crudo, se cierra con el lector
+     * @param data Modelo de datos con el que se crean los registros
+     * @param decoderExecutor Pool donde se decodifican los bloques
+     * @param maxInFlight Bloques decodificados o en decodificacion como maximo
+     */
+    ParallelAvroRecordReader(final DataFileStream<O> blocks, final ReflectData data, final ExecutorService decoderExecutor, final int maxInFlight) {
+        this.blocks = requireNonNull(blocks, "blocks");
+        this.data = requireNonNull(data, "data");
+        this.decoderExecutor = requireNonNull(decoderExecutor, "decoderExecutor");
+        this.maxInFlight = Math.max(1, maxInFlight);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            submitBlocks();
+            if (inFlight.isEmpty()) {
+                return false;
+            }
+            current = take(inFlight.removeFirst()).iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public O next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Future<List<O>> future : inFlight) {
+            future.cancel(true);
+        }
+        inFlight.clear();
+        blocks.close();
+    }
+
+    private void submitBlocks() {
+        try {
+            while (inFlight.size() < maxInFlight && blocks.hasNext()) {
+                long count = blocks.getBlockCount();
+                // The container reuses its block buffer, so each block is copied before it is handed over
+                ByteBuffer block = blocks.nextBlock();
+                byte[] bytes = new byte[block.remaining()];
+                block.get(bytes);
+                inFlight.addLast(decoderExecutor.submit(() -> decode(bytes, count)));
+            }
+        } catch (IOException e) {
+            throw new AvroRuntimeException(e);
+        }
+    }
+
+    private List<O> decode(final byte[] bytes, final long count) throws IOException {
+        Schema schema = blocks.getSchema();
+        ReflectDatumReader<O> reader = new ReflectDatumReader<>(schema, schema, data);
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(bytes, null);
+        List<O> records = new ArrayList<>((int) count);
+        for (long i = 0; i < count; i++) {
+            records.add(reader.read(null, decoder));
+        }
+        return records;
+    }
+
+    private List<O> take(final Future<List<O>> head) {
+        try {
+            return head.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AvroRuntimeException("Interrupted waiting for a decoded block");
+        } catch (ExecutionException e) {
+            throw new AvroRuntimeException("Unable to decode a block", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.serialise;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.reflect.ReflectDatumWriter;
+import uk.gov.gchq.syntheticdatagenerator.jfr.JfrEvents;
+import uk.gov.gchq.syntheticdatagenerator.utils.OrderedTaskQueue;
+import uk.gov.gchq.syntheticdatagenerator.utils.Seeds;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class ParallelAvroRecordWriter
+ * @brief Escribe un contenedor avro codificando y comprimiendo los bloques en un pool de hilos
+ * @details Un contenedor avro es una cabecera seguida de bloques independientes, cada uno terminado con el marcador de
+ * sincronizacion del fichero. Los registros se agrupan en bloques de blockRecords, cada bloque se codifica en el pool
+ * con su propio DataFileWriter sobre un buffer en memoria usando el mismo marcador y codec que la cabecera, y el hilo
+ * que escribe solo copia los bloques terminados en orden. Si un bloque supera el intervalo de sincronizacion de avro el
+ * DataFileWriter del hilo lo parte en varios bloques avro, todos con el mismo marcador, por lo que el fichero sigue siendo
+ * valido. El resultado se lee con cualquier lector avro estandar
+ * @version 1.0
+ ****************************************************************************/
+final class ParallelAvroRecordWriter<O> implements RecordWriter<O> {
+    private static final int SYNC_SIZE = 16;
+
+    private final Schema schema;
+    private final CodecFactory codec;
+    private final byte[] sync;
+    private final OutputStream output;
+    private final int blockRecords;
+    private final OrderedTaskQueue<ByteBuffer> queue;
+    private List<O> block;
+    private boolean closed;
+
+    /**
+     * @brief Constructor de la clase, escribe la cabecera del contenedor
+     * @param schema Esquema de los registros
+     * @param codec Codec de los bloques
+     * @param sync Marcador de sincronizacion del contenedor, de 16 bytes
+     * @param output Stream de salida, no se cierra
+     * @param encoderExecutor Pool donde se codifican los bloques
+     * @param blockRecords Registros por bloque
+     * @param maxInFlight Bloques pendientes de escribir como maximo
+     * @throws IOException Fallo al escribir la cabecera
+     */
+    ParallelAvroRecordWriter(final Schema schema, final CodecFactory codec, final byte[] sync, final OutputStream output,
+                             final ExecutorService encoderExecutor, final int blockRecords, final int maxInFlight) throws IOException {
+        this.schema = requireNonNull(schema, "schema");
+        this.codec = requireNonNull(codec, "codec");
+        this.output = requireNonNull(output, "output");
+        this.blockRecords = blockRecords;
+        if (sync.length != SYNC_SIZE) {
+            throw new IllegalArgumentException("The sync marker must have " + SYNC_SIZE + " bytes");
+        }
+        this.sync = sync;
+        this.queue = new OrderedTaskQueue<>(encoderExecutor, maxInFlight,
+                encoded -> output.write(encoded.array(), encoded.position(), encoded.remaining()));
+        this.block = new ArrayList<>(blockRecords);
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        try (DataFileWriter<O> writer = createWriter(header)) {
+            writer.flush();
+        }
+        output.write(header.toByteArray());
+    }
+
+    @Override
+    public void write(final O object) throws IOException {
+        block.add(object);
+        if (block.size() >= blockRecords) {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        submitBlock();
+        queue.drain();
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            queue.cancel();
+            throw e;
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        if (block.isEmpty()) {
+            return;
+        }
+        final List<O> records = block;
+        block = new ArrayList<>(blockRecords);
+        queue.submit(() -> encode(records));
+    }
+
+    /**
+     * @brief Codifica un bloque con un DataFileWriter propio y descarta la cabecera que este escribe
+     * @param records Registros del bloque
+     * @return Los bloques avro codificados, cada uno seguido del marcador de sincronizacion
+     * @throws IOException Fallo al codificar
+     */
+    private ByteBuffer encode(final List<O> records) throws IOException {
+        Object event = JfrEvents.beginBlockEncode();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        int headerLength;
+        try (DataFileWriter<O> writer = createWriter(buffer)) {
+            writer.flush();
+            headerLength = buffer.size();
+            for (O record : records) {
+                writer.append(record);
+            }
+        }
+        byte[] bytes = buffer.toByteArray();
+        JfrEvents.commitBlockEncode(event, records.size(), bytes.length - headerLength, codec.toString());
+        return ByteBuffer.wrap(bytes, headerLength, bytes.length - headerLength);
+    }
+
+    private DataFileWriter<O> createWriter(final OutputStream out) throws IOException {
+        DataFileWriter<O> writer = new DataFileWriter<>(new ReflectDatumWriter<O>(schema));
+        writer.setCodec(codec);
+        return writer.create(schema, out, sync);
+    }
+
+    /**
+     * @brief Marcador de sincronizacion derivado de una semilla
+     * @param seed Semilla de la ejecucion
+     * @return Los 16 bytes del marcador
+     */
+    static byte[] sync(final long seed) {
+        // Negative indexes are never records, so the marker does not repeat the seed of any record
+        return ByteBuffer.allocate(SYNC_SIZE).putLong(Seeds.recordSeed(seed, -1L)).putLong(Seeds.recordSeed(seed, -2L)).array();
+    }
+
+    //same construction as DataFileWriter uses when no marker is given
+    static byte[] generateSync() {
+        try {
+            MessageDigest digester = MessageDigest.getInstance("MD5");
+            long time = System.currentTimeMillis();
+            digester.update((UUID.randomUUID() + "@" + time).getBytes(StandardCharsets.UTF_8));
+            byte[] sync = digester.digest();
+            if (sync.length != SYNC_SIZE) {
+                throw new IllegalStateException("Unexpected sync marker length " + sync.length);
+            }
+            return sync;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
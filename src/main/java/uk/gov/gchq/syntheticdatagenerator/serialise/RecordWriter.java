@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.syntheticdatagenerator.serialise;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A stateful writer for a single serialisation operation, created by {@link Serialiser#open(java.io.OutputStream)}.
+ * Unlike a {@link Serialiser}, a {@code RecordWriter} is <b>not</b> thread safe and must only be used by one thread.
+ * <p>
+ * Implementations should only flush the underlying stream when {@link #flush()} is called or at the end of a batch,
+ * so writing a {@link List} costs one flush rather than one per object.
+ *
+ * @param <I> the domain object type
+ */
+public interface RecordWriter<I> extends Closeable, Flushable {
+
+    /**
+     * Writes a single object.
+     *
+     * @param object the object to write
+     * @throws IOException if the object could not be written
+     */
+    void write(final I object) throws IOException;
+
+    /**
+     * Writes a batch of objects in order.
+     *
+     * @param objects the objects to write
+     * @throws IOException if any object could not be written
+     */
+    default void write(final List<? extends I> objects) throws IOException {
+        requireNonNull(objects, "objects");
+        for (I object : objects) {
+            write(object);
+        }
+    }
+
+    /**
+     * Writes every remaining object of an {@link Iterator}.
+     *
+     * @param objects the objects to write
+     * @throws IOException if any object could not be written
+     */
+    default void write(final Iterator<? extends I> objects) throws IOException {
+        requireNonNull(objects, "objects");
+        while (objects.hasNext()) {
+            write(objects.next());
+        }
+    }
+
+    /**
+     * Pushes any buffered objects to the underlying output stream.
+     *
+     * @throws IOException if the buffered data could not be written
+     */
+    @Override
+    void flush() throws IOException;
+
+    /**
+     * Writes any footer required by the format and flushes. The underlying output stream is left open.
+     *
+     * @throws IOException if the footer could not be written
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -19,7 +19,6 @@ import com.fasterxml.jackson.annotation.JsonGetter;
 import com.fasterxml.jackson.annotation.JsonSetter;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.JsonTypeInfo.As;
-import uk.gov.gchq.syntheticdatagenerator.types.Person;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -27,15 +26,30 @@ import java.io.OutputStream;
 import java.io.Serializable;
 import java.util.stream.Stream;
 
+import static java.util.Objects.nonNull;
+import static java.util.Objects.requireNonNull;
+
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = As.EXISTING_PROPERTY, property = "class")
 /**
  * <b>IMPORTANT:</b> All instances of this interface must be thread safe. That is, they must support multiple threads performing
- * calling either {@link Serialiser#deserialise(InputStream)} or {@link Serialiser#serialise(Stream, OutputStream)} concurrently.
+ * calling either {@link Serialiser#deserialise(InputStream)}, {@link Serialiser#open(OutputStream)} or
+ * {@link Serialiser#serialise(Stream, OutputStream)} concurrently.
  * The easiest and recommended way to do this is to make the {@code Serialiser} instance stateless; don't store anything related to
- * a particular de/serialisation operation in class member fields.
+ * a particular de/serialisation operation in class member fields. Per-operation state belongs in the {@link RecordWriter}
+ * returned by {@link Serialiser#open(OutputStream)}.
  */
 public interface Serialiser<I> extends Serializable {
 
+    /**
+     * Opens a {@link RecordWriter} on an {@link OutputStream}. Any header the format needs is written here, and the
+     * matching footer is written when the writer is closed. Closing the writer does not close {@code output}.
+     *
+     * @param output the output stream to write the serialised bytes to
+     * @return a writer that accepts single objects, batches or iterators
+     * @throws IOException if the header could not be written
+     */
+    RecordWriter<I> open(final OutputStream output) throws IOException;
+
     /**
      * Serialises a {@link Stream} of objects to an {@link OutputStream}. If {@code objects} is {@code null}, then
      * nothing will be written.
@@ -44,7 +58,14 @@ public interface Serialiser<I> extends Serializable {
      * @param output  the output stream to write the serialised bytes to
      * @throws IOException if something fails while writing the object stream
      */
-    void serialise(final Stream<Person> objects, final OutputStream output) throws IOException;
+    default void serialise(final Stream<I> objects, final OutputStream output) throws IOException {
+        requireNonNull(output, "output");
+        if (nonNull(objects)) {
+            try (RecordWriter<I> writer = open(output)) {
+                writer.write(objects.iterator());
+            }
+        }
+    }
 
     /**
      * Deserialise an {@link InputStream} into a {@link Stream} of objects.
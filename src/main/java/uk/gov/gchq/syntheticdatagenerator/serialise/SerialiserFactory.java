@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.syntheticdatagenerator.serialise;
+
+/**
+ * A {@code SerialiserFactory} describes one output format and creates {@link Serialiser}s for it.
+ * <p>
+ * Factories are discovered with {@link java.util.ServiceLoader}, so a new format is added by implementing this
+ * interface and listing the implementation in
+ * {@code META-INF/services/uk.gov.gchq.syntheticdatagenerator.serialise.SerialiserFactory}.
+ * See {@link Serialisers} for the lookup.
+ */
+public interface SerialiserFactory {
+
+    /**
+     * @return the short name of the format, as used on the command line without the leading dash (e.g. {@code avro})
+     */
+    String getFormat();
+
+    /**
+     * @return the file extension including the dot (e.g. {@code .avro})
+     */
+    String getExtension();
+
+    /**
+     * @return the media type of the serialised data, used when it is served over HTTP
+     */
+    default String getContentType() {
+        return "application/octet-stream";
+    }
+
+    /**
+     * Creates a serialiser for a domain class.
+     *
+     * @param domainClass the concrete class of the objects that will be written, used to derive any schema
+     * @param <I>         the type the serialiser is declared over, a supertype of {@code domainClass}
+     * @return a thread safe serialiser
+     */
+    <I> Serialiser<I> create(final Class<? extends I> domainClass);
+
+    /**
+     * Creates a serialiser for a domain class with encoding options. Formats that have no use for the options can
+     * rely on the default, which ignores them.
+     *
+     * @param domainClass the concrete class of the objects that will be written, used to derive any schema
+     * @param options     encoding options such as a pool for parallel encoding or a block codec
+     * @param <I>         the type the serialiser is declared over, a supertype of {@code domainClass}
+     * @return a thread safe serialiser
+     */
+    default <I> Serialiser<I> create(final Class<? extends I> domainClass, final SerialiserOptions options) {
+        return create(domainClass);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.serialise;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/*****************************************************************************
+ * @class SerialiserOptions
+ * @brief Opciones de codificacion que un formato puede usar o ignorar
+ * @details Se pasan a {@link SerialiserFactory#create(Class, SerialiserOptions)}. Los campos los usan todos los formatos
+ * y el resto de opciones solo avro
+ * @version 1.0
+ ****************************************************************************/
+public class SerialiserOptions {
+    public static final int DEFAULT_BLOCK_RECORDS = 1_000;
+
+    private ExecutorService encoderExecutor;
+    private int blockRecords = DEFAULT_BLOCK_RECORDS;
+    private int maxInFlight = 1;
+    private String codec = "null";
+    private List<String> fields;
+    private Long syncSeed;
+
+    /**
+     * @brief Devuelve el pool de hilos que codifica y comprime los bloques, o que los decodifica al leer
+     * @return encoderExecutor, null para codificar o decodificar en el hilo que escribe o lee
+     */
+    public ExecutorService getEncoderExecutor() {
+        return encoderExecutor;
+    }
+
+    public void setEncoderExecutor(final ExecutorService encoderExecutor) {
+        this.encoderExecutor = encoderExecutor;
+    }
+
+    /**
+     * @brief Devuelve el numero de registros de cada bloque codificado en paralelo
+     * @return blockRecords
+     */
+    public int getBlockRecords() {
+        return blockRecords;
+    }
+
+    public void setBlockRecords(final int blockRecords) {
+        if (blockRecords < 1) {
+            throw new IllegalArgumentException("blockRecords must be positive");
+        }
+        this.blockRecords = blockRecords;
+    }
+
+    /**
+     * @brief Devuelve el numero maximo de bloques pendientes de escribir, o decodificados sin leer, por fichero
+     * @return maxInFlight
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(final int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * @brief Devuelve el codec de compresion de bloques, con el formato de {@link org.apache.avro.file.CodecFactory#fromString(String)}
+     * @return codec, por ejemplo null, deflate, snappy, bzip2 o xz
+     */
+    public String getCodec() {
+        return codec;
+    }
+
+    public void setCodec(final String codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * @brief Devuelve los campos de primer nivel que se escriben
+     * @return fields, null para escribir todos
+     */
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public void setFields(final List<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * @brief Devuelve la semilla de la que se deriva el marcador de sincronizacion de los contenedores avro
+     * @return syncSeed, null para un marcador aleatorio en cada fichero
+     */
+    public Long getSyncSeed() {
+        return syncSeed;
+    }
+
+    public void setSyncSeed(final Long syncSeed) {
+        this.syncSeed = syncSeed;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.syntheticdatagenerator.serialise;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class Serialisers
+ * @brief Registro de los formatos de salida disponibles
+ * @details Carga mediante {@link ServiceLoader} todas las implementaciones de {@link SerialiserFactory} y permite buscarlas por nombre o extension
+ * @version 1.0
+ ****************************************************************************/
+public final class Serialisers {
+    private static final List<SerialiserFactory> FACTORIES = load();
+
+    private Serialisers() {
+    }
+
+    /**
+     * @brief Busca el formato que corresponde a una opcion de la linea de comandos o a una extension
+     * @param name Nombre del formato, admite "avro", "-avro" y ".avro"
+     * @return El formato encontrado o vacio si no existe
+     */
+    public static Optional<SerialiserFactory> forName(final String name) {
+        requireNonNull(name, "name");
+        String format = name.toLowerCase(Locale.ROOT);
+        while (format.startsWith("-") || format.startsWith(".")) {
+            format = format.substring(1);
+        }
+        for (SerialiserFactory factory : FACTORIES) {
+            if (factory.getFormat().equals(format) || factory.getExtension().equals("." + format)) {
+                return Optional.of(factory);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @brief Devuelve el formato asociado a la extension de un fichero
+     * @param fileName Nombre del fichero
+     * @return El formato encontrado o vacio si no existe
+     */
+    public static Optional<SerialiserFactory> forFileName(final String fileName) {
+        requireNonNull(fileName, "fileName");
+        for (SerialiserFactory factory : FACTORIES) {
+            if (fileName.endsWith(factory.getExtension())) {
+                return Optional.of(factory);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @brief Devuelve todos los formatos registrados
+     * @return Lista inmutable de formatos
+     */
+    public static List<SerialiserFactory> all() {
+        return FACTORIES;
+    }
+
+    /**
+     * @brief Devuelve los nombres de los formatos registrados, util para los mensajes de uso
+     * @return Nombres separados por comas
+     */
+    public static String formatNames() {
+        return FACTORIES.stream().map(SerialiserFactory::getFormat).collect(Collectors.joining(", "));
+    }
+
+    private static List<SerialiserFactory> load() {
+        List<SerialiserFactory> factories = new ArrayList<>();
+        for (SerialiserFactory factory : ServiceLoader.load(SerialiserFactory.class, Serialisers.class.getClassLoader())) {
+            factories.add(factory);
+        }
+        return Collections.unmodifiableList(factories);
+    }
+}
@@ -18,11 +18,13 @@ package uk.gov.gchq.syntheticdatagenerator.types;
 
 import com.github.javafaker.Faker;
 import com.github.javafaker.Name;
+import uk.gov.gchq.syntheticdatagenerator.jfr.GenerationEvents;
 import uk.gov.gchq.syntheticdatagenerator.utils.DateHelper;
 
 import java.io.Serializable;
 import java.util.Arrays;
-import java.util.Locale;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 import java.util.StringJoiner;
 
@@ -40,6 +42,14 @@ public class Alumno implements Serializable, Person {
     private static final int EXTRA_MATRICULA_RANGE = 1_000;
     private static final int BECA_BONUS = 2_500;
     private static final String TAX_CODE = "11500L";
+    static final String UID_PREFIX = "alu";
+    /**
+     * @brief Campos de primer nivel en el orden de la clase, los que admite una {@link GenerationSpec}
+     */
+    public static final List<String> FIELDS = Collections.unmodifiableList(Arrays.asList(
+            "uid", "name", "dateOfBirth", "contactNumbers", "emergencyContacts", "address", "bankDetails",
+            "taxCode", "nationality", "profesor", "entradaULLDate", "grade", "campus", "matriculaAmount",
+            "becaBonus", "birthLocation", "sex"));
 
     private String uid;
     private String name;
@@ -95,28 +105,86 @@ public class Alumno implements Serializable, Person {
      * @return Al individuo generado
      */
     public static Alumno generate(final Random random) {
+        return generate(random, null);
+    }
+
+    /**
+     * @brief Genera los campos de alumno que indica una especificacion
+     * @details Cada campo se genera con su propia semilla, derivada de un unico valor de random, por lo que los campos
+     * que no se incluyen no se generan y los que se incluyen tienen el mismo valor que en el registro completo
+     * @param random Numero aleatorio que hara que los datos generados tambien sean aleatorios
+     * @param spec Campos a generar y sus opciones, null para generar todos
+     * @return Al individuo generado
+     */
+    public static Alumno generate(final Random random, final GenerationSpec spec) {
+        Object event = GenerationEvents.beginRecord(PersonType.ALUMNO.getName());
         Alumno alumno = new Alumno();
+        long base = random.nextLong();
         //Genera datos que solo son de españoles, funciona medio raro
-        Faker faker = new Faker(new Locale("es"));
-        alumno.setUid(generateUID(random));
-        Name alumnoName = faker.name();
-        alumno.setName(alumnoName.firstName() + " " + alumnoName.lastName()); // we are storing name as a string not a Name
-        alumno.setDateOfBirth(DateHelper.generateDateOfBirth(random));
-        alumno.setContactNumbers(PhoneNumber.generateMany(random));
-        alumno.setEmergencyContacts(EmergencyContact.generateMany(faker, random));
-        alumno.setAddress(Address.generate(faker));
-        alumno.setBankDetails(BankDetails.generate(random));
-        alumno.setTaxCode(generateTaxCode());
-        alumno.setNationality(Nationality.generate(random));
-        alumno.setProfesor(Profesor.generateMany(random, MIN_MANGERS_TREE_HEIGHT + random.nextInt(EXTRA_PROFESORS_TREE_HEIGHT_RANGE)));
-        alumno.setEntradaULLDate(DateHelper.generateHireDate(alumno.dateOfBirth, random));
-        alumno.setGrade(Grade.generate(random));
-        alumno.setCampus(Campus.generate(random));
-        alumno.setMatriculaAmount(MIN_MATRICULA + random.nextInt(EXTRA_MATRICULA_RANGE));
-        alumno.setBecaBonus(random.nextInt(BECA_BONUS));
-        alumno.setBirthLocation(BirthLocation.generate(faker, random));
-        alumno.setSex(Sex.generate(random));
-
+        Faker faker = ThreadLocalFaker.getFaker(random);
+        if (GenerationSpec.begin(spec, "uid", random, base)) {
+            alumno.setUid(generateUID(random));
+        }
+        if (GenerationSpec.begin(spec, "name", random, base)) {
+            Name alumnoName = faker.name();
+            alumno.setName(alumnoName.firstName() + " " + alumnoName.lastName()); // we are storing name as a string not a Name
+        }
+        // The entrada date is derived from the date of birth, so it is generated when either is included
+        String dateOfBirth = null;
+        if (spec == null || spec.includes("dateOfBirth") || spec.includes("entradaULLDate")) {
+            GenerationSpec.reseed("dateOfBirth", random, base);
+            dateOfBirth = DateHelper.generateDateOfBirth(random);
+        }
+        if (spec == null || spec.includes("dateOfBirth")) {
+            alumno.setDateOfBirth(dateOfBirth);
+        }
+        if (GenerationSpec.begin(spec, "contactNumbers", random, base)) {
+            alumno.setContactNumbers(PhoneNumber.generateMany(random, GenerationSpec.options(spec, "contactNumbers")
+                    .cardinality(random, 1, PhoneNumber.MAX_EXTRA_CONTACTS)));
+        }
+        if (GenerationSpec.begin(spec, "emergencyContacts", random, base)) {
+            alumno.setEmergencyContacts(EmergencyContact.generateMany(faker, random, GenerationSpec.options(spec, "emergencyContacts")
+                    .cardinality(random, 1, EmergencyContact.MAX_EXTRA_CONTACTS)));
+        }
+        if (GenerationSpec.begin(spec, "address", random, base)) {
+            alumno.setAddress(Address.generate(faker));
+        }
+        if (GenerationSpec.begin(spec, "bankDetails", random, base)) {
+            alumno.setBankDetails(BankDetails.generate(random));
+        }
+        if (GenerationSpec.begin(spec, "taxCode", random, base)) {
+            alumno.setTaxCode(generateTaxCode());
+        }
+        if (GenerationSpec.begin(spec, "nationality", random, base)) {
+            alumno.setNationality(Nationality.generate(random));
+        }
+        if (GenerationSpec.begin(spec, "profesor", random, base)) {
+            alumno.setProfesor(Profesor.generateMany(random, GenerationSpec.options(spec, "profesor")
+                    .depth(random, MIN_MANGERS_TREE_HEIGHT, MIN_MANGERS_TREE_HEIGHT + EXTRA_PROFESORS_TREE_HEIGHT_RANGE - 1)));
+        }
+        if (GenerationSpec.begin(spec, "entradaULLDate", random, base)) {
+            alumno.setEntradaULLDate(DateHelper.generateHireDate(dateOfBirth, random));
+        }
+        if (GenerationSpec.begin(spec, "grade", random, base)) {
+            alumno.setGrade(Grade.generate(random));
+        }
+        if (GenerationSpec.begin(spec, "campus", random, base)) {
+            alumno.setCampus(Campus.generate(random));
+        }
+        if (GenerationSpec.begin(spec, "matriculaAmount", random, base)) {
+            alumno.setMatriculaAmount(MIN_MATRICULA + random.nextInt(EXTRA_MATRICULA_RANGE));
+        }
+        if (GenerationSpec.begin(spec, "becaBonus", random, base)) {
+            alumno.setBecaBonus(random.nextInt(BECA_BONUS));
+        }
+        if (GenerationSpec.begin(spec, "birthLocation", random, base)) {
+            alumno.setBirthLocation(BirthLocation.generate(faker, random));
+        }
+        if (GenerationSpec.begin(spec, "sex", random, base)) {
+            alumno.setSex(Sex.generate(random));
+        }
+
+        GenerationEvents.endRecord(event);
         return alumno;
     }
 
@@ -126,7 +194,7 @@ public class Alumno implements Serializable, Person {
      * @return El UID
      */
     public static String generateUID(final Random random) {
-        return "alu" + random.nextInt(Integer.MAX_VALUE);
+        return UID_PREFIX + random.nextInt(Integer.MAX_VALUE);
     }
 
     /**
@@ -31,7 +31,7 @@ import java.util.StringJoiner;
  * @version 1.0
  ****************************************************************************/
 public class EmergencyContact implements Serializable {
-    private static final int MAX_EXTRA_CONTACTS = 4;
+    static final int MAX_EXTRA_CONTACTS = 4;
     private String contactName;
     private Relation relation;
     private PhoneNumber[] contactNumbers;
@@ -58,10 +58,19 @@ public class EmergencyContact implements Serializable {
      * @return Los contactos de emergencia
      */
     public static EmergencyContact[] generateMany(final Faker faker, final Random random) {
-        int numberOfExtraContacts = random.nextInt(MAX_EXTRA_CONTACTS);
-        EmergencyContact[] emergencyContacts = new EmergencyContact[numberOfExtraContacts + 1];
-        emergencyContacts[0] = EmergencyContact.generate(faker, random);
-        for (int i = 1; i <= numberOfExtraContacts; i++) {
+        return generateMany(faker, random, 1 + random.nextInt(MAX_EXTRA_CONTACTS));
+    }
+
+    /**
+     * @brief Genera un numero fijo de contactos de emergencia
+     * @param faker Objeto que contiene los metodos para generar nombres, calles, numero de telefonos, ... aleatorios
+     * @param random Numero aleatorio que creara datos aleatorios
+     * @param count Numero de contactos
+     * @return Los contactos de emergencia
+     */
+    public static EmergencyContact[] generateMany(final Faker faker, final Random random, final int count) {
+        EmergencyContact[] emergencyContacts = new EmergencyContact[count];
+        for (int i = 0; i < count; i++) {
             emergencyContacts[i] = EmergencyContact.generate(faker, random);
         }
         return emergencyContacts;
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.types;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import uk.gov.gchq.syntheticdatagenerator.jfr.GenerationEvents;
+import uk.gov.gchq.syntheticdatagenerator.utils.Seeds;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class GenerationSpec
+ * @brief Especificacion declarativa de los campos que se generan y de sus opciones
+ * @details Lista los campos de primer nivel de una persona que se incluyen, con opciones por campo como el numero de
+ * elementos de un array (min y max) o la profundidad del arbol de profesores o compañeros (depth). Los campos que no se
+ * incluyen no se generan. Cada campo se genera con su propia semilla, derivada de la del registro, por lo que un campo
+ * tiene el mismo valor con cualquier seleccion de campos y un registro parcial coincide con el completo en los campos
+ * que tiene. Se lee de un fichero JSON:
+ * <pre>
+ * {"type": "alumno", "fields": {"uid": {}, "name": {}, "campus": {}, "profesor": {"depth": 1}}}
+ * </pre>
+ * Sin fields se generan todos los campos
+ * @version 1.0
+ ****************************************************************************/
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GenerationSpec {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private String type;
+    private LinkedHashMap<String, FieldOptions> fields;
+
+    /**
+     * @brief Constructor por defecto, para leer la especificacion de JSON
+     */
+    public GenerationSpec() {
+    }
+
+    /**
+     * @brief Crea una especificacion sin campos, que se añaden con {@link #include(String)}
+     * @param type Tipo de persona
+     */
+    public GenerationSpec(final PersonType type) {
+        this.type = requireNonNull(type, "type").getName();
+        this.fields = new LinkedHashMap<>();
+    }
+
+    /**
+     * @brief Lee y valida una especificacion
+     * @param file Fichero JSON
+     * @return La especificacion
+     * @throws IOException Fallo al leer el fichero
+     * @throws IllegalArgumentException Si el tipo, un campo o una opcion no son validos
+     */
+    public static GenerationSpec read(final File file) throws IOException {
+        GenerationSpec spec = MAPPER.readValue(file, GenerationSpec.class);
+        spec.validate();
+        return spec;
+    }
+
+    /**
+     * @brief Incluye un campo con sus opciones por defecto
+     * @param field Nombre del campo
+     * @return Esta especificacion
+     */
+    public GenerationSpec include(final String field) {
+        return include(field, new FieldOptions());
+    }
+
+    /**
+     * @brief Incluye un campo
+     * @param field Nombre del campo
+     * @param options Opciones del campo
+     * @return Esta especificacion
+     */
+    public GenerationSpec include(final String field, final FieldOptions options) {
+        requireNonNull(field, "field");
+        requireNonNull(options, "options");
+        if (fields == null) {
+            fields = new LinkedHashMap<>();
+        }
+        fields.put(field, options);
+        validate();
+        return this;
+    }
+
+    /**
+     * @brief Comprueba que el tipo, los campos y sus opciones son validos
+     * @throws IllegalArgumentException Si alguno no lo es
+     */
+    public void validate() {
+        PersonType personType = getPersonType();
+        if (fields == null) {
+            return;
+        }
+        for (Map.Entry<String, FieldOptions> field : fields.entrySet()) {
+            if (!personType.getFields().contains(field.getKey())) {
+                throw new IllegalArgumentException("Unknown field " + field.getKey() + " of " + type + ", the fields are " + personType.getFields());
+            }
+            if (field.getValue() != null) {
+                field.getValue().validate(field.getKey());
+            }
+        }
+    }
+
+    /**
+     * @brief Indica si un campo se genera
+     * @param field Nombre del campo
+     * @return True si el campo esta incluido o no hay seleccion de campos
+     */
+    public boolean includes(final String field) {
+        return fields == null || fields.containsKey(field);
+    }
+
+    /**
+     * @brief Devuelve las opciones de un campo
+     * @param field Nombre del campo
+     * @return Las opciones, vacias si no se han indicado
+     */
+    public FieldOptions options(final String field) {
+        FieldOptions options = fields == null ? null : fields.get(field);
+        return options == null ? FieldOptions.DEFAULT : options;
+    }
+
+    /**
+     * @brief Campos que se generan, en el orden de la clase
+     * @return Nombres de los campos incluidos
+     */
+    @JsonIgnore
+    public List<String> getFieldNames() {
+        List<String> names = new ArrayList<>();
+        for (String field : getPersonType().getFields()) {
+            if (includes(field)) {
+                names.add(field);
+            }
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * @brief Indica si se generan todos los campos
+     * @return True si no hay seleccion de campos
+     */
+    @JsonIgnore
+    public boolean isComplete() {
+        return fields == null;
+    }
+
+    @JsonIgnore
+    public PersonType getPersonType() {
+        if (type == null) {
+            throw new IllegalArgumentException("The generation spec needs a type");
+        }
+        return PersonType.fromName(type).orElseThrow(() -> new IllegalArgumentException("Unknown person type " + type));
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(final String type) {
+        this.type = type;
+    }
+
+    public Map<String, FieldOptions> getFields() {
+        return fields;
+    }
+
+    public void setFields(final LinkedHashMap<String, FieldOptions> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * @brief Prepara la generacion de un campo
+     * @details Si el campo se incluye cambia la semilla de random, y por tanto la del Faker que lo usa, a la del campo
+     * @param spec Especificacion, null para generar todos los campos
+     * @param field Nombre del campo
+     * @param random Generador del registro
+     * @param base Semilla base del registro
+     * @return True si el campo se debe generar
+     */
+    static boolean begin(final GenerationSpec spec, final String field, final Random random, final long base) {
+        if (spec != null && !spec.includes(field)) {
+            return false;
+        }
+        reseed(field, random, base);
+        return true;
+    }
+
+    /**
+     * @brief Cambia la semilla de random a la de un campo, para generar un valor del que depende otro campo
+     * @param field Nombre del campo
+     * @param random Generador del registro
+     * @param base Semilla base del registro
+     */
+    static void reseed(final String field, final Random random, final long base) {
+        // A field starts when the record's random takes its seed
+        GenerationEvents.beginField(field);
+        // String hash codes are specified by the JLS, so the stream of each field is stable across JVMs
+        random.setSeed(Seeds.recordSeed(base, field.hashCode()));
+    }
+
+    /**
+     * @brief Devuelve las opciones de un campo de una especificacion que puede ser null
+     * @param spec Especificacion, null para generar todos los campos
+     * @param field Nombre del campo
+     * @return Las opciones del campo
+     */
+    static FieldOptions options(final GenerationSpec spec, final String field) {
+        return spec == null ? FieldOptions.DEFAULT : spec.options(field);
+    }
+
+    /*****************************************************************************
+     * @class FieldOptions
+     * @brief Opciones de generacion de un campo
+     * @details min y max acotan el numero de elementos de un array y depth fija la profundidad de un arbol. Las
+     * opciones que no se indican mantienen el valor por defecto del campo
+     * @version 1.0
+     ****************************************************************************/
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class FieldOptions {
+        static final FieldOptions DEFAULT = new FieldOptions();
+
+        private Integer min;
+        private Integer max;
+        private Integer depth;
+
+        /**
+         * @brief Numero de elementos de un array
+         * @param random Generador del campo
+         * @param defaultMin Minimo por defecto del campo
+         * @param defaultMax Maximo por defecto del campo
+         * @return Numero de elementos entre min y max, ambos incluidos
+         */
+        public int cardinality(final Random random, final int defaultMin, final int defaultMax) {
+            int low = min != null ? min : defaultMin;
+            int high = max != null ? max : Math.max(low, defaultMax);
+            return low + random.nextInt(high - low + 1);
+        }
+
+        /**
+         * @brief Profundidad de un arbol
+         * @param random Generador del campo
+         * @param defaultMin Profundidad minima por defecto
+         * @param defaultMax Profundidad maxima por defecto
+         * @return depth si se ha indicado, si no una profundidad entre los valores por defecto
+         */
+        public int depth(final Random random, final int defaultMin, final int defaultMax) {
+            return depth != null ? depth : defaultMin + random.nextInt(defaultMax - defaultMin + 1);
+        }
+
+        void validate(final String field) {
+            if (min != null && min < 0 || max != null && max < 0 || depth != null && depth < 1) {
+                throw new IllegalArgumentException("Invalid options for " + field + ": min and max cannot be negative and depth must be at least 1");
+            }
+            if (min != null && max != null && min > max) {
+                throw new IllegalArgumentException("Invalid options for " + field + ": min is greater than max");
+            }
+        }
+
+        public Integer getMin() {
+            return min;
+        }
+
+        public FieldOptions setMin(final Integer min) {
+            this.min = min;
+            return this;
+        }
+
+        public Integer getMax() {
+            return max;
+        }
+
+        public FieldOptions setMax(final Integer max) {
+            this.max = max;
+            return this;
+        }
+
+        public Integer getDepth() {
+            return depth;
+        }
+
+        public FieldOptions setDepth(final Integer depth) {
+            this.depth = depth;
+            return this;
+        }
+    }
+}
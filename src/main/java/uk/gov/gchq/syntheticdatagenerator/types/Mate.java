@@ -16,6 +16,9 @@
 
 package uk.gov.gchq.syntheticdatagenerator.types;
 
+import org.codehaus.jackson.annotate.JsonPropertyOrder;
+import org.codehaus.jackson.map.annotate.JsonDeserialize;
+
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Random;
@@ -29,6 +32,10 @@ import static java.util.Objects.requireNonNull;
  * @details Genera una lista de compañeros, los cuales a su vez tambien tienen compañeros, pueden tener tres titulos
  * @version 1.0
  ****************************************************************************/
+// compa and compaType have no field of that name, so without an order Jackson lists them in reflection order, which
+// changes between JVMs. The serialisers use Jackson 1 and the sampler Jackson 2
+@JsonPropertyOrder({"uid", "compaType", "compa"})
+@com.fasterxml.jackson.annotation.JsonPropertyOrder({"uid", "compaType", "compa"})
 public class Mate implements Serializable, Compa {
     private String uid;
     private Compa[] mates;
@@ -105,6 +112,8 @@ public class Mate implements Serializable, Compa {
         }
     }
 
+    // The elements are read back as this class, Compa being an interface
+    @JsonDeserialize(contentAs = Mate.class)
     public void setCompa(final Compa[] mates) {
         if (null == mates) {
             this.mates = null;
@@ -18,11 +18,13 @@ package uk.gov.gchq.syntheticdatagenerator.types;
 
 import com.github.javafaker.Faker;
 import com.github.javafaker.Name;
+import uk.gov.gchq.syntheticdatagenerator.jfr.GenerationEvents;
 import uk.gov.gchq.syntheticdatagenerator.utils.DateHelper;
 
 import java.io.Serializable;
 import java.util.Arrays;
-import java.util.Locale;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 import java.util.StringJoiner;
 
@@ -41,6 +43,14 @@ public class Pas implements Serializable,  Person {
     private static final int EXTRA_EXPEDIENTE_RANGE = 1_000;
     private static final int PRODUCTIVIDAD_BONUS = 2_500;
     private static final String TAX_CODE = "11500L";
+    static final String UID_PREFIX = "pas";
+    /**
+     * @brief Campos de primer nivel en el orden de la clase, los que admite una {@link GenerationSpec}
+     */
+    public static final List<String> FIELDS = Collections.unmodifiableList(Arrays.asList(
+            "uid", "name", "dateOfBirth", "contactNumbers", "emergencyContacts", "address", "bankDetails",
+            "taxCode", "nationality", "mate", "entradaULLDate", "grade", "campus", "expedienteAmount",
+            "productividadBonus", "birthLocation", "sex"));
 
     private String uid;
     private String name;
@@ -92,28 +102,86 @@ public class Pas implements Serializable,  Person {
      * @return Al individuo generado
      */
     public static Pas generate(final Random random) {
+        return generate(random, null);
+    }
+
+    /**
+     * @brief Genera los campos de pas que indica una especificacion
+     * @details Cada campo se genera con su propia semilla, derivada de un unico valor de random, por lo que los campos
+     * que no se incluyen no se generan y los que se incluyen tienen el mismo valor que en el registro completo
+     * @param random Numero aleatorio que hara que los datos generados tambien sean aleatorios
+     * @param spec Campos a generar y sus opciones, null para generar todos
+     * @return Al individuo generado
+     */
+    public static Pas generate(final Random random, final GenerationSpec spec) {
+        Object event = GenerationEvents.beginRecord(PersonType.PAS.getName());
         Pas pas = new Pas();
+        long base = random.nextLong();
         //Genera datos que solo son de españoles, funciona medio raro
-        Faker faker = new Faker(new Locale("es"));
-        pas.setUid(generateUID(random));
-        Name pasName = faker.name();
-        pas.setName(pasName.firstName() + " " + pasName.lastName()); // we are storing name as a string not a Name
-        pas.setDateOfBirth(DateHelper.generateDateOfBirth(random));
-        pas.setContactNumbers(PhoneNumber.generateMany(random));
-        pas.setEmergencyContacts(EmergencyContact.generateMany(faker, random));
-        pas.setAddress(Address.generate(faker));
-        pas.setBankDetails(BankDetails.generate(random));
-        pas.setTaxCode(generateTaxCode());
-        pas.setNationality(Nationality.generate(random));
-        pas.setMate(Mate.generateMany(random, MIN_MANGERS_TREE_HEIGHT + random.nextInt(EXTRA_MATES_TREE_HEIGHT_RANGE)));
-        pas.setEntradaULLDate(DateHelper.generateHireDate(pas.dateOfBirth, random));
-        pas.setGrade(Grade.generate(random));
-        pas.setCampus(Campus.generate(random));
-        pas.setExpedienteAmount(MIN_EXPEDIENTE + random.nextInt(EXTRA_EXPEDIENTE_RANGE));
-        pas.setProductividadBonus(random.nextInt(PRODUCTIVIDAD_BONUS));
-        pas.setBirthLocation(BirthLocation.generate(faker, random));
-        pas.setSex(Sex.generate(random));
-
+        Faker faker = ThreadLocalFaker.getFaker(random);
+        if (GenerationSpec.begin(spec, "uid", random, base)) {
+            pas.setUid(generateUID(random));
+        }
+        if (GenerationSpec.begin(spec, "name", random, base)) {
+            Name pasName = faker.name();
+            pas.setName(pasName.firstName() + " " + pasName.lastName()); // we are storing name as a string not a Name
+        }
+        // The entrada date is derived from the date of birth, so it is generated when either is included
+        String dateOfBirth = null;
+        if (spec == null || spec.includes("dateOfBirth") || spec.includes("entradaULLDate")) {
+            GenerationSpec.reseed("dateOfBirth", random, base);
+            dateOfBirth = DateHelper.generateDateOfBirth(random);
+        }
+        if (spec == null || spec.includes("dateOfBirth")) {
+            pas.setDateOfBirth(dateOfBirth);
+        }
+        if (GenerationSpec.begin(spec, "contactNumbers", random, base)) {
+            pas.setContactNumbers(PhoneNumber.generateMany(random, GenerationSpec.options(spec, "contactNumbers")
+                    .cardinality(random, 1, PhoneNumber.MAX_EXTRA_CONTACTS)));
+        }
+        if (GenerationSpec.begin(spec, "emergencyContacts", random, base)) {
+            pas.setEmergencyContacts(EmergencyContact.generateMany(faker, random, GenerationSpec.options(spec, "emergencyContacts")
+                    .cardinality(random, 1, EmergencyContact.MAX_EXTRA_CONTACTS)));
+        }
+        if (GenerationSpec.begin(spec, "address", random, base)) {
+            pas.setAddress(Address.generate(faker));
+        }
+        if (GenerationSpec.begin(spec, "bankDetails", random, base)) {
+            pas.setBankDetails(BankDetails.generate(random));
+        }
+        if (GenerationSpec.begin(spec, "taxCode", random, base)) {
+            pas.setTaxCode(generateTaxCode());
+        }
+        if (GenerationSpec.begin(spec, "nationality", random, base)) {
+            pas.setNationality(Nationality.generate(random));
+        }
+        if (GenerationSpec.begin(spec, "mate", random, base)) {
+            pas.setMate(Mate.generateMany(random, GenerationSpec.options(spec, "mate")
+                    .depth(random, MIN_MANGERS_TREE_HEIGHT, MIN_MANGERS_TREE_HEIGHT + EXTRA_MATES_TREE_HEIGHT_RANGE - 1)));
+        }
+        if (GenerationSpec.begin(spec, "entradaULLDate", random, base)) {
+            pas.setEntradaULLDate(DateHelper.generateHireDate(dateOfBirth, random));
+        }
+        if (GenerationSpec.begin(spec, "grade", random, base)) {
+            pas.setGrade(Grade.generate(random));
+        }
+        if (GenerationSpec.begin(spec, "campus", random, base)) {
+            pas.setCampus(Campus.generate(random));
+        }
+        if (GenerationSpec.begin(spec, "expedienteAmount", random, base)) {
+            pas.setExpedienteAmount(MIN_EXPEDIENTE + random.nextInt(EXTRA_EXPEDIENTE_RANGE));
+        }
+        if (GenerationSpec.begin(spec, "productividadBonus", random, base)) {
+            pas.setProductividadBonus(random.nextInt(PRODUCTIVIDAD_BONUS));
+        }
+        if (GenerationSpec.begin(spec, "birthLocation", random, base)) {
+            pas.setBirthLocation(BirthLocation.generate(faker, random));
+        }
+        if (GenerationSpec.begin(spec, "sex", random, base)) {
+            pas.setSex(Sex.generate(random));
+        }
+
+        GenerationEvents.endRecord(event);
         return pas;
     }
 
@@ -123,7 +191,7 @@ public class Pas implements Serializable,  Person {
      * @return El UID
      */
     public static String generateUID(final Random random) {
-        return "pas" + random.nextInt(Integer.MAX_VALUE);
+        return UID_PREFIX + random.nextInt(Integer.MAX_VALUE);
     }
 
     /**
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.types;
+
+import uk.gov.gchq.syntheticdatagenerator.utils.Seeds;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * @brief Tipos de persona que se pueden generar
+ */
+public enum PersonType {
+    ALUMNO("alumno", Alumno.class, Alumno.FIELDS, Alumno.UID_PREFIX) {
+        @Override
+        public Person generate(final Random random, final GenerationSpec spec) {
+            return Alumno.generate(random, spec);
+        }
+    },
+    PAS("pas", Pas.class, Pas.FIELDS, Pas.UID_PREFIX) {
+        @Override
+        public Person generate(final Random random, final GenerationSpec spec) {
+            return Pas.generate(random, spec);
+        }
+    };
+
+    private final String name;
+    private final Class<? extends Person> domainClass;
+    private final List<String> fields;
+    private final String uidPrefix;
+
+    PersonType(final String name, final Class<? extends Person> domainClass, final List<String> fields, final String uidPrefix) {
+        this.name = name;
+        this.domainClass = domainClass;
+        this.fields = fields;
+        this.uidPrefix = uidPrefix;
+    }
+
+    /**
+     * @brief Genera una persona de este tipo
+     * @param random Numero aleatorio que hara que los datos generados tambien sean aleatorios
+     * @return La persona generada
+     */
+    public Person generate(final Random random) {
+        return generate(random, null);
+    }
+
+    /**
+     * @brief Genera los campos de una persona de este tipo que indica una especificacion
+     * @param random Numero aleatorio que hara que los datos generados tambien sean aleatorios
+     * @param spec Campos a generar y sus opciones, null para generar todos
+     * @return La persona generada
+     */
+    public abstract Person generate(final Random random, final GenerationSpec spec);
+
+    /**
+     * @brief Genera la persona de un indice global, siempre la misma para la misma semilla e indice
+     * @details Reutiliza un Random por hilo al que se cambia la semilla, de modo que el Faker asociado tambien se
+     * reutiliza en lugar de crearse para cada registro
+     * @param seed Semilla de la ejecucion
+     * @param index Indice global del registro
+     * @return La persona generada
+     */
+    public Person generate(final long seed, final long index) {
+        return generate(seed, index, null);
+    }
+
+    /**
+     * @brief Genera los campos que indica una especificacion de la persona de un indice global
+     * @param seed Semilla de la ejecucion
+     * @param index Indice global del registro
+     * @param spec Campos a generar y sus opciones, null para generar todos
+     * @return La persona generada
+     */
+    public Person generate(final long seed, final long index, final GenerationSpec spec) {
+        Random random = RecordRandom.RANDOM.get();
+        random.setSeed(Seeds.recordSeed(seed, index));
+        return generate(random, spec);
+    }
+
+    /**
+     * @brief Busca el tipo por el nombre usado en la linea de comandos
+     * @param name alumno o pas, sin distinguir mayusculas
+     * @return El tipo o vacio si no existe
+     */
+    public static Optional<PersonType> fromName(final String name) {
+        for (PersonType type : values()) {
+            if (type.name.equals(name.toLowerCase(Locale.ROOT))) {
+                return Optional.of(type);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @brief Nombre usado en la linea de comandos y en los nombres de fichero
+     * @return alumno o pas
+     */
+    public String getName() {
+        return name;
+    }
+
+    public Class<? extends Person> getDomainClass() {
+        return domainClass;
+    }
+
+    /**
+     * @brief Campos de primer nivel de este tipo, en el orden de la clase
+     * @return Lista inmutable de nombres de campo
+     */
+    public List<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * @brief Prefijo de los UID de este tipo
+     * @return alu o pas
+     */
+    public String getUidPrefix() {
+        return uidPrefix;
+    }
+
+    // Enum constants cannot reference static fields of the enum while it is being initialised
+    private static final class RecordRandom {
+        private static final ThreadLocal<Random> RANDOM = ThreadLocal.withInitial(Random::new);
+    }
+}
@@ -27,7 +27,7 @@ import java.util.StringJoiner;
  * @version 1.0
  ****************************************************************************/
 public class PhoneNumber implements Serializable {
-    private static final int MAX_EXTRA_CONTACTS = 3;
+    static final int MAX_EXTRA_CONTACTS = 3;
     private static final int PHONE_NUMBER_LENGTH = 10; // excluding leading zero
 
     private String type; // is this a home number, work number, mobile number ...
@@ -41,11 +41,19 @@ public class PhoneNumber implements Serializable {
      * @return Lista de numero de telefonos
      */
     public static PhoneNumber[] generateMany(final Random random) {
-        int numberOfExtraContacts = random.nextInt(MAX_EXTRA_CONTACTS);
-        PhoneNumber[] phoneNumbers = new PhoneNumber[numberOfExtraContacts + 1];
-        phoneNumbers[0] = PhoneNumber.generate(random, DEFAULT_TYPES);
-        for (int i = 1; i <= numberOfExtraContacts; i++) {
-            phoneNumbers[i] = PhoneNumber.generate(random, POSSIBLE_TYPES);
+        return generateMany(random, 1 + random.nextInt(MAX_EXTRA_CONTACTS));
+    }
+
+    /**
+     * @brief Genera un numero fijo de telefonos, el primero de ellos un movil
+     * @param random Numero aleatorio que generara mas datos aleatorios
+     * @param count Numero de telefonos
+     * @return Lista de numero de telefonos
+     */
+    public static PhoneNumber[] generateMany(final Random random, final int count) {
+        PhoneNumber[] phoneNumbers = new PhoneNumber[count];
+        for (int i = 0; i < count; i++) {
+            phoneNumbers[i] = PhoneNumber.generate(random, i == 0 ? DEFAULT_TYPES : POSSIBLE_TYPES);
         }
         return phoneNumbers;
     }
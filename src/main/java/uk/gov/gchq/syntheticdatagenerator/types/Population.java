@@ -0,0 +1,271 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.types;
+
+import uk.gov.gchq.syntheticdatagenerator.utils.Seeds;
+import uk.gov.gchq.syntheticdatagenerator.utils.Shard;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class Population
+ * @brief Poblacion de una ejecucion con varios tipos de persona cuyas referencias apuntan a registros generados
+ * @details Reparte el total de registros entre los tipos segun unos pesos, por ejemplo alumno:4,pas:1. El UID de cada
+ * registro se obtiene de su indice con una permutacion de [0, 2^31) que depende de la semilla, de modo que el UID de
+ * cualquier indice, y el indice de cualquier UID, se calculan sin tabla en memoria. Los UID del arbol de profesores de
+ * un alumno son los de alumnos generados y los del arbol de compañeros de un PAS los de PAS generados, igual que con sus
+ * prefijos, elegidos a partir de la semilla del registro. Cada tipo genera sus registros con su propia semilla, derivada
+ * de la de la ejecucion, para que el alumno y el PAS de un mismo indice no compartan datos. Es inmutable y thread safe
+ * @version 1.0
+ ****************************************************************************/
+public final class Population {
+    /**
+     * @brief Numero maximo de registros de cada tipo, el tamaño del espacio de UID
+     */
+    public static final long MAX_COUNT = 1L << 31;
+    private static final long MASK = MAX_COUNT - 1;
+    private static final long M1 = 0x2C1B3C6DL;
+    private static final long M2 = 0x297A2D39L;
+    private static final long M1_INVERSE = inverse(M1);
+    private static final long M2_INVERSE = inverse(M2);
+    private static final int SHIFT1 = 16;
+    private static final int SHIFT2 = 13;
+    private static final int BITS = 31;
+
+    private final long seed;
+    private final Map<PersonType, Integer> weights;
+    private final Map<PersonType, Long> counts;
+    private final Map<PersonType, Long> keys;
+    private final Map<PersonType, Long> seeds;
+
+    private Population(final long seed, final long total, final Map<PersonType, Integer> weights) {
+        this.seed = seed;
+        this.weights = Collections.unmodifiableMap(weights);
+        Map<PersonType, Long> typeCounts = new EnumMap<>(PersonType.class);
+        Map<PersonType, Long> typeKeys = new EnumMap<>(PersonType.class);
+        Map<PersonType, Long> typeSeeds = new EnumMap<>(PersonType.class);
+        long weightSum = 0;
+        for (int weight : weights.values()) {
+            weightSum += weight;
+        }
+        long cumulative = 0;
+        for (Map.Entry<PersonType, Integer> entry : weights.entrySet()) {
+            long count = Shard.split(total, cumulative + entry.getValue(), weightSum) - Shard.split(total, cumulative, weightSum);
+            if (count > MAX_COUNT) {
+                throw new IllegalArgumentException("A population can have at most " + MAX_COUNT + " " + entry.getKey().getName() + " records");
+            }
+            cumulative += entry.getValue();
+            typeCounts.put(entry.getKey(), count);
+            typeKeys.put(entry.getKey(), Seeds.recordSeed(seed, -1L - entry.getKey().ordinal()) & MASK);
+            // Record seeds only depend on the index, so without the type alumno #i and pas #i would share every field
+            typeSeeds.put(entry.getKey(), seed ^ Seeds.recordSeed(0L, entry.getKey().ordinal()));
+        }
+        this.counts = Collections.unmodifiableMap(typeCounts);
+        this.keys = Collections.unmodifiableMap(typeKeys);
+        this.seeds = Collections.unmodifiableMap(typeSeeds);
+    }
+
+    /**
+     * @brief Indica si un argumento describe una poblacion en lugar de un unico tipo
+     * @param value Argumento de la linea de comandos
+     * @return True si tiene la forma tipo:peso[,tipo:peso]
+     */
+    public static boolean isPopulation(final String value) {
+        return value.indexOf(':') >= 0;
+    }
+
+    /**
+     * @brief Interpreta una poblacion de la linea de comandos
+     * @param value Tipos y pesos con la forma alumno:4,pas:1
+     * @param total Numero total de registros, que se reparte segun los pesos
+     * @param seed Semilla de la ejecucion
+     * @return La poblacion
+     * @throws IllegalArgumentException Si el tipo o un peso no son validos o un tipo tiene demasiados registros
+     */
+    public static Population parse(final String value, final long total, final long seed) {
+        requireNonNull(value, "value");
+        Map<PersonType, Integer> weights = new EnumMap<>(PersonType.class);
+        for (String part : value.split(",")) {
+            int colon = part.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Population must be type:weight[,type:weight], not " + value);
+            }
+            String name = part.substring(0, colon).trim();
+            PersonType type = PersonType.fromName(name).orElseThrow(() -> new IllegalArgumentException("Unknown person type " + name));
+            int weight = Integer.parseInt(part.substring(colon + 1).trim());
+            if (weight < 1 || weights.put(type, weight) != null) {
+                throw new IllegalArgumentException("Each type of a population needs one positive weight: " + value);
+            }
+        }
+        return new Population(seed, total, weights);
+    }
+
+    /**
+     * @brief Genera un registro y enlaza su UID y los de su arbol con los registros de la poblacion
+     * @param type Tipo del registro
+     * @param index Indice del registro dentro de su tipo
+     * @param spec Campos a generar, null para generar todos
+     * @return El registro, generado con la semilla de su tipo y con los UID de la poblacion
+     */
+    public Person generate(final PersonType type, final long index, final GenerationSpec spec) {
+        long typeSeed = getSeed(type);
+        Person person = type.generate(typeSeed, index, spec);
+        if (spec == null || spec.includes("uid")) {
+            person.setUid(uid(type, index));
+        }
+        long recordSeed = Seeds.recordSeed(typeSeed, index);
+        if (person instanceof Alumno && ((Alumno) person).getProfesor() != null) {
+            link(((Alumno) person).getProfesor(), type, recordSeed, 0L);
+        } else if (person instanceof Pas && ((Pas) person).getMate() != null) {
+            link(((Pas) person).getMate(), type, recordSeed, 0L);
+        }
+        return person;
+    }
+
+    /**
+     * @brief UID del registro de un indice
+     * @param type Tipo del registro
+     * @param index Indice del registro dentro de su tipo
+     * @return Prefijo del tipo seguido de un numero distinto para cada indice
+     */
+    public String uid(final PersonType type, final long index) {
+        if (index < 0 || index >= getCount(type)) {
+            throw new IllegalArgumentException("Index " + index + " is not a " + type.getName() + " of this population");
+        }
+        return type.getUidPrefix() + permute(index ^ keys.get(type));
+    }
+
+    /**
+     * @brief Indice del registro de un UID, la inversa de {@link #uid(PersonType, long)}
+     * @param type Tipo del registro
+     * @param uid UID del registro
+     * @return El indice, o -1 si el UID no es de un registro de esta poblacion
+     */
+    public long index(final PersonType type, final String uid) {
+        requireNonNull(uid, "uid");
+        if (!counts.containsKey(type) || !uid.startsWith(type.getUidPrefix())) {
+            return -1L;
+        }
+        long value;
+        try {
+            value = Long.parseLong(uid.substring(type.getUidPrefix().length()));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+        if (value < 0 || value > MASK) {
+            return -1L;
+        }
+        long index = unpermute(value) ^ keys.get(type);
+        return index < counts.get(type) ? index : -1L;
+    }
+
+    /**
+     * @brief Numero de registros de un tipo
+     * @param type Tipo de persona
+     * @return Registros del tipo, 0 si no esta en la poblacion
+     */
+    public long getCount(final PersonType type) {
+        return counts.getOrDefault(type, 0L);
+    }
+
+    /**
+     * @brief Tipos de la poblacion en el orden de PersonType
+     * @return Tipos con al menos un peso
+     */
+    public Set<PersonType> getTypes() {
+        return weights.keySet();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @brief Semilla con la que se generan los registros de un tipo
+     * @param type Tipo de persona de la poblacion
+     * @return Semilla de la ejecucion mezclada con el tipo
+     */
+    public long getSeed(final PersonType type) {
+        Long typeSeed = seeds.get(type);
+        if (typeSeed == null) {
+            throw new IllegalArgumentException("Type " + type.getName() + " is not part of this population");
+        }
+        return typeSeed;
+    }
+
+    /**
+     * @brief Poblacion con la forma de la linea de comandos
+     * @return Por ejemplo alumno:4,pas:1
+     */
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(",");
+        weights.forEach((type, weight) -> joiner.add(type.getName() + ":" + weight));
+        return joiner.toString();
+    }
+
+    /**
+     * @brief Cambia el UID de cada nodo del arbol por el de un registro de la poblacion
+     * @return Numero de nodos enlazados hasta ahora, para derivar la eleccion del siguiente
+     */
+    private long link(final Compa[] nodes, final PersonType type, final long recordSeed, final long linked) {
+        long next = linked;
+        long count = getCount(type);
+        for (Compa node : nodes) {
+            node.setUid(uid(type, Math.floorMod(Seeds.recordSeed(recordSeed, next++), count)));
+            next = link(node.getCompa(), type, recordSeed, next);
+        }
+        return next;
+    }
+
+    // An xorshift-multiply mixer on 31 bits: every step is invertible, so the whole permutation is a bijection
+    private static long permute(final long value) {
+        long x = value & MASK;
+        x = (x ^ (x >>> SHIFT1)) * M1 & MASK;
+        x = (x ^ (x >>> SHIFT2)) * M2 & MASK;
+        return x ^ (x >>> SHIFT1);
+    }
+
+    private static long unpermute(final long value) {
+        long x = unshift(value, SHIFT1);
+        x = unshift(x * M2_INVERSE & MASK, SHIFT2);
+        return unshift(x * M1_INVERSE & MASK, SHIFT1);
+    }
+
+    private static long unshift(final long value, final int shift) {
+        long x = value;
+        for (int s = shift; s < BITS; s += shift) {
+            x ^= value >>> s;
+        }
+        return x;
+    }
+
+    // Newton's iteration doubles the correct low bits of the inverse of an odd number each step
+    private static long inverse(final long odd) {
+        long inverse = odd;
+        for (int i = 0; i < 5; i++) {
+            inverse *= 2 - odd * inverse;
+        }
+        return inverse & MASK;
+    }
+}
@@ -16,6 +16,9 @@
 
 package uk.gov.gchq.syntheticdatagenerator.types;
 
+import org.codehaus.jackson.annotate.JsonPropertyOrder;
+import org.codehaus.jackson.map.annotate.JsonDeserialize;
+
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Random;
@@ -28,6 +31,10 @@ import static java.util.Objects.requireNonNull;
  * @details Genera una lista de profesores, los cuales a su vez tambien tienen profesores, pueden tener tres titulos
  * @version 1.0
  ****************************************************************************/
+// compa and compaType have no field of that name, so without an order Jackson lists them in reflection order, which
+// changes between JVMs. The serialisers use Jackson 1 and the sampler Jackson 2
+@JsonPropertyOrder({"uid", "compaType", "compa"})
+@com.fasterxml.jackson.annotation.JsonPropertyOrder({"uid", "compaType", "compa"})
 public class Profesor implements Serializable, Compa {
     private String uid;
     private Compa[] profesors;
@@ -104,6 +111,8 @@ public class Profesor implements Serializable, Compa {
         }
     }
 
+    // The elements are read back as this class, Compa being an interface
+    @JsonDeserialize(contentAs = Profesor.class)
     public void setCompa(final Compa[] profesors) {
         if (null == profesors) {
             this.profesors = null;
@@ -36,7 +36,7 @@ public final class ThreadLocalFaker {
         if (currentRandom.get() == null || random != currentRandom.get()) {
             //new random triggered
             currentRandom.set(random);
-            faker.set(new Faker(new Locale("en-GB"), random));
+            faker.set(new Faker(new Locale("es"), random));
         }
         return faker.get();
     }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.uniqueness;
+
+/*****************************************************************************
+ * @class FingerprintFilter
+ * @brief Conjunto de huellas de 64 bits de tamaño fijo que indica si una huella puede haberse añadido antes
+ * @details Las implementaciones no dan falsos negativos: una huella repetida siempre se marca como posible repetida.
+ * Pueden dar falsos positivos, que se confirman despues comparando los UID completos. Son thread safe
+ * @version 1.0
+ ****************************************************************************/
+public interface FingerprintFilter {
+
+    /**
+     * @brief Añade una huella
+     * @param fingerprint Huella de un UID, ver {@link #fingerprint(CharSequence)}
+     * @return True si la huella puede haberse añadido antes
+     * @throws IllegalStateException Si el conjunto esta lleno
+     */
+    boolean add(long fingerprint);
+
+    /**
+     * @brief Memoria reservada fuera del heap
+     * @return Bytes reservados
+     */
+    long getMemoryBytes();
+
+    /**
+     * @brief Calcula la huella de 64 bits de un UID
+     * @details FNV-1a sobre los caracteres seguido del mezclador final de MurmurHash3, para que todos los bits
+     * dependan de todo el UID
+     * @param uid UID
+     * @return Huella del UID
+     */
+    static long fingerprint(final CharSequence uid) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < uid.length(); i++) {
+            hash = (hash ^ uid.charAt(i)) * 0x100000001B3L;
+        }
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+}
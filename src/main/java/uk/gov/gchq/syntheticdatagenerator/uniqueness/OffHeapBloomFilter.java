@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.uniqueness;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+/*****************************************************************************
+ * @class OffHeapBloomFilter
+ * @brief Filtro de Bloom por bloques fuera del heap
+ * @details Cada huella activa hashes bits de un unico bloque de 512 bits, una linea de cache, elegido con sus bits
+ * altos. Las posiciones dentro del bloque salen de los bits bajos por doble hashing. Los bloques se reparten en
+ * segmentos, buffers directos con su propio cerrojo. Con m bits y n huellas la tasa de falsos positivos es de
+ * aproximadamente (1 - e^(-hashes * n / m))^hashes, algo mas por el bloqueo: con 16 bits por UID y 7 hashes, menos
+ * del 0,1%
+ * @version 1.0
+ ****************************************************************************/
+public final class OffHeapBloomFilter implements FingerprintFilter {
+    public static final int DEFAULT_HASHES = 7;
+    private static final int SEGMENT_BITS = 8;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+    private static final int BLOCK_LONGS = 8;
+    private static final int BLOCK_BITS = BLOCK_LONGS * Long.SIZE;
+    private static final int MAX_SEGMENT_BLOCKS = 1 << 22;
+
+    private final LongBuffer[] segments = new LongBuffer[SEGMENTS];
+    private final int blockMask;
+    private final int blockShift;
+    private final int hashes;
+
+    /**
+     * @brief Reserva el filtro
+     * @param memoryBytes Memoria fuera del heap, se redondea hacia abajo a una potencia de dos
+     * @param hashes Bits que activa cada huella
+     */
+    public OffHeapBloomFilter(final long memoryBytes, final int hashes) {
+        if (hashes < 1 || hashes > BLOCK_BITS) {
+            throw new IllegalArgumentException("hashes must be between 1 and " + BLOCK_BITS);
+        }
+        long blocks = Long.highestOneBit(Math.max(memoryBytes / (BLOCK_LONGS * Long.BYTES) / SEGMENTS, 1L));
+        if (blocks > MAX_SEGMENT_BLOCKS) {
+            throw new IllegalArgumentException("At most " + (long) MAX_SEGMENT_BLOCKS * SEGMENTS * BLOCK_LONGS * Long.BYTES + " bytes");
+        }
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = ByteBuffer.allocateDirect((int) blocks * BLOCK_LONGS * Long.BYTES).asLongBuffer();
+        }
+        this.blockMask = (int) blocks - 1;
+        this.blockShift = Long.SIZE - SEGMENT_BITS - Integer.numberOfTrailingZeros((int) blocks);
+        this.hashes = hashes;
+    }
+
+    @Override
+    public boolean add(final long fingerprint) {
+        LongBuffer bits = segments[(int) (fingerprint >>> (Long.SIZE - SEGMENT_BITS))];
+        int block = (int) (fingerprint >>> blockShift) & blockMask;
+        int offset = block * BLOCK_LONGS;
+        int h1 = (int) fingerprint;
+        // The high bits already chose the block, so the step is remixed from the whole fingerprint. An odd step
+        // visits distinct positions of the power of two block
+        int h2 = (int) ((fingerprint * 0x9E3779B97F4A7C15L) >>> Integer.SIZE) | 1;
+        boolean seen = true;
+        synchronized (bits) {
+            for (int i = 0; i < hashes; i++) {
+                int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+                int index = offset + (bit >>> 6);
+                long word = bits.get(index);
+                long mask = 1L << bit;
+                if ((word & mask) == 0) {
+                    seen = false;
+                    bits.put(index, word | mask);
+                }
+            }
+        }
+        return seen;
+    }
+
+    @Override
+    public long getMemoryBytes() {
+        return (long) SEGMENTS * (blockMask + 1) * BLOCK_LONGS * Long.BYTES;
+    }
+
+    public int getHashes() {
+        return hashes;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.uniqueness;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+/*****************************************************************************
+ * @class OffHeapHashSet
+ * @brief Conjunto exacto de huellas en una tabla hash de direccionamiento abierto fuera del heap
+ * @details La tabla se divide en segmentos, cada uno un buffer directo con su propio cerrojo, de modo que varios hilos
+ * añaden huellas a la vez. El segmento lo eligen los bits altos de la huella y la posicion los bajos, con sondeo
+ * lineal. Solo da falsos positivos cuando dos UID distintos tienen la misma huella de 64 bits. El tamaño es fijo: si
+ * un segmento pasa del factor de carga maximo la insercion falla
+ * @version 1.0
+ ****************************************************************************/
+public final class OffHeapHashSet implements FingerprintFilter {
+    private static final int SEGMENT_BITS = 8;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+    private static final int MAX_SEGMENT_SLOTS = 1 << 28;
+    private static final double MAX_LOAD = 0.9;
+    // Zero marks an empty slot, so a zero fingerprint is stored as this value
+    private static final long ZERO = 0x9E3779B97F4A7C15L;
+
+    private final LongBuffer[] segments = new LongBuffer[SEGMENTS];
+    private final int[] sizes = new int[SEGMENTS];
+    private final int slotMask;
+    private final int maxSize;
+
+    /**
+     * @brief Reserva la tabla
+     * @param memoryBytes Memoria fuera del heap, se redondea hacia abajo a una potencia de dos
+     */
+    public OffHeapHashSet(final long memoryBytes) {
+        long slots = Long.highestOneBit(Math.max(memoryBytes / Long.BYTES / SEGMENTS, 1L));
+        if (slots > MAX_SEGMENT_SLOTS) {
+            throw new IllegalArgumentException("At most " + (long) MAX_SEGMENT_SLOTS * SEGMENTS * Long.BYTES + " bytes");
+        }
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = ByteBuffer.allocateDirect((int) slots * Long.BYTES).asLongBuffer();
+        }
+        this.slotMask = (int) slots - 1;
+        this.maxSize = (int) (slots * MAX_LOAD);
+    }
+
+    @Override
+    public boolean add(final long fingerprint) {
+        long value = fingerprint == 0 ? ZERO : fingerprint;
+        int segment = (int) (value >>> (Long.SIZE - SEGMENT_BITS));
+        LongBuffer slots = segments[segment];
+        synchronized (slots) {
+            int slot = (int) value & slotMask;
+            while (true) {
+                long current = slots.get(slot);
+                if (current == value) {
+                    return true;
+                }
+                if (current == 0) {
+                    if (sizes[segment] >= maxSize) {
+                        throw new IllegalStateException("The off-heap hash set is full, give it more memory or use a Bloom filter");
+                    }
+                    slots.put(slot, value);
+                    sizes[segment]++;
+                    return false;
+                }
+                slot = (slot + 1) & slotMask;
+            }
+        }
+    }
+
+    @Override
+    public long getMemoryBytes() {
+        return (long) SEGMENTS * (slotMask + 1) * Long.BYTES;
+    }
+
+    /**
+     * @brief Numero de huellas distintas añadidas
+     * @return Huellas en la tabla
+     */
+    public long size() {
+        long size = 0;
+        for (int i = 0; i < SEGMENTS; i++) {
+            synchronized (segments[i]) {
+                size += sizes[i];
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @brief Numero maximo de huellas que admite la tabla
+     * @return Capacidad, contando el factor de carga maximo
+     */
+    public long capacity() {
+        return (long) SEGMENTS * maxSize;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.uniqueness;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+/*****************************************************************************
+ * @class UidReader
+ * @brief Lee solo los UID de los ficheros avro, JSON y NDJSON generados, comprimidos o no con gzip
+ * @details El resto de campos no se convierten a objetos: avro los salta con un esquema de lectura que solo tiene el
+ * uid y JSON con un parser en streaming que salta los valores de los demas campos
+ * @version 1.0
+ ****************************************************************************/
+public final class UidReader {
+    private static final String UID = "uid";
+    private static final String GZIP = ".gz";
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private UidReader() {
+    }
+
+    /**
+     * @brief Recibe los UID de un fichero
+     */
+    @FunctionalInterface
+    public interface UidConsumer {
+        /**
+         * @param uid UID del registro
+         * @param record Posicion del registro en el fichero, desde 0
+         * @throws IOException Fallo al procesar el UID
+         */
+        void accept(String uid, long record) throws IOException;
+    }
+
+    /**
+     * @brief Indica si se pueden leer los UID de un fichero por su extension
+     * @param name Nombre del fichero
+     * @return True para .avro, .json y .ndjson, con o sin .gz
+     */
+    public static boolean canRead(final String name) {
+        String format = name.endsWith(GZIP) ? name.substring(0, name.length() - GZIP.length()) : name;
+        return format.endsWith(".avro") || format.endsWith(".json") || format.endsWith(".ndjson");
+    }
+
+    /**
+     * @brief Lee los UID de un fichero en orden
+     * @param file Fichero avro, JSON o NDJSON, opcionalmente comprimido con gzip
+     * @param consumer Recibe cada UID
+     * @return Numero de registros leidos
+     * @throws IOException Fallo al leer el fichero, o el fichero no tiene UID
+     */
+    public static long read(final File file, final UidConsumer consumer) throws IOException {
+        String name = file.getName();
+        if (!canRead(name)) {
+            throw new IOException("Unable to read uids from " + file + ", expected .avro, .json or .ndjson");
+        }
+        boolean gzip = name.endsWith(GZIP);
+        try (InputStream in = gzip ? new GZIPInputStream(new FileInputStream(file), BUFFER_SIZE)
+                : new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE)) {
+            if ((gzip ? name.substring(0, name.length() - GZIP.length()) : name).endsWith(".avro")) {
+                return readAvro(in, consumer);
+            }
+            return readJson(in, consumer);
+        }
+    }
+
+    private static long readAvro(final InputStream in, final UidConsumer consumer) throws IOException {
+        GenericDatumReader<GenericRecord> reader = new GenericDatumReader<>();
+        try (DataFileStream<GenericRecord> records = new DataFileStream<>(in, reader)) {
+            Schema schema = records.getSchema();
+            Schema.Field uid = schema.getField(UID);
+            if (uid == null) {
+                throw new IOException("The records have no " + UID + " field");
+            }
+            // Resolving against a schema with only the uid skips the other fields without building them
+            reader.setExpected(Schema.createRecord(schema.getName(), null, schema.getNamespace(), false,
+                    Collections.singletonList(new Schema.Field(UID, uid.schema(), null, (Object) null))));
+            long count = 0;
+            GenericRecord record = null;
+            while (records.hasNext()) {
+                record = records.next(record);
+                Object value = record.get(UID);
+                consumer.accept(value == null ? null : value.toString(), count++);
+            }
+            return count;
+        }
+    }
+
+    private static long readJson(final InputStream in, final UidConsumer consumer) throws IOException {
+        long count = 0;
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            JsonToken token = parser.nextToken();
+            // A JSON file is one array of records, an NDJSON file a sequence of records
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+            while (token == JsonToken.START_OBJECT) {
+                String uid = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if (UID.equals(field) && value == JsonToken.VALUE_STRING) {
+                        uid = parser.getText();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                consumer.accept(uid, count++);
+                token = parser.nextToken();
+            }
+            if (token != null && token != JsonToken.END_ARRAY) {
+                throw new IOException("Expected a JSON object at record " + count + " but found " + token);
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.utils;
+
+import java.util.zip.Checksum;
+
+/*****************************************************************************
+ * @class Crc32c
+ * @brief CRC-32C (Castagnoli) en Java puro para JVMs sin java.util.zip.CRC32C
+ * @details Usa tablas slicing-by-8. Con Java 9 o superior se prefiere la implementacion del JDK, que usa instrucciones
+ * del procesador, ver {@link #create()}
+ * @version 1.0
+ ****************************************************************************/
+public final class Crc32c implements Checksum {
+    public static final String ALGORITHM = "CRC32C";
+
+    private static final int POLYNOMIAL = 0x82F63B78;
+    private static final int[][] TABLES = createTables();
+    private static final String JDK_CLASS = "java.util.zip.CRC32C";
+
+    private int crc = 0xFFFFFFFF;
+
+    /**
+     * @brief Crea un checksum CRC-32C, el del JDK si esta disponible
+     * @return Checksum sin datos
+     */
+    public static Checksum create() {
+        try {
+            return (Checksum) Class.forName(JDK_CLASS).getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            return new Crc32c();
+        }
+    }
+
+    /**
+     * @brief Formatea el valor de un checksum de 32 bits como 8 digitos hexadecimales
+     * @param checksum Checksum
+     * @return Valor en hexadecimal
+     */
+    public static String toHex(final Checksum checksum) {
+        return String.format("%08x", checksum.getValue());
+    }
+
+    @Override
+    public void update(final int b) {
+        crc = (crc >>> 8) ^ TABLES[0][(crc ^ b) & 0xFF];
+    }
+
+    @Override
+    public void update(final byte[] b, final int off, final int len) {
+        int c = crc;
+        int i = off;
+        int end = off + len;
+        for (; i + 8 <= end; i += 8) {
+            int lo = c ^ ((b[i] & 0xFF) | (b[i + 1] & 0xFF) << 8 | (b[i + 2] & 0xFF) << 16 | (b[i + 3] & 0xFF) << 24);
+            c = TABLES[7][lo & 0xFF] ^ TABLES[6][(lo >>> 8) & 0xFF] ^ TABLES[5][(lo >>> 16) & 0xFF] ^ TABLES[4][lo >>> 24]
+                    ^ TABLES[3][b[i + 4] & 0xFF] ^ TABLES[2][b[i + 5] & 0xFF] ^ TABLES[1][b[i + 6] & 0xFF] ^ TABLES[0][b[i + 7] & 0xFF];
+        }
+        for (; i < end; i++) {
+            c = (c >>> 8) ^ TABLES[0][(c ^ b[i]) & 0xFF];
+        }
+        crc = c;
+    }
+
+    @Override
+    public long getValue() {
+        return ~crc & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public void reset() {
+        crc = 0xFFFFFFFF;
+    }
+
+    private static int[][] createTables() {
+        int[][] tables = new int[8][256];
+        for (int n = 0; n < 256; n++) {
+            int c = n;
+            for (int k = 0; k < 8; k++) {
+                c = (c & 1) != 0 ? (c >>> 1) ^ POLYNOMIAL : c >>> 1;
+            }
+            tables[0][n] = c;
+        }
+        for (int n = 0; n < 256; n++) {
+            for (int t = 1; t < 8; t++) {
+                tables[t][n] = (tables[t - 1][n] >>> 8) ^ tables[0][tables[t - 1][n] & 0xFF];
+            }
+        }
+        return tables;
+    }
+}
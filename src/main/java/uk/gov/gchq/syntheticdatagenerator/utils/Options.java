@@ -0,0 +1,200 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class Options
+ * @brief Separa los argumentos de la linea de comandos en posicionales y opciones
+ * @details Los argumentos con la forma --nombre=valor o --nombre son opciones y pueden ir en cualquier posicion,
+ * el resto se mantienen como argumentos posicionales en el orden original. Cada herramienta indica las opciones que
+ * admite y una opcion desconocida o un valor numerico mal escrito lanzan IllegalArgumentException, para que un error
+ * como --shrad=1/2 no se ignore
+ * @version 1.0
+ ****************************************************************************/
+public final class Options {
+    private static final String PREFIX = "--";
+    private static final long KIB = 1024L;
+
+    private final List<String> positional;
+    private final Map<String, String> options;
+
+    private Options(final List<String> positional, final Map<String, String> options) {
+        this.positional = Collections.unmodifiableList(positional);
+        this.options = Collections.unmodifiableMap(options);
+    }
+
+    /**
+     * @brief Analiza los argumentos de la linea de comandos
+     * @param known Nombres de las opciones que se admiten, sin el prefijo --
+     * @param args Argumentos pasados por la linea de comandos
+     * @return Las opciones analizadas
+     * @throws IllegalArgumentException Si alguna opcion no esta entre las admitidas
+     */
+    public static Options parse(final Collection<String> known, final String... args) {
+        requireNonNull(known, "known");
+        requireNonNull(args, "args");
+        List<String> positional = new ArrayList<>();
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith(PREFIX) && arg.length() > PREFIX.length()) {
+                int equals = arg.indexOf('=');
+                if (equals < 0) {
+                    options.put(arg.substring(PREFIX.length()), "");
+                } else {
+                    options.put(arg.substring(PREFIX.length(), equals), arg.substring(equals + 1));
+                }
+            } else {
+                positional.add(arg);
+            }
+        }
+        List<String> unknown = new ArrayList<>(options.keySet());
+        unknown.removeAll(known);
+        if (!unknown.isEmpty()) {
+            Collections.sort(unknown);
+            throw new IllegalArgumentException("Unknown option --" + String.join(", --", unknown));
+        }
+        return new Options(positional, options);
+    }
+
+    /**
+     * @brief Devuelve los argumentos posicionales
+     * @return Argumentos que no son opciones
+     */
+    public String[] getPositional() {
+        return positional.toArray(new String[0]);
+    }
+
+    /**
+     * @brief Indica si se ha pasado una opcion
+     * @param name Nombre de la opcion sin el prefijo --
+     * @return True si la opcion esta presente
+     */
+    public boolean has(final String name) {
+        return options.containsKey(name);
+    }
+
+    /**
+     * @brief Devuelve el valor de una opcion
+     * @param name Nombre de la opcion sin el prefijo --
+     * @param defaultValue Valor si la opcion no esta presente
+     * @return El valor de la opcion
+     */
+    public String getString(final String name, final String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * @brief Devuelve el valor numerico de una opcion
+     * @param name Nombre de la opcion sin el prefijo --
+     * @param defaultValue Valor si la opcion no esta presente
+     * @return El valor de la opcion
+     */
+    public long getLong(final String name, final long defaultValue) {
+        try {
+            return has(name) ? Long.parseLong(options.get(name)) : defaultValue;
+        } catch (NumberFormatException e) {
+            throw invalidValue(name, e);
+        }
+    }
+
+    /**
+     * @brief Devuelve el valor numerico de una opcion
+     * @param name Nombre de la opcion sin el prefijo --
+     * @param defaultValue Valor si la opcion no esta presente
+     * @return El valor de la opcion
+     */
+    public int getInt(final String name, final int defaultValue) {
+        try {
+            return has(name) ? Integer.parseInt(options.get(name)) : defaultValue;
+        } catch (NumberFormatException e) {
+            throw invalidValue(name, e);
+        }
+    }
+
+    /**
+     * @brief Devuelve un tamaño en bytes, admite los sufijos k, m y g (potencias de 1024)
+     * @param name Nombre de la opcion sin el prefijo --
+     * @param defaultValue Valor si la opcion no esta presente
+     * @return El tamaño en bytes
+     */
+    public long getBytes(final String name, final long defaultValue) {
+        try {
+            return has(name) ? parseBytes(options.get(name)) : defaultValue;
+        } catch (NumberFormatException e) {
+            throw invalidValue(name, e);
+        }
+    }
+
+    /**
+     * @brief Devuelve un tamaño en bytes que debe caber en un buffer, entre 1 byte y Integer.MAX_VALUE
+     * @param name Nombre de la opcion sin el prefijo --
+     * @param defaultValue Valor si la opcion no esta presente
+     * @return El tamaño en bytes
+     * @throws IllegalArgumentException Si el tamaño no es valido o no cabe en un int
+     */
+    public int getIntBytes(final String name, final int defaultValue) {
+        long bytes = getBytes(name, defaultValue);
+        if (bytes < 1 || bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("--" + name + " must be between 1 and " + Integer.MAX_VALUE + " bytes, not " + bytes);
+        }
+        return (int) bytes;
+    }
+
+    private IllegalArgumentException invalidValue(final String name, final NumberFormatException cause) {
+        return new IllegalArgumentException("Invalid value for --" + name + ": '" + options.get(name) + "'", cause);
+    }
+
+    /**
+     * @brief Convierte un tamaño como "256m" a bytes
+     * @param value Tamaño con sufijo opcional k, m o g
+     * @return El tamaño en bytes
+     */
+    public static long parseBytes(final String value) {
+        String size = value.trim().toLowerCase(Locale.ROOT);
+        if (size.endsWith("ib")) {
+            size = size.substring(0, size.length() - 2);
+        } else if (size.endsWith("b")) {
+            size = size.substring(0, size.length() - 1);
+        }
+        long multiplier = 1L;
+        if (size.endsWith("k")) {
+            multiplier = KIB;
+        } else if (size.endsWith("m")) {
+            multiplier = KIB * KIB;
+        } else if (size.endsWith("g")) {
+            multiplier = KIB * KIB * KIB;
+        }
+        if (multiplier > 1L) {
+            size = size.substring(0, size.length() - 1);
+        }
+        long number = Long.parseLong(size);
+        if (number > Long.MAX_VALUE / multiplier || number < Long.MIN_VALUE / multiplier) {
+            throw new NumberFormatException("Size out of range: " + value);
+        }
+        return number * multiplier;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.utils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static java.util.Objects.requireNonNull;
+
+/*****************************************************************************
+ * @class OrderedTaskQueue
+ * @brief Ejecuta tareas en paralelo y entrega sus resultados en el orden en que se enviaron
+ * @details Mantiene como maximo maxInFlight tareas pendientes. Al enviar una tarea con la cola llena se espera a la mas
+ * antigua y se entrega su resultado al consumidor, por lo que la memoria queda acotada. No es thread safe: un unico hilo
+ * debe enviar las tareas
+ * @version 1.0
+ ****************************************************************************/
+public final class OrderedTaskQueue<T> {
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final Consumer<T> consumer;
+    private final Deque<Future<T>> inFlight = new ArrayDeque<>();
+
+    /**
+     * @brief Consumidor de resultados que puede lanzar IOException
+     */
+    @FunctionalInterface
+    public interface Consumer<T> {
+        void accept(T result) throws IOException;
+    }
+
+    /**
+     * @brief Constructor de la clase
+     * @param executor Pool de hilos donde se ejecutan las tareas
+     * @param maxInFlight Numero maximo de tareas pendientes
+     * @param consumer Recibe los resultados en orden
+     */
+    public OrderedTaskQueue(final ExecutorService executor, final int maxInFlight, final Consumer<T> consumer) {
+        requireNonNull(executor, "executor");
+        requireNonNull(consumer, "consumer");
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.consumer = consumer;
+    }
+
+    /**
+     * @brief Envia una tarea, esperando a la mas antigua si ya hay maxInFlight pendientes
+     * @param task Tarea a ejecutar
+     * @throws IOException Si una tarea anterior o el consumidor fallan
+     */
+    public void submit(final Callable<T> task) throws IOException {
+        while (inFlight.size() >= maxInFlight) {
+            deliverHead();
+        }
+        inFlight.addLast(executor.submit(task));
+    }
+
+    /**
+     * @brief Espera a todas las tareas pendientes y entrega sus resultados
+     * @throws IOException Si una tarea o el consumidor fallan
+     */
+    public void drain() throws IOException {
+        while (!inFlight.isEmpty()) {
+            deliverHead();
+        }
+    }
+
+    /**
+     * @brief Cancela las tareas pendientes sin entregar sus resultados
+     */
+    public void cancel() {
+        for (Future<T> future : inFlight) {
+            future.cancel(true);
+        }
+        inFlight.clear();
+    }
+
+    /**
+     * @brief Numero de tareas pendientes
+     * @return Tareas enviadas cuyo resultado aun no se ha entregado
+     */
+    public int size() {
+        return inFlight.size();
+    }
+
+    private void deliverHead() throws IOException {
+        Future<T> head = inFlight.removeFirst();
+        T result;
+        try {
+            result = head.get();
+        } catch (InterruptedException e) {
+            cancel();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for an ordered task");
+        } catch (ExecutionException e) {
+            cancel();
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Ordered task failed", e.getCause());
+        }
+        consumer.accept(result);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.utils;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/*****************************************************************************
+ * @class RateLimiter
+ * @brief Reparte permisos a un ritmo constante, ajustable en tiempo de ejecucion
+ * @details Cada permiso tiene asignado un instante en una planificacion absoluta, por lo que los retrasos de un sueño
+ * se compensan en los siguientes y el ritmo medio es exacto. Si quien pide los permisos se queda atras, solo puede
+ * recuperar como mucho maxBurstNanos de retraso de golpe, para que la salida no tenga rafagas. La planificacion empieza
+ * con el primer permiso que se pide. Es thread safe
+ * @version 1.0
+ ****************************************************************************/
+public final class RateLimiter {
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long maxBurstNanos;
+    private double permitsPerSecond;
+    private double nanosPerPermit;
+    private long next;
+    private boolean started;
+
+    /**
+     * @brief Constructor de la clase
+     * @param permitsPerSecond Permisos por segundo, 0 para no limitar
+     * @param maxBurstNanos Retraso maximo que se recupera sin esperar
+     */
+    public RateLimiter(final double permitsPerSecond, final long maxBurstNanos) {
+        if (maxBurstNanos < 0) {
+            throw new IllegalArgumentException("maxBurstNanos cannot be negative");
+        }
+        this.maxBurstNanos = maxBurstNanos;
+        setRate(permitsPerSecond);
+    }
+
+    /**
+     * @brief Cambia el ritmo. La planificacion empieza de nuevo, sin arrastrar adelantos ni retrasos
+     * @param permitsPerSecond Permisos por segundo, 0 para no limitar
+     */
+    public synchronized void setRate(final double permitsPerSecond) {
+        if (!(permitsPerSecond >= 0) || Double.isInfinite(permitsPerSecond)) {
+            throw new IllegalArgumentException("Rate must be a finite number of at least 0, was " + permitsPerSecond);
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.nanosPerPermit = permitsPerSecond > 0 ? NANOS_PER_SECOND / permitsPerSecond : 0;
+        this.started = false;
+    }
+
+    /**
+     * @brief Devuelve el ritmo actual
+     * @return Permisos por segundo, 0 si no se limita
+     */
+    public synchronized double getRate() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * @brief Indica si hay un ritmo configurado
+     * @return True si los permisos se reparten a un ritmo limitado
+     */
+    public synchronized boolean isLimited() {
+        return nanosPerPermit > 0;
+    }
+
+    /**
+     * @brief Reserva permisos sin esperar
+     * @param permits Numero de permisos
+     * @return Instante, en la escala de {@link System#nanoTime()}, a partir del cual se pueden usar los permisos
+     */
+    public synchronized long reserve(final long permits) {
+        long now = System.nanoTime();
+        if (nanosPerPermit == 0) {
+            return now;
+        }
+        long scheduled = started ? Math.max(next, now - maxBurstNanos) : now;
+        started = true;
+        next = scheduled + Math.round(permits * nanosPerPermit);
+        return scheduled;
+    }
+
+    /**
+     * @brief Reserva permisos y espera hasta que se pueden usar
+     * @param permits Numero de permisos
+     * @return Nanosegundos de retraso respecto a su instante planificado
+     * @throws InterruptedIOException Si se interrumpe la espera
+     */
+    public long acquire(final long permits) throws InterruptedIOException {
+        long scheduled = reserve(permits);
+        sleepUntil(scheduled);
+        return System.nanoTime() - scheduled;
+    }
+
+    /**
+     * @brief Espera hasta un instante
+     * @param deadline Instante en la escala de {@link System#nanoTime()}
+     * @throws InterruptedIOException Si se interrumpe la espera
+     */
+    public static void sleepUntil(final long deadline) throws InterruptedIOException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while pacing");
+            }
+        }
+    }
+}
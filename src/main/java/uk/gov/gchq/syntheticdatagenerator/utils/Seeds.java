@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.utils;
+
+/*****************************************************************************
+ * @class Seeds
+ * @brief Deriva la semilla de cada registro a partir de la semilla de la ejecucion y del indice global del registro
+ * @details Cada registro depende solo de la semilla y de su indice, asi que el resultado no depende del numero de
+ * hilos, ficheros o lotes y cualquier rango de indices se puede regenerar por separado
+ * @version 1.0
+ ****************************************************************************/
+public final class Seeds {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private Seeds() {
+    }
+
+    /**
+     * @brief Calcula la semilla de un registro con el mezclador de SplitMix64
+     * @param seed Semilla de la ejecucion
+     * @param index Indice global del registro
+     * @return Semilla del registro
+     */
+    public static long recordSeed(final long seed, final long index) {
+        return mix(seed + (index + 1) * GOLDEN_GAMMA);
+    }
+
+    private static long mix(final long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.utils;
+
+/*****************************************************************************
+ * @class Shard
+ * @brief Parte de una ejecucion repartida entre varios procesos o maquinas, con la forma k/N
+ * @details El shard k de N se queda con el bloque consecutivo de ficheros [k*F/N, (k+1)*F/N) de los F ficheros de la
+ * ejecucion. Como cada registro depende solo de la semilla y de su indice, la union de los N shards es igual a la
+ * ejecucion en un solo proceso, sin coordinacion entre ellos
+ * @version 1.0
+ ****************************************************************************/
+public final class Shard {
+    public static final Shard ALL = new Shard(0, 1);
+
+    private final int index;
+    private final int count;
+
+    /**
+     * @brief Constructor de la clase
+     * @param index Numero de shard, desde 0
+     * @param count Numero total de shards
+     */
+    public Shard(final int index, final int count) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Shard must be k/N with 0 <= k < N, not " + index + "/" + count);
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    /**
+     * @brief Interpreta un shard de la linea de comandos
+     * @param value Shard con la forma k/N, por ejemplo 0/4
+     * @return El shard
+     */
+    public static Shard parse(final String value) {
+        int slash = value.indexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("Shard must be k/N, not " + value);
+        }
+        return new Shard(Integer.parseInt(value.substring(0, slash).trim()), Integer.parseInt(value.substring(slash + 1).trim()));
+    }
+
+    /**
+     * @brief Primer elemento de este shard al repartir total elementos
+     * @param total Numero de elementos a repartir
+     * @return Primer elemento, incluido
+     */
+    public long first(final long total) {
+        return split(total, index, count);
+    }
+
+    /**
+     * @brief Elemento siguiente al ultimo de este shard al repartir total elementos
+     * @param total Numero de elementos a repartir
+     * @return Ultimo elemento, excluido
+     */
+    public long end(final long total) {
+        return split(total, index + 1, count);
+    }
+
+    /**
+     * @brief Limite entre las partes al repartir total elementos en parts partes de tamaño lo mas parecido posible
+     * @param total Numero de elementos
+     * @param part Numero de parte, de 0 a parts
+     * @param parts Numero de partes
+     * @return Primer elemento de la parte
+     */
+    public static long split(final long total, final long part, final long parts) {
+        // total * part can overflow for very large runs, so the quotient and remainder are split separately
+        return total / parts * part + total % parts * part / parts;
+    }
+
+    public boolean isAll() {
+        return count == 1;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Shard)) {
+            return false;
+        }
+        Shard shard = (Shard) o;
+        return index == shard.index && count == shard.count;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * index + count;
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + count;
+    }
+}
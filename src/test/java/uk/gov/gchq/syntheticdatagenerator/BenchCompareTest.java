@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import uk.gov.gchq.syntheticdatagenerator.bench.BenchmarkReport;
+import uk.gov.gchq.syntheticdatagenerator.bench.Scenario;
+import uk.gov.gchq.syntheticdatagenerator.bench.ScenarioResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+
+public class BenchCompareTest {
+    private static final String[] SMALL_MATRIX = {"--types=pas", "--formats=ndjson", "--threads=1,2", "--records=100",
+            "--warmup=0", "--iterations=1"};
+
+    @Test
+    public void runAgainstItsOwnBaselineAndFailOnAHalvedThroughput() throws IOException {
+        File directory = Files.createTempDirectory("bench").toFile();
+        try {
+            File baselineFile = new File(directory, "baseline.json");
+            File result = new File(directory, "result.json");
+            assert (BenchCompare.run(with(result.getPath(), "--baseline=" + baselineFile, "--update-baseline")) == 0);
+            BenchmarkReport baseline = BenchmarkReport.read(baselineFile);
+            assert (baseline.getResults().size() == 2);
+            ScenarioResult first = baseline.getResults().get(0);
+            assert ("pas/ndjson/threads=1/records=100".equals(first.getScenario().getKey()));
+            assert (first.getRecordsPerSecond() > 0 && first.getAllocatedBytesPerRecord() > 0 && first.getOutputBytesPerRecord() > 0);
+
+            // A hundred records are too few for a stable throughput, and class loading in the first run adds to its allocation
+            assert (BenchCompare.run(with(result.getPath(), "--baseline=" + baselineFile, "--throughput-tolerance=1", "--allocation-tolerance=0.5")) == 0);
+            // A baseline from another machine is refused unless the mismatch is accepted
+            baseline.setProcessors(baseline.getProcessors() + 1);
+            baseline.write(baselineFile);
+            assert (BenchCompare.run(with(result.getPath(), "--baseline=" + baselineFile)) == 1);
+            assert (BenchCompare.run(with(result.getPath(), "--baseline=" + baselineFile, "--allow-env-mismatch",
+                    "--throughput-tolerance=1", "--allocation-tolerance=0.5")) == 0);
+            baseline.setProcessors(baseline.getProcessors() - 1);
+            for (ScenarioResult scenario : baseline.getResults()) {
+                scenario.setRecordsPerSecond(scenario.getRecordsPerSecond() * 1000);
+            }
+            baseline.write(baselineFile);
+            assert (BenchCompare.run(with(result.getPath(), "--baseline=" + baselineFile, "--confirm=1")) == 1);
+            assert (BenchmarkReport.read(result).getResults().get(0).getIterations().size() == 2);
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+
+    @Test
+    public void comparisonAppliesTheTolerances() {
+        Scenario scenario = new Scenario("alumno", "avro", 4, 1000);
+        BenchmarkReport baseline = new BenchmarkReport();
+        baseline.addResult(new ScenarioResult(scenario, 1000, 2000, 500, Collections.singletonList(1000.0)));
+        BenchmarkReport report = new BenchmarkReport();
+        report.addResult(new ScenarioResult(scenario, 850, 2150, 500, Collections.singletonList(850.0)));
+        assert (report.compare(baseline, 0.2, 0.1).isEmpty());
+        assert (report.compare(baseline, 0.1, 0.1).size() == 1);
+        assert (report.compare(baseline, 0.1, 0.05).size() == 2);
+        report.getResults().get(0).setAllocatedBytesPerRecord(Double.NaN);
+        assert (report.compare(baseline, 0.2, 0.0).isEmpty());
+        report.getResults().get(0).setScenario(new Scenario("pas", "avro", 4, 1000));
+        assert (report.compare(baseline, 0.0, 0.0).isEmpty());
+    }
+
+    private static String[] with(final String... args) {
+        String[] all = new String[SMALL_MATRIX.length + args.length];
+        System.arraycopy(args, 0, all, 0, args.length);
+        System.arraycopy(SMALL_MATRIX, 0, all, args.length, SMALL_MATRIX.length);
+        return all;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import uk.gov.gchq.syntheticdatagenerator.uniqueness.FingerprintFilter;
+import uk.gov.gchq.syntheticdatagenerator.uniqueness.OffHeapBloomFilter;
+import uk.gov.gchq.syntheticdatagenerator.uniqueness.OffHeapHashSet;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+public class CheckUidsTest {
+
+    @Test
+    public void duplicatedFilesAreFoundWithEitherFilter() throws IOException {
+        File directory = Files.createTempDirectory("uids").toFile();
+        try {
+            assert (CreateData.run(directory.getPath(), "500", "avro", "2", "alumno:1", "--seed=3") == 0);
+            assert (CreateData.run(directory.getPath(), "300", "ndjson", "2", "pas:1", "--seed=3") == 0);
+            assert (CheckUids.run(directory.getPath()) == 0);
+            assert (CheckUids.run(directory.getPath(), "--bloom", "--memory=64k") == 0);
+            FileUtils.copyFile(new File(directory, "person_pas_file1.ndjson"), new File(directory, "copy.ndjson"));
+            assert (CheckUids.run(directory.getPath()) == 1);
+            // A tiny filter has many false positives but the duplicates are confirmed exactly
+            assert (CheckUids.run(directory.getPath(), "2", "--bloom", "--memory=1k", "--bloom-hashes=2") == 1);
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+
+    @Test
+    public void hashSetIsExactAndBounded() {
+        OffHeapHashSet set = new OffHeapHashSet(64 * 1024);
+        assert (set.getMemoryBytes() == 64 * 1024);
+        long added = 0;
+        try {
+            for (long i = 0; ; i++) {
+                long fingerprint = FingerprintFilter.fingerprint("alu" + i);
+                assert (!set.add(fingerprint));
+                assert (set.add(fingerprint));
+                added++;
+            }
+        } catch (IllegalStateException e) {
+            assert (added > 0 && set.size() == added && added <= set.capacity());
+        }
+    }
+
+    @Test
+    public void bloomFilterHasNoFalseNegatives() {
+        OffHeapBloomFilter filter = new OffHeapBloomFilter(1024 * 1024, OffHeapBloomFilter.DEFAULT_HASHES);
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.add(FingerprintFilter.fingerprint("pas" + i))) {
+                falsePositives++;
+            }
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assert (filter.add(FingerprintFilter.fingerprint("pas" + i)));
+        }
+        // 84 bits per uid
+        assert (falsePositives < 10);
+    }
+}
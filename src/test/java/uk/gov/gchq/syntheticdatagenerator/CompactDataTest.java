@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import uk.gov.gchq.syntheticdatagenerator.output.OutputSettings;
+import uk.gov.gchq.syntheticdatagenerator.serialise.RecordWriter;
+import uk.gov.gchq.syntheticdatagenerator.serialise.Serialiser;
+import uk.gov.gchq.syntheticdatagenerator.serialise.Serialisers;
+import uk.gov.gchq.syntheticdatagenerator.types.Alumno;
+import uk.gov.gchq.syntheticdatagenerator.types.Person;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class CompactDataTest {
+
+    @Test
+    public void compactionKeepsEveryRecordInFileOrder() throws IOException {
+        File dir = Files.createTempDirectory("compact").toFile();
+        try {
+            Random random = new Random(0);
+            Serialiser<Person> serialiser = Serialisers.forName("avro").get().create(Alumno.class);
+            List<String> uids = new ArrayList<>();
+            List<File> inputs = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                File input = new File(dir, "person_alumno_file" + i + ".avro");
+                try (OutputStream out = new FileOutputStream(input);
+                     RecordWriter<Person> writer = serialiser.open(out)) {
+                    for (int j = 0; j < 4; j++) {
+                        Alumno alumno = Alumno.generate(random);
+                        uids.add(alumno.getUid());
+                        writer.write(alumno);
+                    }
+                }
+                inputs.add(input);
+            }
+            File output = new File(dir, "compacted.avro");
+            assert (new CompactDataFile(inputs, output, CodecFactory.deflateCodec(6), new OutputSettings()).call());
+
+            List<String> compacted = new ArrayList<>();
+            try (InputStream in = new FileInputStream(output);
+                 DataFileStream<GenericRecord> records = new DataFileStream<>(in, new GenericDatumReader<>())) {
+                assert ("deflate".equals(records.getMetaString("avro.codec")));
+                records.forEach(record -> compacted.add(record.get("uid").toString()));
+            }
+            assert (compacted.equals(uids));
+            assert (!new File(dir, "compacted.avro.tmp").exists());
+        } finally {
+            FileUtils.deleteQuietly(dir);
+        }
+    }
+
+    @Test
+    public void aFailedCompactionLeavesThePreviousOutput() throws IOException {
+        File dir = Files.createTempDirectory("compact").toFile();
+        try {
+            File input = new File(dir, "person_alumno_file0.avro");
+            try (OutputStream out = new FileOutputStream(input);
+                 RecordWriter<Person> writer = Serialisers.forName("avro").get().<Person>create(Alumno.class).open(out)) {
+                writer.write(Alumno.generate(new Random(0)));
+            }
+            File corrupt = new File(dir, "person_alumno_file1.avro");
+            FileUtils.writeStringToFile(corrupt, "not avro", StandardCharsets.UTF_8);
+            File output = new File(dir, "compacted.avro");
+            FileUtils.writeStringToFile(output, "previous", StandardCharsets.UTF_8);
+
+            assert (!new CompactDataFile(Arrays.asList(input, corrupt), output, null, new OutputSettings()).call());
+            assert ("previous".equals(FileUtils.readFileToString(output, StandardCharsets.UTF_8)));
+            assert (!new File(dir, "compacted.avro.tmp").exists());
+        } finally {
+            FileUtils.deleteQuietly(dir);
+        }
+    }
+
+    @Test
+    public void filesAreSortedNaturally() {
+        File[] files = {new File("file10.avro"), new File("file2.avro"), new File("file1.avro")};
+        Arrays.sort(files, CompactData.naturalOrder());
+        assert (files[0].getName().equals("file1.avro") && files[2].getName().equals("file10.avro"));
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import uk.gov.gchq.syntheticdatagenerator.output.Manifest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class ContinuousTest {
+
+    @Test
+    public void pacedStreamStopsAfterItsDuration() throws IOException {
+        File directory = Files.createTempDirectory("continuous").toFile();
+        try {
+            File stream = new File(directory, "stream.ndjson");
+            assert (CreateData.run("unused", "0", "ndjson", "1", "alumno", "--continuous", "--stream=" + stream.getPath(),
+                    "--rate=50", "--duration=4") == 0);
+            long lines = FileUtils.readLines(stream, StandardCharsets.UTF_8).size();
+            // At most four seconds at 50 records per second, plus the catch up allowed after a slow start; the duration
+            // leaves room for a cold JVM to produce its first records
+            assert (lines > 0 && lines <= 206);
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+
+    @Test
+    public void continuousFilesRollAndAreVerifiable() throws IOException {
+        File directory = Files.createTempDirectory("continuous").toFile();
+        try {
+            assert (CreateData.run(directory.getPath(), "0", "ndjson", "2", "alumno", "--continuous", "--seed=4",
+                    "--roll-records=20", "--duration=1") == 0);
+            Manifest manifest = Manifest.read(new File(directory, Manifest.FILE_NAME));
+            assert (manifest.getTotalRecords() > 0);
+            assert (VerifyData.run(directory.getPath()) == 0);
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+
+    @Test
+    public void rateIsRejectedWithBlockStages() throws IOException {
+        File directory = Files.createTempDirectory("continuous").toFile();
+        try {
+            File stream = new File(directory, "stream.ndjson.gz");
+            // Compressed blocks would only leave once full, not at the paced rate
+            assert (CreateData.run("unused", "0", "ndjson", "1", "alumno", "--continuous", "--stream=" + stream.getPath(),
+                    "--rate=50", "--duration=1", "--compress") == 1);
+            assert (CreateData.run("unused", "0", "ndjson", "1", "alumno", "--continuous", "--stream=" + stream.getPath(),
+                    "--byte-rate=10k", "--duration=1", "--encrypt-key=unused.key") == 1);
+            assert (!stream.exists());
+            // Without a rate nothing is paced, so a continuous run can still compress its files
+            File files = new File(directory, "files");
+            assert (CreateData.run(files.getPath(), "0", "ndjson", "1", "alumno", "--continuous", "--seed=4",
+                    "--roll-records=20", "--duration=1", "--compress") == 0);
+            assert (VerifyData.run(files.getPath()) == 0);
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import uk.gov.gchq.syntheticdatagenerator.output.Manifest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ConvertDataTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void avroConvertsToTheSameRecordsInOrder() throws IOException {
+        File directory = Files.createTempDirectory("convert").toFile();
+        try {
+            File avro = new File(directory, "avro");
+            File ndjson = new File(directory, "ndjson");
+            File converted = new File(directory, "converted");
+            assert (CreateData.run(avro.getPath(), "300", "avro", "2", "alumno", "--seed=3", "--block-records=16") == 0);
+            assert (CreateData.run(ndjson.getPath(), "300", "ndjson", "2", "alumno", "--seed=3") == 0);
+            assert (ConvertData.run(avro.getPath(), converted.getPath(), "ndjson", "2", "--decode-threads=3", "--max-in-flight=2") == 0);
+            assert (uids(converted).equals(uids(ndjson)));
+            Manifest manifest = Manifest.read(new File(converted, Manifest.FILE_NAME));
+            assert ("ndjson".equals(manifest.getFormat()) && manifest.getSeed() == 3 && manifest.getTotalRecords() == 300);
+            assert (VerifyData.run(converted.getPath()) == 0);
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+
+    @Test
+    public void jsonSurvivesARoundTripThroughCsv() throws IOException {
+        File directory = Files.createTempDirectory("convert").toFile();
+        try {
+            File json = new File(directory, "json");
+            File csv = new File(directory, "csv");
+            File back = new File(directory, "back");
+            assert (CreateData.run(json.getPath(), "100", "json", "1", "pas", "--seed=9") == 0);
+            assert (ConvertData.run(json.getPath(), csv.getPath(), "csv") == 0);
+            assert (ConvertData.run(csv.getPath(), back.getPath(), "json") == 0);
+            File[] files = json.listFiles((dir, name) -> name.endsWith(".json") && !Manifest.isManifest(name));
+            assert (files.length == 1);
+            assert (MAPPER.readTree(files[0]).equals(MAPPER.readTree(new File(back, files[0].getName()))));
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+
+    private static List<String> uids(final File directory) throws IOException {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".ndjson"));
+        Arrays.sort(files);
+        List<String> uids = new ArrayList<>();
+        for (File file : files) {
+            for (String line : FileUtils.readLines(file, "UTF-8")) {
+                JsonNode record = MAPPER.readTree(line);
+                uids.add(record.get("uid").asText());
+            }
+        }
+        return uids;
+    }
+}
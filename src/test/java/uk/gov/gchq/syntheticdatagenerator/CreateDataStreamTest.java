@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+public class CreateDataStreamTest {
+
+    @Test
+    public void streamMatchesASingleFile() throws IOException {
+        File directory = Files.createTempDirectory("stream").toFile();
+        try {
+            File stream = new File(directory, "stream.ndjson");
+            File files = new File(directory, "files");
+            for (String type : new String[]{"alumno", "pas"}) {
+                assert (CreateData.run("unused", "30", "ndjson", "1", type, "3", "--seed=6", "--batch-size=7",
+                        "--stream=" + stream.getPath()) == 0);
+                assert (CreateData.run(files.getPath(), "30", "ndjson", "1", type, "--seed=6") == 0);
+                byte[] streamed = Files.readAllBytes(stream.toPath());
+                // The first record of the stream carries the Bob uid, like the first record of every file
+                assert (new String(streamed, StandardCharsets.UTF_8).contains("\"uid\":\"Bob\""));
+                assert (Arrays.equals(streamed, Files.readAllBytes(new File(files, "person_" + type + "_file0.ndjson").toPath())));
+            }
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import uk.gov.gchq.syntheticdatagenerator.types.Alumno;
+import uk.gov.gchq.syntheticdatagenerator.types.GenerationSpec;
+import uk.gov.gchq.syntheticdatagenerator.types.Pas;
+import uk.gov.gchq.syntheticdatagenerator.types.PersonType;
+
+import java.util.Arrays;
+
+public class GenerationSpecTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void projectedFieldsMatchTheFullRecord() {
+        GenerationSpec spec = new GenerationSpec(PersonType.ALUMNO).include("uid").include("entradaULLDate").include("campus");
+        JsonNode full = MAPPER.valueToTree(PersonType.ALUMNO.generate(7, 3));
+        Alumno alumno = (Alumno) PersonType.ALUMNO.generate(7, 3, spec);
+        JsonNode projected = MAPPER.valueToTree(alumno);
+        for (String field : Arrays.asList("uid", "entradaULLDate", "campus")) {
+            assert (projected.get(field).equals(full.get(field)));
+        }
+        assert (alumno.getName() == null && alumno.getDateOfBirth() == null && alumno.getProfesor() == null);
+        assert (spec.getFieldNames().equals(Arrays.asList("uid", "entradaULLDate", "campus")));
+    }
+
+    @Test
+    public void optionsSetCardinalityAndDepth() {
+        GenerationSpec spec = new GenerationSpec(PersonType.PAS)
+                .include("contactNumbers", new GenerationSpec.FieldOptions().setMin(5).setMax(5))
+                .include("mate", new GenerationSpec.FieldOptions().setDepth(1));
+        for (long index = 0; index < 10; index++) {
+            Pas pas = (Pas) PersonType.PAS.generate(1, index, spec);
+            assert (pas.getContactNumbers().length == 5);
+            assert (pas.getMate()[0].getCompa().length == 0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownFieldIsRejected() {
+        new GenerationSpec(PersonType.PAS).include("profesor");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void generatorRejectsASpecOfAnotherType() {
+        PersonGenerator.builder().type(PersonType.ALUMNO).spec(new GenerationSpec(PersonType.PAS).include("uid")).count(1).build();
+    }
+}
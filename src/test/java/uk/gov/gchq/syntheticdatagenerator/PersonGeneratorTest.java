@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import uk.gov.gchq.syntheticdatagenerator.cache.SliceCache;
+import uk.gov.gchq.syntheticdatagenerator.serialise.SerialiserFactory;
+import uk.gov.gchq.syntheticdatagenerator.serialise.Serialisers;
+import uk.gov.gchq.syntheticdatagenerator.types.Person;
+import uk.gov.gchq.syntheticdatagenerator.types.PersonType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+public class PersonGeneratorTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void parallelStreamMatchesTheSequentialOrder() throws JsonProcessingException {
+        PersonGenerator generator = PersonGenerator.builder().type(PersonType.ALUMNO).seed(11).from(100).count(64).build();
+        List<Person> sequential = new ArrayList<>();
+        generator.forEach(sequential::add);
+        assert (sequential.size() == 64);
+        assert (json(sequential.subList(0, 1)).equals(json(Collections.singletonList(PersonType.ALUMNO.generate(11, 100)))));
+        assert (json(generator.stream().parallel().collect(Collectors.toList())).equals(json(sequential)));
+    }
+
+    @Test
+    public void spliteratorSplitsTheIndexRange() {
+        Spliterator<Person> suffix = PersonGenerator.builder().type(PersonType.PAS).count(10).build().spliterator();
+        Spliterator<Person> prefix = suffix.trySplit();
+        assert (prefix.estimateSize() == 5 && suffix.estimateSize() == 5);
+        assert (suffix.hasCharacteristics(Spliterator.SUBSIZED | Spliterator.ORDERED));
+        Spliterator<Person> single = PersonGenerator.builder().type(PersonType.PAS).count(1).build().spliterator();
+        assert (single.trySplit() == null);
+    }
+
+    @Test
+    public void encodeServesRepeatedRangesFromTheCache() throws IOException {
+        SerialiserFactory ndjson = Serialisers.forName("ndjson").get();
+        try (SliceCache cache = new SliceCache(1024 * 1024)) {
+            PersonGenerator generator = PersonGenerator.builder().type(PersonType.ALUMNO).seed(5).from(20).count(8).cache(cache).build();
+            ByteBuffer first = generator.encode(ndjson);
+            ByteBuffer second = generator.encode(ndjson);
+            assert (cache.getMisses() == 1 && cache.getHits() == 1);
+            assert (first.isReadOnly() && first.equals(second));
+            PersonGenerator uncached = PersonGenerator.builder().type(PersonType.ALUMNO).seed(5).from(20).count(8).build();
+            assert (first.equals(uncached.encode(ndjson)));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void countIsRequired() {
+        PersonGenerator.builder().type(PersonType.ALUMNO).build();
+    }
+
+    private static String json(final List<Person> persons) throws JsonProcessingException {
+        return MAPPER.writeValueAsString(persons);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import uk.gov.gchq.syntheticdatagenerator.output.Manifest;
+import uk.gov.gchq.syntheticdatagenerator.types.Person;
+import uk.gov.gchq.syntheticdatagenerator.types.PersonType;
+import uk.gov.gchq.syntheticdatagenerator.types.Population;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+
+public class PopulationTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void uidsAreABijectionOfTheIndexes() {
+        Population population = Population.parse("alumno:3,pas:1", 1_000, 9);
+        assert (population.getCount(PersonType.ALUMNO) == 750 && population.getCount(PersonType.PAS) == 250);
+        Set<String> uids = new HashSet<>();
+        for (long index = 0; index < 750; index++) {
+            String uid = population.uid(PersonType.ALUMNO, index);
+            assert (uids.add(uid));
+            assert (population.index(PersonType.ALUMNO, uid) == index);
+        }
+        assert (population.index(PersonType.PAS, population.uid(PersonType.ALUMNO, 0)) == -1);
+        assert (population.toString().equals("alumno:3,pas:1"));
+    }
+
+    @Test
+    public void typesAtTheSameIndexAreDifferentPeople() {
+        Population population = Population.parse("alumno:1,pas:1", 10, 42L);
+        assert (population.getSeed(PersonType.ALUMNO) != population.getSeed(PersonType.PAS));
+        for (long index = 0; index < 5; index++) {
+            Person alumno = population.generate(PersonType.ALUMNO, index, null);
+            Person pas = population.generate(PersonType.PAS, index, null);
+            assert (!alumno.getName().equals(pas.getName()) || !alumno.getDateOfBirth().equals(pas.getDateOfBirth()));
+            assert (!MAPPER.valueToTree(alumno.getAddress()).equals(MAPPER.valueToTree(pas.getAddress())));
+        }
+    }
+
+    @Test
+    public void everyHierarchyUidIsAGeneratedRecord() throws IOException {
+        File directory = Files.createTempDirectory("population").toFile();
+        try {
+            assert (CreateData.run(directory.getPath(), "300", "ndjson", "2", "alumno:2,pas:1", "--seed=5") == 0);
+            Set<String> uids = new HashSet<>();
+            Set<String> references = new HashSet<>();
+            for (File file : directory.listFiles((dir, name) -> name.endsWith(".ndjson"))) {
+                for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                    JsonNode person = MAPPER.readTree(line);
+                    uids.add(person.get("uid").asText());
+                    collect(person.has("profesor") ? person.get("profesor") : person.get("mate"), references);
+                }
+            }
+            assert (uids.size() == 300 && !references.isEmpty());
+            assert (uids.containsAll(references));
+            assert (Manifest.read(new File(directory, Manifest.FILE_NAME)).getType().equals("alumno:2,pas:1"));
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+
+    @Test
+    public void populationsAreWrittenToFiles() {
+        assert (CreateData.run("unused", "10", "ndjson", "1", "alumno:1,pas:1", "--stream") == 1);
+        assert (CreateData.run("unused", "10", "ndjson", "1", "alumno:1,profesor:1") == 1);
+    }
+
+    private static void collect(final JsonNode nodes, final Set<String> references) {
+        for (JsonNode node : nodes) {
+            references.add(node.get("uid").asText());
+            collect(node.get("compa"), references);
+        }
+    }
+}
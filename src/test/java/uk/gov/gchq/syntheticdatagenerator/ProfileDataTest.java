@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import uk.gov.gchq.syntheticdatagenerator.profile.HyperLogLog;
+import uk.gov.gchq.syntheticdatagenerator.profile.QuantileSketch;
+import uk.gov.gchq.syntheticdatagenerator.uniqueness.FingerprintFilter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+public class ProfileDataTest {
+
+    @Test
+    public void scannedProfileMatchesTheGeneratedOne() throws IOException {
+        File directory = Files.createTempDirectory("profile").toFile();
+        try {
+            File data = new File(directory, "data");
+            File generated = new File(directory, "generated.json");
+            File scanned = new File(directory, "scanned.json");
+            assert (CreateData.run(data.getPath(), "400", "avro", "3", "alumno", "3", "--seed=5", "--profile=" + generated.getPath()) == 0);
+            assert (ProfileData.run(data.getPath(), "2", "--output=" + scanned.getPath()) == 0);
+            ObjectMapper mapper = new ObjectMapper();
+            JsonNode expected = mapper.readTree(generated);
+            JsonNode actual = mapper.readTree(scanned);
+            assert (actual.get("records").asLong() == 400);
+            for (String field : new String[]{"campus", "grade", "nationality", "birthLocation.birthLocationName", "profesor", "uid", "matriculaAmount"}) {
+                assert (actual.get("fields").get(field).equals(expected.get("fields").get(field)));
+            }
+            JsonNode campus = actual.get("fields").get("campus").get("frequencies");
+            long total = 0;
+            for (JsonNode count : campus) {
+                total += count.asLong();
+            }
+            assert (total == 400);
+            assert (actual.get("fields").get("uid").get("frequencies") == null);
+            JsonNode matricula = actual.get("fields").get("matriculaAmount").get("quantiles");
+            assert (matricula.get("min").asDouble() >= 900 && matricula.get("max").asDouble() < 1900);
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+
+    @Test
+    public void mergedSketchesMatchASingleSketch() {
+        HyperLogLog[] distinct = {new HyperLogLog(), new HyperLogLog()};
+        QuantileSketch[] numbers = {new QuantileSketch(), new QuantileSketch()};
+        for (int i = 0; i < 200_000; i++) {
+            // The halves overlap, so there are 150000 distinct values
+            distinct[i % 2].add(FingerprintFilter.fingerprint("alu" + (i % 2 == 0 ? i : i / 2)));
+            numbers[i % 2].add(i);
+        }
+        distinct[0].merge(distinct[1]);
+        numbers[0].merge(numbers[1]);
+        assert (Math.abs(distinct[0].estimate() - 150_000) < 150_000 * 0.03);
+        assert (numbers[0].getCount() == 200_000 && numbers[0].getMin() == 0 && numbers[0].getMax() == 199_999);
+        for (double quantile : new double[]{0.01, 0.5, 0.99}) {
+            double exact = quantile * 199_999;
+            assert (Math.abs(numbers[0].quantile(quantile) - exact) <= exact * 0.011 + 1);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import uk.gov.gchq.syntheticdatagenerator.output.Checkpoint;
+import uk.gov.gchq.syntheticdatagenerator.output.Manifest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ResumeTest {
+
+    @Test
+    public void resumedRunOnlyCreatesMissingFilesAndMatchesAFullRun() throws IOException {
+        File full = Files.createTempDirectory("resume").toFile();
+        File resumed = Files.createTempDirectory("resume").toFile();
+        try {
+            assert (CreateData.run(full.getPath(), "20", "ndjson", "2", "alumno", "--seed=3", "--roll-records=4") == 0);
+            assert (!new File(full, Checkpoint.FILE_NAME).exists());
+
+            // A directory in the way of one part makes its commit fail, as a crash would
+            File blocker = new File(resumed, "person_alumno_file1_part1.ndjson");
+            assert (new File(blocker, "in-the-way").mkdirs());
+            assert (CreateData.run(resumed.getPath(), "20", "ndjson", "2", "alumno", "--seed=3", "--roll-records=4") == 1);
+            assert (new File(resumed, Checkpoint.FILE_NAME).exists());
+            assert (!new File(resumed, Manifest.FILE_NAME).exists());
+            File[] leftovers = resumed.listFiles((dir, name) -> name.endsWith(".tmp"));
+            assert (leftovers != null && leftovers.length == 0);
+            long untouched = new File(resumed, "person_alumno_file0_part0.ndjson").lastModified();
+
+            FileUtils.deleteDirectory(blocker);
+            // The seed is taken from the checkpoint
+            assert (CreateData.run(resumed.getPath(), "20", "ndjson", "2", "alumno", "--roll-records=4", "--resume") == 0);
+            assert (new File(resumed, "person_alumno_file0_part0.ndjson").lastModified() == untouched);
+            assert (checksums(full).equals(checksums(resumed)));
+            assert (!new File(resumed, Checkpoint.FILE_NAME).exists());
+        } finally {
+            FileUtils.deleteQuietly(full);
+            FileUtils.deleteQuietly(resumed);
+        }
+    }
+
+    @Test
+    public void resumeWithoutACheckpointNeedsTheSeed() throws IOException {
+        File directory = Files.createTempDirectory("resume").toFile();
+        try {
+            assert (CreateData.run(directory.getPath(), "20", "ndjson", "2", "alumno", "--roll-records=4", "--resume") == 1);
+            assert (directory.list().length == 0);
+            assert (CreateData.run(directory.getPath(), "20", "ndjson", "2", "alumno", "--roll-records=4", "--resume", "--seed=3") == 0);
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+
+    private static List<String> checksums(final File directory) throws IOException {
+        return Manifest.read(new File(directory, Manifest.FILE_NAME)).getFiles().stream()
+                .map(entry -> entry.getFile() + "=" + entry.getChecksum())
+                .collect(Collectors.toList());
+    }
+}
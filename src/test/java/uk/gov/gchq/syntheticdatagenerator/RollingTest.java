@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import uk.gov.gchq.syntheticdatagenerator.output.Manifest;
+import uk.gov.gchq.syntheticdatagenerator.output.ManifestEntry;
+import uk.gov.gchq.syntheticdatagenerator.output.RollingPolicy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class RollingTest {
+    // Jackson keeps up to this many bytes in its buffer before they reach the file and are counted
+    private static final int SERIALISER_BUFFER = 8 * 1024;
+
+    @Test
+    public void policyRollsWhenEitherLimitIsReached() {
+        assert (!RollingPolicy.NONE.isEnabled() && !RollingPolicy.NONE.shouldRoll(Long.MAX_VALUE, Long.MAX_VALUE));
+        RollingPolicy policy = new RollingPolicy(1000, 10);
+        assert (policy.isEnabled());
+        assert (!policy.shouldRoll(9, 999));
+        assert (policy.shouldRoll(10, 0) && policy.shouldRoll(1, 1000));
+    }
+
+    @Test
+    public void partsHoldTheRecordLimitAndContiguousIndexRanges() throws IOException {
+        File directory = Files.createTempDirectory("rolling").toFile();
+        try {
+            assert (CreateData.run(directory.getPath(), "103", "ndjson", "2", "alumno", "--seed=2", "--roll-records=10") == 0);
+            Manifest manifest = Manifest.read(new File(directory, Manifest.FILE_NAME));
+            assert (manifest.getTotalRecords() == 103);
+            long previousEnd = 0;
+            for (int file = 0; file < 2; file++) {
+                List<ManifestEntry> parts = parts(manifest, file);
+                for (int part = 0; part < parts.size(); part++) {
+                    ManifestEntry entry = parts.get(part);
+                    assert (("person_alumno_file" + file + "_part" + part + ".ndjson").equals(entry.getFile()));
+                    assert (entry.getFirstIndex() == previousEnd && entry.getRecords() == entry.getEndIndex() - entry.getFirstIndex());
+                    // Every part but the last of each file stops exactly at the limit
+                    assert (part == parts.size() - 1 ? entry.getRecords() <= 10 : entry.getRecords() == 10);
+                    assert (lines(new File(directory, entry.getFile())).size() == entry.getRecords());
+                    assert (new File(directory, entry.getFile()).length() == entry.getBytes());
+                    previousEnd = entry.getEndIndex();
+                }
+            }
+            assert (previousEnd == 103);
+            assert (VerifyData.run(directory.getPath()) == 0);
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+
+    @Test
+    public void partsStopAtTheFirstRecordBoundaryAfterTheSize() throws IOException {
+        File directory = Files.createTempDirectory("rolling").toFile();
+        int rollSize = 64 * 1024;
+        try {
+            assert (CreateData.run(directory.getPath(), "120", "ndjson", "1", "pas", "--seed=5", "--roll-size=64k") == 0);
+            List<ManifestEntry> parts = parts(Manifest.read(new File(directory, Manifest.FILE_NAME)), 0);
+            assert (parts.size() > 2);
+            for (int part = 0; part < parts.size() - 1; part++) {
+                File file = new File(directory, parts.get(part).getFile());
+                List<String> lines = lines(file);
+                long withoutLast = file.length() - lines.get(lines.size() - 1).getBytes(StandardCharsets.UTF_8).length - 1;
+                assert (file.length() >= rollSize);
+                assert (withoutLast < rollSize + SERIALISER_BUFFER);
+            }
+            assert (new File(directory, parts.get(parts.size() - 1).getFile()).length() < rollSize + SERIALISER_BUFFER);
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+
+    private static List<ManifestEntry> parts(final Manifest manifest, final int file) {
+        List<ManifestEntry> parts = new ArrayList<>();
+        for (ManifestEntry entry : manifest.getFiles()) {
+            if (entry.getFile().startsWith("person_" + manifest.getType() + "_file" + file + "_part")) {
+                parts.add(entry);
+            }
+        }
+        parts.sort((a, b) -> Long.compare(a.getFirstIndex(), b.getFirstIndex()));
+        return parts;
+    }
+
+    private static List<String> lines(final File file) throws IOException {
+        return FileUtils.readLines(file, StandardCharsets.UTF_8);
+    }
+}
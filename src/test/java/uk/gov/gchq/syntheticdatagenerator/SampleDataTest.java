@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import uk.gov.gchq.syntheticdatagenerator.sample.Reservoir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class SampleDataTest {
+
+    @Test
+    public void sampleHasExactlyKRecordsAndDoesNotDependOnThreads() throws IOException {
+        File directory = Files.createTempDirectory("sample").toFile();
+        try {
+            File data = new File(directory, "data");
+            assert (CreateData.run(data.getPath(), "1000", "avro", "3", "pas", "3", "--seed=2") == 0);
+            File first = new File(directory, "first.avro");
+            File second = new File(directory, "second.avro");
+            assert (SampleData.run(data.getPath(), "40", first.getPath(), "1", "--seed=9") == 0);
+            assert (SampleData.run(data.getPath(), "40", second.getPath(), "3", "--seed=9") == 0);
+            // Avro sync markers are random, so the records are compared rather than the bytes
+            List<String> uids = readUids(first);
+            assert (uids.equals(readUids(second)));
+            assert (new HashSet<>(uids).size() == 40);
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+
+    private static List<String> readUids(final File file) throws IOException {
+        List<String> uids = new ArrayList<>();
+        try (DataFileReader<GenericRecord> reader = new DataFileReader<>(file, new GenericDatumReader<>())) {
+            for (GenericRecord record : reader) {
+                uids.add(record.get("uid").toString());
+            }
+        }
+        return uids;
+    }
+
+    @Test
+    public void stratifiedSampleIsProportional() throws IOException {
+        File directory = Files.createTempDirectory("sample").toFile();
+        try {
+            File data = new File(directory, "data");
+            File output = new File(directory, "sample.json");
+            assert (CreateData.run(data.getPath(), "1000", "ndjson", "2", "alumno", "2", "--seed=4") == 0);
+            assert (SampleData.run(data.getPath(), "50", output.getPath(), "--seed=1", "--stratify=sex") == 0);
+            Map<String, Integer> strata = new HashMap<>();
+            for (File file : data.listFiles((dir, name) -> name.endsWith(".ndjson"))) {
+                for (String line : FileUtils.readLines(file, "UTF-8")) {
+                    strata.merge(new ObjectMapper().readTree(line).get("sex").asText(), 1, Integer::sum);
+                }
+            }
+            Map<String, Integer> sampled = new HashMap<>();
+            for (JsonNode record : (ArrayNode) new ObjectMapper().readTree(output)) {
+                sampled.merge(record.get("sex").asText(), 1, Integer::sum);
+            }
+            assert (sampled.values().stream().mapToInt(Integer::intValue).sum() == 50);
+            for (Map.Entry<String, Integer> stratum : strata.entrySet()) {
+                assert (Math.abs(sampled.getOrDefault(stratum.getKey(), 0) - stratum.getValue() / 20.0) < 1);
+            }
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+
+    @Test
+    public void mergedReservoirsAreUniform() {
+        Random random = new Random(5);
+        int[] hits = new int[100];
+        for (int run = 0; run < 20_000; run++) {
+            // Parts of different sizes, so a biased merge would favour the items of one of them
+            Reservoir<Integer> left = new Reservoir<>(5, random);
+            Reservoir<Integer> right = new Reservoir<>(5, random);
+            for (int i = 0; i < 100; i++) {
+                (i < 20 ? left : right).offer(i);
+            }
+            for (int item : left.merge(right, random).getItems()) {
+                hits[item]++;
+            }
+        }
+        // Each item is expected 1000 times
+        for (int count : hits) {
+            assert (count > 850 && count < 1150);
+        }
+    }
+}
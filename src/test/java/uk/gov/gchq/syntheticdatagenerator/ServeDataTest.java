@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.gov.gchq.syntheticdatagenerator.cache.SliceCache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ServeDataTest {
+    private ExecutorService workers;
+    private HttpServer server;
+
+    @Before
+    public void start() throws IOException {
+        workers = Executors.newFixedThreadPool(2);
+        server = ServeData.start(new InetSocketAddress("127.0.0.1", 0), workers, 50, null, 0);
+    }
+
+    @After
+    public void stop() {
+        server.stop(0);
+        workers.shutdownNow();
+    }
+
+    @Test
+    public void slicesAreChunkedAndAddressableBySeed() throws IOException {
+        HttpURLConnection connection = open("/alumno?seed=5&from=10&count=3");
+        assert (connection.getResponseCode() == 200);
+        assert ("chunked".equals(connection.getHeaderField("Transfer-Encoding")));
+        assert ("13".equals(connection.getHeaderField(ServeData.NEXT_FROM_HEADER)));
+        List<String> page = read(connection);
+        assert (page.size() == 3);
+
+        // An overlapping page returns the same records for the same indexes
+        List<String> overlapping = read(open("/alumno?seed=5&from=8&count=5"));
+        assert (overlapping.subList(2, 5).equals(page));
+        assert (!read(open("/alumno?seed=6&from=10&count=3")).equals(page));
+    }
+
+    @Test
+    public void servesAvro() throws IOException {
+        HttpURLConnection connection = open("/pas?seed=1&count=4&format=avro");
+        assert ("avro/binary".equals(connection.getContentType()));
+        long records = 0;
+        try (InputStream in = connection.getInputStream();
+             DataFileStream<GenericRecord> reader = new DataFileStream<>(in, new GenericDatumReader<>())) {
+            while (reader.hasNext()) {
+                reader.next();
+                records++;
+            }
+        }
+        assert (records == 4);
+    }
+
+    @Test
+    public void rejectsInvalidRequests() throws IOException {
+        assert (open("/profesor").getResponseCode() == 404);
+        assert (open("/alumno?count=51").getResponseCode() == 400);
+        assert (open("/alumno?from=x").getResponseCode() == 400);
+        assert (open("/alumno?format=xml").getResponseCode() == 400);
+    }
+
+    @Test
+    public void cachedSlicesMatchStreamedSlices() throws IOException {
+        SliceCache cache = new SliceCache(1024 * 1024);
+        HttpServer cached = ServeData.start(new InetSocketAddress("127.0.0.1", 0), workers, 50, cache, 10);
+        try {
+            URL url = new URL("http://127.0.0.1:" + cached.getAddress().getPort() + "/alumno?seed=5&from=10&count=3");
+            List<String> first = read((HttpURLConnection) url.openConnection());
+            List<String> second = read((HttpURLConnection) url.openConnection());
+            assert (first.equals(read(open("/alumno?seed=5&from=10&count=3"))));
+            assert (second.equals(first));
+            assert (cache.getMisses() == 1 && cache.getHits() == 1);
+        } finally {
+            cached.stop(0);
+        }
+    }
+
+    private HttpURLConnection open(final String path) throws IOException {
+        URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + path);
+        return (HttpURLConnection) url.openConnection();
+    }
+
+    private static List<String> read(final HttpURLConnection connection) throws IOException {
+        try (InputStream in = connection.getInputStream()) {
+            return IOUtils.readLines(in, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import uk.gov.gchq.syntheticdatagenerator.output.Manifest;
+import uk.gov.gchq.syntheticdatagenerator.utils.Shard;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ShardTest {
+
+    @Test
+    public void shardsTogetherMatchASingleRun() throws IOException, InterruptedException {
+        String[][] formats = {{"ndjson"}, {"json"}, {"csv"}, {"avro"}, {"avro", "--encode-threads=2", "--block-records=4"}};
+        for (String[] format : formats) {
+            File single = Files.createTempDirectory("shard").toFile();
+            File sharded = Files.createTempDirectory("shard").toFile();
+            try {
+                String[] options = Arrays.copyOfRange(format, 1, format.length);
+                // The single run happens in another JVM, where reflection may list properties in another order
+                assert (launch(arguments(single, format[0], options)) == 0);
+                assert (CreateData.run(arguments(sharded, format[0], options, "--shard=0/2")) == 0);
+                assert (CreateData.run(arguments(sharded, format[0], options, "--shard=1/2")) == 0);
+
+                List<String> union = new ArrayList<>(checksums(sharded, Manifest.fileName(Shard.parse("0/2"))));
+                union.addAll(checksums(sharded, Manifest.fileName(Shard.parse("1/2"))));
+                assert (union.equals(checksums(single, Manifest.FILE_NAME))) : format[0];
+                assert (VerifyData.run(sharded.getPath()) == 0);
+            } finally {
+                FileUtils.deleteQuietly(single);
+                FileUtils.deleteQuietly(sharded);
+            }
+        }
+    }
+
+    @Test
+    public void shardingRequiresASeed() {
+        assert (CreateData.run("unused", "21", "ndjson", "5", "alumno", "--shard=0/2") == 1);
+    }
+
+    @Test
+    public void misspelledOrInvalidOptionsAreUsageErrors() {
+        assert (CreateData.run("unused", "21", "ndjson", "5", "alumno", "--seed=7", "--shrad=1/2") == 1);
+        assert (CreateData.run("unused", "21", "ndjson", "5", "alumno", "--seed=7", "--shard=2/2") == 1);
+        assert (CreateData.run("unused", "21", "ndjson", "5", "alumno", "--seed=siete", "--shard=0/2") == 1);
+        assert (CreateData.run("unused", "veintiuno", "ndjson", "5", "alumno") == 1);
+        assert (CreateData.run("unused", "21", "ndjson", "5", "alumno", "--buffer-size=2g") == 1);
+    }
+
+    @Test
+    public void splitSpreadsTheRemainder() {
+        assert (Shard.split(21, 0, 5) == 0);
+        assert (Shard.split(21, 1, 5) == 4);
+        assert (Shard.split(21, 5, 5) == 21);
+        assert (new Shard(1, 2).first(5) == 2 && new Shard(1, 2).end(5) == 5);
+    }
+
+    private static String[] arguments(final File directory, final String format, final String[] options, final String... extra) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(directory.getPath(), "21", format, "5", "alumno", "--seed=9"));
+        arguments.addAll(Arrays.asList(options));
+        arguments.addAll(Arrays.asList(extra));
+        return arguments.toArray(new String[0]);
+    }
+
+    private static int launch(final String... arguments) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(Arrays.asList(new File(new File(System.getProperty("java.home"), "bin"), "java").getPath(),
+                "-cp", System.getProperty("java.class.path"), CreateData.class.getName()));
+        command.addAll(Arrays.asList(arguments));
+        File log = File.createTempFile("shard", ".log");
+        try {
+            return new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start().waitFor();
+        } finally {
+            FileUtils.deleteQuietly(log);
+        }
+    }
+
+    private static List<String> checksums(final File directory, final String manifest) throws IOException {
+        return Manifest.read(new File(directory, manifest)).getFiles().stream()
+                .map(entry -> entry.getFile() + "=" + entry.getRecords() + "=" + entry.getChecksum())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import uk.gov.gchq.syntheticdatagenerator.output.Manifest;
+import uk.gov.gchq.syntheticdatagenerator.output.ManifestEntry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+public class VerifyDataTest {
+
+    @Test
+    public void sameSeedWritesSameFilesAndVerifyDetectsCorruption() throws IOException {
+        File first = Files.createTempDirectory("verify").toFile();
+        File second = Files.createTempDirectory("verify").toFile();
+        try {
+            assert (CreateData.run(first.getPath(), "20", "ndjson", "2", "alumno", "--seed=7") == 0);
+            assert (CreateData.run(second.getPath(), "20", "ndjson", "2", "alumno", "--seed=7") == 0);
+            Manifest manifest = Manifest.read(new File(first, Manifest.FILE_NAME));
+            assert (manifest.getSeed() == 7 && "ndjson".equals(manifest.getFormat()) && manifest.getTotalRecords() == 20);
+            ManifestEntry entry = manifest.getFiles().get(1);
+            assert (entry.getFirstIndex() == 10 && entry.getChecksum() != null);
+            assert (entry.getChecksum().equals(Manifest.read(new File(second, Manifest.FILE_NAME)).getFiles().get(1).getChecksum()));
+
+            assert (VerifyData.run(first.getPath()) == 0);
+            try (RandomAccessFile file = new RandomAccessFile(new File(first, entry.getFile()), "rw")) {
+                file.seek(entry.getBytes() / 2);
+                int b = file.read();
+                file.seek(entry.getBytes() / 2);
+                file.write(b ^ 1);
+            }
+            assert (VerifyData.run(first.getPath()) == 1);
+        } finally {
+            FileUtils.deleteQuietly(first);
+            FileUtils.deleteQuietly(second);
+        }
+    }
+}
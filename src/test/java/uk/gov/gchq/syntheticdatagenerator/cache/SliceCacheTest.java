@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.cache;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import uk.gov.gchq.syntheticdatagenerator.serialise.SerialiserFactory;
+import uk.gov.gchq.syntheticdatagenerator.serialise.Serialisers;
+import uk.gov.gchq.syntheticdatagenerator.types.PersonType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class SliceCacheTest {
+    private static final SerialiserFactory NDJSON = Serialisers.forName("ndjson").get();
+
+    @Test
+    public void repeatedSlicesAreHits() throws IOException {
+        SliceCache cache = new SliceCache(1024 * 1024);
+        ByteBuffer first = cache.get(PersonType.ALUMNO, NDJSON, 3, 10, 5);
+        ByteBuffer second = cache.get(PersonType.ALUMNO, NDJSON, 3, 10, 5);
+        assert (first.equals(second));
+        assert (cache.getMisses() == 1 && cache.getHits() == 1);
+        assert (!first.equals(cache.get(PersonType.ALUMNO, NDJSON, 4, 10, 5)));
+        assert (cache.getMemoryBytes() > first.remaining());
+        // Reading one view moves neither the other views nor the cached bytes
+        first.get(new byte[first.remaining()]);
+        assert (second.equals(cache.get(PersonType.ALUMNO, NDJSON, 3, 10, 5)));
+    }
+
+    @Test
+    public void evictedSlicesAreServedFromDisk() throws IOException {
+        File directory = Files.createTempDirectory("slices").toFile();
+        try {
+            SliceCache sizes = new SliceCache(1024 * 1024);
+            int size = sizes.get(PersonType.PAS, NDJSON, 1, 0, 4).remaining();
+            int nextSize = sizes.get(PersonType.PAS, NDJSON, 1, 4, 4).remaining();
+            // Either slice fits on its own but not both together
+            int capacity = Math.max(size, nextSize) + Math.min(size, nextSize) / 2;
+            SliceCache cache = new SliceCache(capacity, directory, 1024 * 1024);
+            ByteBuffer first = cache.get(PersonType.PAS, NDJSON, 1, 0, 4);
+            cache.get(PersonType.PAS, NDJSON, 1, 4, 4);
+            assert (cache.getEvictions() == 1);
+            assert (cache.getMemoryBytes() <= capacity);
+            assert (first.equals(cache.get(PersonType.PAS, NDJSON, 1, 0, 4)));
+            assert (cache.getDiskHits() == 1 && cache.getMisses() == 2);
+            cache.close();
+            assert (directory.list().length == 0);
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+
+    @Test
+    public void concurrentRequestsGenerateOnce() throws InterruptedException, ExecutionException {
+        SliceCache cache = new SliceCache(1024 * 1024);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<ByteBuffer>> tasks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tasks.add(() -> cache.get(PersonType.ALUMNO, NDJSON, 7, 0, 200));
+            }
+            for (Future<ByteBuffer> slice : executor.invokeAll(tasks)) {
+                assert (slice.get().hasRemaining() && slice.get().isReadOnly());
+            }
+            assert (cache.getMisses() == 1 && cache.getHits() == 7);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
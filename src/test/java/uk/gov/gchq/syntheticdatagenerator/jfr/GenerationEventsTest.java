@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assume;
+import org.junit.Test;
+import uk.gov.gchq.syntheticdatagenerator.CreateData;
+import uk.gov.gchq.syntheticdatagenerator.output.Manifest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class GenerationEventsTest {
+    private static final String PREFIX = "uk.gov.gchq.syntheticdatagenerator.";
+
+    @Test
+    public void fineGrainedEventsAreRecordedOnlyWhenEnabled() throws IOException, ParseException {
+        File directory = Files.createTempDirectory("jfr").toFile();
+        try {
+            Map<String, Integer> defaults = record(directory, false);
+            assert (defaults.get("FileWrite") == 2);
+            assert (defaults.get("BufferWrite") >= 2);
+            assert (!defaults.containsKey("RecordGeneration") && !defaults.containsKey("FieldGeneration"));
+
+            Map<String, Integer> detailed = record(directory, true);
+            assert (detailed.get("RecordGeneration") == 100);
+            assert (detailed.get("RecordSerialise") == 100);
+            // Every record generates each of its 17 fields
+            assert (detailed.get("FieldGeneration") == 100 * 17);
+            assert (detailed.get("field:profesor") == 100 && detailed.get("field:name") == 100);
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+
+    @Test
+    public void generationRunsWithoutFlightRecorder() throws IOException, InterruptedException {
+        // Hiding jdk.jfr from a newer JVM stands in for a Java 8 runtime without Flight Recorder
+        Assume.assumeFalse(System.getProperty("java.specification.version").startsWith("1."));
+        File directory = Files.createTempDirectory("nojfr").toFile();
+        try {
+            File java = new File(new File(System.getProperty("java.home"), "bin"), "java");
+            File data = new File(directory, "data");
+            Process process = new ProcessBuilder(Arrays.asList(java.getPath(),
+                    "--limit-modules", "java.base,java.logging,java.sql,java.management,java.naming,java.xml,java.desktop,jdk.unsupported",
+                    "-cp", System.getProperty("java.class.path"), CreateData.class.getName(),
+                    data.getPath(), "100", "ndjson", "2", "alumno", "2", "--compress", "--seed=1"))
+                    .redirectErrorStream(true)
+                    .redirectOutput(new File(directory, "output.log"))
+                    .start();
+            assert (process.waitFor() == 0);
+            assert (new File(data, Manifest.FILE_NAME).isFile());
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+
+    private static Map<String, Integer> record(final File directory, final boolean detailed) throws IOException, ParseException {
+        File dump = new File(directory, "recording.jfr");
+        // The default configuration leaves the events of this project at the settings of their annotations
+        try (Recording recording = new Recording(Configuration.getConfiguration("default"))) {
+            if (detailed) {
+                for (String event : new String[]{"RecordGeneration", "FieldGeneration", "RecordSerialise"}) {
+                    recording.enable(PREFIX + event).withThreshold(Duration.ZERO);
+                }
+            }
+            recording.start();
+            assert (CreateData.run(new File(directory, "data").getPath(), "100", "ndjson", "2", "alumno", "2", "--seed=1", "--buffer-size=4k") == 0);
+            recording.stop();
+            recording.dump(dump.toPath());
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump.toPath());
+        Map<String, Integer> counts = new HashMap<>();
+        for (RecordedEvent event : events) {
+            String name = event.getEventType().getName();
+            if (name.startsWith(PREFIX)) {
+                counts.merge(name.substring(PREFIX.length()), 1, Integer::sum);
+                if (event.hasField("field")) {
+                    counts.merge("field:" + event.getString("field"), 1, Integer::sum);
+                }
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import uk.gov.gchq.syntheticdatagenerator.CreateData;
+import uk.gov.gchq.syntheticdatagenerator.output.Manifest;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class MetricsTest {
+
+    @Test
+    public void histogramQuantilesAreWithinThreePercent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(1);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 20);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double quantile : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            long exact = values[(int) Math.ceil(quantile * values.length) - 1];
+            assert (Math.abs(histogram.quantile(quantile) - exact) <= exact * 0.035 + 1);
+        }
+        assert (histogram.getCount() == values.length && histogram.getMax() == values[values.length - 1]);
+        assert (histogram.quantile(1.0) == histogram.getMax());
+    }
+
+    @Test
+    public void reportCountsTheRecordsAndBytesOfTheRun() throws Exception {
+        File directory = Files.createTempDirectory("metrics").toFile();
+        try {
+            File data = new File(directory, "data");
+            File report = new File(directory, "metrics.jsonl");
+            assert (CreateData.run(data.getPath(), "500", "ndjson", "2", "pas", "2", "--seed=4", "--metrics=" + report.getPath()) == 0);
+            List<String> lines = FileUtils.readLines(report, StandardCharsets.UTF_8);
+            JsonNode metrics = new ObjectMapper().readTree(lines.get(lines.size() - 1)).get("metrics");
+            long bytes = 0;
+            for (File file : data.listFiles((dir, name) -> name.endsWith(".ndjson") && !Manifest.isManifest(name))) {
+                bytes += file.length();
+                assert (metrics.get(MetricsRegistry.tagged(MetricsRegistry.BYTES_WRITTEN, file.getName())).asLong() == file.length());
+            }
+            assert (metrics.get(MetricsRegistry.RECORDS_GENERATED).asLong() == 500);
+            assert (metrics.get(MetricsRegistry.RECORDS_WRITTEN).asLong() == 500);
+            assert (metrics.get(MetricsRegistry.BYTES_WRITTEN).asLong() == bytes);
+            assert (metrics.get(MetricsRegistry.GENERATE_LATENCY + ".count").asLong() == 500);
+            assert (metrics.get(MetricsRegistry.BLOCK_WRITE_LATENCY + ".count").asLong() >= 2);
+            assert (metrics.has("jvm.gc.time") && metrics.has("queue.io"));
+        } finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+
+    @Test
+    public void mbeanPublishesTheRegistry() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter(MetricsRegistry.RECORDS_WRITTEN).add(42);
+        registry.histogram(MetricsRegistry.GENERATE_LATENCY).record(1_000);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(MetricsMBean.DEFAULT_NAME);
+        Closeable registration = MetricsMBean.register(registry, MetricsMBean.DEFAULT_NAME);
+        try {
+            assert (((Number) server.getAttribute(name, MetricsRegistry.RECORDS_WRITTEN)).longValue() == 42);
+            assert (((Number) server.getAttribute(name, MetricsRegistry.GENERATE_LATENCY + ".p50")).longValue() == 1_000);
+        } finally {
+            registration.close();
+        }
+        assert (!server.isRegistered(name));
+    }
+}
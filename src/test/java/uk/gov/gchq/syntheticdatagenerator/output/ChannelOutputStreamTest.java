@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ChannelOutputStreamTest {
+
+    @Test
+    public void doubleBufferedWritesArriveInOrderAndPreallocationIsTrimmed() throws IOException {
+        byte[] data = new byte[50_000];
+        new Random(0).nextBytes(data);
+        File file = File.createTempFile("channel", ".bin");
+        ExecutorService io = Executors.newSingleThreadExecutor();
+        try {
+            try (OutputStream out = new ChannelOutputStream(file, io, 1000, SyncPolicy.every(4096), 1_000_000)) {
+                out.write(data, 0, 123);
+                out.flush();
+                out.write(data[123]);
+                out.write(data, 124, data.length - 124);
+            }
+            assert (file.length() == data.length);
+            assert (Arrays.equals(data, FileUtils.readFileToByteArray(file)));
+        } finally {
+            io.shutdownNow();
+            FileUtils.deleteQuietly(file);
+        }
+    }
+
+    @Test
+    public void syncPolicyParsesCommandLineValues() {
+        assert (SyncPolicy.parse("none") == SyncPolicy.NONE);
+        assert (SyncPolicy.parse("close").isSyncOnClose());
+        assert (SyncPolicy.parse("64m").shouldSync(64L * 1024 * 1024));
+        assert (!SyncPolicy.parse("64m").shouldSync(1024));
+    }
+}
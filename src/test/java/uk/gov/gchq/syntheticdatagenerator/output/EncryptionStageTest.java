@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class EncryptionStageTest {
+    private static final byte[] KEY = new byte[32];
+
+    @Test
+    public void parallelChunksDecryptToTheOriginalData() throws IOException {
+        byte[] data = new byte[10_000];
+        new Random(0).nextBytes(data);
+        // 10000 is a multiple of the chunk size, so the last chunk is empty
+        for (int length : new int[]{0, 999, data.length}) {
+            byte[] plain = Arrays.copyOf(data, length);
+            assert (Arrays.equals(plain, decrypt(encrypt(plain))));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedFileFailsAuthentication() throws IOException {
+        byte[] encrypted = encrypt(new byte[5_000]);
+        decrypt(Arrays.copyOf(encrypted, ChunkedGcm.HEADER_SIZE + 2 * (1000 + ChunkedGcm.TAG_SIZE)));
+    }
+
+    @Test(expected = IOException.class)
+    public void tamperedChunkFailsAuthentication() throws IOException {
+        byte[] encrypted = encrypt(new byte[5_000]);
+        encrypted[encrypted.length / 2] ^= 1;
+        decrypt(encrypted);
+    }
+
+    @Test(expected = IOException.class)
+    public void oversizedChunkInTheHeaderIsRejectedBeforeAllocating() throws IOException {
+        byte[] encrypted = encrypt(new byte[5_000]);
+        // The chunk size follows the magic and the version
+        ByteBuffer.wrap(encrypted).putInt(5, Integer.MAX_VALUE);
+        decrypt(encrypted);
+    }
+
+    private static byte[] encrypt(final byte[] plain) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+            try (OutputStream out = new EncryptionStage(KEY, executor, 1000, 4).wrap(encrypted)) {
+                out.write(plain, 0, plain.length / 2);
+                out.flush();
+                out.write(plain, plain.length / 2, plain.length - plain.length / 2);
+            }
+            return encrypted.toByteArray();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[] decrypt(final byte[] encrypted) throws IOException {
+        try (InputStream in = new DecryptInputStream(new ByteArrayInputStream(encrypted), KEY)) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+}
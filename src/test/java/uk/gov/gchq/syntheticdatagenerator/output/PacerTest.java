@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package uk.gov.gchq.syntheticdatagenerator.output;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+public class PacerTest {
+
+    @Test
+    public void recordsArePacedAtTheTargetRate() throws IOException {
+        Pacer pacer = new Pacer(200, 0, 0);
+        long start = System.nanoTime();
+        // The schedule starts with the first record, so 41 records at 200/s take at least 200ms
+        for (int i = 0; i < 41; i++) {
+            pacer.paceRecord(() -> { });
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assert (elapsed >= 195);
+        assert (pacer.getRecords() == 41);
+    }
+
+    @Test
+    public void bytesArePacedAtTheTargetRate() throws IOException {
+        Pacer pacer = new Pacer(0, 100 * 1024, 0);
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        long start = System.nanoTime();
+        try (OutputStream out = pacer.wrap(sink)) {
+            out.write(new byte[30 * 1024]);
+            out.write(new byte[20 * 1024 + 1]);
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assert (sink.size() == 50 * 1024 + 1);
+        assert (pacer.getBytes() == sink.size());
+        // The first 16 KiB slice goes at once and the last one is scheduled after 46 KiB, at 460ms
+        assert (elapsed >= 450);
+    }
+
+    @Test
+    public void ratesChangeFromAControlFile() {
+        Pacer pacer = new Pacer(10, 0, 0);
+        Properties control = new Properties();
+        control.setProperty(Pacer.RATE_KEY, "250");
+        control.setProperty(Pacer.BYTE_RATE_KEY, "2m");
+        assert (pacer.update(control));
+        assert (pacer.getRecordRate() == 250);
+        assert (pacer.getByteRate() == 2 * 1024 * 1024);
+        assert (!pacer.update(control));
+    }
+
+    @Test
+    public void stopsAfterTheDuration() throws InterruptedException {
+        Pacer pacer = new Pacer(0, 0, 50);
+        assert (!pacer.isStopped());
+        Thread.sleep(60);
+        assert (pacer.isStopped());
+        Pacer unlimited = new Pacer(0, 0, 0);
+        unlimited.stop();
+        assert (unlimited.isStopped());
+    }
+}
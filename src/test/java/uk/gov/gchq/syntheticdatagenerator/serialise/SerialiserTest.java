@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.serialise;
+
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Test;
+import uk.gov.gchq.syntheticdatagenerator.types.Alumno;
+import uk.gov.gchq.syntheticdatagenerator.types.Person;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+public class SerialiserTest {
+
+    @Test
+    public void registryFindsBuiltInFormats() {
+        assert (Serialisers.forName("-avro").get() instanceof AvroSerialiserFactory);
+        assert (Serialisers.forName("json").get() instanceof JSONSerialiserFactory);
+        assert (Serialisers.forFileName("person_alumno_file0.avro").get() instanceof AvroSerialiserFactory);
+        assert (!Serialisers.forName("-xml").isPresent());
+    }
+
+    @Test
+    public void avroBatchWriteRoundTrip() throws IOException {
+        Random random = new Random(0);
+        List<Person> alumnos = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            alumnos.add(Alumno.generate(random));
+        }
+        Serialiser<Person> serialiser = Serialisers.forName("avro").get().create(Alumno.class);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (RecordWriter<Person> writer = serialiser.open(out)) {
+            writer.write(alumnos.subList(0, 5));
+            writer.write(alumnos.subList(5, 10).iterator());
+        }
+        List<String> uids = new ArrayList<>();
+        try (DataFileStream<GenericRecord> in = new DataFileStream<>(new ByteArrayInputStream(out.toByteArray()), new GenericDatumReader<>())) {
+            in.forEach(record -> uids.add(record.get("uid").toString()));
+        }
+        assert (uids.equals(alumnos.stream().map(Person::getUid).collect(Collectors.toList())));
+    }
+
+    @Test
+    public void parallelAvroBlocksAreReadableInOrder() throws IOException {
+        Random random = new Random(0);
+        List<Person> alumnos = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            alumnos.add(Alumno.generate(random));
+        }
+        ExecutorService encoders = Executors.newFixedThreadPool(3);
+        try {
+            SerialiserOptions options = new SerialiserOptions();
+            options.setEncoderExecutor(encoders);
+            options.setBlockRecords(4);
+            options.setMaxInFlight(3);
+            options.setCodec("deflate");
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Serialisers.forName("avro").get().<Person>create(Alumno.class, options).serialise(alumnos.stream(), out);
+            List<String> uids = new ArrayList<>();
+            int blocks = 0;
+            try (DataFileStream<GenericRecord> in = new DataFileStream<>(new ByteArrayInputStream(out.toByteArray()), new GenericDatumReader<>())) {
+                assert ("deflate".equals(in.getMetaString("avro.codec")));
+                while (in.hasNext()) {
+                    blocks++;
+                    for (long remaining = in.getBlockCount(); remaining > 0; remaining--) {
+                        uids.add(in.next().get("uid").toString());
+                    }
+                }
+            }
+            assert (blocks == 7);
+            assert (uids.equals(alumnos.stream().map(Person::getUid).collect(Collectors.toList())));
+        } finally {
+            encoders.shutdownNow();
+        }
+    }
+
+    @Test
+    public void ndjsonAndCsvWriteOneLinePerRecord() throws IOException {
+        Random random = new Random(0);
+        List<Person> alumnos = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            alumnos.add(Alumno.generate(random));
+        }
+        String ndjson = write("ndjson", alumnos);
+        assert (ndjson.split("\n").length == 3 && ndjson.endsWith("}\n"));
+        String[] csv = write("csv", alumnos).split("\r\n");
+        assert (csv.length == 4 && csv[0].startsWith("uid,name,"));
+        assert (csv[1].startsWith(alumnos.get(0).getUid() + ","));
+    }
+
+    @Test
+    public void fieldsLimitTheOutputOfEveryFormat() throws IOException {
+        List<Person> alumnos = new ArrayList<>();
+        alumnos.add(Alumno.generate(new Random(0)));
+        SerialiserOptions options = new SerialiserOptions();
+        options.setFields(Arrays.asList("uid", "campus"));
+        assert (write("ndjson", alumnos, options).startsWith("{\"uid\":\"" + alumnos.get(0).getUid() + "\",\"campus\":"));
+        assert (write("json", alumnos, options).split("\"uid\"|\"campus\"|\"name\"").length == 3);
+        assert (write("csv", alumnos, options).startsWith("uid,campus\r\n"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Serialisers.forName("avro").get().<Person>create(Alumno.class, options).serialise(alumnos.stream(), out);
+        try (DataFileStream<GenericRecord> in = new DataFileStream<>(new ByteArrayInputStream(out.toByteArray()), new GenericDatumReader<>())) {
+            GenericRecord record = in.next();
+            assert (record.getSchema().getFields().size() == 2);
+            assert (record.get("uid").toString().equals(alumnos.get(0).getUid()));
+        }
+    }
+
+    private static String write(final String format, final List<Person> persons) throws IOException {
+        return write(format, persons, new SerialiserOptions());
+    }
+
+    private static String write(final String format, final List<Person> persons, final SerialiserOptions options) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Serialisers.forName(format).get().<Person>create(Alumno.class, options).serialise(persons.stream(), out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
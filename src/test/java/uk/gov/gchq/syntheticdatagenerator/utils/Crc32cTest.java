@@ -0,0 +1,44 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.utils;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.Checksum;
+
+public class Crc32cTest {
+
+    @Test
+    public void pureJavaMatchesTheStandardCheckValueAndTheJdk() {
+        byte[] check = "123456789".getBytes(StandardCharsets.US_ASCII);
+        Crc32c crc = new Crc32c();
+        crc.update(check, 0, check.length);
+        assert (crc.getValue() == 0xE3069283L);
+
+        byte[] data = new byte[10_007];
+        new Random(0).nextBytes(data);
+        Checksum expected = Crc32c.create();
+        expected.update(data, 0, data.length);
+        crc.reset();
+        crc.update(data, 0, 3);
+        crc.update(data[3]);
+        crc.update(data, 4, data.length - 4);
+        assert (crc.getValue() == expected.getValue());
+    }
+}
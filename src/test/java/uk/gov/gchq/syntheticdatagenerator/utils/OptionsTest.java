@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018-2021 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.syntheticdatagenerator.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class OptionsTest {
+
+    @Test
+    public void optionsGoAnywhereAndTheRestArePositional() {
+        Options options = Options.parse(Arrays.asList("seed", "stream"), "out", "--seed=7", "10", "--stream");
+        assert (Arrays.equals(options.getPositional(), new String[]{"out", "10"}));
+        assert (options.getLong("seed", 0L) == 7L && options.has("stream") && options.getString("stream", "-").isEmpty());
+        assert (Options.parseBytes("256m") == 256L * 1024 * 1024 && Options.parseBytes("2KiB") == 2048L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownOptionsAreRejected() {
+        Options.parse(Collections.singletonList("shard"), "--shrad=1/2");
+    }
+
+    @Test
+    public void bufferSizesMustFitInAnInt() {
+        Options options = Options.parse(Arrays.asList("buffer-size", "compress-block"), "--buffer-size=2g", "--compress-block=0");
+        assert (Options.parse(Collections.singletonList("buffer-size"), "--buffer-size=1g").getIntBytes("buffer-size", 1) == 1 << 30);
+        assert (options.getIntBytes("encrypt-chunk", 64) == 64);
+        for (String name : Arrays.asList("buffer-size", "compress-block")) {
+            try {
+                options.getIntBytes(name, 1);
+                assert (false);
+            } catch (IllegalArgumentException e) {
+                assert (e.getMessage().contains("--" + name));
+            }
+        }
+    }
+
+    @Test
+    public void invalidNumbersNameTheOption() {
+        Options options = Options.parse(Arrays.asList("seed", "buffer-size"), "--seed=siete", "--buffer-size=9999999999g");
+        try {
+            options.getLong("seed", 0L);
+            assert (false);
+        } catch (IllegalArgumentException e) {
+            assert (e.getMessage().contains("--seed"));
+        }
+        try {
+            options.getBytes("buffer-size", 0L);
+            assert (false);
+        } catch (IllegalArgumentException e) {
+            assert (e.getMessage().contains("--buffer-size"));
+        }
+    }
+}